@@ -0,0 +1,221 @@
+package com.mintstack.finance.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Binary layout of one cached type for {@link CompactRedisSerializer}.
+ *
+ * A codec writes its fields in a fixed order through a {@link FieldWriter} and reads them back in the same
+ * order. {@link #typeId()} is stored with every payload and must never be reused for another type. Adding,
+ * removing or reordering fields requires a new {@link #version()}; {@link #read} receives the version the
+ * payload was written with and must keep accepting every earlier one.
+ */
+public interface CompactCodec<T> {
+
+    int typeId();
+
+    int version();
+
+    Class<T> type();
+
+    void write(FieldWriter out, T value) throws IOException;
+
+    T read(FieldReader in, int version) throws IOException;
+
+    /**
+     * Writes nullable fields behind a presence bitmap. Numbers use fixed widths: a decimal is a scale byte
+     * plus an 8-byte unscaled value, a timestamp is epoch seconds plus nanos.
+     */
+    final class FieldWriter {
+
+        static final int MAX_FIELDS = 32;
+
+        // Scale marker for decimals whose unscaled value or scale does not fit the fixed layout
+        static final byte WIDE_DECIMAL = Byte.MIN_VALUE;
+
+        private final DataOutput out;
+        private final FieldBuffer body = new FieldBuffer();
+        private int presence;
+        private int index;
+
+        FieldWriter(DataOutput out) {
+            this.out = out;
+        }
+
+        public FieldWriter string(String value) throws IOException {
+            if (present(value)) {
+                body.data().writeUTF(value);
+            }
+            return this;
+        }
+
+        public FieldWriter decimal(BigDecimal value) throws IOException {
+            if (present(value)) {
+                BigInteger unscaled = value.unscaledValue();
+                int scale = value.scale();
+                if (unscaled.bitLength() < Long.SIZE && scale > WIDE_DECIMAL && scale <= Byte.MAX_VALUE) {
+                    body.data().writeByte(scale);
+                    body.data().writeLong(unscaled.longValue());
+                } else {
+                    byte[] bytes = unscaled.toByteArray();
+                    body.data().writeByte(WIDE_DECIMAL);
+                    body.data().writeInt(scale);
+                    body.data().writeShort(bytes.length);
+                    body.data().write(bytes);
+                }
+            }
+            return this;
+        }
+
+        public FieldWriter dateTime(LocalDateTime value) throws IOException {
+            if (present(value)) {
+                body.data().writeLong(value.toEpochSecond(ZoneOffset.UTC));
+                body.data().writeInt(value.getNano());
+            }
+            return this;
+        }
+
+        public FieldWriter int64(Long value) throws IOException {
+            if (present(value)) {
+                body.data().writeLong(value);
+            }
+            return this;
+        }
+
+        public FieldWriter int32(Integer value) throws IOException {
+            if (present(value)) {
+                body.data().writeInt(value);
+            }
+            return this;
+        }
+
+        public FieldWriter bool(Boolean value) throws IOException {
+            if (present(value)) {
+                body.data().writeBoolean(value);
+            }
+            return this;
+        }
+
+        public FieldWriter uuid(UUID value) throws IOException {
+            if (present(value)) {
+                body.data().writeLong(value.getMostSignificantBits());
+                body.data().writeLong(value.getLeastSignificantBits());
+            }
+            return this;
+        }
+
+        void finish() throws IOException {
+            out.writeInt(presence);
+            body.writeTo(out);
+            body.reset();
+            presence = 0;
+            index = 0;
+        }
+
+        private boolean present(Object value) {
+            if (index >= MAX_FIELDS) {
+                throw new IllegalStateException("Compact codec supports at most " + MAX_FIELDS + " fields");
+            }
+            boolean present = value != null;
+            if (present) {
+                presence |= 1 << index;
+            }
+            index++;
+            return present;
+        }
+    }
+
+    /**
+     * Reads fields written by {@link FieldWriter}, in the same order.
+     */
+    final class FieldReader {
+
+        private final DataInput in;
+        private int presence;
+        private int index;
+
+        FieldReader(DataInput in) {
+            this.in = in;
+        }
+
+        void begin() throws IOException {
+            presence = in.readInt();
+            index = 0;
+        }
+
+        public String string() throws IOException {
+            return present() ? in.readUTF() : null;
+        }
+
+        public BigDecimal decimal() throws IOException {
+            if (!present()) {
+                return null;
+            }
+            byte scale = in.readByte();
+            if (scale != FieldWriter.WIDE_DECIMAL) {
+                return BigDecimal.valueOf(in.readLong(), scale);
+            }
+            int wideScale = in.readInt();
+            byte[] bytes = new byte[in.readUnsignedShort()];
+            in.readFully(bytes);
+            return new BigDecimal(new BigInteger(bytes), wideScale);
+        }
+
+        public LocalDateTime dateTime() throws IOException {
+            if (!present()) {
+                return null;
+            }
+            long seconds = in.readLong();
+            return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+        }
+
+        public Long int64() throws IOException {
+            return present() ? in.readLong() : null;
+        }
+
+        public Integer int32() throws IOException {
+            return present() ? in.readInt() : null;
+        }
+
+        public Boolean bool() throws IOException {
+            return present() ? in.readBoolean() : null;
+        }
+
+        public UUID uuid() throws IOException {
+            if (!present()) {
+                return null;
+            }
+            long most = in.readLong();
+            return new UUID(most, in.readLong());
+        }
+
+        private boolean present() {
+            return (presence & (1 << index++)) != 0;
+        }
+    }
+
+    /**
+     * Reusable scratch buffer for one record's field values.
+     */
+    final class FieldBuffer extends ByteArrayOutputStream {
+
+        private final DataOutputStream data = new DataOutputStream(this);
+
+        DataOutputStream data() {
+            return data;
+        }
+
+        void writeTo(DataOutput target) throws IOException {
+            target.write(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.mintstack.finance.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis value serializer that writes registered types, and lists of a single registered type, in the compact
+ * binary layout of their {@link CompactCodec}; anything else goes through the fallback (Jackson) serializer.
+ *
+ * Payload header: a marker byte that JSON never starts with, then the type id and schema version. Lists use
+ * type id 0 followed by the element type id, element version and count. Values without the marker are
+ * handed to the fallback, so entries written before the codec was enabled stay readable. A payload with an
+ * unknown type or a newer schema version than this node knows decodes to {@code null}, i.e. a cache miss.
+ *
+ * Decoding is always on, but compact writes only happen with {@code writeCompact}; with it off every value is
+ * written by the fallback. That lets a release that understands the layout roll out to every node before any
+ * node starts writing it, since older nodes cannot read marked payloads.
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MARKER = (byte) 0xC5;
+    static final int LIST_TYPE_ID = 0;
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean writeCompact;
+    private final Map<Class<?>, CompactCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Integer, CompactCodec<?>> codecsById = new HashMap<>();
+
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, Collection<? extends CompactCodec<?>> codecs) {
+        this(fallback, codecs, true);
+    }
+
+    public CompactRedisSerializer(RedisSerializer<Object> fallback,
+                                  Collection<? extends CompactCodec<?>> codecs,
+                                  boolean writeCompact) {
+        this.fallback = fallback;
+        this.writeCompact = writeCompact;
+        for (CompactCodec<?> codec : codecs) {
+            if (codec.typeId() <= LIST_TYPE_ID || codec.typeId() > 0xFF || codecsById.containsKey(codec.typeId())) {
+                throw new IllegalArgumentException("Invalid or duplicate compact codec type id: " + codec.typeId());
+            }
+            codecsByType.put(codec.type(), codec);
+            codecsById.put(codec.typeId(), codec);
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || !writeCompact) {
+            return fallback.serialize(value);
+        }
+        CompactCodec<Object> codec = codecFor(value);
+        CompactCodec<Object> elementCodec = codec == null && value instanceof List<?> list ? elementCodecFor(list) : null;
+        if (codec == null && elementCodec == null) {
+            return fallback.serialize(value);
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            CompactCodec.FieldWriter writer = new CompactCodec.FieldWriter(out);
+            out.writeByte(MARKER);
+            if (codec != null) {
+                writeHeader(out, codec);
+                codec.write(writer, value);
+                writer.finish();
+            } else {
+                List<?> list = (List<?>) value;
+                out.writeByte(LIST_TYPE_ID);
+                writeHeader(out, elementCodec);
+                out.writeInt(list.size());
+                for (Object element : list) {
+                    elementCodec.write(writer, element);
+                    writer.finish();
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write compact payload for " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MARKER) {
+            return fallback.deserialize(bytes);
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+            CompactCodec.FieldReader reader = new CompactCodec.FieldReader(in);
+            int typeId = in.readUnsignedByte();
+            boolean list = typeId == LIST_TYPE_ID;
+            if (list) {
+                typeId = in.readUnsignedByte();
+            }
+            int version = in.readUnsignedByte();
+            CompactCodec<?> codec = codecsById.get(typeId);
+            if (codec == null || version > codec.version()) {
+                log.debug("Skipping compact cache payload with unknown type {} or version {}", typeId, version);
+                return null;
+            }
+            if (!list) {
+                return readOne(codec, reader, version);
+            }
+            int size = in.readInt();
+            List<Object> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readOne(codec, reader, version));
+            }
+            return values;
+        } catch (IOException e) {
+            throw new SerializationException("Could not read compact payload", e);
+        }
+    }
+
+    private static Object readOne(CompactCodec<?> codec, CompactCodec.FieldReader reader, int version) throws IOException {
+        reader.begin();
+        return codec.read(reader, version);
+    }
+
+    private static void writeHeader(DataOutputStream out, CompactCodec<?> codec) throws IOException {
+        out.writeByte(codec.typeId());
+        out.writeByte(codec.version());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompactCodec<Object> codecFor(Object value) {
+        return (CompactCodec<Object>) codecsByType.get(value.getClass());
+    }
+
+    private CompactCodec<Object> elementCodecFor(List<?> list) {
+        if (list.isEmpty() || list.get(0) == null) {
+            return null;
+        }
+        CompactCodec<Object> codec = codecFor(list.get(0));
+        if (codec == null) {
+            return null;
+        }
+        for (Object element : list) {
+            if (element == null || element.getClass() != codec.type()) {
+                return null;
+            }
+        }
+        return codec;
+    }
+}
@@ -0,0 +1,221 @@
+package com.mintstack.finance.config;
+
+import com.mintstack.finance.dto.cache.CurrencyRateData;
+import com.mintstack.finance.dto.cache.IndexData;
+import com.mintstack.finance.dto.cache.StockPriceData;
+import com.mintstack.finance.dto.response.CurrencyRateResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compact layouts of the price payloads kept in Redis: the simulation price hashes and the cached
+ * currency rate lists. Type ids are persisted with the data and must stay stable.
+ */
+public final class PriceCacheCodecs {
+
+    private PriceCacheCodecs() {
+    }
+
+    public static List<CompactCodec<?>> defaults() {
+        return List.of(new StockPriceCodec(), new CurrencyRateCodec(), new IndexCodec(), new CurrencyRateResponseCodec());
+    }
+
+    static final class StockPriceCodec implements CompactCodec<StockPriceData> {
+
+        @Override
+        public int typeId() {
+            return 1;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<StockPriceData> type() {
+            return StockPriceData.class;
+        }
+
+        @Override
+        public void write(FieldWriter out, StockPriceData value) throws IOException {
+            out.string(value.getSymbol())
+                .string(value.getName())
+                .decimal(value.getPrice())
+                .decimal(value.getOpen())
+                .decimal(value.getHigh())
+                .decimal(value.getLow())
+                .int64(value.getVolume())
+                .decimal(value.getChangePercent())
+                .string(value.getSector())
+                .dateTime(value.getTimestamp())
+                .decimal(value.getPreviousClose());
+        }
+
+        @Override
+        public StockPriceData read(FieldReader in, int version) throws IOException {
+            return StockPriceData.builder()
+                .symbol(in.string())
+                .name(in.string())
+                .price(in.decimal())
+                .open(in.decimal())
+                .high(in.decimal())
+                .low(in.decimal())
+                .volume(in.int64())
+                .changePercent(in.decimal())
+                .sector(in.string())
+                .timestamp(in.dateTime())
+                .previousClose(in.decimal())
+                .build();
+        }
+    }
+
+    static final class CurrencyRateCodec implements CompactCodec<CurrencyRateData> {
+
+        @Override
+        public int typeId() {
+            return 2;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<CurrencyRateData> type() {
+            return CurrencyRateData.class;
+        }
+
+        @Override
+        public void write(FieldWriter out, CurrencyRateData value) throws IOException {
+            out.string(value.getCode())
+                .string(value.getName())
+                .decimal(value.getBuyingRate())
+                .decimal(value.getSellingRate())
+                .decimal(value.getMidRate())
+                .dateTime(value.getTimestamp());
+        }
+
+        @Override
+        public CurrencyRateData read(FieldReader in, int version) throws IOException {
+            return CurrencyRateData.builder()
+                .code(in.string())
+                .name(in.string())
+                .buyingRate(in.decimal())
+                .sellingRate(in.decimal())
+                .midRate(in.decimal())
+                .timestamp(in.dateTime())
+                .build();
+        }
+    }
+
+    static final class IndexCodec implements CompactCodec<IndexData> {
+
+        @Override
+        public int typeId() {
+            return 3;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<IndexData> type() {
+            return IndexData.class;
+        }
+
+        @Override
+        public void write(FieldWriter out, IndexData value) throws IOException {
+            out.string(value.getSymbol())
+                .string(value.getName())
+                .decimal(value.getValue())
+                .decimal(value.getChangePercent())
+                .decimal(value.getPreviousClose())
+                .dateTime(value.getTimestamp());
+        }
+
+        @Override
+        public IndexData read(FieldReader in, int version) throws IOException {
+            return IndexData.builder()
+                .symbol(in.string())
+                .name(in.string())
+                .value(in.decimal())
+                .changePercent(in.decimal())
+                .previousClose(in.decimal())
+                .timestamp(in.dateTime())
+                .build();
+        }
+    }
+
+    static final class CurrencyRateResponseCodec implements CompactCodec<CurrencyRateResponse> {
+
+        @Override
+        public int typeId() {
+            return 10;
+        }
+
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public Class<CurrencyRateResponse> type() {
+            return CurrencyRateResponse.class;
+        }
+
+        @Override
+        public void write(FieldWriter out, CurrencyRateResponse value) throws IOException {
+            out.uuid(value.getId())
+                .string(value.getCurrencyCode())
+                .string(value.getCurrencyName())
+                .decimal(value.getBuyingRate())
+                .decimal(value.getSellingRate())
+                .decimal(value.getEffectiveBuyingRate())
+                .decimal(value.getEffectiveSellingRate())
+                .decimal(value.getAverageRate())
+                .decimal(value.getChangePercent())
+                .decimal(value.getChangeBaseRate())
+                .dateTime(value.getChangeStartAt())
+                .dateTime(value.getChangeEndAt())
+                .string(value.getSource())
+                .dateTime(value.getFetchedAt())
+                .dateTime(value.getRateDate())
+                .decimal(value.getOpen())
+                .decimal(value.getHigh())
+                .decimal(value.getLow())
+                .decimal(value.getClose())
+                .int32(value.getSamples());
+        }
+
+        @Override
+        public CurrencyRateResponse read(FieldReader in, int version) throws IOException {
+            return CurrencyRateResponse.builder()
+                .id(in.uuid())
+                .currencyCode(in.string())
+                .currencyName(in.string())
+                .buyingRate(in.decimal())
+                .sellingRate(in.decimal())
+                .effectiveBuyingRate(in.decimal())
+                .effectiveSellingRate(in.decimal())
+                .averageRate(in.decimal())
+                .changePercent(in.decimal())
+                .changeBaseRate(in.decimal())
+                .changeStartAt(in.dateTime())
+                .changeEndAt(in.dateTime())
+                .source(in.string())
+                .fetchedAt(in.dateTime())
+                .rateDate(in.dateTime())
+                .open(in.decimal())
+                .high(in.decimal())
+                .low(in.decimal())
+                .close(in.decimal())
+                .samples(in.int32())
+                .build();
+        }
+    }
+}
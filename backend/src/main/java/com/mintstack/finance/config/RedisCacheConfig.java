@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.annotation.EnableCaching;
@@ -15,8 +16,10 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -28,6 +31,9 @@ import java.util.Map;
  *
  * SECURITY: Uses a strict PolymorphicTypeValidator to prevent
  * deserialization attacks through cached data.
+ *
+ * Redis is the shared L2; {@link TwoTierCacheManager} puts a bounded Caffeine L1 in front of it on each
+ * node and keeps the L1s coherent over Redis pub/sub.
  */
 @Configuration
 @EnableCaching
@@ -49,9 +55,6 @@ public class RedisCacheConfig {
     @Value("${app.cache.news-ttl:600}")
     private long newsTtlSeconds;
 
-    @Value("${app.cache.portfolio-ttl:120}")
-    private long portfolioTtlSeconds;
-
     @Value("${app.cache.users-ttl:600}")
     private long usersTtlSeconds;
 
@@ -64,6 +67,15 @@ public class RedisCacheConfig {
     @Value("${app.cache.default-ttl:300}")
     private long defaultTtlSeconds;
 
+    @Value("${app.cache.local.max-entries:10000}")
+    private long localMaxEntries;
+
+    @Value("${app.cache.local.ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${app.cache.compact-codec.enabled:false}")
+    private boolean compactCodecEnabled;
+
     /**
      * Creates a secure PolymorphicTypeValidator for cache serialization.
      *
@@ -89,9 +101,11 @@ public class RedisCacheConfig {
 
     @Bean
     @Primary
-    public RedisCacheManager cacheManager(
+    public TwoTierCacheManager cacheManager(
             RedisConnectionFactory connectionFactory,
-            PolymorphicTypeValidator secureCacheTypeValidator) {
+            PolymorphicTypeValidator secureCacheTypeValidator,
+            ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+            SingleFlight singleFlight) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -104,57 +118,54 @@ public class RedisCacheConfig {
         );
 
         GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        RedisSerializer<Object> valueSerializer =
+                new CompactRedisSerializer(jsonSerializer, PriceCacheCodecs.defaults(), compactCodecEnabled);
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(jsonSerializer))
+                        .fromSerializer(valueSerializer))
                 .disableCachingNullValues();
 
+        Map<String, Duration> cacheTtls = cacheTtls();
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        cacheTtls.forEach((cacheName, ttl) -> cacheConfigurations.put(cacheName, defaultConfig.entryTtl(ttl)));
 
-        cacheConfigurations.put("currencyRates", defaultConfig
-                .entryTtl(Duration.ofSeconds(currencyRatesTtlSeconds)));
-
-        cacheConfigurations.put("instruments", defaultConfig
-                .entryTtl(Duration.ofSeconds(instrumentsTtlSeconds)));
-
-        cacheConfigurations.put("stockPrices", defaultConfig
-                .entryTtl(Duration.ofSeconds(stockPricesTtlSeconds)));
-
-        cacheConfigurations.put("historicalData", defaultConfig
-                .entryTtl(Duration.ofSeconds(historicalDataTtlSeconds)));
-
-        cacheConfigurations.put("news", defaultConfig
-                .entryTtl(Duration.ofSeconds(newsTtlSeconds)));
-
-        cacheConfigurations.put("userPortfolios", defaultConfig
-                .entryTtl(Duration.ofSeconds(portfolioTtlSeconds)));
-
-        cacheConfigurations.put("portfolios", defaultConfig
-                .entryTtl(Duration.ofSeconds(portfolioTtlSeconds)));
+        Duration defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig.entryTtl(defaultTtl))
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .build();
+        redisCacheManager.initializeCaches();
+
+        // Transaction awareness moves to the layered cache so both tiers (and the broadcast) apply after commit
+        return new TwoTierCacheManager(
+                redisCacheManager,
+                cacheTtls,
+                defaultTtl,
+                localMaxEntries,
+                Duration.ofSeconds(localTtlSeconds),
+                redisTemplateProvider,
+                true,
+                singleFlight
+        );
+    }
 
-        cacheConfigurations.put("users", defaultConfig
-                .entryTtl(Duration.ofSeconds(usersTtlSeconds)));
+    private Map<String, Duration> cacheTtls() {
+        Map<String, Duration> ttls = new HashMap<>();
+        ttls.put("currencyRates", Duration.ofSeconds(currencyRatesTtlSeconds));
+        ttls.put("instruments", Duration.ofSeconds(instrumentsTtlSeconds));
+        ttls.put("stockPrices", Duration.ofSeconds(stockPricesTtlSeconds));
+        ttls.put("historicalData", Duration.ofSeconds(historicalDataTtlSeconds));
+        ttls.put("news", Duration.ofSeconds(newsTtlSeconds));
+        ttls.put("users", Duration.ofSeconds(usersTtlSeconds));
 
         // Legacy cache names retained for backward compatibility
-        cacheConfigurations.put("stock-prices", defaultConfig
-                .entryTtl(Duration.ofSeconds(stockPricesTtlSeconds)));
-
-        cacheConfigurations.put("currency-rates", defaultConfig
-                .entryTtl(Duration.ofSeconds(currencyRatesTtlSeconds)));
-
-        cacheConfigurations.put("index-values", defaultConfig
-                .entryTtl(Duration.ofSeconds(indexValuesTtlSeconds)));
-
-        cacheConfigurations.put("simulation-config", defaultConfig
-                .entryTtl(Duration.ofSeconds(simulationConfigTtlSeconds)));
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig.entryTtl(Duration.ofSeconds(defaultTtlSeconds)))
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
-                .build();
+        ttls.put("stock-prices", Duration.ofSeconds(stockPricesTtlSeconds));
+        ttls.put("currency-rates", Duration.ofSeconds(currencyRatesTtlSeconds));
+        ttls.put("index-values", Duration.ofSeconds(indexValuesTtlSeconds));
+        ttls.put("simulation-config", Duration.ofSeconds(simulationConfigTtlSeconds));
+        return ttls;
     }
 }
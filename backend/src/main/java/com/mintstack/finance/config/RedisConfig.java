@@ -14,6 +14,7 @@ import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactor
 import org.springframework.util.StringUtils;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 /**
@@ -34,6 +35,9 @@ public class RedisConfig {
     @Value("${spring.data.redis.password:}")
     private String redisPassword;
 
+    @Value("${app.cache.compact-codec.enabled:false}")
+    private boolean compactCodecEnabled;
+
     /**
      * Creates a secure PolymorphicTypeValidator that only allows known, safe types.
      *
@@ -94,8 +98,12 @@ public class RedisConfig {
         GenericJackson2JsonRedisSerializer jsonSerializer =
             new GenericJackson2JsonRedisSerializer(objectMapper);
 
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        // Compact price payloads are always readable; they are only written once compact-codec is enabled
+        RedisSerializer<Object> valueSerializer =
+            new CompactRedisSerializer(jsonSerializer, PriceCacheCodecs.defaults(), compactCodecEnabled);
+
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
 
         template.afterPropertiesSet();
         return template;
@@ -0,0 +1,56 @@
+package com.mintstack.finance.config;
+
+import com.mintstack.finance.service.ApiProviderRegistry;
+import com.mintstack.finance.service.market.RangeChangeCache;
+import com.mintstack.finance.service.portfolio.PortfolioValuationIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes node-local read models to cluster-wide invalidation channels.
+ */
+@Configuration
+@ConditionalOnProperty(
+        value = "app.redis.cache.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class RedisInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer invalidationRedisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            ApiProviderRegistry apiProviderRegistry,
+            TwoTierCacheManager cacheManager,
+            PortfolioValuationIndex portfolioValuationIndex,
+            RangeChangeCache rangeChangeCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> apiProviderRegistry.invalidateLocally(),
+                new ChannelTopic(ApiProviderRegistry.CHANNEL)
+        );
+        container.addMessageListener(
+                (message, pattern) -> cacheManager.onInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TwoTierCacheManager.CHANNEL)
+        );
+        container.addMessageListener(
+                (message, pattern) -> portfolioValuationIndex.onInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(PortfolioValuationIndex.CHANNEL)
+        );
+        container.addMessageListener(
+                (message, pattern) -> rangeChangeCache.onInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(RangeChangeCache.CHANNEL)
+        );
+        return container;
+    }
+}
@@ -0,0 +1,183 @@
+package com.mintstack.finance.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent computations of the same key into one.
+ *
+ * {@link #execute} coalesces within this node: the first caller runs the loader and every caller that
+ * arrives while it runs receives the same result (or exception), unless the computation outlasts
+ * {@code max-wait-ms}, in which case the waiter loads on its own. {@link #executeClustered} additionally
+ * takes a short Redis lock so only one node computes; the others poll the shared result (normally the
+ * Redis cache entry the winner writes), backing off between polls, until it shows up, the lock is
+ * released, or {@code cluster-wait-ms} passes, and then compute themselves. Without Redis it degrades to
+ * node-local coalescing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    static final String LOCK_PREFIX = "mintstack:singleflight:";
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${app.cache.single-flight.lock-ttl-ms:10000}")
+    private long lockTtlMs = 10000;
+
+    @Value("${app.cache.single-flight.poll-interval-ms:50}")
+    private long pollIntervalMs = 50;
+
+    @Value("${app.cache.single-flight.max-poll-interval-ms:200}")
+    private long maxPollIntervalMs = 200;
+
+    @Value("${app.cache.single-flight.cluster-wait-ms:1000}")
+    private long clusterWaitMs = 1000;
+
+    @Value("${app.cache.single-flight.max-wait-ms:5000}")
+    private long maxWaitMs = 5000;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return (T) await(key, running, loader);
+        }
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Like {@link #execute}, but also waits for a computation of the same key on another node.
+     * {@code sharedResult} looks up the value the winning node publishes; the loader must publish it before
+     * returning.
+     */
+    public <T> T executeClustered(String key, Supplier<T> loader, Supplier<Optional<T>> sharedResult) {
+        return execute(key, () -> {
+            StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+            if (redisTemplate == null) {
+                return loader.get();
+            }
+            String lockKey = LOCK_PREFIX + key;
+            String token = UUID.randomUUID().toString();
+            Boolean locked = tryLock(redisTemplate, lockKey, token);
+            if (Boolean.FALSE.equals(locked)) {
+                Optional<T> shared = awaitOtherNode(redisTemplate, lockKey, sharedResult);
+                if (shared.isPresent()) {
+                    return shared.get();
+                }
+                locked = tryLock(redisTemplate, lockKey, token);
+            }
+            try {
+                return loader.get();
+            } finally {
+                if (Boolean.TRUE.equals(locked)) {
+                    unlock(redisTemplate, lockKey, token);
+                }
+            }
+        });
+    }
+
+    private <T> Optional<T> awaitOtherNode(StringRedisTemplate redisTemplate,
+                                           String lockKey,
+                                           Supplier<Optional<T>> sharedResult) {
+        long waitMs = Math.min(clusterWaitMs, lockTtlMs);
+        long deadline = System.nanoTime() + Duration.ofMillis(waitMs).toNanos();
+        long interval = Math.max(1L, pollIntervalMs);
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(interval);
+                interval = Math.min(interval * 2, Math.max(pollIntervalMs, maxPollIntervalMs));
+                Optional<T> shared = sharedResult.get();
+                if (shared.isPresent()) {
+                    return shared;
+                }
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(lockKey))) {
+                    // Holder finished without publishing (or failed); take over
+                    return sharedResult.get();
+                }
+            }
+            log.debug("Gave up waiting for {} after {} ms", lockKey, waitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.debug("Waiting for {} failed: {}", lockKey, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns null when Redis cannot be asked, in which case the caller computes without the lock.
+     */
+    private Boolean tryLock(StringRedisTemplate redisTemplate, String lockKey, String token) {
+        try {
+            return Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(lockKey, token, Duration.ofMillis(lockTtlMs)));
+        } catch (RuntimeException e) {
+            log.debug("Single-flight lock {} unavailable: {}", lockKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void unlock(StringRedisTemplate redisTemplate, String lockKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            log.debug("Single-flight lock {} not released, expires on its own: {}", lockKey, e.getMessage());
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> running, Supplier<?> loader) {
+        try {
+            return running.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Computation of {} still running after {} ms, loading directly", key, maxWaitMs);
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a concurrent computation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.mintstack.finance.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache with a node-local Caffeine tier in front of a shared Redis tier.
+ *
+ * Reads are served from the local tier when possible and fall through to Redis, filling the local tier on
+ * the way back. Writes go to Redis first and are then reflected locally; every put, evict and clear is
+ * announced through the {@link Invalidator} so other nodes drop their local copy and re-read from Redis.
+ * Keys are held locally in their string form, which is also what the Redis tier and the invalidation
+ * messages use. Loading misses ({@code @Cacheable(sync = true)}) go through {@link SingleFlight}, so a key is
+ * computed once across the cluster while the other callers wait for the Redis entry.
+ *
+ * Local hits hand out the stored reference, so cached values are read-only for callers: producers return
+ * unmodifiable collections, and collections deserialized from Redis are wrapped in unmodifiable views before
+ * they are kept locally.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final Invalidator invalidator;
+    private final SingleFlight singleFlight;
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                        Cache remote,
+                        Invalidator invalidator,
+                        SingleFlight singleFlight) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidator = invalidator;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return wrapper;
+        }
+        Object stored = readOnly(wrapper.get());
+        local.put(localKey, stored);
+        return new SimpleValueWrapper(stored);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return (T) value;
+        }
+        if (singleFlight == null) {
+            T loaded = remote.get(key, valueLoader);
+            if (loaded != null) {
+                local.put(localKey, readOnly(loaded));
+            }
+            return loaded;
+        }
+        return singleFlight.executeClustered(name + "::" + localKey, () -> {
+            Optional<T> cached = lookupRemote(key, localKey);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            T loaded = load(key, valueLoader);
+            if (loaded != null) {
+                put(key, loaded);
+            }
+            return loaded;
+        }, () -> lookupRemote(key, localKey));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        if (value != null) {
+            local.put(localKey, readOnly(value));
+        } else {
+            local.invalidate(localKey);
+        }
+        invalidator.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            String localKey = localKey(key);
+            if (value != null) {
+                local.put(localKey, readOnly(value));
+            }
+            invalidator.publishEvict(name, localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidator.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        invalidator.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidator.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        local.invalidateAll();
+        invalidator.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * Applies an invalidation received from another node to the local tier only.
+     */
+    void evictLocally(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocally() {
+        local.invalidateAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> lookupRemote(Object key, String localKey) {
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return Optional.empty();
+        }
+        Object stored = readOnly(wrapper.get());
+        local.put(localKey, stored);
+        return Optional.of((T) stored);
+    }
+
+    /**
+     * Shared instance of a value for the local tier: top-level collections become unmodifiable views, anything
+     * else is kept as is.
+     */
+    static Object readOnly(Object value) {
+        if (value instanceof List<?> list) {
+            return Collections.unmodifiableList(list);
+        }
+        if (value instanceof Set<?> set) {
+            return Collections.unmodifiableSet(set);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Collections.unmodifiableMap(map);
+        }
+        return value;
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    static String localKey(Object key) {
+        return key instanceof String value ? value : String.valueOf(key);
+    }
+
+    /**
+     * Announces local-tier invalidations to the other nodes.
+     */
+    public interface Invalidator {
+
+        void publishEvict(String cacheName, String key);
+
+        void publishClear(String cacheName);
+    }
+}
@@ -0,0 +1,146 @@
+package com.mintstack.finance.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheManager} that layers a bounded per-node Caffeine tier over the Redis cache manager.
+ *
+ * Each local tier expires entries after the shorter of the local TTL and the cache's Redis TTL, so a node
+ * that misses an invalidation message is stale for at most the local TTL. Invalidations are published on
+ * {@link #CHANNEL} as {@code E|node|cache|key} or {@code C|node|cache}; a node ignores its own messages.
+ * With transaction awareness on, puts and evictions (and so their broadcasts) happen after commit. Loading
+ * misses are coalesced through the given {@link SingleFlight} (null disables coalescing).
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, TwoTierCache.Invalidator {
+
+    public static final String CHANNEL = "mintstack:cache:invalidate";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final CacheManager remoteCacheManager;
+    private final Map<String, Duration> remoteTtls;
+    private final Duration defaultRemoteTtl;
+    private final long localMaxEntries;
+    private final Duration localTtl;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final boolean transactionAware;
+    private final SingleFlight singleFlight;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> exposedCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               Map<String, Duration> remoteTtls,
+                               Duration defaultRemoteTtl,
+                               long localMaxEntries,
+                               Duration localTtl,
+                               ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                               boolean transactionAware,
+                               SingleFlight singleFlight) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.remoteTtls = Map.copyOf(remoteTtls);
+        this.defaultRemoteTtl = defaultRemoteTtl;
+        this.localMaxEntries = localMaxEntries;
+        this.localTtl = localTtl;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.transactionAware = transactionAware;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache existing = exposedCaches.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return exposedCaches.computeIfAbsent(name, cacheName -> {
+            TwoTierCache cache = new TwoTierCache(cacheName, buildLocalTier(cacheName), remote, this, singleFlight);
+            caches.put(cacheName, cache);
+            return transactionAware ? new TransactionAwareCacheDecorator(cache) : cache;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(remoteCacheManager.getCacheNames());
+        names.addAll(exposedCaches.keySet());
+        return names;
+    }
+
+    @Override
+    public void publishEvict(String cacheName, String key) {
+        publish(EVICT + "|" + nodeId + "|" + cacheName + "|" + key);
+    }
+
+    @Override
+    public void publishClear(String cacheName) {
+        publish(CLEAR + "|" + nodeId + "|" + cacheName);
+    }
+
+    /**
+     * Entry point for invalidations received from other nodes.
+     */
+    public void onInvalidation(String message) {
+        if (message == null) {
+            return;
+        }
+        String[] parts = message.split("\\|", 4);
+        if (parts.length < 3 || nodeId.equals(parts[1])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[0])) {
+            cache.clearLocally();
+        } else if (EVICT.equals(parts[0]) && parts.length == 4) {
+            cache.evictLocally(parts[3]);
+        }
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> buildLocalTier(String cacheName) {
+        Duration remoteTtl = remoteTtls.getOrDefault(cacheName, defaultRemoteTtl);
+        Duration ttl = remoteTtl != null && !remoteTtl.isZero() && remoteTtl.compareTo(localTtl) < 0
+                ? remoteTtl
+                : localTtl;
+        return Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    private void publish(String message) {
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (Exception error) {
+            // Other nodes fall back to the local TTL
+            log.warn("Cache invalidation could not be published: {}", error.getMessage());
+        }
+    }
+}
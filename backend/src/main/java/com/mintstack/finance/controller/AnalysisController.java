@@ -13,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -42,16 +43,19 @@ public class AnalysisController {
     }
 
     @GetMapping("/ma/multiple/{symbol}")
-    @Operation(summary = "Çoklu hareketli ortalama (MA7, MA25, MA99)")
+    @Operation(summary = "Çoklu hareketli ortalama (varsayılan MA7, MA25, MA99)",
+               description = "İstenen tüm periyotlar (SMA/EMA/WMA) tek geçişte hesaplanır")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getMultipleMovingAverages(
             @PathVariable String symbol,
+            @RequestParam(required = false) List<Integer> periods,
+            @RequestParam(defaultValue = "SMA") String type,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         
         if (endDate == null) {
             endDate = LocalDate.now();
         }
         
-        Map<String, Object> ma = analysisService.getMultipleMovingAverages(symbol, endDate);
+        Map<String, Object> ma = analysisService.getMultipleMovingAverages(symbol, endDate, periods, type);
         return ResponseEntity.ok(ApiResponse.success(ma));
     }
 
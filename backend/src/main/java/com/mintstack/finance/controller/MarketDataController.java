@@ -10,6 +10,9 @@ import com.mintstack.finance.dto.response.PriceHistoryResponse;
 import com.mintstack.finance.entity.Instrument.InstrumentType;
 import com.mintstack.finance.service.MarketDataRefreshService;
 import com.mintstack.finance.service.MarketDataService;
+import com.mintstack.finance.service.market.PriceHistoryExportService;
+import com.mintstack.finance.service.market.PriceHistoryExportService.ExportFormat;
+import com.mintstack.finance.service.market.SeriesDownsampler.Resolution;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,8 +20,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -27,9 +33,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/market")
@@ -39,6 +49,7 @@ public class MarketDataController {
 
     private final MarketDataService marketDataService;
     private final MarketDataRefreshService marketDataRefreshService;
+    private final PriceHistoryExportService priceHistoryExportService;
 
     @GetMapping("/currencies")
     @Operation(summary = "Get current currency rates")
@@ -76,8 +87,11 @@ public class MarketDataController {
     public ResponseEntity<ApiResponse<List<CurrencyRateResponse>>> getCurrencyHistory(
             @PathVariable String code,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<CurrencyRateResponse> history = marketDataService.getCurrencyHistory(code, startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) @Parameter(description = "OHLC bucket size: 1m, 1h or 1d; raw rows when omitted") String resolution,
+            @RequestParam(required = false) @Parameter(description = "Target point count for LTTB downsampling") Integer points) {
+        List<CurrencyRateResponse> history = marketDataService.getCurrencyHistory(
+            code, startDate, endDate, Resolution.fromParam(resolution), points);
         return ResponseEntity.ok(ApiResponse.success(history));
     }
 
@@ -85,29 +99,12 @@ public class MarketDataController {
     @Operation(summary = "List stocks")
     public ResponseEntity<ApiResponse<List<InstrumentResponse>>> getStocks(
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) @Parameter(description = "Keyset cursor: symbol after which the page starts") String cursor,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeStartDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeEndDate,
-            @PageableDefault(size = 20, sort = "symbol") Pageable pageable) {
-
-        Page<InstrumentResponse> stocks;
-        if (search != null && !search.isEmpty()) {
-            stocks = marketDataService.searchInstruments(
-                InstrumentType.STOCK,
-                search,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        } else {
-            stocks = marketDataService.getInstrumentsByType(
-                InstrumentType.STOCK,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        }
-
-        return ResponseEntity.ok(ApiResponse.success(stocks.getContent(), PaginationInfo.from(stocks)));
+            @PageableDefault(size = 20, sort = "symbol") Pageable pageable,
+            WebRequest webRequest) {
+        return listInstruments(InstrumentType.STOCK, search, cursor, changeStartDate, changeEndDate, pageable, webRequest);
     }
 
     @GetMapping("/stocks/{symbol}")
@@ -126,99 +123,76 @@ public class MarketDataController {
             @PathVariable String symbol,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(required = false, defaultValue = "30") Integer days) {
+            @RequestParam(required = false, defaultValue = "30") Integer days,
+            @RequestParam(required = false) @Parameter(description = "Target point count for LTTB downsampling") Integer points) {
 
         List<PriceHistoryResponse> history;
         if (startDate != null && endDate != null) {
-            history = marketDataService.getPriceHistory(symbol, startDate, endDate);
+            history = marketDataService.getPriceHistory(symbol, startDate, endDate, points);
         } else {
-            history = marketDataService.getRecentPriceHistory(symbol, days);
+            history = marketDataService.getRecentPriceHistory(symbol, days, points);
         }
 
         return ResponseEntity.ok(ApiResponse.success(history));
     }
 
+    @GetMapping("/stocks/{symbol}/history/export")
+    @Operation(summary = "Stream stock price history as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportStockHistory(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false, defaultValue = "30") Integer days,
+            @RequestParam(required = false, defaultValue = "ndjson") @Parameter(description = "ndjson or csv") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        LocalDate end = startDate != null && endDate != null ? endDate : LocalDate.now(ZoneId.of("Europe/Istanbul"));
+        LocalDate start = startDate != null && endDate != null ? startDate : end.minusDays(days);
+
+        UUID instrumentId = priceHistoryExportService.resolveInstrumentId(symbol);
+        StreamingResponseBody body = out -> priceHistoryExportService.export(instrumentId, start, end, exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(exportFormat.mediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(symbol + "-history." + exportFormat.extension())
+                .build()
+                .toString())
+            .body(body);
+    }
+
     @GetMapping("/bonds")
     @Operation(summary = "List bonds")
     public ResponseEntity<ApiResponse<List<InstrumentResponse>>> getBonds(
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) @Parameter(description = "Keyset cursor: symbol after which the page starts") String cursor,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeStartDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeEndDate,
-            @PageableDefault(size = 20, sort = "symbol") Pageable pageable) {
-        Page<InstrumentResponse> bonds;
-        if (search != null && !search.isEmpty()) {
-            bonds = marketDataService.searchInstruments(
-                InstrumentType.BOND,
-                search,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        } else {
-            bonds = marketDataService.getInstrumentsByType(
-                InstrumentType.BOND,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        }
-        return ResponseEntity.ok(ApiResponse.success(bonds.getContent(), PaginationInfo.from(bonds)));
+            @PageableDefault(size = 20, sort = "symbol") Pageable pageable,
+            WebRequest webRequest) {
+        return listInstruments(InstrumentType.BOND, search, cursor, changeStartDate, changeEndDate, pageable, webRequest);
     }
 
     @GetMapping("/funds")
     @Operation(summary = "List funds")
     public ResponseEntity<ApiResponse<List<InstrumentResponse>>> getFunds(
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) @Parameter(description = "Keyset cursor: symbol after which the page starts") String cursor,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeStartDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeEndDate,
-            @PageableDefault(size = 20, sort = "symbol") Pageable pageable) {
-
-        Page<InstrumentResponse> funds;
-        if (search != null && !search.isEmpty()) {
-            funds = marketDataService.searchInstruments(
-                InstrumentType.FUND,
-                search,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        } else {
-            funds = marketDataService.getInstrumentsByType(
-                InstrumentType.FUND,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        }
-
-        return ResponseEntity.ok(ApiResponse.success(funds.getContent(), PaginationInfo.from(funds)));
+            @PageableDefault(size = 20, sort = "symbol") Pageable pageable,
+            WebRequest webRequest) {
+        return listInstruments(InstrumentType.FUND, search, cursor, changeStartDate, changeEndDate, pageable, webRequest);
     }
 
     @GetMapping("/viop")
     @Operation(summary = "List VIOP instruments")
     public ResponseEntity<ApiResponse<List<InstrumentResponse>>> getViop(
             @RequestParam(required = false) String search,
+            @RequestParam(required = false) @Parameter(description = "Keyset cursor: symbol after which the page starts") String cursor,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeStartDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate changeEndDate,
-            @PageableDefault(size = 20, sort = "symbol") Pageable pageable) {
-        Page<InstrumentResponse> viop;
-        if (search != null && !search.isEmpty()) {
-            viop = marketDataService.searchInstruments(
-                InstrumentType.VIOP,
-                search,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        } else {
-            viop = marketDataService.getInstrumentsByType(
-                InstrumentType.VIOP,
-                pageable,
-                changeStartDate,
-                changeEndDate
-            );
-        }
-        return ResponseEntity.ok(ApiResponse.success(viop.getContent(), PaginationInfo.from(viop)));
+            @PageableDefault(size = 20, sort = "symbol") Pageable pageable,
+            WebRequest webRequest) {
+        return listInstruments(InstrumentType.VIOP, search, cursor, changeStartDate, changeEndDate, pageable, webRequest);
     }
 
     @GetMapping("/indices/{symbol}")
@@ -246,4 +220,43 @@ public class MarketDataController {
         );
         return ResponseEntity.ok(ApiResponse.success(results.getContent(), PaginationInfo.from(results)));
     }
+
+    private ResponseEntity<ApiResponse<List<InstrumentResponse>>> listInstruments(
+            InstrumentType type,
+            String search,
+            String cursor,
+            LocalDate changeStartDate,
+            LocalDate changeEndDate,
+            Pageable pageable,
+            WebRequest webRequest) {
+        if (search != null && !search.isEmpty()) {
+            Page<InstrumentResponse> results = marketDataService.searchInstruments(
+                type,
+                search,
+                pageable,
+                changeStartDate,
+                changeEndDate
+            );
+            return ResponseEntity.ok(ApiResponse.success(results.getContent(), PaginationInfo.from(results)));
+        }
+
+        // checkNotModified sets the ETag header, and the 304 status when If-None-Match matches
+        return marketDataService.getInstrumentsByType(
+                type,
+                pageable,
+                cursor,
+                changeStartDate,
+                changeEndDate,
+                webRequest::checkNotModified
+            )
+            .map(page -> ResponseEntity.ok(ApiResponse.success(page.getContent(), toPaginationInfo(page, cursor))))
+            .orElse(null);
+    }
+
+    private PaginationInfo toPaginationInfo(Slice<InstrumentResponse> page, String cursor) {
+        if (page instanceof Page<InstrumentResponse> offsetPage) {
+            return PaginationInfo.from(offsetPage);
+        }
+        return PaginationInfo.from(page, cursor.isEmpty(), InstrumentResponse::getSymbol);
+    }
 }
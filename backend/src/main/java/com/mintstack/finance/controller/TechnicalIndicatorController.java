@@ -2,6 +2,7 @@ package com.mintstack.finance.controller;
 
 import com.mintstack.finance.dto.response.*;
 import com.mintstack.finance.service.TechnicalIndicatorService;
+import com.mintstack.finance.service.indicator.IndicatorScreenerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 public class TechnicalIndicatorController {
 
     private final TechnicalIndicatorService technicalIndicatorService;
+    private final IndicatorScreenerService indicatorScreenerService;
 
     @GetMapping("/rsi/{symbol}")
     @Operation(summary = "RSI hesapla", description = "Relative Strength Index hesaplar (0-100 arası)")
@@ -56,6 +58,22 @@ public class TechnicalIndicatorController {
         return ResponseEntity.ok(ApiResponse.success(macd, signal));
     }
 
+    @GetMapping("/macd/{symbol}/series")
+    @Operation(summary = "MACD serisi", description = "Grafik için MACD, sinyal ve histogram serisini tek seferde döndürür")
+    public ResponseEntity<ApiResponse<MACDSeriesResult>> calculateMACDSeries(
+            @PathVariable @Parameter(description = "Enstrüman sembolü") String symbol,
+            @RequestParam(defaultValue = "12") int fastPeriod,
+            @RequestParam(defaultValue = "26") int slowPeriod,
+            @RequestParam(defaultValue = "9") int signalPeriod,
+            @RequestParam(defaultValue = "250") @Parameter(description = "Nokta sayısı (en fazla 2600)") int points) {
+        MACDSeriesResult series = technicalIndicatorService.calculateMACDSeries(
+                symbol, fastPeriod, slowPeriod, signalPeriod, points);
+        if (series == null) {
+            return ResponseEntity.ok(ApiResponse.error("MACD serisi hesaplanamadı - yeterli veri yok"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(series, series.dates().size() + " nokta"));
+    }
+
     @GetMapping("/bollinger/{symbol}")
     @Operation(summary = "Bollinger Bands hesapla", description = "Bollinger bantlarını hesaplar")
     public ResponseEntity<ApiResponse<BollingerBandsResult>> calculateBollingerBands(
@@ -73,6 +91,21 @@ public class TechnicalIndicatorController {
         return ResponseEntity.ok(ApiResponse.success(bollinger, interpretation));
     }
 
+    @GetMapping("/bollinger/{symbol}/series")
+    @Operation(summary = "Bollinger Bands serisi", description = "Grafik için üst, orta ve alt bant serisini döndürür")
+    public ResponseEntity<ApiResponse<BollingerBandsSeriesResult>> calculateBollingerBandsSeries(
+            @PathVariable @Parameter(description = "Enstrüman sembolü") String symbol,
+            @RequestParam(defaultValue = "20") int period,
+            @RequestParam(defaultValue = "2.0") double stdDev,
+            @RequestParam(defaultValue = "250") @Parameter(description = "Nokta sayısı (en fazla 2600)") int points) {
+        BollingerBandsSeriesResult series = technicalIndicatorService.calculateBollingerBandsSeries(
+                symbol, period, stdDev, points);
+        if (series == null) {
+            return ResponseEntity.ok(ApiResponse.error("Bollinger Bands serisi hesaplanamadı - yeterli veri yok"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(series, series.dates().size() + " nokta"));
+    }
+
     @GetMapping("/sma/{symbol}")
     @Operation(summary = "SMA hesapla", description = "Simple Moving Average hesaplar")
     public ResponseEntity<ApiResponse<Double>> calculateSMA(
@@ -121,6 +154,36 @@ public class TechnicalIndicatorController {
     }
 
 
+    @GetMapping("/stochastic/{symbol}/series")
+    @Operation(summary = "Stochastic serisi", description = "Grafik için %K ve %D serisini döndürür")
+    public ResponseEntity<ApiResponse<StochasticSeriesResult>> calculateStochasticSeries(
+            @PathVariable @Parameter(description = "Enstrüman sembolü") String symbol,
+            @RequestParam(defaultValue = "14") int kPeriod,
+            @RequestParam(defaultValue = "3") int dPeriod,
+            @RequestParam(defaultValue = "250") @Parameter(description = "Nokta sayısı (en fazla 2600)") int points) {
+        StochasticSeriesResult series = technicalIndicatorService.calculateStochasticSeries(
+                symbol, kPeriod, dPeriod, points);
+        if (series == null) {
+            return ResponseEntity.ok(ApiResponse.error("Stochastic serisi hesaplanamadı - yeterli veri yok"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(series, series.dates().size() + " nokta"));
+    }
+
+    @GetMapping("/{indicator}/{symbol}/series")
+    @Operation(summary = "Gösterge serisi",
+               description = "RSI, SMA, EMA, ATR, ADX, OBV, VWAP, CCI, MFI veya Williams %R serisini grafik için döndürür")
+    public ResponseEntity<ApiResponse<IndicatorSeriesResult>> calculateSeries(
+            @PathVariable @Parameter(description = "Gösterge", example = "rsi") String indicator,
+            @PathVariable @Parameter(description = "Enstrüman sembolü") String symbol,
+            @RequestParam(defaultValue = "14") @Parameter(description = "Periyot (OBV için bar sayısı)") int period,
+            @RequestParam(defaultValue = "250") @Parameter(description = "Nokta sayısı (en fazla 2600)") int points) {
+        IndicatorSeriesResult series = technicalIndicatorService.calculateSeries(symbol, indicator, period, points);
+        if (series == null) {
+            return ResponseEntity.ok(ApiResponse.error(indicator.toUpperCase() + " serisi hesaplanamadı - yeterli veri yok"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(series, series.dates().size() + " nokta"));
+    }
+
     @GetMapping("/atr/{symbol}")
     @Operation(summary = "ATR hesapla", description = "Average True Range volatilite gostergesini hesaplar")
     public ResponseEntity<ApiResponse<Double>> calculateATR(
@@ -204,6 +267,32 @@ public class TechnicalIndicatorController {
         }
         return ResponseEntity.ok(ApiResponse.success(williamsR, period + " periyot Williams %R"));
     }
+
+    @GetMapping("/live/{symbol}")
+    @Operation(summary = "Canlı göstergeler",
+               description = "Fiyat akışıyla güncellenen RSI, MACD, Bollinger, Stochastic, Williams %R, ATR, OBV ve VWAP")
+    public ResponseEntity<ApiResponse<LiveIndicatorsResult>> getLiveIndicators(
+            @PathVariable @Parameter(description = "Enstrüman sembolü") String symbol) {
+        return technicalIndicatorService.getLiveIndicators(symbol)
+                .map(result -> ResponseEntity.ok(ApiResponse.success(result, "Canlı göstergeler (" + result.barCount() + " bar)")))
+                .orElseGet(() -> ResponseEntity.ok(ApiResponse.error("Enstrüman bulunamadı: " + symbol)));
+    }
+
+    @GetMapping("/screener")
+    @Operation(summary = "Gösterge tarayıcısı",
+               description = "Filtre ifadesini (örn: RSI14 < 30 AND close > SMA200 AND volume > 2*AVG20) "
+                       + "seçilen tipteki tüm aktif enstrümanlarda çalıştırır ve eşleşmeleri sıralar")
+    public ResponseEntity<ApiResponse<ScreenerResult>> screen(
+            @RequestParam(defaultValue = "STOCK") @Parameter(description = "Enstrüman tipi") String type,
+            @RequestParam @Parameter(description = "Filtre ifadesi", example = "RSI14 < 30 AND close > SMA200") String filter,
+            @RequestParam(required = false) @Parameter(description = "Sıralama terimi (örn: RSI14)") String rankBy,
+            @RequestParam(required = false) @Parameter(description = "asc veya desc") String order,
+            @RequestParam(defaultValue = "50") @Parameter(description = "En fazla sonuç (en fazla 500)") int limit) {
+        ScreenerResult result = indicatorScreenerService.screen(type, filter, rankBy, order, limit);
+        return ResponseEntity.ok(ApiResponse.success(result,
+                result.evaluated() + " enstrümandan " + result.matched() + " eşleşme"));
+    }
+
     @GetMapping("/all/{symbol}")
     @Operation(summary = "Tüm göstergeleri hesapla", 
                description = "RSI, MACD, Bollinger, SMA, EMA, Stochastic - hepsini tek seferde")
@@ -0,0 +1,16 @@
+package com.mintstack.finance.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tarih sırasına göre Bollinger bantları serisi; tüm diziler {@code dates} ile hizalıdır.
+ */
+public record BollingerBandsSeriesResult(
+    List<LocalDate> dates,
+    double[] upperBand,
+    double[] middleBand,
+    double[] lowerBand,
+    int period,
+    double stdDevMultiplier
+) {}
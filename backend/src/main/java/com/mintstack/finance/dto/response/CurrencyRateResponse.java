@@ -1,5 +1,6 @@
 package com.mintstack.finance.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -44,4 +45,20 @@ public class CurrencyRateResponse {
     private LocalDateTime fetchedAt;
     
     private LocalDateTime rateDate;
+
+    // Selling-rate OHLC; only set on bucketed history rows, where fetchedAt is the bucket start
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal open;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal high;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal low;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal close;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer samples;
 }
@@ -0,0 +1,14 @@
+package com.mintstack.finance.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tek değerli bir göstergenin tarih sırasına göre serisi; {@code values} ile {@code dates} hizalıdır.
+ */
+public record IndicatorSeriesResult(
+    String indicator,
+    int period,
+    List<LocalDate> dates,
+    double[] values
+) {}
@@ -0,0 +1,22 @@
+package com.mintstack.finance.dto.response;
+
+import java.time.LocalDate;
+
+/**
+ * Fiyat akışıyla güncellenen canlı gösterge değerleri (varsayılan periyotlar).
+ * Isınma süresini tamamlamamış göstergeler null döner.
+ */
+public record LiveIndicatorsResult(
+    String symbol,
+    LocalDate asOf,
+    Double close,
+    Double rsi14,
+    MACDResult macd,
+    BollingerBandsResult bollingerBands,
+    StochasticResult stochastic,
+    Double williamsR14,
+    Double atr14,
+    Long obv,
+    Double vwap20,
+    int barCount
+) {}
@@ -0,0 +1,17 @@
+package com.mintstack.finance.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tarih sırasına göre MACD serisi; tüm diziler {@code dates} ile hizalıdır.
+ */
+public record MACDSeriesResult(
+    List<LocalDate> dates,
+    double[] macdLine,
+    double[] signalLine,
+    double[] histogram,
+    int fastPeriod,
+    int slowPeriod,
+    int signalPeriod
+) {}
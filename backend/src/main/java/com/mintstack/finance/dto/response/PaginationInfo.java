@@ -1,10 +1,14 @@
 package com.mintstack.finance.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.function.Function;
 
 @Data
 @Builder
@@ -28,6 +32,9 @@ public class PaginationInfo {
     
     private boolean hasPrevious;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public static PaginationInfo from(Page<?> page) {
         return PaginationInfo.builder()
             .page(page.getNumber())
@@ -40,4 +47,22 @@ public class PaginationInfo {
             .hasPrevious(page.hasPrevious())
             .build();
     }
+
+    /**
+     * Cursor (keyset) page: totals are not counted, and {@code nextCursor} is the key to pass for the next page.
+     */
+    public static <T> PaginationInfo from(Slice<T> slice, boolean first, Function<T, String> cursorOf) {
+        String nextCursor = slice.hasNext() && slice.hasContent()
+            ? cursorOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1))
+            : null;
+        return PaginationInfo.builder()
+            .page(0)
+            .size(slice.getSize())
+            .first(first)
+            .last(!slice.hasNext())
+            .hasNext(slice.hasNext())
+            .hasPrevious(!first)
+            .nextCursor(nextCursor)
+            .build();
+    }
 }
@@ -26,6 +26,8 @@ public class PortfolioItemResponse {
     
     private Instrument.InstrumentType instrumentType;
     
+    private Boolean instrumentSimulated;
+    
     private BigDecimal quantity;
     
     private BigDecimal purchasePrice;
@@ -33,6 +33,11 @@ public class PriceUpdateMessage {
      */
     private BigDecimal price;
 
+    /**
+     * Whether the price belongs to a simulated instrument; simulated and real instruments may share a symbol
+     */
+    private boolean simulated;
+
     /**
      * Previous price (for calculating change)
      */
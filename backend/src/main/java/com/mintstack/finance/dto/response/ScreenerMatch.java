@@ -0,0 +1,15 @@
+package com.mintstack.finance.dto.response;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Tarayıcı eşleşmesi; {@code values} filtrede geçen her terimin son değerini içerir.
+ */
+public record ScreenerMatch(
+    String symbol,
+    String name,
+    LocalDate asOf,
+    Double rankValue,
+    Map<String, Double> values
+) {}
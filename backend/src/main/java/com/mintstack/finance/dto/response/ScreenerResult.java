@@ -0,0 +1,15 @@
+package com.mintstack.finance.dto.response;
+
+import java.util.List;
+
+/**
+ * Gösterge tarayıcısı sonucu: filtreye uyan enstrümanlar sıralama terimine göre dizilir.
+ */
+public record ScreenerResult(
+    String type,
+    String filter,
+    String rankBy,
+    int evaluated,
+    int matched,
+    List<ScreenerMatch> matches
+) {}
@@ -0,0 +1,15 @@
+package com.mintstack.finance.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tarih sırasına göre Stochastic %K ve %D serisi; tüm diziler {@code dates} ile hizalıdır.
+ */
+public record StochasticSeriesResult(
+    List<LocalDate> dates,
+    double[] percentK,
+    double[] percentD,
+    int kPeriod,
+    int dPeriod
+) {}
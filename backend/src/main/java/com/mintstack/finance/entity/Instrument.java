@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(InstrumentCatalogListener.class)
 @Table(name = "instruments", indexes = {
     @Index(name = "idx_instruments_symbol", columnList = "symbol"),
     @Index(name = "idx_instruments_type", columnList = "type")
@@ -0,0 +1,7 @@
+package com.mintstack.finance.entity;
+
+/**
+ * Published when an instrument row is inserted, updated or removed on this node.
+ */
+public record InstrumentCatalogChangedEvent(Instrument instrument, boolean removed) {
+}
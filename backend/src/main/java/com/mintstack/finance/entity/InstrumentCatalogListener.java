@@ -0,0 +1,28 @@
+package com.mintstack.finance.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA listener that announces instrument writes made on this node as {@link InstrumentCatalogChangedEvent}s,
+ * so read models can follow the catalog without the entity depending on them.
+ */
+@RequiredArgsConstructor
+public class InstrumentCatalogListener {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    void onSaved(Instrument instrument) {
+        applicationEventPublisher.publishEvent(new InstrumentCatalogChangedEvent(instrument, false));
+    }
+
+    @PostRemove
+    void onRemoved(Instrument instrument) {
+        applicationEventPublisher.publishEvent(new InstrumentCatalogChangedEvent(instrument, true));
+    }
+}
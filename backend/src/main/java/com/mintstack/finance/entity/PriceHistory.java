@@ -9,9 +9,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "price_history", indexes = {
-    @Index(name = "idx_price_history_instrument", columnList = "instrument_id"),
-    @Index(name = "idx_price_history_date", columnList = "price_date"),
-    @Index(name = "idx_price_history_instrument_date", columnList = "instrument_id, price_date")
+    @Index(name = "idx_price_history_date", columnList = "price_date")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "price_history_instrument_id_price_date_key", columnNames = {"instrument_id", "price_date"})
 })
 @Getter
 @Setter
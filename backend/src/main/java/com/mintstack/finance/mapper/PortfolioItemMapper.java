@@ -17,6 +17,7 @@ public interface PortfolioItemMapper {
     @Mapping(target = "instrumentSymbol", source = "instrument.symbol")
     @Mapping(target = "instrumentName", source = "instrument.name")
     @Mapping(target = "instrumentType", source = "instrument.type")
+    @Mapping(target = "instrumentSimulated", source = "instrument.isSimulated")
     @Mapping(target = "currentPrice", source = "instrument.currentPrice")
     @Mapping(target = "totalCost", expression = "java(item.getTotalCost())")
     @Mapping(target = "currentValue", expression = "java(item.getCurrentValue())")
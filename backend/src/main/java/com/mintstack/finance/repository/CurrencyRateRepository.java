@@ -2,17 +2,22 @@ package com.mintstack.finance.repository;
 
 import com.mintstack.finance.entity.CurrencyRate;
 import com.mintstack.finance.entity.CurrencyRate.RateSource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, UUID> {
@@ -73,6 +78,91 @@ public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, UUID
             @Param("minimumRate") BigDecimal minimumRate,
             Pageable pageable);
 
+    // Batch counterparts of the per-currency lookups above: one row per currency code, same ordering rules.
+
+    @Query(value = """
+        SELECT r.*
+        FROM (SELECT DISTINCT currency_code FROM currency_rates
+              WHERE source = :source AND currency_code IN (:codes)) codes
+        CROSS JOIN LATERAL (
+            SELECT c.*
+            FROM currency_rates c
+            WHERE c.currency_code = codes.currency_code
+              AND c.source = :source
+              AND c.rate_date <= :at
+              AND (c.selling_rate > :minimumRate OR c.buying_rate > :minimumRate)
+            ORDER BY c.rate_date DESC, c.fetched_at DESC
+            LIMIT 1
+        ) r
+        """, nativeQuery = true)
+    List<CurrencyRate> findLatestAtOrBeforeByCurrencyCodes(
+            @Param("codes") Collection<String> currencyCodes,
+            @Param("source") String source,
+            @Param("at") LocalDateTime at,
+            @Param("minimumRate") BigDecimal minimumRate);
+
+    @Query(value = """
+        SELECT r.*
+        FROM (SELECT DISTINCT currency_code FROM currency_rates
+              WHERE source = :source AND currency_code IN (:codes)) codes
+        CROSS JOIN LATERAL (
+            SELECT c.*
+            FROM currency_rates c
+            WHERE c.currency_code = codes.currency_code
+              AND c.source = :source
+              AND c.rate_date >= :at
+              AND (c.selling_rate > :minimumRate OR c.buying_rate > :minimumRate)
+            ORDER BY c.rate_date ASC, c.fetched_at ASC
+            LIMIT 1
+        ) r
+        """, nativeQuery = true)
+    List<CurrencyRate> findEarliestAtOrAfterByCurrencyCodes(
+            @Param("codes") Collection<String> currencyCodes,
+            @Param("source") String source,
+            @Param("at") LocalDateTime at,
+            @Param("minimumRate") BigDecimal minimumRate);
+
+    @Query(value = """
+        SELECT r.*
+        FROM (SELECT DISTINCT currency_code FROM currency_rates
+              WHERE source = :source AND currency_code IN (:codes)) codes
+        CROSS JOIN LATERAL (
+            SELECT c.*
+            FROM currency_rates c
+            WHERE c.currency_code = codes.currency_code
+              AND c.source = :source
+              AND (c.selling_rate > :minimumRate OR c.buying_rate > :minimumRate)
+            ORDER BY c.rate_date ASC, c.fetched_at ASC
+            LIMIT 1
+        ) r
+        """, nativeQuery = true)
+    List<CurrencyRate> findEarliestByCurrencyCodes(
+            @Param("codes") Collection<String> currencyCodes,
+            @Param("source") String source,
+            @Param("minimumRate") BigDecimal minimumRate);
+
+    /**
+     * For each given rate, the latest row of the same currency and source with an earlier rate date.
+     */
+    @Query(value = """
+        SELECT r.*
+        FROM currency_rates e
+        CROSS JOIN LATERAL (
+            SELECT c.*
+            FROM currency_rates c
+            WHERE c.currency_code = e.currency_code
+              AND c.source = e.source
+              AND c.rate_date < e.rate_date
+              AND (c.selling_rate > :minimumRate OR c.buying_rate > :minimumRate)
+            ORDER BY c.rate_date DESC, c.fetched_at DESC
+            LIMIT 1
+        ) r
+        WHERE e.id IN (:rateIds)
+        """, nativeQuery = true)
+    List<CurrencyRate> findPreviousRatesByRateIds(
+            @Param("rateIds") Collection<UUID> rateIds,
+            @Param("minimumRate") BigDecimal minimumRate);
+
     @Query("SELECT c FROM CurrencyRate c WHERE c.source = :source AND " +
            "c.fetchedAt = (SELECT MAX(c2.fetchedAt) FROM CurrencyRate c2 " +
            "WHERE c2.currencyCode = c.currencyCode AND c2.source = :source)")
@@ -83,10 +173,18 @@ public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, UUID
            "WHERE c2.currencyCode = c.currencyCode)")
     List<CurrencyRate> findAllLatest();
 
-    @Query("SELECT c FROM CurrencyRate c WHERE c.currencyCode = :code " +
+    /**
+     * Scalar history rows for server-side aggregation and sampling; must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.fetchedAt AS fetchedAt, c.rateDate AS rateDate, c.currencyName AS currencyName, " +
+           "c.buyingRate AS buyingRate, c.sellingRate AS sellingRate, " +
+           "c.effectiveBuyingRate AS effectiveBuyingRate, c.effectiveSellingRate AS effectiveSellingRate " +
+           "FROM CurrencyRate c WHERE c.currencyCode = :code " +
            "AND c.source = :source AND c.fetchedAt BETWEEN :startDate AND :endDate " +
            "ORDER BY c.fetchedAt ASC")
-    List<CurrencyRate> findHistoryByCurrencyCode(
+    Stream<RatePointView> streamHistoryPoints(
             @Param("code") String currencyCode,
             @Param("source") RateSource source,
             @Param("startDate") LocalDateTime startDate,
@@ -102,4 +200,15 @@ public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, UUID
             @Param("beforeDate") LocalDateTime beforeDate);
 
     void deleteAll();
+
+    interface RatePointView {
+        UUID getId();
+        LocalDateTime getFetchedAt();
+        LocalDateTime getRateDate();
+        String getCurrencyName();
+        BigDecimal getBuyingRate();
+        BigDecimal getSellingRate();
+        BigDecimal getEffectiveBuyingRate();
+        BigDecimal getEffectiveSellingRate();
+    }
 }
@@ -43,46 +43,16 @@ public interface InstrumentRepository extends JpaRepository<Instrument, UUID> {
 
     Page<Instrument> findByTypeAndIsActiveTrueAndIsSimulated(InstrumentType type, Boolean isSimulated, Pageable pageable);
 
+    // Keyset page: symbols strictly after the cursor, served by the (symbol, is_simulated) unique index
+    List<Instrument> findByTypeAndIsActiveTrueAndIsSimulatedAndSymbolGreaterThanOrderBySymbolAsc(
+            InstrumentType type, Boolean isSimulated, String symbol, Pageable pageable);
+
     @Query("SELECT i FROM Instrument i WHERE i.isActive = true AND (i.isSimulated IS NULL OR i.isSimulated = false)")
     List<Instrument> findByIsActiveTrue();
 
-    @Query("SELECT i FROM Instrument i WHERE i.isActive = true AND (i.isSimulated IS NULL OR i.isSimulated = false) AND " +
-           "(LOWER(i.symbol) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(i.name) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Instrument> searchBySymbolOrName(@Param("query") String query, Pageable pageable);
-
-    @Query("SELECT i FROM Instrument i WHERE i.isActive = true AND " +
-           "((:isSimulated = true AND i.isSimulated = true) OR " +
-           "(:isSimulated = false AND (i.isSimulated IS NULL OR i.isSimulated = false))) AND " +
-           "(LOWER(i.symbol) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(i.name) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Instrument> searchBySymbolOrNameAndSimulationMode(@Param("query") String query,
-                                                           @Param("isSimulated") boolean isSimulated,
-                                                           Pageable pageable);
-
-    @Query("SELECT i FROM Instrument i WHERE i.type = :type AND i.isActive = true AND (i.isSimulated IS NULL OR i.isSimulated = false) AND " +
-           "(LOWER(i.symbol) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(i.name) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Instrument> searchByTypeAndQuery(@Param("type") InstrumentType type, 
-                                          @Param("query") String query, 
-                                          Pageable pageable);
-
-    @Query("SELECT i FROM Instrument i WHERE i.type = :type AND i.isActive = true AND " +
-           "((:isSimulated = true AND i.isSimulated = true) OR " +
-           "(:isSimulated = false AND (i.isSimulated IS NULL OR i.isSimulated = false))) AND " +
-           "(LOWER(i.symbol) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(i.name) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Instrument> searchByTypeAndQueryAndSimulationMode(@Param("type") InstrumentType type,
-                                                           @Param("query") String query,
-                                                           @Param("isSimulated") boolean isSimulated,
-                                                           Pageable pageable);
-
-    @Query("SELECT i FROM Instrument i WHERE i.type = :type AND (i.isSimulated IS NULL OR i.isSimulated = false) AND " +
-           "(LOWER(i.symbol) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(i.name) LIKE LOWER(CONCAT('%', :query, '%')))")
-    Page<Instrument> searchRealByTypeAndQuery(@Param("type") InstrumentType type,
-                                              @Param("query") String query,
-                                              Pageable pageable);
+    @Query("SELECT i.id AS id, i.symbol AS symbol, i.name AS name, i.type AS type, " +
+           "i.isActive AS isActive, i.isSimulated AS isSimulated FROM Instrument i")
+    List<CatalogEntryView> findCatalogEntries();
 
     List<Instrument> findBySymbolIn(List<String> symbols);
 
@@ -100,4 +70,13 @@ public interface InstrumentRepository extends JpaRepository<Instrument, UUID> {
 
     @Query("SELECT COUNT(i) FROM Instrument i WHERE i.type = :type AND i.isActive = true AND (i.isSimulated IS NULL OR i.isSimulated = false)")
     long countActiveRealInstrumentsByType(@Param("type") InstrumentType type);
+
+    interface CatalogEntryView {
+        UUID getId();
+        String getSymbol();
+        String getName();
+        InstrumentType getType();
+        Boolean getIsActive();
+        Boolean getIsSimulated();
+    }
 }
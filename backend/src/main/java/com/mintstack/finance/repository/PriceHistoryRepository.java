@@ -1,9 +1,12 @@
 package com.mintstack.finance.repository;
 
 import com.mintstack.finance.entity.PriceHistory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,56 +15,112 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PriceHistoryRepository extends JpaRepository<PriceHistory, UUID> {
 
+    // The per-instrument lookups below are LATERAL top-N scans ordered by price_date: on the monthly
+    // partitions (V32) each one walks the newest (or oldest) partitions' indexes and stops after N rows,
+    // instead of ranking every bar the instrument has ever had.
     @Query(value = """
-        SELECT id, instrument_id, open_price, high_price, low_price,
-               close_price, adj_close, volume, price_date
-        FROM (
-            SELECT ph.*,
-                   ROW_NUMBER() OVER (
-                       PARTITION BY ph.instrument_id
-                       ORDER BY ph.price_date DESC
-                   ) AS row_number
-            FROM price_history ph
-            WHERE ph.instrument_id IN (:instrumentIds)
-        ) ranked
-        WHERE ranked.row_number <= :historyLimit
-        ORDER BY instrument_id, price_date DESC
+        SELECT ph.id, ph.instrument_id, ph.open_price, ph.high_price, ph.low_price,
+               ph.close_price, ph.adj_close, ph.volume, ph.price_date
+        FROM instruments i
+        CROSS JOIN LATERAL (
+            SELECT p.*
+            FROM price_history p
+            WHERE p.instrument_id = i.id
+            ORDER BY p.price_date DESC
+            LIMIT :historyLimit
+        ) ph
+        WHERE i.id IN (:instrumentIds)
+        ORDER BY ph.instrument_id, ph.price_date DESC
         """, nativeQuery = true)
     List<PriceHistory> findRecentByInstrumentIds(
             @Param("instrumentIds") List<UUID> instrumentIds,
             @Param("historyLimit") int historyLimit);
 
     @Query(value = """
-        SELECT DISTINCT ON (instrument_id)
-               id, instrument_id, open_price, high_price, low_price,
-               close_price, adj_close, volume, price_date
-        FROM price_history
-        WHERE instrument_id IN (:instrumentIds)
-          AND price_date <= :priceDate
-        ORDER BY instrument_id, price_date DESC
+        SELECT ph.id, ph.instrument_id, ph.open_price, ph.high_price, ph.low_price,
+               ph.close_price, ph.adj_close, ph.volume, ph.price_date
+        FROM instruments i
+        CROSS JOIN LATERAL (
+            SELECT p.*
+            FROM price_history p
+            WHERE p.instrument_id = i.id
+              AND p.price_date <= :priceDate
+            ORDER BY p.price_date DESC
+            LIMIT 1
+        ) ph
+        WHERE i.id IN (:instrumentIds)
+        ORDER BY ph.instrument_id
         """, nativeQuery = true)
     List<PriceHistory> findLatestAtOrBeforeByInstrumentIds(
             @Param("instrumentIds") List<UUID> instrumentIds,
             @Param("priceDate") LocalDate priceDate);
 
+    @Query(value = """
+        SELECT ph.id, ph.instrument_id, ph.open_price, ph.high_price, ph.low_price,
+               ph.close_price, ph.adj_close, ph.volume, ph.price_date
+        FROM instruments i
+        CROSS JOIN LATERAL (
+            SELECT p.*
+            FROM price_history p
+            WHERE p.instrument_id = i.id
+              AND p.price_date <= :priceDate
+            ORDER BY p.price_date DESC
+            LIMIT :historyLimit
+        ) ph
+        WHERE i.id IN (:instrumentIds)
+        ORDER BY ph.instrument_id, ph.price_date DESC
+        """, nativeQuery = true)
+    List<PriceHistory> findRecentAtOrBeforeByInstrumentIds(
+            @Param("instrumentIds") List<UUID> instrumentIds,
+            @Param("priceDate") LocalDate priceDate,
+            @Param("historyLimit") int historyLimit);
+
+    @Query(value = """
+        SELECT ph.id, ph.instrument_id, ph.open_price, ph.high_price, ph.low_price,
+               ph.close_price, ph.adj_close, ph.volume, ph.price_date
+        FROM instruments i
+        CROSS JOIN LATERAL (
+            SELECT p.*
+            FROM price_history p
+            WHERE p.instrument_id = i.id
+            ORDER BY p.price_date ASC
+            LIMIT 1
+        ) ph
+        WHERE i.id IN (:instrumentIds)
+        ORDER BY ph.instrument_id
+        """, nativeQuery = true)
+    List<PriceHistory> findEarliestByInstrumentIds(@Param("instrumentIds") List<UUID> instrumentIds);
+
     @Query("""
-        SELECT ph.instrument.id AS instrumentId,
-               MAX(COALESCE(ph.highPrice, ph.closePrice, ph.openPrice)) AS week52High,
-               MIN(COALESCE(ph.lowPrice, ph.closePrice, ph.openPrice)) AS week52Low
+        SELECT ph.instrument.id AS instrumentId, ph.priceDate AS priceDate, ph.openPrice AS openPrice,
+               ph.highPrice AS highPrice, ph.lowPrice AS lowPrice, ph.closePrice AS closePrice
         FROM PriceHistory ph
         WHERE ph.instrument.id IN :instrumentIds
           AND ph.priceDate BETWEEN :startDate AND :endDate
-        GROUP BY ph.instrument.id
+        ORDER BY ph.instrument.id, ph.priceDate ASC
         """)
-    List<PriceRangeView> findPriceRangesByInstrumentIds(
+    List<RangeBarView> findRangeBarsByInstrumentIds(
             @Param("instrumentIds") List<UUID> instrumentIds,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    @Query("""
+        SELECT ph.instrument.id AS instrumentId, ph.priceDate AS priceDate, ph.openPrice AS openPrice,
+               ph.highPrice AS highPrice, ph.lowPrice AS lowPrice, ph.closePrice AS closePrice, ph.volume AS volume
+        FROM PriceHistory ph
+        WHERE ph.instrument.id IN :instrumentIds
+          AND ph.priceDate >= :startDate
+        ORDER BY ph.instrument.id, ph.priceDate ASC
+        """)
+    List<InstrumentBarView> findBarsByInstrumentIdsSince(
+            @Param("instrumentIds") List<UUID> instrumentIds,
+            @Param("startDate") LocalDate startDate);
+
     List<PriceHistory> findByInstrumentIdOrderByPriceDateDesc(UUID instrumentId);
 
     List<PriceHistory> findByInstrumentIdOrderByPriceDateDesc(UUID instrumentId, Pageable pageable);
@@ -87,21 +146,76 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, UUID
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    /**
+     * Same rows as {@link #findBySymbolAndDateRange}, streamed as projections so no entity is hydrated.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT ph.priceDate AS priceDate, ph.openPrice AS openPrice, ph.highPrice AS highPrice, " +
+           "ph.lowPrice AS lowPrice, ph.closePrice AS closePrice, ph.adjustedClose AS adjustedClose, " +
+           "ph.volume AS volume FROM PriceHistory ph WHERE ph.instrument.symbol = :symbol " +
+           "AND ph.priceDate BETWEEN :startDate AND :endDate ORDER BY ph.priceDate ASC")
+    Stream<HistoryPointView> streamBySymbolAndDateRange(
+            @Param("symbol") String symbol,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     @Query("SELECT ph FROM PriceHistory ph WHERE ph.instrument.symbol = :symbol " +
            "ORDER BY ph.priceDate DESC")
     List<PriceHistory> findLatestBySymbol(@Param("symbol") String symbol, Pageable pageable);
 
+    @Query("""
+        SELECT ph.priceDate AS priceDate, ph.openPrice AS openPrice, ph.highPrice AS highPrice,
+               ph.lowPrice AS lowPrice, ph.closePrice AS closePrice, ph.volume AS volume
+        FROM PriceHistory ph
+        WHERE ph.instrument.id = :instrumentId
+        ORDER BY ph.priceDate DESC
+        """)
+    List<PriceBarView> findBarsByInstrumentId(@Param("instrumentId") UUID instrumentId, Pageable pageable);
+
+    @Query("""
+        SELECT ph.priceDate AS priceDate, ph.openPrice AS openPrice, ph.highPrice AS highPrice,
+               ph.lowPrice AS lowPrice, ph.closePrice AS closePrice, ph.volume AS volume
+        FROM PriceHistory ph
+        WHERE ph.instrument.id = :instrumentId
+          AND ph.priceDate BETWEEN :startDate AND :endDate
+        ORDER BY ph.priceDate ASC
+        """)
+    List<PriceBarView> findBarsByInstrumentIdAndDateRange(
+            @Param("instrumentId") UUID instrumentId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     Optional<PriceHistory> findByInstrumentIdAndPriceDate(UUID instrumentId, LocalDate priceDate);
 
     boolean existsByInstrumentIdAndPriceDate(UUID instrumentId, LocalDate priceDate);
 
     boolean existsByInstrumentType(com.mintstack.finance.entity.Instrument.InstrumentType type);
 
-    void deleteByPriceDateBefore(LocalDate date);
+    long deleteByPriceDateBefore(LocalDate date);
 
-    interface PriceRangeView {
+    interface RangeBarView {
         UUID getInstrumentId();
-        BigDecimal getWeek52High();
-        BigDecimal getWeek52Low();
+        LocalDate getPriceDate();
+        BigDecimal getOpenPrice();
+        BigDecimal getHighPrice();
+        BigDecimal getLowPrice();
+        BigDecimal getClosePrice();
+    }
+
+    interface PriceBarView {
+        LocalDate getPriceDate();
+        BigDecimal getOpenPrice();
+        BigDecimal getHighPrice();
+        BigDecimal getLowPrice();
+        BigDecimal getClosePrice();
+        Long getVolume();
+    }
+
+    interface InstrumentBarView extends PriceBarView {
+        UUID getInstrumentId();
+    }
+
+    interface HistoryPointView extends PriceBarView {
+        BigDecimal getAdjustedClose();
     }
 }
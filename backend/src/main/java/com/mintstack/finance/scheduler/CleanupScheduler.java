@@ -2,11 +2,14 @@ package com.mintstack.finance.scheduler;
 
 import com.mintstack.finance.repository.CurrencyRateRepository;
 import com.mintstack.finance.repository.NewsRepository;
-import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.market.PriceHistoryClearedEvent;
+import com.mintstack.finance.service.market.PriceHistoryPartitionService;
+import com.mintstack.finance.service.market.PriceHistoryPartitionService.Retention;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,7 +25,8 @@ public class CleanupScheduler {
 
     private final CurrencyRateRepository currencyRateRepository;
     private final NewsRepository newsRepository;
-    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryPartitionService priceHistoryPartitionService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     // Retention periods
     private static final int CURRENCY_RATE_RETENTION_DAYS = 90;
@@ -49,10 +53,15 @@ public class CleanupScheduler {
             newsRepository.deleteByPublishedAtBefore(newsCutoff);
             log.info("Cleaned news older than {}", newsCutoff);
             
-            // Clean old price history
+            // Clean old price history by dropping whole monthly partitions (own transaction)
             LocalDate priceHistoryCutoff = LocalDate.now().minusDays(PRICE_HISTORY_RETENTION_DAYS);
-            priceHistoryRepository.deleteByPriceDateBefore(priceHistoryCutoff);
-            log.info("Cleaned price history older than {}", priceHistoryCutoff);
+            Retention retention = priceHistoryPartitionService.dropPartitionsBefore(priceHistoryCutoff);
+            priceHistoryPartitionService.ensureUpcomingPartitions(LocalDate.now());
+            if (retention.removedAny()) {
+                applicationEventPublisher.publishEvent(new PriceHistoryClearedEvent());
+            }
+            log.info("Cleaned price history older than {} ({} partitions dropped, {} rows deleted)",
+                priceHistoryCutoff, retention.droppedPartitions(), retention.deletedRows());
             
             log.info("Data cleanup completed successfully");
         } catch (Exception e) {
@@ -5,8 +5,8 @@ import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.UserApiConfig;
 import com.mintstack.finance.entity.UserApiConfig.ApiProvider;
 import com.mintstack.finance.entity.UserDataPreference.DataType;
-import com.mintstack.finance.repository.UserApiConfigRepository;
 import com.mintstack.finance.repository.UserDataPreferenceRepository;
+import com.mintstack.finance.service.ApiProviderRegistry;
 import com.mintstack.finance.service.external.AlphaVantageClient;
 import com.mintstack.finance.service.external.FinnhubClient;
 import com.mintstack.finance.service.external.YahooFinanceClient;
@@ -27,7 +27,7 @@ class MarketDataProviderResolver {
     private final YahooFinanceClient yahooFinanceClient;
     private final AlphaVantageClient alphaVantageClient;
     private final FinnhubClient finnhubClient;
-    private final UserApiConfigRepository userApiConfigRepository;
+    private final ApiProviderRegistry apiProviderRegistry;
     private final UserDataPreferenceRepository preferenceRepository;
 
     @Observed(name = "market-data.resolve-preferred-providers", contextualName = "resolve-preferred-providers")
@@ -174,10 +174,7 @@ class MarketDataProviderResolver {
     }
 
     public UserApiConfig getActiveConfig(ApiProvider provider) {
-        return userApiConfigRepository.findByProviderAndIsActiveTrue(provider)
-            .stream()
-            .findFirst()
-            .orElse(null);
+        return apiProviderRegistry.getActiveConfig(provider);
     }
 
     private boolean isProviderConfigured(
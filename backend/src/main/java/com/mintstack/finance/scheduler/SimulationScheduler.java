@@ -1,6 +1,7 @@
 package com.mintstack.finance.scheduler;
 
 import com.mintstack.finance.entity.SimulationConfig;
+import com.mintstack.finance.service.market.CacheRefreshAheadService;
 import com.mintstack.finance.service.simulation.SimulationDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,12 +19,18 @@ import java.util.concurrent.atomic.AtomicLong;
 public class SimulationScheduler {
 
     private final SimulationDataService simulationDataService;
+    private final CacheRefreshAheadService cacheRefreshAheadService;
     private final AtomicLong tickCount = new AtomicLong(0);
     private volatile long lastUpdateTime = 0;
+    private volatile long lastCurrencyRefreshTime = 0;
 
     @Value("${app.scheduler.enabled:true}")
     private boolean schedulerEnabled;
 
+    // Simüle kurlar her tick'te değişse de kur önbelleği en fazla bu aralıkla yenilenir
+    @Value("${app.cache.refresh-ahead.simulation-interval-ms:30000}")
+    private long currencyRefreshIntervalMs = 30_000L;
+
     /**
      * Ana simülasyon döngüsü - Her saniye çalışır
      * Gerçek güncelleme aralığı config'den alınır
@@ -53,6 +60,10 @@ public class SimulationScheduler {
         if (elapsed >= intervalSeconds * 1000L) {
             try {
                 simulationDataService.simulateAllPrices();
+                if (currentTime - lastCurrencyRefreshTime >= currencyRefreshIntervalMs) {
+                    cacheRefreshAheadService.refreshCurrencyRates();
+                    lastCurrencyRefreshTime = currentTime;
+                }
                 lastUpdateTime = currentTime;
                 
                 long tick = tickCount.incrementAndGet();
@@ -108,5 +119,6 @@ public class SimulationScheduler {
     public void resetTickCount() {
         tickCount.set(0);
         lastUpdateTime = 0;
+        lastCurrencyRefreshTime = 0;
     }
 }
@@ -2,11 +2,14 @@ package com.mintstack.finance.service;
 
 import com.mintstack.finance.dto.request.CompareInstrumentsRequest;
 import com.mintstack.finance.entity.Instrument;
-import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.exception.BadRequestException;
 import com.mintstack.finance.exception.ResourceNotFoundException;
 import com.mintstack.finance.repository.InstrumentRepository;
 import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.RangeBarView;
+import com.mintstack.finance.service.indicator.MovingAverages;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -16,17 +19,20 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnalysisService {
 
+    private static final int[] DEFAULT_MA_PERIODS = {7, 25, 99};
+    private static final int MAX_MA_PERIODS = 10;
+    private static final int MAX_MA_PERIOD = 500;
+
     private final InstrumentRepository instrumentRepository;
     private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryStore priceHistoryStore;
 
     /**
      * Calculate Moving Average (SMA/EMA/WMA)
@@ -35,49 +41,23 @@ public class AnalysisService {
     public Map<String, Object> getMovingAverage(String symbol, int period, LocalDate endDate, String type) {
         LocalDate startDate = endDate.minusDays(period + 50); // Extra data for calculation
         
-        List<PriceHistory> history = ensureHistory(symbol, startDate, endDate, period);
+        PriceBars history = ensureHistory(symbol, startDate, endDate, period);
         
         if (history.isEmpty() || history.size() < period) {
             throw new ResourceNotFoundException("Fiyat geçmişi", "sembol", symbol);
         }
 
-        String maType = type == null || type.isBlank() ? "SMA" : type.trim().toUpperCase();
-        if (!List.of("SMA", "EMA", "WMA").contains(maType)) {
-            throw new BadRequestException("Desteklenmeyen MA tipi: " + type);
-        }
+        String maType = resolveMaType(type);
         
-        List<BigDecimal> closePrices = history.stream()
-            .map(PriceHistory::getClosePrice)
-            .collect(Collectors.toList());
+        List<BigDecimal> closePrices = toClosePrices(history);
+        double[] averages = MovingAverages.compute(maType, history.closes(), period)[0];
         
         List<Map<String, Object>> maData = new ArrayList<>();
-
-        BigDecimal emaValue = null;
-        BigDecimal emaMultiplier = BigDecimal.valueOf(2.0 / (period + 1.0));
-        
         for (int i = period - 1; i < history.size(); i++) {
-            BigDecimal ma;
-
-            if ("EMA".equals(maType)) {
-                if (emaValue == null) {
-                    emaValue = calculateMA(closePrices, i, period);
-                } else {
-                    BigDecimal price = closePrices.get(i);
-                    emaValue = price.subtract(emaValue)
-                        .multiply(emaMultiplier)
-                        .add(emaValue);
-                }
-                ma = emaValue;
-            } else if ("WMA".equals(maType)) {
-                ma = calculateWMA(closePrices, i, period);
-            } else {
-                ma = calculateMA(closePrices, i, period);
-            }
-            
             Map<String, Object> point = new HashMap<>();
-            point.put("date", history.get(i).getPriceDate());
+            point.put("date", history.date(i));
             point.put("price", closePrices.get(i));
-            point.put("ma", ma);
+            point.put("ma", toDecimal(averages[i]));
             maData.add(point);
         }
 
@@ -115,40 +95,47 @@ public class AnalysisService {
     }
 
     /**
-     * Get multiple moving averages (MA7, MA25, MA99)
+     * Get multiple moving averages (default MA7, MA25, MA99), all periods computed in one pass
      */
-    @Cacheable(value = "historicalData", key = "'ma-' + #symbol + '-' + #endDate")
+    @Cacheable(value = "historicalData",
+        key = "'ma-' + #symbol + '-' + #endDate + '-' + #periods + '-' + #type")
     @Transactional(readOnly = true)
-    public Map<String, Object> getMultipleMovingAverages(String symbol, LocalDate endDate) {
-        LocalDate startDate = endDate.minusDays(150);
+    public Map<String, Object> getMultipleMovingAverages(String symbol, LocalDate endDate,
+                                                         List<Integer> periods, String type) {
+        int[] maPeriods = resolvePeriods(periods);
+        String maType = resolveMaType(type);
+        int longestPeriod = Arrays.stream(maPeriods).max().orElse(DEFAULT_MA_PERIODS[0]);
+        // Calendar days covering the longest period plus ~50 plotted trading days, with room for weekends and holidays
+        LocalDate startDate = endDate.minusDays((longestPeriod + 50L) * 3 / 2 + 15);
         
-        List<PriceHistory> history = ensureHistory(symbol, startDate, endDate, 99);
+        PriceBars history = ensureHistory(symbol, startDate, endDate, longestPeriod);
         
-        if (history.size() < 99) {
+        if (history.size() < longestPeriod) {
             throw new ResourceNotFoundException("Yeterli fiyat geçmişi yok", "sembol", symbol);
         }
         
-        List<BigDecimal> closePrices = history.stream()
-            .map(PriceHistory::getClosePrice)
-            .collect(Collectors.toList());
+        List<BigDecimal> closePrices = toClosePrices(history);
+        double[][] averages = MovingAverages.compute(maType, history.closes(), maPeriods);
         
         List<Map<String, Object>> maData = new ArrayList<>();
         
-        for (int i = 98; i < history.size(); i++) {
+        for (int i = longestPeriod - 1; i < history.size(); i++) {
             Map<String, Object> point = new HashMap<>();
-            point.put("date", history.get(i).getPriceDate());
+            point.put("date", history.date(i));
             point.put("price", closePrices.get(i));
-            point.put("ma7", calculateMA(closePrices, i, 7));
-            point.put("ma25", calculateMA(closePrices, i, 25));
-            point.put("ma99", calculateMA(closePrices, i, 99));
+            for (int k = 0; k < maPeriods.length; k++) {
+                point.put("ma" + maPeriods[k], toDecimal(averages[k][i]));
+            }
             maData.add(point);
         }
         
         Map<String, Object> result = new HashMap<>();
         result.put("symbol", symbol);
-        result.put("data", maData);
+        result.put("type", maType);
+        result.put("periods", Arrays.stream(maPeriods).boxed().toList());
+        result.put("data", Collections.unmodifiableList(maData));
         
-        return result;
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -160,27 +147,27 @@ public class AnalysisService {
         LocalDate startDate = endDate.minusDays(days);
         
         int minimumPoints = Math.max(2, days + 1);
-        List<PriceHistory> history = ensureHistory(symbol, startDate, endDate, minimumPoints);
+        PriceBars history = ensureHistory(symbol, startDate, endDate, minimumPoints);
         
         if (history.isEmpty()) {
             throw new ResourceNotFoundException("Fiyat geçmişi", "sembol", symbol);
         }
         
-        BigDecimal firstPrice = history.get(0).getClosePrice();
-        BigDecimal lastPrice = history.get(history.size() - 1).getClosePrice();
+        List<BigDecimal> closePrices = toClosePrices(history);
+        BigDecimal firstPrice = closePrices.get(0);
+        BigDecimal lastPrice = closePrices.get(closePrices.size() - 1);
         
         BigDecimal changePercent = lastPrice.subtract(firstPrice)
             .divide(firstPrice, 6, RoundingMode.HALF_UP)
             .multiply(BigDecimal.valueOf(100));
         
         // Calculate volatility (standard deviation)
-        BigDecimal avgPrice = history.stream()
-            .map(PriceHistory::getClosePrice)
+        BigDecimal avgPrice = closePrices.stream()
             .reduce(BigDecimal.ZERO, BigDecimal::add)
             .divide(BigDecimal.valueOf(history.size()), 6, RoundingMode.HALF_UP);
         
-        BigDecimal variance = history.stream()
-            .map(h -> h.getClosePrice().subtract(avgPrice).pow(2))
+        BigDecimal variance = closePrices.stream()
+            .map(price -> price.subtract(avgPrice).pow(2))
             .reduce(BigDecimal.ZERO, BigDecimal::add)
             .divide(BigDecimal.valueOf(history.size()), 6, RoundingMode.HALF_UP);
         
@@ -211,71 +198,53 @@ public class AnalysisService {
         result.put("trend", trend);
         result.put("trendStrength", trendStrength);
         result.put("volatility", BigDecimal.valueOf(volatility).setScale(4, RoundingMode.HALF_UP));
-        result.put("highPrice", history.stream().map(PriceHistory::getHighPrice).filter(Objects::nonNull).max(BigDecimal::compareTo).orElse(null));
-        result.put("lowPrice", history.stream().map(PriceHistory::getLowPrice).filter(Objects::nonNull).min(BigDecimal::compareTo).orElse(null));
+        result.put("highPrice", resolveHighestHigh(history));
+        result.put("lowPrice", resolveLowestLow(history));
         result.put("support", result.get("lowPrice"));
         result.put("resistance", result.get("highPrice"));
         result.put("strength", mapTrendStrengthToPercent(trendStrength));
         
         // Add chart data
-        List<Map<String, Object>> chartData = history.stream()
-            .map(h -> {
-                Map<String, Object> point = new HashMap<>();
-                point.put("date", h.getPriceDate());
-                point.put("price", h.getClosePrice());
-                return point;
-            })
-            .collect(Collectors.toList());
+        List<Map<String, Object>> chartData = new ArrayList<>(history.size());
+        for (int i = 0; i < history.size(); i++) {
+            Map<String, Object> point = new HashMap<>();
+            point.put("date", history.date(i));
+            point.put("price", closePrices.get(i));
+            chartData.add(point);
+        }
         result.put("data", chartData);
         
         return result;
     }
 
     /**
-     * Compare multiple instruments
+     * Compare multiple instruments: the history of every symbol is loaded with one query and each series is
+     * normalized in memory
      */
     @Transactional(readOnly = true)
     public Map<String, Object> compareInstruments(CompareInstrumentsRequest request) {
-        List<Map<String, Object>> comparisonData = new ArrayList<>();
+        List<String> symbols = request.getSymbols().stream().distinct().toList();
+        Map<String, Instrument> instruments = resolveInstrumentsBySymbol(symbols);
+        Map<UUID, List<RangeBarView>> rowsByInstrument = loadRangeBars(
+            instruments.values().stream().map(Instrument::getId).toList(),
+            request.getStartDate(), request.getEndDate());
         
-        for (String symbol : request.getSymbols()) {
-            long requestedDays = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate());
-            int minimumPoints = (int) Math.max(2, Math.min(requestedDays + 1, 366));
-            List<PriceHistory> history = ensureHistory(
-                symbol, request.getStartDate(), request.getEndDate(), minimumPoints);
-            
-            if (history.isEmpty()) {
-                log.warn("No price history found for symbol: {}", symbol);
-                continue;
-            }
-            
-            BigDecimal firstPrice = history.get(0).getClosePrice();
-            
-            // Normalize prices as percentage change from start
-            List<Map<String, Object>> normalizedPrices = history.stream()
-                .map(h -> {
-                    BigDecimal normalizedValue = h.getClosePrice()
-                        .subtract(firstPrice)
-                        .divide(firstPrice, 6, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100));
-                    
-                    Map<String, Object> point = new HashMap<>();
-                    point.put("date", h.getPriceDate());
-                    point.put("value", normalizedValue);
-                    point.put("price", h.getClosePrice());
-                    return point;
-                })
-                .collect(Collectors.toList());
-            
-            Instrument instrument = resolveInstrumentBySymbol(symbol).orElse(null);
-            
-            Map<String, Object> instrumentData = new HashMap<>();
-            instrumentData.put("symbol", symbol);
-            instrumentData.put("name", instrument != null ? instrument.getName() : symbol);
-            instrumentData.put("data", normalizedPrices);
-            
-            comparisonData.add(instrumentData);
-        }
+        List<Map<String, Object>> comparisonData = symbols.stream()
+            .map(symbol -> {
+                Instrument instrument = instruments.get(symbol);
+                List<RangeBarView> rows = instrument != null ? rowsByInstrument.get(instrument.getId()) : null;
+                if (rows == null || rows.isEmpty()) {
+                    log.warn("No price history found for symbol: {}", symbol);
+                    return null;
+                }
+                Map<String, Object> instrumentData = new HashMap<>();
+                instrumentData.put("symbol", symbol);
+                instrumentData.put("name", instrument.getName() != null ? instrument.getName() : symbol);
+                instrumentData.put("data", normalize(rows));
+                return instrumentData;
+            })
+            .filter(Objects::nonNull)
+            .toList();
         
         Map<String, Object> result = new HashMap<>();
         result.put("startDate", request.getStartDate());
@@ -285,34 +254,64 @@ public class AnalysisService {
         return result;
     }
 
-    private BigDecimal calculateMA(List<BigDecimal> prices, int currentIndex, int period) {
-        if (currentIndex < period - 1) {
-            return null;
+    private Map<UUID, List<RangeBarView>> loadRangeBars(List<UUID> instrumentIds, LocalDate startDate, LocalDate endDate) {
+        if (instrumentIds.isEmpty() || startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            return Map.of();
         }
-        
-        BigDecimal sum = BigDecimal.ZERO;
-        for (int i = currentIndex - period + 1; i <= currentIndex; i++) {
-            sum = sum.add(prices.get(i));
+        Map<UUID, List<RangeBarView>> rowsByInstrument = new HashMap<>();
+        for (RangeBarView row : priceHistoryRepository.findRangeBarsByInstrumentIds(instrumentIds, startDate, endDate)) {
+            if (row.getPriceDate() != null && row.getClosePrice() != null) {
+                rowsByInstrument.computeIfAbsent(row.getInstrumentId(), ignored -> new ArrayList<>()).add(row);
+            }
         }
-        return sum.divide(BigDecimal.valueOf(period), 6, RoundingMode.HALF_UP);
+        return rowsByInstrument;
     }
 
-    private BigDecimal calculateWMA(List<BigDecimal> prices, int currentIndex, int period) {
-        if (currentIndex < period - 1) {
-            return null;
+    // Normalize prices as percentage change from the first bar in range
+    private List<Map<String, Object>> normalize(List<RangeBarView> rows) {
+        BigDecimal firstPrice = rows.get(0).getClosePrice();
+        List<Map<String, Object>> normalizedPrices = new ArrayList<>(rows.size());
+        for (RangeBarView row : rows) {
+            BigDecimal price = row.getClosePrice();
+            BigDecimal normalizedValue = firstPrice.signum() == 0 ? null : price
+                .subtract(firstPrice)
+                .divide(firstPrice, 6, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100));
+            
+            Map<String, Object> point = new HashMap<>();
+            point.put("date", row.getPriceDate());
+            point.put("value", normalizedValue);
+            point.put("price", price);
+            normalizedPrices.add(point);
+        }
+        return normalizedPrices;
+    }
+
+    private String resolveMaType(String type) {
+        String maType = type == null || type.isBlank() ? MovingAverages.SMA : type.trim().toUpperCase();
+        if (!MovingAverages.isSupported(maType)) {
+            throw new BadRequestException("Desteklenmeyen MA tipi: " + type);
         }
+        return maType;
+    }
 
-        BigDecimal weightedSum = BigDecimal.ZERO;
-        BigDecimal weightTotal = BigDecimal.ZERO;
-        int weight = 1;
-        for (int i = currentIndex - period + 1; i <= currentIndex; i++) {
-            BigDecimal weightValue = BigDecimal.valueOf(weight);
-            weightedSum = weightedSum.add(prices.get(i).multiply(weightValue));
-            weightTotal = weightTotal.add(weightValue);
-            weight++;
+    private int[] resolvePeriods(List<Integer> periods) {
+        if (periods == null || periods.isEmpty()) {
+            return DEFAULT_MA_PERIODS;
+        }
+        if (periods.size() > MAX_MA_PERIODS) {
+            throw new BadRequestException("En fazla " + MAX_MA_PERIODS + " periyot seçilebilir");
         }
+        for (Integer period : periods) {
+            if (period == null || period <= 0 || period > MAX_MA_PERIOD) {
+                throw new BadRequestException("Geçersiz MA periyodu: " + period);
+            }
+        }
+        return periods.stream().mapToInt(Integer::intValue).distinct().toArray();
+    }
 
-        return weightedSum.divide(weightTotal, 6, RoundingMode.HALF_UP);
+    private static BigDecimal toDecimal(double value) {
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value).setScale(6, RoundingMode.HALF_UP);
     }
 
     private Integer mapTrendStrengthToPercent(String trendStrength) {
@@ -328,12 +327,51 @@ public class AnalysisService {
         };
     }
 
-    private List<PriceHistory> ensureHistory(String symbol, LocalDate startDate, LocalDate endDate, int minimumPoints) {
-        List<PriceHistory> history = priceHistoryRepository.findBySymbolAndDateRange(symbol, startDate, endDate);
+    private PriceBars ensureHistory(String symbol, LocalDate startDate, LocalDate endDate, int minimumPoints) {
+        return resolveInstrumentBySymbol(symbol)
+            .map(instrument -> priceHistoryStore.between(instrument.getId(), startDate, endDate))
+            .orElse(PriceBars.empty());
+    }
+
+    private List<BigDecimal> toClosePrices(PriceBars history) {
+        List<BigDecimal> closePrices = new ArrayList<>(history.size());
+        for (int i = 0; i < history.size(); i++) {
+            closePrices.add(history.closeDecimal(i));
+        }
+        return closePrices;
+    }
+
+    private BigDecimal resolveHighestHigh(PriceBars history) {
+        double highest = Double.NaN;
+        for (int i = 0; i < history.size(); i++) {
+            if (history.hasHigh(i) && (Double.isNaN(highest) || history.high(i) > highest)) {
+                highest = history.high(i);
+            }
+        }
+        return Double.isNaN(highest) ? null : BigDecimal.valueOf(highest);
+    }
 
-        return history.stream()
-            .sorted(Comparator.comparing(PriceHistory::getPriceDate))
-            .collect(Collectors.toList());
+    private BigDecimal resolveLowestLow(PriceBars history) {
+        double lowest = Double.NaN;
+        for (int i = 0; i < history.size(); i++) {
+            if (history.hasLow(i) && (Double.isNaN(lowest) || history.low(i) < lowest)) {
+                lowest = history.low(i);
+            }
+        }
+        return Double.isNaN(lowest) ? null : BigDecimal.valueOf(lowest);
+    }
+
+    // Same preference as resolveInstrumentBySymbol: the simulated instrument, then the real one
+    private Map<String, Instrument> resolveInstrumentsBySymbol(List<String> symbols) {
+        Map<String, Instrument> instruments = new HashMap<>();
+        for (Instrument instrument : instrumentRepository.findBySymbolIn(symbols)) {
+            boolean simulated = Boolean.TRUE.equals(instrument.getIsSimulated());
+            Instrument current = instruments.get(instrument.getSymbol());
+            if (current == null || simulated && !Boolean.TRUE.equals(current.getIsSimulated())) {
+                instruments.put(instrument.getSymbol(), instrument);
+            }
+        }
+        return instruments;
     }
 
     private Optional<Instrument> resolveInstrumentBySymbol(String symbol) {
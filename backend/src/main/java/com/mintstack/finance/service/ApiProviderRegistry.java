@@ -0,0 +1,155 @@
+package com.mintstack.finance.service;
+
+import com.mintstack.finance.entity.UserApiConfig;
+import com.mintstack.finance.entity.UserApiConfig.ApiProvider;
+import com.mintstack.finance.repository.UserApiConfigRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of active API provider configs with their decrypted credentials.
+ *
+ * Each provider is loaded once from user_api_configs (so EncryptedStringConverter runs once per config,
+ * not once per request) and served from memory until {@link #invalidate()} is called. Invalidation is
+ * deferred to transaction commit and fanned out to the other nodes over Redis pub/sub.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApiProviderRegistry {
+
+    public static final String CHANNEL = "mintstack:api-provider:invalidate";
+
+    private final UserApiConfigRepository userApiConfigRepository;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final Map<ApiProvider, List<ActiveApiConfig>> activeConfigs = new ConcurrentHashMap<>();
+
+    @Value("${app.redis.cache.enabled:true}")
+    private boolean redisEnabled = true;
+
+    /**
+     * STRICT: a provider is active only if there is an explicit active config entry in the DB.
+     */
+    public boolean isActive(ApiProvider provider) {
+        return provider != null && !resolve(provider).isEmpty();
+    }
+
+    public boolean hasAnyActive() {
+        for (ApiProvider provider : ApiProvider.values()) {
+            if (isActive(provider)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Detached copy of the first active config for the provider, or {@code null} when none is active.
+     * Callers may read or mutate the copy freely; it is not attached to a persistence context.
+     */
+    public UserApiConfig getActiveConfig(ApiProvider provider) {
+        if (provider == null) {
+            return null;
+        }
+        List<ActiveApiConfig> configs = resolve(provider);
+        return configs.isEmpty() ? null : configs.get(0).toEntity();
+    }
+
+    /**
+     * Drops every cached provider on this node and on the rest of the cluster. Inside a transaction the
+     * drop happens after commit, so concurrent readers cannot re-cache the pre-change state.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAndPublish();
+                }
+            });
+            return;
+        }
+        invalidateAndPublish();
+    }
+
+    /**
+     * Entry point for invalidations received from other nodes.
+     */
+    public void invalidateLocally() {
+        activeConfigs.clear();
+        log.debug("Active API provider registry invalidated");
+    }
+
+    private void invalidateAndPublish() {
+        invalidateLocally();
+        if (!redisEnabled) {
+            return;
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, "all");
+        } catch (Exception error) {
+            log.warn("API provider registry invalidation could not be published: {}", error.getMessage());
+        }
+    }
+
+    private List<ActiveApiConfig> resolve(ApiProvider provider) {
+        return activeConfigs.computeIfAbsent(provider, this::load);
+    }
+
+    private List<ActiveApiConfig> load(ApiProvider provider) {
+        List<UserApiConfig> configs = userApiConfigRepository.findByProviderAndIsActiveTrue(provider);
+        if (configs == null || configs.isEmpty()) {
+            return List.of();
+        }
+        return configs.stream()
+                .map(ActiveApiConfig::from)
+                .toList();
+    }
+
+    private record ActiveApiConfig(
+            UUID id,
+            ApiProvider provider,
+            String apiKey,
+            String secretKey,
+            String baseUrl
+    ) {
+
+        static ActiveApiConfig from(UserApiConfig config) {
+            return new ActiveApiConfig(
+                    config.getId(),
+                    config.getProvider(),
+                    config.getApiKey(),
+                    config.getSecretKey(),
+                    config.getBaseUrl()
+            );
+        }
+
+        UserApiConfig toEntity() {
+            UserApiConfig config = UserApiConfig.builder()
+                    .provider(provider)
+                    .apiKey(apiKey)
+                    .secretKey(secretKey)
+                    .baseUrl(baseUrl)
+                    .isActive(true)
+                    .build();
+            config.setId(id);
+            return config;
+        }
+    }
+}
@@ -3,9 +3,9 @@ package com.mintstack.finance.service;
 import com.mintstack.finance.dto.response.BacktestResult;
 import com.mintstack.finance.dto.response.TradeRecord;
 import com.mintstack.finance.entity.Instrument;
-import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.repository.InstrumentRepository;
-import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import com.mintstack.finance.service.strategy.MovingAverageCrossoverStrategy;
 import com.mintstack.finance.service.strategy.RSIStrategy;
 import com.mintstack.finance.service.strategy.Signal;
@@ -29,7 +29,7 @@ import java.util.*;
 public class BacktestingService {
 
     private final InstrumentRepository instrumentRepository;
-    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryStore priceHistoryStore;
 
     private final Map<String, TradingStrategy> strategies = new HashMap<>();
 
@@ -81,9 +81,7 @@ public class BacktestingService {
         // Tarihleri genişlet (strateji için gerekli geçmiş veri)
         LocalDate extendedStartDate = startDate.minusDays(strategy.getRequiredHistoryLength());
         
-        List<PriceHistory> allHistory = priceHistoryRepository
-                .findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                        instrument.getId(), extendedStartDate, endDate);
+        PriceBars allHistory = priceHistoryStore.between(instrument.getId(), extendedStartDate, endDate);
 
         if (allHistory.size() < strategy.getRequiredHistoryLength()) {
             log.warn("Yeterli tarihsel veri yok: {} (gerekli: {}, mevcut: {})",
@@ -113,7 +111,7 @@ public class BacktestingService {
     // =================== PRIVATE METHODS ===================
 
     private BacktestResult executeBacktest(TradingStrategy strategy, String symbol,
-                                            List<PriceHistory> allHistory,
+                                            PriceBars allHistory,
                                             LocalDate startDate, LocalDate endDate,
                                             BigDecimal initialCapital) {
         
@@ -133,20 +131,13 @@ public class BacktestingService {
         double previousValue = cash;
 
         // Her gün için stratejiyi çalıştır
-        for (int i = 0; i < allHistory.size(); i++) {
-            PriceHistory current = allHistory.get(i);
-            
-            // Başlangıç tarihinden önce sadece geçmiş biriktir
-            if (current.getPriceDate().isBefore(startDate)) {
-                continue;
-            }
+        int firstIndex = allHistory.indexOnOrAfter(startDate);
+        for (int i = firstIndex; i < allHistory.size(); i++) {
+            LocalDate priceDate = allHistory.date(i);
 
-            // Geçmiş veriyi al
-            List<PriceHistory> historicalData = allHistory.subList(0, i + 1);
-            
-            // Sinyal üret
-            Signal signal = strategy.generateSignal(current, historicalData, position);
-            double price = current.getClosePrice().doubleValue();
+            // Sinyal üret (geçmiş veri: 0..i)
+            Signal signal = strategy.generateSignal(allHistory, i, position);
+            double price = allHistory.close(i);
 
             // İşlem yap
             if (signal == Signal.BUY && position == 0 && cash > price) {
@@ -157,7 +148,7 @@ public class BacktestingService {
                 position = quantity;
                 
                 trades.add(new TradeRecord(
-                        current.getPriceDate(),
+                        priceDate,
                         Signal.BUY,
                         BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP),
                         quantity,
@@ -181,7 +172,7 @@ public class BacktestingService {
                 cash += revenue;
                 
                 trades.add(new TradeRecord(
-                        current.getPriceDate(),
+                        priceDate,
                         Signal.SELL,
                         BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP),
                         position,
@@ -210,7 +201,7 @@ public class BacktestingService {
         }
 
         // Son pozisyonu kapat
-        double finalPrice = allHistory.get(allHistory.size() - 1).getClosePrice().doubleValue();
+        double finalPrice = allHistory.close(allHistory.lastIndex());
         double finalValue = cash + (position * finalPrice);
         
         // Metrikleri hesapla
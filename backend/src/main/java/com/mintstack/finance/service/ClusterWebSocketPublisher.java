@@ -2,6 +2,7 @@ package com.mintstack.finance.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mintstack.finance.dto.response.PriceUpdateMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
@@ -10,6 +11,8 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -17,9 +20,20 @@ public class ClusterWebSocketPublisher {
 
     public static final String CHANNEL = "mintstack:websocket:broadcast";
 
+    /**
+     * Topics every price update is broadcast to exactly once; the per-symbol topics repeat the same update.
+     */
+    private static final Set<String> PRICE_TICK_DESTINATIONS = Set.of(
+            "/topic/prices",
+            "/topic/prices/stocks",
+            "/topic/prices/crypto",
+            "/topic/prices/currency"
+    );
+
     private final ObjectMapper objectMapper;
     private final SimpMessagingTemplate messagingTemplate;
     private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectProvider<PriceTickListener> priceTickListeners;
 
     @Value("${app.redis.cache.enabled:true}")
     private boolean redisEnabled;
@@ -43,6 +57,9 @@ public class ClusterWebSocketPublisher {
                 messagingTemplate.convertAndSendToUser(userId.asText(), destination, payload);
             } else {
                 messagingTemplate.convertAndSend(destination, payload);
+                if (PRICE_TICK_DESTINATIONS.contains(destination)) {
+                    notifyPriceTick(payload);
+                }
             }
         } catch (Exception error) {
             log.error("Rejected invalid WebSocket broadcast envelope: {}", error.getMessage());
@@ -71,6 +88,10 @@ public class ClusterWebSocketPublisher {
     private void sendLocally(BroadcastEnvelope envelope) {
         if (envelope.userId() == null) {
             messagingTemplate.convertAndSend(envelope.destination(), envelope.payload());
+            if (PRICE_TICK_DESTINATIONS.contains(envelope.destination())
+                    && envelope.payload() instanceof PriceUpdateMessage update) {
+                notifyPriceTick(update);
+            }
         } else {
             messagingTemplate.convertAndSendToUser(
                     envelope.userId(),
@@ -80,6 +101,27 @@ public class ClusterWebSocketPublisher {
         }
     }
 
+    private void notifyPriceTick(JsonNode payload) {
+        if (payload == null || !payload.isObject()) {
+            return;
+        }
+        try {
+            notifyPriceTick(objectMapper.treeToValue(payload, PriceUpdateMessage.class));
+        } catch (Exception error) {
+            log.debug("Ignoring unreadable price update payload: {}", error.getMessage());
+        }
+    }
+
+    private void notifyPriceTick(PriceUpdateMessage update) {
+        priceTickListeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onPriceUpdate(update);
+            } catch (RuntimeException error) {
+                log.warn("Price tick listener failed for {}: {}", update.getSymbol(), error.getMessage());
+            }
+        });
+    }
+
     private String requiredText(JsonNode root, String field) {
         JsonNode value = root.get(field);
         if (value == null || !value.isTextual() || value.asText().isBlank()) {
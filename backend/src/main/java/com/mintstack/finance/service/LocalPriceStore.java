@@ -0,0 +1,190 @@
+package com.mintstack.finance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mintstack.finance.dto.cache.SimulationConfigData;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-process copy of the simulation prices {@link PriceCacheService} keeps in Redis.
+ *
+ * Every write is mirrored here so reads can be answered while Redis is down. Writes made during an outage
+ * are also remembered as pending (upserts, deletes, or a full clear) and handed back by {@link #drain()}
+ * for replay once Redis is reachable again. Each asset class is bounded; a pending upsert whose value was
+ * evicted is dropped with it. Callers that need buffering and draining to be atomic with a state change
+ * synchronize on the store.
+ */
+final class LocalPriceStore {
+
+    private final Area stocks;
+    private final Area currencies;
+    private final Area indices;
+
+    private SimulationConfigData config;
+    private boolean configPending;
+    private boolean configCleared;
+
+    LocalPriceStore(long maxEntriesPerAssetClass) {
+        this.stocks = new Area(maxEntriesPerAssetClass);
+        this.currencies = new Area(maxEntriesPerAssetClass);
+        this.indices = new Area(maxEntriesPerAssetClass);
+    }
+
+    Area stocks() {
+        return stocks;
+    }
+
+    Area currencies() {
+        return currencies;
+    }
+
+    Area indices() {
+        return indices;
+    }
+
+    synchronized SimulationConfigData config() {
+        return config;
+    }
+
+    synchronized void putConfig(SimulationConfigData data, boolean pending) {
+        config = data;
+        configPending |= pending;
+        configCleared &= !pending;
+    }
+
+    synchronized void clear(boolean pending) {
+        stocks.clear(pending);
+        currencies.clear(pending);
+        indices.clear(pending);
+        config = null;
+        configPending = false;
+        configCleared |= pending;
+    }
+
+    /**
+     * Hands out and forgets the pending writes; {@link #restore(Pending)} puts them back if replay fails.
+     */
+    synchronized Pending drain() {
+        Pending pending = new Pending(
+                stocks.drain(), currencies.drain(), indices.drain(), configPending ? config : null, configCleared);
+        configPending = false;
+        configCleared = false;
+        return pending;
+    }
+
+    synchronized void restore(Pending pending) {
+        stocks.restore(pending.stocks());
+        currencies.restore(pending.currencies());
+        indices.restore(pending.indices());
+        configPending |= pending.config() != null;
+        configCleared |= pending.configCleared();
+    }
+
+    record Pending(Changes stocks,
+                   Changes currencies,
+                   Changes indices,
+                   SimulationConfigData config,
+                   boolean configCleared) {
+
+        boolean isEmpty() {
+            return stocks.isEmpty() && currencies.isEmpty() && indices.isEmpty() && config == null && !configCleared;
+        }
+    }
+
+    record Changes(boolean cleared, Map<String, Object> upserts, Set<String> deletes) {
+
+        boolean isEmpty() {
+            return !cleared && upserts.isEmpty() && deletes.isEmpty();
+        }
+    }
+
+    /**
+     * One asset class: the latest value per symbol plus what is still owed to Redis.
+     */
+    final class Area {
+
+        private final Cache<String, Object> values;
+        private final Set<String> pendingUpserts = new LinkedHashSet<>();
+        private final Set<String> pendingDeletes = new LinkedHashSet<>();
+        private boolean pendingClear;
+
+        private Area(long maxEntries) {
+            this.values = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        }
+
+        Object get(String key) {
+            return values.getIfPresent(key);
+        }
+
+        Map<String, Object> snapshot() {
+            return new HashMap<>(values.asMap());
+        }
+
+        void put(String key, Object value, boolean pending) {
+            synchronized (LocalPriceStore.this) {
+                values.put(key, value);
+                if (pending) {
+                    pendingUpserts.add(key);
+                    pendingDeletes.remove(key);
+                }
+            }
+        }
+
+        void putAll(Map<String, ?> entries, boolean pending) {
+            synchronized (LocalPriceStore.this) {
+                entries.forEach((key, value) -> put(key, value, pending));
+            }
+        }
+
+        void remove(String key, boolean pending) {
+            synchronized (LocalPriceStore.this) {
+                values.invalidate(key);
+                pendingUpserts.remove(key);
+                if (pending) {
+                    pendingDeletes.add(key);
+                }
+            }
+        }
+
+        private void clear(boolean pending) {
+            values.invalidateAll();
+            pendingUpserts.clear();
+            pendingDeletes.clear();
+            pendingClear |= pending;
+        }
+
+        private Changes drain() {
+            Map<String, Object> upserts = new LinkedHashMap<>();
+            for (String key : pendingUpserts) {
+                Object value = values.getIfPresent(key);
+                if (value != null) {
+                    upserts.put(key, value);
+                }
+            }
+            Changes changes = new Changes(pendingClear, upserts, new LinkedHashSet<>(pendingDeletes));
+            pendingUpserts.clear();
+            pendingDeletes.clear();
+            pendingClear = false;
+            return changes;
+        }
+
+        private void restore(Changes changes) {
+            pendingClear |= changes.cleared();
+            for (String key : changes.upserts().keySet()) {
+                if (!pendingDeletes.contains(key)) {
+                    pendingUpserts.add(key);
+                }
+            }
+            for (String key : changes.deletes()) {
+                if (!pendingUpserts.contains(key)) {
+                    pendingDeletes.add(key);
+                }
+            }
+        }
+    }
+}
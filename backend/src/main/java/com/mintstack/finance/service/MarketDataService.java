@@ -1,5 +1,6 @@
 package com.mintstack.finance.service;
 
+import com.mintstack.finance.config.SingleFlight;
 import com.mintstack.finance.dto.response.CurrencyRateResponse;
 import com.mintstack.finance.dto.response.InstrumentResponse;
 import com.mintstack.finance.dto.response.PriceHistoryResponse;
@@ -10,41 +11,68 @@ import com.mintstack.finance.entity.Instrument.InstrumentType;
 import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.exception.ResourceNotFoundException;
 import com.mintstack.finance.repository.CurrencyRateRepository;
+import com.mintstack.finance.repository.CurrencyRateRepository.RatePointView;
 import com.mintstack.finance.repository.InstrumentRepository;
 import com.mintstack.finance.repository.PriceHistoryRepository;
-import com.mintstack.finance.repository.UserApiConfigRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.HistoryPointView;
 import com.mintstack.finance.repository.UserDataPreferenceRepository;
 import com.mintstack.finance.entity.UserApiConfig;
 import com.mintstack.finance.entity.UserApiConfig.ApiProvider;
 import com.mintstack.finance.entity.UserDataPreference.DataType;
+import com.mintstack.finance.service.market.CacheRefreshAheadService;
 import com.mintstack.finance.service.market.InstrumentMetricsService;
+import com.mintstack.finance.service.market.InstrumentSearchIndex;
+import com.mintstack.finance.service.market.InstrumentSearchIndex.Scope;
+import com.mintstack.finance.service.market.InstrumentSearchIndex.SearchHit;
 import com.mintstack.finance.service.market.MarketDataMaintenanceService;
+import com.mintstack.finance.service.market.QuoteSnapshotStore.QuoteBar;
+import com.mintstack.finance.service.market.RangeChangeCache;
+import com.mintstack.finance.service.market.SeriesDownsampler;
+import com.mintstack.finance.service.market.SeriesDownsampler.OhlcBucket;
+import com.mintstack.finance.service.market.SeriesDownsampler.Resolution;
 import com.mintstack.finance.service.simulation.SimulatedCurrency;
 import com.mintstack.finance.service.simulation.SimulatedIndex;
 import com.mintstack.finance.service.simulation.SimulatedStock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -54,6 +82,8 @@ public class MarketDataService {
 
     // Use Istanbul timezone for all date operations to ensure consistency
     private static final ZoneId ISTANBUL_TZ = ZoneId.of("Europe/Istanbul");
+    // How far back to look for a real (non single-price) session when today's bar is synthetic
+    private static final int SESSION_OPEN_LOOKBACK_ROWS = 20;
 
     private LocalDate istanbulDate() {
         return LocalDate.now(ISTANBUL_TZ);
@@ -63,12 +93,19 @@ public class MarketDataService {
     private final CurrencyRateRepository currencyRateRepository;
 
     private final PriceHistoryRepository priceHistoryRepository;
-    private final UserApiConfigRepository userApiConfigRepository;
+    private final ApiProviderRegistry apiProviderRegistry;
     private final UserDataPreferenceRepository userDataPreferenceRepository;
     private final com.mintstack.finance.service.external.YahooFinanceClient yahooFinanceClient;
     private final com.mintstack.finance.service.simulation.SimulationDataService simulationDataService;
     private final MarketDataMaintenanceService marketDataMaintenanceService;
     private final InstrumentMetricsService instrumentMetricsService;
+    private final InstrumentSearchIndex instrumentSearchIndex;
+    private final SingleFlight singleFlight;
+    private final CacheRefreshAheadService cacheRefreshAheadService;
+    private final RangeChangeCache rangeChangeCache;
+
+    @Value("${app.market-data.history.max-points:5000}")
+    private int historyMaxPoints = 5000;
 
     // Currency Rates
     @Transactional(readOnly = true)
@@ -76,9 +113,38 @@ public class MarketDataService {
         return getLatestCurrencyRates(null, null);
     }
 
-    @Cacheable(value = "currencyRates", key = "'latest-' + @simulationDataService.isSimulationEnabled() + '-' + #changeStartDate + '-' + #changeEndDate")
+    /**
+     * The default and preset ranges are shared through the {@code currencyRates} cache and refreshed after each
+     * ingestion; any other range is kept in the bounded node-local {@link RangeChangeCache}.
+     */
+    @Cacheable(
+        value = "currencyRates",
+        key = "T(com.mintstack.finance.service.MarketDataService).latestCurrencyRatesKey(@simulationDataService.isSimulationEnabled(), #changeStartDate, #changeEndDate)",
+        condition = "T(com.mintstack.finance.service.MarketDataService).isSharedCurrencyRange(#changeStartDate, #changeEndDate)",
+        sync = true)
     @Transactional(readOnly = true)
     public List<CurrencyRateResponse> getLatestCurrencyRates(LocalDate changeStartDate, LocalDate changeEndDate) {
+        if (isSharedCurrencyRange(changeStartDate, changeEndDate)) {
+            return loadLatestCurrencyRates(changeStartDate, changeEndDate);
+        }
+        String key = latestCurrencyRatesKey(simulationDataService.isSimulationEnabled(), changeStartDate, changeEndDate);
+        return rangeChangeCache.currencyRates(key, () -> loadLatestCurrencyRates(changeStartDate, changeEndDate));
+    }
+
+    public static String latestCurrencyRatesKey(boolean simulation, LocalDate changeStartDate, LocalDate changeEndDate) {
+        return "latest-" + simulation + "-" + changeStartDate + "-" + changeEndDate;
+    }
+
+    public static boolean isSharedCurrencyRange(LocalDate changeStartDate, LocalDate changeEndDate) {
+        return (changeStartDate == null && changeEndDate == null)
+            || RangeChangeCache.Preset.match(changeStartDate, changeEndDate, LocalDate.now(ISTANBUL_TZ)).isPresent();
+    }
+
+    /**
+     * Uncached currency rates; used by the cached lookup and by refresh-ahead to recompute entries.
+     */
+    @Transactional(readOnly = true)
+    public List<CurrencyRateResponse> loadLatestCurrencyRates(LocalDate changeStartDate, LocalDate changeEndDate) {
         boolean isSimulation = simulationDataService.isSimulationEnabled();
 
         // Strict API guard: if not simulation and no currency provider is active, return empty
@@ -93,7 +159,7 @@ public class MarketDataService {
         if (isSimulation && rates.isEmpty()) {
             return simulationDataService.getCurrencies().entrySet().stream()
                 .map(entry -> mapToSimulatedRateResponse(entry.getKey(), entry.getValue()))
-                .collect(Collectors.toList());
+                .toList();
         }
         if (rates.isEmpty() && preferredSource != RateSource.TCMB) {
             rates = currencyRateRepository.findLatestBySource(RateSource.TCMB);
@@ -105,13 +171,16 @@ public class MarketDataService {
             if (isSimulation) {
                 return simulationDataService.getCurrencies().entrySet().stream()
                     .map(entry -> mapToSimulatedRateResponse(entry.getKey(), entry.getValue()))
-                    .collect(Collectors.toList());
+                    .toList();
             }
             return List.of();
         }
+        Map<CurrencyRate, CurrencyRateChange> changes = changeRange != null
+            ? calculateCurrencyRangeChanges(rates, changeRange)
+            : calculateCurrencyDefaultChanges(rates);
         return rates.stream()
-            .map(rate -> mapToRateResponse(rate, changeRange))
-            .collect(Collectors.toList());
+            .map(rate -> toRateResponse(rate, changes.get(rate)))
+            .toList();
     }
 
     @Transactional(readOnly = true)
@@ -146,19 +215,150 @@ public class MarketDataService {
     public List<CurrencyRateResponse> getCurrencyHistory(String currencyCode, 
                                                           LocalDate startDate, 
                                                           LocalDate endDate) {
+        return getCurrencyHistory(currencyCode, startDate, endDate, null, null);
+    }
+
+    /**
+     * Currency history, optionally aggregated into selling-rate OHLC buckets and reduced with LTTB.
+     * The result never exceeds the configured point cap, whether or not {@code maxPoints} is given.
+     */
+    @Transactional(readOnly = true)
+    public List<CurrencyRateResponse> getCurrencyHistory(String currencyCode,
+                                                          LocalDate startDate,
+                                                          LocalDate endDate,
+                                                          Resolution resolution,
+                                                          Integer maxPoints) {
         boolean isSimulation = simulationDataService.isSimulationEnabled();
         RateSource source = resolveCurrencyRateSource(isSimulation);
-        List<CurrencyRate> rates = currencyRateRepository.findHistoryByCurrencyCode(
-            currencyCode,
-            source,
-            startDate.atStartOfDay(),
-            endDate.atTime(23, 59, 59)
-        );
-        return rates.stream()
-            .map(this::mapToRateResponse)
+        int pointLimit = resolveHistoryPointLimit(maxPoints);
+        if (resolution != null) {
+            return getBucketedCurrencyHistory(currencyCode, source, startDate, endDate, resolution, pointLimit);
+        }
+
+        List<RatePointView> points;
+        try (Stream<RatePointView> rows = currencyRateRepository.streamHistoryPoints(
+                currencyCode,
+                source,
+                startDate.atStartOfDay(),
+                endDate.atTime(23, 59, 59))) {
+            points = rows.toList();
+        }
+        NavigableMap<LocalDateTime, RatePointView> lastByRateDate = lastPositivePointByRateDate(points);
+        CurrencyRate beforeRange = lastByRateDate.isEmpty() ? null : findRateBefore(currencyCode, source, lastByRateDate.firstKey());
+        return SeriesDownsampler.lttb(points, pointLimit, point -> epochSecond(point.getFetchedAt()), this::rateValue)
+            .stream()
+            .map(point -> {
+                CurrencyRate rate = toCurrencyRate(currencyCode, source, point);
+                if (point.getRateDate() == null) {
+                    return toRateResponse(rate, new CurrencyRateChange(BigDecimal.ZERO, null, null, null));
+                }
+                Map.Entry<LocalDateTime, RatePointView> previous = lastByRateDate.lowerEntry(point.getRateDate());
+                return toRateResponse(rate, currencyDefaultChange(rate, previous != null
+                    ? toCurrencyRate(currencyCode, source, previous.getValue())
+                    : beforeRange));
+            })
             .collect(Collectors.toList());
     }
 
+    private CurrencyRate findRateBefore(String currencyCode, RateSource source, LocalDateTime rateDate) {
+        try {
+            List<CurrencyRate> rows = currencyRateRepository.findPreviousRatesByRateDate(
+                currencyCode, source, rateDate, BigDecimal.ZERO, PageRequest.of(0, 1));
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (Exception e) {
+            log.warn("Error loading previous currency rate for {}: {}", currencyCode, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Latest positive point of each rate date, so every point's previous-date rate is found in the series
+     * itself; only the first rate date of the range needs its predecessor from the database.
+     */
+    private NavigableMap<LocalDateTime, RatePointView> lastPositivePointByRateDate(List<RatePointView> points) {
+        NavigableMap<LocalDateTime, RatePointView> lastByRateDate = new TreeMap<>();
+        for (RatePointView point : points) {
+            if (point.getRateDate() == null || !(isPositive(point.getSellingRate()) || isPositive(point.getBuyingRate()))) {
+                continue;
+            }
+            RatePointView current = lastByRateDate.get(point.getRateDate());
+            if (current == null || current.getFetchedAt() == null
+                    || (point.getFetchedAt() != null && !point.getFetchedAt().isBefore(current.getFetchedAt()))) {
+                lastByRateDate.put(point.getRateDate(), point);
+            }
+        }
+        return lastByRateDate;
+    }
+
+    private static CurrencyRate toCurrencyRate(String currencyCode, RateSource source, RatePointView point) {
+        CurrencyRate rate = CurrencyRate.builder()
+            .currencyCode(currencyCode)
+            .currencyName(point.getCurrencyName())
+            .buyingRate(point.getBuyingRate())
+            .sellingRate(point.getSellingRate())
+            .effectiveBuyingRate(point.getEffectiveBuyingRate())
+            .effectiveSellingRate(point.getEffectiveSellingRate())
+            .source(source)
+            .fetchedAt(point.getFetchedAt())
+            .rateDate(point.getRateDate())
+            .build();
+        rate.setId(point.getId());
+        return rate;
+    }
+
+    private List<CurrencyRateResponse> getBucketedCurrencyHistory(String currencyCode,
+                                                                 RateSource source,
+                                                                 LocalDate startDate,
+                                                                 LocalDate endDate,
+                                                                 Resolution resolution,
+                                                                 int pointLimit) {
+        List<OhlcBucket<RatePointView>> buckets;
+        try (Stream<RatePointView> points = currencyRateRepository.streamHistoryPoints(
+                currencyCode,
+                source,
+                startDate.atStartOfDay(),
+                endDate.atTime(23, 59, 59))) {
+            buckets = SeriesDownsampler.bucket(
+                points.iterator(),
+                resolution,
+                RatePointView::getFetchedAt,
+                point -> {
+                    BigDecimal value = positiveOrFallback(point.getSellingRate(), point.getBuyingRate());
+                    return isPositive(value) ? value : null;
+                }
+            );
+        }
+        buckets = SeriesDownsampler.lttb(
+            buckets,
+            pointLimit,
+            bucket -> epochSecond(bucket.start()),
+            bucket -> bucket.close().doubleValue()
+        );
+
+        List<CurrencyRateResponse> responses = new ArrayList<>(buckets.size());
+        OhlcBucket<RatePointView> previous = null;
+        for (OhlcBucket<RatePointView> bucket : buckets) {
+            responses.add(mapToBucketResponse(currencyCode, source, bucket, previous));
+            previous = bucket;
+        }
+        return responses;
+    }
+
+    private int resolveHistoryPointLimit(Integer maxPoints) {
+        if (maxPoints == null || maxPoints <= 0) {
+            return historyMaxPoints;
+        }
+        return Math.max(3, Math.min(maxPoints, historyMaxPoints));
+    }
+
+    private double rateValue(RatePointView point) {
+        return positiveOrFallback(point.getSellingRate(), point.getBuyingRate()).doubleValue();
+    }
+
+    private static double epochSecond(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ISTANBUL_TZ).toEpochSecond();
+    }
+
     private RateSource resolveCurrencyRateSource(boolean simulationEnabled) {
         if (simulationEnabled) {
             return RateSource.MANUAL;
@@ -246,6 +446,13 @@ public class MarketDataService {
             return List.of();
         }
         ChangeDateRange changeRange = normalizeChangeRange(changeStartDate, changeEndDate);
+        // Concurrent identical listings share one load and mapping pass
+        return singleFlight.execute(
+                "instruments:" + type + ":" + isSimulation + ":" + changeRange,
+                () -> List.copyOf(loadInstrumentsByType(type, isSimulation, changeRange)));
+    }
+
+    private List<InstrumentResponse> loadInstrumentsByType(InstrumentType type, boolean isSimulation, ChangeDateRange changeRange) {
         List<Instrument> instruments = instrumentRepository.findByTypeAndIsActiveTrueAndIsSimulated(type, isSimulation);
 
         if (isSimulation && instruments.isEmpty()) {
@@ -284,15 +491,105 @@ public class MarketDataService {
             return Page.empty(pageable);
         }
         ChangeDateRange changeRange = normalizeChangeRange(changeStartDate, changeEndDate);
+        return findOffsetListing(type, isSimulation, pageable, changeRange, version -> false).orElseThrow();
+    }
+
+    /**
+     * Market list page with conditional-GET support. With a {@code cursor} the page is read by keyset
+     * (symbols strictly after the cursor, ascending) instead of by offset. The page's ETag is derived from
+     * the listed instruments' versions, which move on every quote update, and their latest daily bars, and is offered to
+     * {@code notModified} before any quote metrics are resolved; an empty result means the client's copy
+     * is still current.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Slice<InstrumentResponse>> getInstrumentsByType(
+            InstrumentType type,
+            Pageable pageable,
+            String cursor,
+            LocalDate changeStartDate,
+            LocalDate changeEndDate,
+            Predicate<String> notModified) {
+        boolean isSimulation = simulationDataService.isSimulationEnabled();
+        if (!isSimulation && !hasActiveApiProviderForType(type)) {
+            log.debug("No active API provider for type {}. Returning empty page.", type);
+            return Optional.of(cursor == null
+                    ? Page.empty(pageable)
+                    : new SliceImpl<>(List.of(), PageRequest.of(0, pageable.getPageSize()), false));
+        }
+        ChangeDateRange changeRange = normalizeChangeRange(changeStartDate, changeEndDate);
+        if (cursor == null) {
+            return findOffsetListing(type, isSimulation, pageable, changeRange, notModified).map(page -> page);
+        }
+        return findKeysetListing(type, isSimulation, cursor, pageable.getPageSize(), changeRange, notModified);
+    }
+
+    private Optional<Page<InstrumentResponse>> findOffsetListing(
+            InstrumentType type,
+            boolean isSimulation,
+            Pageable pageable,
+            ChangeDateRange changeRange,
+            Predicate<String> notModified) {
         Page<Instrument> instruments = instrumentRepository.findByTypeAndIsActiveTrueAndIsSimulated(type, isSimulation, pageable);
 
         if (isSimulation && instruments.isEmpty()) {
             List<InstrumentResponse> simulated = getSimulatedInstrumentsFromCache(type);
             if (!simulated.isEmpty()) {
-                return paginateResponses(simulated, pageable);
+                Page<InstrumentResponse> page = paginateResponses(simulated, pageable);
+                return notModified.test(listingTag(type, isSimulation, pageable.toString(), changeRange,
+                        page.getTotalElements(), List.of(), page.getContent()))
+                        ? Optional.empty()
+                        : Optional.of(page);
             }
         }
 
+        Page<Instrument> listed = applyListingFallbacks(type, isSimulation, instruments, pageable);
+        if (notModified.test(listingTag(type, isSimulation, pageable.toString(), changeRange,
+                listed.getTotalElements(), listed.getContent(), List.of()))) {
+            return Optional.empty();
+        }
+        return Optional.of(mapInstrumentResponses(listed, changeRange));
+    }
+
+    private Optional<Slice<InstrumentResponse>> findKeysetListing(
+            InstrumentType type,
+            boolean isSimulation,
+            String cursor,
+            int size,
+            ChangeDateRange changeRange,
+            Predicate<String> notModified) {
+        Pageable keysetPage = PageRequest.of(0, size);
+        String position = cursor + "|" + size;
+        List<Instrument> rows = instrumentRepository.findByTypeAndIsActiveTrueAndIsSimulatedAndSymbolGreaterThanOrderBySymbolAsc(
+                type, isSimulation, cursor, PageRequest.of(0, size + 1));
+
+        if (isSimulation && rows.isEmpty()) {
+            List<InstrumentResponse> simulated = getSimulatedInstrumentsFromCache(type).stream()
+                    .filter(response -> response.getSymbol() != null && response.getSymbol().compareTo(cursor) > 0)
+                    .limit(size + 1L)
+                    .toList();
+            if (!simulated.isEmpty()) {
+                boolean hasNext = simulated.size() > size;
+                List<InstrumentResponse> content = hasNext ? simulated.subList(0, size) : simulated;
+                return notModified.test(listingTag(type, isSimulation, position, changeRange,
+                        hasNext ? 1 : 0, List.of(), content))
+                        ? Optional.empty()
+                        : Optional.of(new SliceImpl<>(content, keysetPage, hasNext));
+            }
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<Instrument> content = hasNext ? rows.subList(0, size) : rows;
+        if (notModified.test(listingTag(type, isSimulation, position, changeRange, hasNext ? 1 : 0, content, List.of()))) {
+            return Optional.empty();
+        }
+        return Optional.of(new SliceImpl<>(mapInstrumentResponses(content, changeRange), keysetPage, hasNext));
+    }
+
+    private Page<Instrument> applyListingFallbacks(
+            InstrumentType type,
+            boolean isSimulation,
+            Page<Instrument> instruments,
+            Pageable pageable) {
         if (shouldFallbackToRealInstruments(type, isSimulation, instruments.isEmpty())) {
             instruments = instrumentRepository.findByTypeAndIsActiveTrue(type, pageable);
         }
@@ -300,8 +597,50 @@ public class MarketDataService {
         if (shouldFallbackToInactiveCatalog(type, isSimulation, instruments.isEmpty())) {
             instruments = instrumentRepository.findRealByType(type, pageable);
         }
+        return instruments;
+    }
 
-        return mapInstrumentResponses(instruments, changeRange);
+    /**
+     * Version tag of a list page: the request shape, the business date (range changes roll with it) and,
+     * per listed instrument, its optimistic-lock version and latest committed daily bar, since bar writes
+     * move the previous close and daily range without touching the instrument row. Simulated cache
+     * entries have no version, so their quoted prices are hashed instead.
+     */
+    private String listingTag(
+            InstrumentType type,
+            boolean isSimulation,
+            String position,
+            ChangeDateRange changeRange,
+            long total,
+            List<Instrument> instruments,
+            List<InstrumentResponse> simulated) {
+        StringBuilder tag = new StringBuilder(64 + instruments.size() * 48 + simulated.size() * 32)
+                .append(type).append('|')
+                .append(isSimulation).append('|')
+                .append(position).append('|')
+                .append(changeRange).append('|')
+                .append(istanbulDate()).append('|')
+                .append(total);
+        Map<UUID, QuoteBar> latestBars = instruments.isEmpty()
+                ? Map.of()
+                : instrumentMetricsService.latestBars(instruments.stream().map(Instrument::getId).toList());
+        for (Instrument instrument : instruments) {
+            tag.append('|').append(instrument.getId()).append(':').append(instrument.getVersion());
+            QuoteBar bar = latestBars.get(instrument.getId());
+            if (bar != null) {
+                tag.append(':').append(bar.priceDate())
+                        .append(':').append(bar.closePrice())
+                        .append(':').append(bar.highPrice())
+                        .append(':').append(bar.lowPrice())
+                        .append(':').append(bar.volume());
+            }
+        }
+        for (InstrumentResponse response : simulated) {
+            tag.append('|').append(response.getSymbol())
+                    .append(':').append(response.getCurrentPrice())
+                    .append(':').append(response.getPreviousClose());
+        }
+        return DigestUtils.md5DigestAsHex(tag.toString().getBytes(StandardCharsets.UTF_8));
     }
 
     @Transactional(readOnly = true)
@@ -355,27 +694,8 @@ public class MarketDataService {
         }
 
         ChangeDateRange changeRange = normalizeChangeRange(changeStartDate, changeEndDate);
-        Page<Instrument> instruments = isSimulation
-            ? instrumentRepository.searchBySymbolOrNameAndSimulationMode(query, true, pageable)
-            : instrumentRepository.searchBySymbolOrName(query, pageable);
-
-        if (isSimulation && instruments.isEmpty()) {
-            List<InstrumentResponse> filtered = List.of(
-                    InstrumentType.STOCK,
-                    InstrumentType.BOND,
-                    InstrumentType.FUND,
-                    InstrumentType.VIOP
-                ).stream()
-                .flatMap(type -> getSimulatedInstrumentsFromCache(type).stream())
-                .filter(item -> matchesInstrumentQuery(item, query))
-                .sorted(Comparator.comparing(InstrumentResponse::getSymbol))
-                .toList();
-            if (!filtered.isEmpty()) {
-                return paginateResponses(filtered, pageable);
-            }
-        }
-
-        return mapInstrumentResponses(instruments, changeRange);
+        return searchIndexedInstruments(query, null, isSimulation ? Scope.SIMULATED : Scope.REAL, isSimulation,
+                pageable, changeRange);
     }
 
     @Transactional(readOnly = true)
@@ -397,49 +717,112 @@ public class MarketDataService {
             return Page.empty(pageable);
         }
         ChangeDateRange changeRange = normalizeChangeRange(changeStartDate, changeEndDate);
-        Page<Instrument> instruments = isSimulation
-            ? instrumentRepository.searchByTypeAndQueryAndSimulationMode(type, query, true, pageable)
-            : instrumentRepository.searchByTypeAndQuery(type, query, pageable);
+        Page<InstrumentResponse> results = searchIndexedInstruments(
+                query, type, isSimulation ? Scope.SIMULATED : Scope.REAL, isSimulation, pageable, changeRange);
 
-        if (isSimulation && instruments.isEmpty()) {
-            List<InstrumentResponse> filtered = getSimulatedInstrumentsFromCache(type).stream()
-                .filter(item -> matchesInstrumentQuery(item, query))
-                .toList();
-            if (!filtered.isEmpty()) {
-                return paginateResponses(filtered, pageable);
+        if (shouldFallbackToInactiveCatalog(type, isSimulation, results.isEmpty())) {
+            results = searchIndexedInstruments(query, type, Scope.REAL_CATALOG, false, pageable, changeRange);
+        }
+
+        return results;
+    }
+
+    /**
+     * Search page served from {@link InstrumentSearchIndex}: hits are ranked by match quality (so the
+     * pageable's sort is not applied) and only the requested page is loaded and priced. In simulation mode,
+     * in-memory simulation cache entries are searched when no persisted simulated instrument matches.
+     */
+    private Page<InstrumentResponse> searchIndexedInstruments(
+            String query,
+            InstrumentType type,
+            Scope scope,
+            boolean isSimulation,
+            Pageable pageable,
+            ChangeDateRange changeRange) {
+        List<SearchHit> hits = instrumentSearchIndex.search(query, type, scope);
+        if (isSimulation && hits.isEmpty()) {
+            List<SearchHit> cached = instrumentSearchIndex.search(query, type, Scope.SIMULATION_CACHE);
+            if (!cached.isEmpty()) {
+                List<InstrumentResponse> responses = pageOf(cached, pageable).stream()
+                        .map(hit -> {
+                            SimulatedStock simulated = resolveSimulationCache(hit.type()).get(hit.symbol());
+                            return simulated != null
+                                    ? mapToInstrumentResponse(buildSimulatedInstrument(hit.type(), hit.symbol(), simulated))
+                                    : null;
+                        })
+                        .filter(Objects::nonNull)
+                        .toList();
+                return new PageImpl<>(responses, pageable, cached.size());
             }
         }
 
-        if (shouldFallbackToInactiveCatalog(type, isSimulation, instruments.isEmpty())) {
-            instruments = instrumentRepository.searchRealByTypeAndQuery(type, query, pageable);
+        List<SearchHit> page = pageOf(hits, pageable);
+        if (page.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.size());
         }
+        Map<UUID, Instrument> loaded = instrumentRepository.findAllById(
+                        page.stream().map(SearchHit::instrumentId).toList())
+                .stream()
+                .collect(Collectors.toMap(Instrument::getId, instrument -> instrument));
+        List<Instrument> ordered = page.stream()
+                .map(hit -> loaded.get(hit.instrumentId()))
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(mapInstrumentResponses(ordered, changeRange), pageable, hits.size());
+    }
 
-        return mapInstrumentResponses(instruments, changeRange);
+    private static <T> List<T> pageOf(List<T> items, Pageable pageable) {
+        long start = pageable.getOffset();
+        if (start >= items.size()) {
+            return List.of();
+        }
+        return items.subList((int) start, (int) Math.min(start + pageable.getPageSize(), items.size()));
     }
 
     // Price History
     @Transactional(readOnly = true)
     public List<PriceHistoryResponse> getPriceHistory(String symbol, LocalDate startDate, LocalDate endDate) {
-        List<PriceHistory> history = priceHistoryRepository.findBySymbolAndDateRange(symbol, startDate, endDate);
-        return history.stream()
+        return getPriceHistory(symbol, startDate, endDate, null);
+    }
+
+    /**
+     * Daily bars for the range, reduced on close price with LTTB when they exceed {@code maxPoints}
+     * (or the configured point cap).
+     */
+    @Transactional(readOnly = true)
+    public List<PriceHistoryResponse> getPriceHistory(String symbol, LocalDate startDate, LocalDate endDate,
+                                                      Integer maxPoints) {
+        List<HistoryPointView> history;
+        try (Stream<HistoryPointView> rows = priceHistoryRepository.streamBySymbolAndDateRange(symbol, startDate, endDate)) {
+            history = rows.toList();
+        }
+        return SeriesDownsampler.lttb(
+                history,
+                resolveHistoryPointLimit(maxPoints),
+                row -> row.getPriceDate() == null ? 0 : row.getPriceDate().toEpochDay(),
+                row -> row.getClosePrice() == null ? 0 : row.getClosePrice().doubleValue()
+            )
+            .stream()
             .map(this::mapToPriceHistoryResponse)
             .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<PriceHistoryResponse> getRecentPriceHistory(String symbol, int days) {
+        return getRecentPriceHistory(symbol, days, null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PriceHistoryResponse> getRecentPriceHistory(String symbol, int days, Integer maxPoints) {
         LocalDate endDate = istanbulDate();
         LocalDate startDate = endDate.minusDays(days);
-        return getPriceHistory(symbol, startDate, endDate);
+        return getPriceHistory(symbol, startDate, endDate, maxPoints);
     }
 
     // Config
     @Transactional(readOnly = true)
     public UserApiConfig getActiveYahooConfig() {
-        return userApiConfigRepository.findByProviderAndIsActiveTrue(ApiProvider.YAHOO_FINANCE)
-            .stream()
-            .findFirst()
-            .orElse(null);
+        return apiProviderRegistry.getActiveConfig(ApiProvider.YAHOO_FINANCE);
     }
 
     // Market Index (e.g. BIST 100)
@@ -548,20 +931,14 @@ public class MarketDataService {
      * Used for general search endpoint guard.
      */
     public boolean hasAnyActiveApiProvider() {
-        for (ApiProvider provider : ApiProvider.values()) {
-            if (isProviderActive(provider)) {
-                return true;
-            }
-        }
-        return false;
+        return apiProviderRegistry.hasAnyActive();
     }
 
     private boolean isProviderActive(ApiProvider provider) {
         if (provider == null) return false;
         // STRICT CHECK: A provider is active ONLY if there is an explicit active config entry in the DB.
         // No config entry = provider is NOT active. No exceptions, no defaults.
-        List<UserApiConfig> activeConfigs = userApiConfigRepository.findByProviderAndIsActiveTrue(provider);
-        return activeConfigs != null && !activeConfigs.isEmpty();
+        return apiProviderRegistry.isActive(provider);
     }
 
     private boolean hasPriceHistoryForType(InstrumentType type) {
@@ -753,21 +1130,11 @@ public class MarketDataService {
         return new PageImpl<>(responses.subList(start, end), pageable, total);
     }
 
-    private boolean matchesInstrumentQuery(InstrumentResponse instrument, String query) {
-        if (query == null || query.isBlank()) {
-            return true;
-        }
-        String normalizedQuery = query.toLowerCase();
-        String symbol = instrument.getSymbol() != null ? instrument.getSymbol().toLowerCase() : "";
-        String name = instrument.getName() != null ? instrument.getName().toLowerCase() : "";
-        return symbol.contains(normalizedQuery) || name.contains(normalizedQuery);
-    }
-
     // Save methods
     @Transactional
-    @CacheEvict(value = "currencyRates", allEntries = true)
     public void saveCurrencyRates(List<CurrencyRate> rates) {
         marketDataMaintenanceService.saveCurrencyRates(rates);
+        cacheRefreshAheadService.refreshCurrencyRates();
     }
 
     @Transactional
@@ -782,18 +1149,21 @@ public class MarketDataService {
 
     @Transactional
     public Map<String, Object> deleteAllMarketData() {
-        return marketDataMaintenanceService.deleteAllMarketData();
+        Map<String, Object> result = marketDataMaintenanceService.deleteAllMarketData();
+        rangeChangeCache.invalidateCurrencyRates();
+        rangeChangeCache.invalidateInstrumentBasePoints();
+        return result;
     }
 
     // Mapping methods
     private CurrencyRateResponse mapToRateResponse(CurrencyRate rate) {
-        return mapToRateResponse(rate, null);
+        return toRateResponse(rate, calculateCurrencyDefaultChange(rate));
     }
 
-    private CurrencyRateResponse mapToRateResponse(CurrencyRate rate, ChangeDateRange changeRange) {
-        CurrencyRateChange rateChange = changeRange != null
-            ? calculateCurrencyRangeChange(rate, changeRange)
-            : calculateCurrencyDefaultChange(rate);
+    private CurrencyRateResponse toRateResponse(CurrencyRate rate, CurrencyRateChange rateChange) {
+        if (rateChange == null) {
+            rateChange = new CurrencyRateChange(null, null, null, null);
+        }
         BigDecimal buyingRate = positiveOrFallback(rate.getBuyingRate(), rate.getSellingRate());
         BigDecimal sellingRate = positiveOrFallback(rate.getSellingRate(), buyingRate);
         BigDecimal effectiveBuyingRate = positiveOrFallback(rate.getEffectiveBuyingRate(), buyingRate);
@@ -818,6 +1188,45 @@ public class MarketDataService {
             .build();
     }
     
+    /**
+     * Bucket row: rates are the bucket's closing row and the change is measured against the previous
+     * emitted bucket's close (or the bucket's own open for the first one), so no extra lookups are made.
+     */
+    private CurrencyRateResponse mapToBucketResponse(String currencyCode,
+                                                     RateSource source,
+                                                     OhlcBucket<RatePointView> bucket,
+                                                     OhlcBucket<RatePointView> previous) {
+        RatePointView last = bucket.last();
+        BigDecimal buyingRate = positiveOrFallback(last.getBuyingRate(), bucket.close());
+        BigDecimal sellingRate = bucket.close();
+        BigDecimal baseRate = previous != null ? previous.close() : bucket.open();
+        BigDecimal changePercent = sellingRate.subtract(baseRate)
+            .divide(baseRate, 6, RoundingMode.HALF_UP)
+            .multiply(new BigDecimal("100"));
+
+        return CurrencyRateResponse.builder()
+            .currencyCode(currencyCode)
+            .currencyName(last.getCurrencyName())
+            .buyingRate(buyingRate)
+            .sellingRate(sellingRate)
+            .effectiveBuyingRate(positiveOrFallback(last.getEffectiveBuyingRate(), buyingRate))
+            .effectiveSellingRate(positiveOrFallback(last.getEffectiveSellingRate(), sellingRate))
+            .averageRate(buyingRate.add(sellingRate).divide(new BigDecimal("2"), 6, RoundingMode.HALF_UP))
+            .changePercent(changePercent)
+            .changeBaseRate(baseRate)
+            .changeStartAt(previous != null ? previous.lastAt() : bucket.start())
+            .changeEndAt(bucket.lastAt())
+            .source(source.name())
+            .fetchedAt(bucket.start())
+            .rateDate(last.getRateDate())
+            .open(bucket.open())
+            .high(bucket.high())
+            .low(bucket.low())
+            .close(bucket.close())
+            .samples(bucket.samples())
+            .build();
+    }
+
     private CurrencyRateChange calculateCurrencyDefaultChange(CurrencyRate currentRate) {
         try {
             if (currentRate.getRateDate() == null) {
@@ -831,110 +1240,205 @@ public class MarketDataService {
                     BigDecimal.ZERO,
                     PageRequest.of(0, 1)
                 );
-            if (previousRates.isEmpty()) {
-                return new CurrencyRateChange(BigDecimal.ZERO, null, null, null);
-            }
-
-            CurrencyRate previousRate = previousRates.get(0);
-            BigDecimal current = positiveOrFallback(currentRate.getSellingRate(), currentRate.getBuyingRate());
-            BigDecimal previous = positiveOrFallback(previousRate.getSellingRate(), previousRate.getBuyingRate());
-            if (!isPositive(current) || !isPositive(previous)) {
-                return new CurrencyRateChange(BigDecimal.ZERO, previous, previousRate.getFetchedAt(), currentRate.getFetchedAt());
-            }
-            BigDecimal changePercent = current.subtract(previous)
-                .divide(previous, 6, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100"));
-            return new CurrencyRateChange(changePercent, previous, previousRate.getFetchedAt(), currentRate.getFetchedAt());
+            return currencyDefaultChange(currentRate, previousRates.isEmpty() ? null : previousRates.get(0));
         } catch (Exception e) {
-            log.warn("Error calculating change percent for {}: {}", 
+            log.warn("Error calculating change percent for {}: {}",
                 currentRate.getCurrencyCode(), e.getMessage());
             return new CurrencyRateChange(BigDecimal.ZERO, null, null, null);
         }
     }
 
-    private CurrencyRateChange calculateCurrencyRangeChange(CurrencyRate currentRate, ChangeDateRange changeRange) {
-        if (currentRate == null || changeRange == null || currentRate.getSource() == null) {
-            return new CurrencyRateChange(null, null, null, null);
+    /**
+     * Default (previous rate date) change for a whole list, with the previous rates looked up in one query.
+     */
+    private Map<CurrencyRate, CurrencyRateChange> calculateCurrencyDefaultChanges(List<CurrencyRate> rates) {
+        Map<CurrencyRate, CurrencyRateChange> changes = new IdentityHashMap<>();
+        Map<CurrencyRate, CurrencyRate> previousRates;
+        try {
+            previousRates = findPreviousRates(rates.stream().filter(rate -> rate.getRateDate() != null).toList());
+        } catch (Exception e) {
+            log.warn("Error loading previous currency rates: {}", e.getMessage());
+            previousRates = Map.of();
+        }
+        for (CurrencyRate rate : rates) {
+            changes.put(rate, rate.getRateDate() == null
+                ? new CurrencyRateChange(BigDecimal.ZERO, null, null, null)
+                : currencyDefaultChange(rate, previousRates.get(rate)));
         }
+        return changes;
+    }
 
-        LocalDate today = istanbulDate();
-        boolean isSingleDayOrToday = changeRange.startDate().isEqual(today) || changeRange.startDate().isEqual(changeRange.endDate());
+    private CurrencyRateChange currencyDefaultChange(CurrencyRate currentRate, CurrencyRate previousRate) {
+        if (previousRate == null) {
+            return new CurrencyRateChange(BigDecimal.ZERO, null, null, null);
+        }
 
-        CurrencyRate endRate = changeRange.endDate().isBefore(today)
-            ? findCurrencyRateAtOrBefore(
-                currentRate.getCurrencyCode(),
-                currentRate.getSource(),
-                changeRange.endDate().atTime(23, 59, 59)
-            )
-            : currentRate;
+        BigDecimal current = positiveOrFallback(currentRate.getSellingRate(), currentRate.getBuyingRate());
+        BigDecimal previous = positiveOrFallback(previousRate.getSellingRate(), previousRate.getBuyingRate());
+        if (!isPositive(current) || !isPositive(previous)) {
+            return new CurrencyRateChange(BigDecimal.ZERO, previous, previousRate.getFetchedAt(), currentRate.getFetchedAt());
+        }
+        BigDecimal changePercent = current.subtract(previous)
+            .divide(previous, 6, RoundingMode.HALF_UP)
+            .multiply(new BigDecimal("100"));
+        return new CurrencyRateChange(changePercent, previous, previousRate.getFetchedAt(), currentRate.getFetchedAt());
+    }
 
-        if (endRate == null) {
-            return new CurrencyRateChange(null, null, null, null);
+    /**
+     * Range change for a whole list. Each fallback step (previous rate date, latest at or before the start,
+     * earliest after it, earliest ever) is one query per rate source for the currencies still unresolved,
+     * instead of a query chain per currency.
+     */
+    private Map<CurrencyRate, CurrencyRateChange> calculateCurrencyRangeChanges(List<CurrencyRate> rates,
+                                                                           ChangeDateRange changeRange) {
+        Map<CurrencyRate, CurrencyRateChange> changes = new IdentityHashMap<>();
+        Map<RateSource, List<CurrencyRate>> ratesBySource = new EnumMap<>(RateSource.class);
+        for (CurrencyRate rate : rates) {
+            if (rate.getSource() == null) {
+                changes.put(rate, new CurrencyRateChange(null, null, null, null));
+            } else {
+                ratesBySource.computeIfAbsent(rate.getSource(), ignored -> new ArrayList<>()).add(rate);
+            }
         }
+        ratesBySource.forEach((source, sourceRates) -> {
+            try {
+                changes.putAll(calculateCurrencyRangeChanges(source, sourceRates, changeRange));
+            } catch (Exception e) {
+                log.warn("Error calculating {} currency range changes: {}", source, e.getMessage());
+                sourceRates.forEach(rate -> changes.put(rate, new CurrencyRateChange(null, null, null, null)));
+            }
+        });
+        return changes;
+    }
 
-        CurrencyRate startRate = null;
+    private Map<CurrencyRate, CurrencyRateChange> calculateCurrencyRangeChanges(RateSource source,
+                                                                           List<CurrencyRate> rates,
+                                                                           ChangeDateRange changeRange) {
+        LocalDate today = istanbulDate();
+        boolean isSingleDayOrToday = changeRange.startDate().isEqual(today) || changeRange.startDate().isEqual(changeRange.endDate());
+        Set<String> codes = rates.stream().map(CurrencyRate::getCurrencyCode).collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<CurrencyRate, CurrencyRate> endRates = new IdentityHashMap<>();
+        if (changeRange.endDate().isBefore(today)) {
+            Map<String, CurrencyRate> endByCode = byCurrencyCode(currencyRateRepository.findLatestAtOrBeforeByCurrencyCodes(
+                codes, source.name(), changeRange.endDate().atTime(23, 59, 59), BigDecimal.ZERO));
+            rates.forEach(rate -> {
+                CurrencyRate endRate = endByCode.get(rate.getCurrencyCode());
+                if (endRate != null) {
+                    endRates.put(rate, endRate);
+                }
+            });
+        } else {
+            rates.forEach(rate -> endRates.put(rate, rate));
+        }
 
+        Map<CurrencyRate, CurrencyRate> startRates = new IdentityHashMap<>();
         if (isSingleDayOrToday) {
-            List<CurrencyRate> previous = currencyRateRepository.findPreviousRatesByRateDate(
-                currentRate.getCurrencyCode(),
-                currentRate.getSource(),
-                endRate.getRateDate() != null ? endRate.getRateDate() : LocalDateTime.now(),
-                BigDecimal.ZERO,
-                PageRequest.of(0, 1)
-            );
-            if (!previous.isEmpty()) {
-                startRate = previous.get(0);
+            Map<CurrencyRate, CurrencyRate> previous = findPreviousRates(endRates.values());
+            endRates.forEach((rate, endRate) -> {
+                if (previous.get(endRate) != null) {
+                    startRates.put(rate, previous.get(endRate));
+                }
+            });
+        }
+        fillMissingStartRates(endRates, startRates, missing -> currencyRateRepository.findLatestAtOrBeforeByCurrencyCodes(
+            missing, source.name(), changeRange.startDate().atTime(23, 59, 59), BigDecimal.ZERO));
+        fillMissingStartRates(endRates, startRates, missing -> currencyRateRepository.findEarliestAtOrAfterByCurrencyCodes(
+            missing, source.name(), changeRange.startDate().atStartOfDay(), BigDecimal.ZERO));
+        fillMissingStartRates(endRates, startRates, missing -> currencyRateRepository.findEarliestByCurrencyCodes(
+            missing, source.name(), BigDecimal.ZERO));
+
+        // A start that resolved to the end row itself measures against the rate before it instead
+        List<CurrencyRate> collapsedEnds = new ArrayList<>();
+        startRates.forEach((rate, startRate) -> {
+            CurrencyRate endRate = endRates.get(rate);
+            if (startRate.getId() != null && endRate.getId() != null && startRate.getId().equals(endRate.getId())) {
+                collapsedEnds.add(endRate);
             }
+        });
+        if (!collapsedEnds.isEmpty()) {
+            Map<CurrencyRate, CurrencyRate> previous = findPreviousRates(collapsedEnds);
+            endRates.forEach((rate, endRate) -> {
+                if (previous.get(endRate) != null) {
+                    startRates.put(rate, previous.get(endRate));
+                }
+            });
         }
 
-        if (startRate == null) {
-            startRate = findCurrencyRateAtOrBefore(
-                currentRate.getCurrencyCode(),
-                currentRate.getSource(),
-                changeRange.startDate().atTime(23, 59, 59)
-            );
-        }
+        Map<CurrencyRate, CurrencyRateChange> changes = new IdentityHashMap<>();
+        rates.forEach(rate -> changes.put(rate, currencyRangeChange(startRates.get(rate), endRates.get(rate))));
+        return changes;
+    }
 
-        if (startRate == null) {
-            List<CurrencyRate> earliest = currencyRateRepository.findEarliestAtOrAfter(
-                currentRate.getCurrencyCode(),
-                currentRate.getSource(),
-                changeRange.startDate().atStartOfDay(),
-                BigDecimal.ZERO,
-                PageRequest.of(0, 1)
-            );
-            if (!earliest.isEmpty()) {
-                startRate = earliest.get(0);
-            }
+    private void fillMissingStartRates(Map<CurrencyRate, CurrencyRate> endRates,
+                                       Map<CurrencyRate, CurrencyRate> startRates,
+                                       Function<Set<String>, List<CurrencyRate>> lookup) {
+        Set<String> missing = endRates.keySet().stream()
+            .filter(rate -> !startRates.containsKey(rate))
+            .map(CurrencyRate::getCurrencyCode)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (missing.isEmpty()) {
+            return;
         }
+        Map<String, CurrencyRate> found = byCurrencyCode(lookup.apply(missing));
+        endRates.keySet().forEach(rate -> {
+            if (!startRates.containsKey(rate) && found.containsKey(rate.getCurrencyCode())) {
+                startRates.put(rate, found.get(rate.getCurrencyCode()));
+            }
+        });
+    }
 
-        if (startRate == null) {
-            List<CurrencyRate> earliestEver = currencyRateRepository.findEarliestRate(
-                currentRate.getCurrencyCode(),
-                currentRate.getSource(),
+    /**
+     * Latest rate with an earlier rate date for each given rate, keyed by the given rate (by identity).
+     * Persisted rows are resolved in one query; the rest fall back to the per-currency lookup.
+     */
+    private Map<CurrencyRate, CurrencyRate> findPreviousRates(Collection<CurrencyRate> rates) {
+        Map<CurrencyRate, CurrencyRate> previous = new IdentityHashMap<>();
+        List<CurrencyRate> persisted = rates.stream()
+            .filter(rate -> rate.getId() != null && rate.getRateDate() != null)
+            .toList();
+        if (!persisted.isEmpty()) {
+            Map<String, CurrencyRate> found = new HashMap<>();
+            currencyRateRepository.findPreviousRatesByRateIds(
+                    persisted.stream().map(CurrencyRate::getId).collect(Collectors.toCollection(LinkedHashSet::new)),
+                    BigDecimal.ZERO)
+                .forEach(row -> found.put(row.getCurrencyCode() + '|' + row.getSource(), row));
+            persisted.forEach(rate -> {
+                CurrencyRate row = found.get(rate.getCurrencyCode() + '|' + rate.getSource());
+                if (row != null) {
+                    previous.put(rate, row);
+                }
+            });
+        }
+        for (CurrencyRate rate : rates) {
+            if (rate.getId() != null && rate.getRateDate() != null) {
+                continue;
+            }
+            List<CurrencyRate> rows = currencyRateRepository.findPreviousRatesByRateDate(
+                rate.getCurrencyCode(),
+                rate.getSource(),
+                rate.getRateDate() != null ? rate.getRateDate() : LocalDateTime.now(),
                 BigDecimal.ZERO,
                 PageRequest.of(0, 1)
             );
-            if (!earliestEver.isEmpty()) {
-                startRate = earliestEver.get(0);
+            if (!rows.isEmpty()) {
+                previous.put(rate, rows.get(0));
             }
         }
+        return previous;
+    }
 
-        if (startRate == null) {
-            return new CurrencyRateChange(null, null, null, null);
+    private static Map<String, CurrencyRate> byCurrencyCode(List<CurrencyRate> rows) {
+        Map<String, CurrencyRate> byCode = new HashMap<>();
+        if (rows != null) {
+            rows.forEach(row -> byCode.putIfAbsent(row.getCurrencyCode(), row));
         }
+        return byCode;
+    }
 
-        if (startRate.getId() != null && endRate.getId() != null && startRate.getId().equals(endRate.getId())) {
-            List<CurrencyRate> previous = currencyRateRepository.findPreviousRatesByRateDate(
-                currentRate.getCurrencyCode(),
-                currentRate.getSource(),
-                endRate.getRateDate() != null ? endRate.getRateDate() : LocalDateTime.now(),
-                BigDecimal.ZERO,
-                PageRequest.of(0, 1)
-            );
-            if (!previous.isEmpty()) {
-                startRate = previous.get(0);
-            }
+    private CurrencyRateChange currencyRangeChange(CurrencyRate startRate, CurrencyRate endRate) {
+        if (startRate == null || endRate == null) {
+            return new CurrencyRateChange(null, null, null, null);
         }
 
         BigDecimal start = positiveOrFallback(startRate.getSellingRate(), startRate.getBuyingRate());
@@ -949,17 +1453,6 @@ public class MarketDataService {
         return new CurrencyRateChange(changePercent, start, startRate.getFetchedAt(), endRate.getFetchedAt());
     }
 
-    private CurrencyRate findCurrencyRateAtOrBefore(String currencyCode, RateSource source, java.time.LocalDateTime at) {
-        List<CurrencyRate> rates = currencyRateRepository.findLatestAtOrBefore(
-            currencyCode,
-            source,
-            at,
-            BigDecimal.ZERO,
-            PageRequest.of(0, 1)
-        );
-        return rates.isEmpty() ? null : rates.get(0);
-    }
-
     private BigDecimal positiveOrFallback(BigDecimal value, BigDecimal fallback) {
         if (isPositive(value)) {
             return value;
@@ -1032,7 +1525,7 @@ public class MarketDataService {
             List<Instrument> instruments) {
         Map<UUID, InstrumentMetricsService.InstrumentMetrics> batchMetrics =
                 instrumentMetricsService.resolveMetricsBatch(instruments);
-        Map<UUID, InstrumentMetricsService.InstrumentMetrics> resolved = new java.util.HashMap<>();
+        Map<UUID, InstrumentMetricsService.InstrumentMetrics> resolved = new HashMap<>();
         if (batchMetrics != null) {
             resolved.putAll(batchMetrics);
         }
@@ -1143,7 +1636,7 @@ public class MarketDataService {
 
         List<UUID> instrumentIds = instruments.stream()
                 .map(Instrument::getId)
-                .filter(java.util.Objects::nonNull)
+                .filter(Objects::nonNull)
                 .toList();
         if (instrumentIds.isEmpty()) {
             return Map.of();
@@ -1163,9 +1656,12 @@ public class MarketDataService {
 
         if (allViopBondOrFund && changeRange.endDate().isEqual(today)) {
             log.debug("Taking VIOP/BOND/FUND fast path with previousClose for change calculation");
-            Map<UUID, InstrumentRangeChange> result = new java.util.HashMap<>();
+            Map<UUID, InstrumentRangeChange> result = new HashMap<>();
             instruments.forEach(instrument -> {
-                BigDecimal currentPrice = instrumentMetricsService.resolveMetrics(instrument).currentPrice();
+                InstrumentMetricsService.InstrumentMetrics metrics = metricsByInstrument.get(instrument.getId());
+                BigDecimal currentPrice = metrics != null
+                        ? metrics.currentPrice()
+                        : instrumentMetricsService.resolveMetrics(instrument).currentPrice();
                 BigDecimal previousClose = instrument.getPreviousClose();
                 log.debug("VIOP/BOND/FUND instrument {}: currentPrice={}, previousClose={}",
                     instrument.getSymbol(), currentPrice, previousClose);
@@ -1189,48 +1685,16 @@ public class MarketDataService {
             return result;
         }
 
-        Map<UUID, PricePoint> startPoints = new java.util.HashMap<>();
+        Map<UUID, PricePoint> startPoints = new HashMap<>();
         if (changeRange.startDate().isEqual(today)) {
-            instruments.forEach(instrument -> {
-                InstrumentMetricsService.InstrumentMetrics metrics =
-                        metricsByInstrument.get(instrument.getId());
-                BigDecimal basePrice = positiveOrFallback(
-                        instrument.getPreviousClose(),
-                        metrics != null ? metrics.previousClose() : null
-                );
-                PricePoint openingPoint =
-                        findOpeningPricePoint(instrument.getId(), today, basePrice);
-                if (openingPoint != null) {
-                    startPoints.put(instrument.getId(), openingPoint);
-                }
-            });
+            startPoints.putAll(findOpeningPricePoints(instruments, metricsByInstrument, today));
         } else {
-            List<PriceHistory> histories =
-                    priceHistoryRepository.findLatestAtOrBeforeByInstrumentIds(
-                            instrumentIds,
-                            changeRange.startDate()
-                    );
-            if (histories != null) {
-                histories.forEach(history -> startPoints.put(
-                        history.getInstrument().getId(),
-                        toPricePoint(history)
-                ));
-            }
+            startPoints.putAll(findPricePointsAtOrBefore(instrumentIds, changeRange.startDate(), today));
         }
 
-        Map<UUID, PricePoint> endPoints = new java.util.HashMap<>();
+        Map<UUID, PricePoint> endPoints = new HashMap<>();
         if (changeRange.endDate().isBefore(today)) {
-            List<PriceHistory> histories =
-                    priceHistoryRepository.findLatestAtOrBeforeByInstrumentIds(
-                            instrumentIds,
-                            changeRange.endDate()
-                    );
-            if (histories != null) {
-                histories.forEach(history -> endPoints.put(
-                        history.getInstrument().getId(),
-                        toPricePoint(history)
-                ));
-            }
+            endPoints.putAll(findPricePointsAtOrBefore(instrumentIds, changeRange.endDate(), today));
         } else {
             instruments.forEach(instrument -> {
                 InstrumentMetricsService.InstrumentMetrics metrics =
@@ -1244,7 +1708,33 @@ public class MarketDataService {
             });
         }
 
-        Map<UUID, InstrumentRangeChange> result = new java.util.HashMap<>();
+        // Fallback path reuses the batch lookups above; only the earliest-point query is added,
+        // and only for instruments that have no history at or before the range start.
+        Map<UUID, PricePoint> earliestPoints = new HashMap<>();
+        if (changeRange.startDate().isBefore(today)) {
+            List<UUID> missingStartIds = instrumentIds.stream()
+                    .filter(instrumentId -> !startPoints.containsKey(instrumentId))
+                    .toList();
+            if (!missingStartIds.isEmpty()) {
+                earliestPoints.putAll(rangeChangeCache.instrumentBasePoints(
+                        new BasePointsKey(null, missingStartIds),
+                        () -> {
+                            Map<UUID, PricePoint> points = new HashMap<>();
+                            List<PriceHistory> earliest = priceHistoryRepository.findEarliestByInstrumentIds(missingStartIds);
+                            if (earliest != null) {
+                                earliest.forEach(history -> {
+                                    PricePoint point = toResolvedPricePoint(history);
+                                    if (point != null) {
+                                        points.put(history.getInstrument().getId(), point);
+                                    }
+                                });
+                            }
+                            return points;
+                        }));
+            }
+        }
+
+        Map<UUID, InstrumentRangeChange> result = new HashMap<>();
         instruments.forEach(instrument -> {
             UUID instrumentId = instrument.getId();
             PricePoint startPoint = startPoints.get(instrumentId);
@@ -1260,16 +1750,133 @@ public class MarketDataService {
                     instrument.getPreviousClose(),
                     metrics != null ? metrics.previousClose() : null
             );
+            if (endPoint == null && !changeRange.endDate().isBefore(today)) {
+                endPoint = new PricePoint(currentPrice, today);
+            }
             result.put(instrumentId, calculateInstrumentRangeChange(
                     instrument,
                     currentPrice,
                     openingBasePrice,
-                    changeRange
+                    changeRange,
+                    startPoint,
+                    endPoint,
+                    earliestPoints.get(instrumentId)
             ));
         });
         return result;
     }
 
+    /**
+     * Latest bar at or before {@code date} per instrument. Past dates only change when history is
+     * backfilled, so their lookups are served from the bounded {@link RangeChangeCache}.
+     */
+    private Map<UUID, PricePoint> findPricePointsAtOrBefore(List<UUID> instrumentIds, LocalDate date, LocalDate today) {
+        Supplier<Map<UUID, PricePoint>> loader = () -> {
+            Map<UUID, PricePoint> points = new HashMap<>();
+            List<PriceHistory> histories = priceHistoryRepository.findLatestAtOrBeforeByInstrumentIds(instrumentIds, date);
+            if (histories != null) {
+                histories.forEach(history -> points.put(history.getInstrument().getId(), toPricePoint(history)));
+            }
+            return points;
+        };
+        if (!date.isBefore(today)) {
+            return loader.get();
+        }
+        return rangeChangeCache.instrumentBasePoints(new BasePointsKey(date, List.copyOf(instrumentIds)), loader);
+    }
+
+    /**
+     * Batch counterpart of {@link #findOpeningPricePoint}: resolves session-open points for a whole page
+     * with one query, plus a second one only for instruments whose latest bar is a synthetic single-price row.
+     */
+    private Map<UUID, PricePoint> findOpeningPricePoints(
+            List<Instrument> instruments,
+            Map<UUID, InstrumentMetricsService.InstrumentMetrics> metricsByInstrument,
+            LocalDate date) {
+        List<UUID> instrumentIds = instruments.stream()
+                .map(Instrument::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (instrumentIds.isEmpty()) {
+            return Map.of();
+        }
+
+        // Two rows per instrument are enough: today's bar (if any) and the previous close.
+        Map<UUID, List<PriceHistory>> recentByInstrument = groupByInstrument(
+                priceHistoryRepository.findRecentAtOrBeforeByInstrumentIds(instrumentIds, date, 2));
+
+        Map<UUID, PriceHistory> todayHistories = new HashMap<>();
+        Map<UUID, PricePoint> previousClosePoints = new HashMap<>();
+        recentByInstrument.forEach((instrumentId, rows) -> {
+            for (PriceHistory row : rows) {
+                if (date.equals(row.getPriceDate())) {
+                    todayHistories.put(instrumentId, row);
+                } else if (row.getPriceDate() != null && row.getPriceDate().isBefore(date)) {
+                    PricePoint point = toResolvedPricePoint(row);
+                    if (point != null) {
+                        previousClosePoints.put(instrumentId, point);
+                    }
+                    break;
+                }
+            }
+        });
+
+        List<UUID> syntheticIds = todayHistories.entrySet().stream()
+                .filter(entry -> isSinglePriceHistory(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<UUID, PricePoint> sessionOpens = new HashMap<>();
+        if (!syntheticIds.isEmpty()) {
+            groupByInstrument(priceHistoryRepository.findRecentAtOrBeforeByInstrumentIds(
+                    syntheticIds, date.minusDays(1), SESSION_OPEN_LOOKBACK_ROWS))
+                    .forEach((instrumentId, rows) -> {
+                        PricePoint sessionOpen = firstSessionOpen(rows);
+                        if (sessionOpen != null) {
+                            sessionOpens.put(instrumentId, sessionOpen);
+                        }
+                    });
+        }
+
+        Map<UUID, PricePoint> openingPoints = new HashMap<>();
+        instruments.forEach(instrument -> {
+            UUID instrumentId = instrument.getId();
+            if (instrumentId == null) {
+                return;
+            }
+            InstrumentMetricsService.InstrumentMetrics metrics = metricsByInstrument.get(instrumentId);
+            BigDecimal basePrice = positiveOrFallback(
+                    instrument.getPreviousClose(),
+                    metrics != null ? metrics.previousClose() : null
+            );
+            PricePoint openingPoint = resolveOpeningPricePoint(
+                    date,
+                    todayHistories.get(instrumentId),
+                    previousClosePoints.get(instrumentId),
+                    () -> sessionOpens.get(instrumentId),
+                    basePrice
+            );
+            if (openingPoint != null) {
+                openingPoints.put(instrumentId, openingPoint);
+            }
+        });
+        return openingPoints;
+    }
+
+    private Map<UUID, List<PriceHistory>> groupByInstrument(List<PriceHistory> histories) {
+        if (histories == null || histories.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, List<PriceHistory>> grouped = new HashMap<>();
+        histories.forEach(history -> {
+            if (history != null && history.getInstrument() != null && history.getInstrument().getId() != null) {
+                grouped.computeIfAbsent(history.getInstrument().getId(), key -> new ArrayList<>()).add(history);
+            }
+        });
+        grouped.values().forEach(rows -> rows.sort(
+                Comparator.comparing(PriceHistory::getPriceDate, Comparator.nullsLast(Comparator.reverseOrder()))));
+        return grouped;
+    }
+
     private PricePoint toPricePoint(PriceHistory history) {
         return new PricePoint(
                 positiveOrFallback(history.getAdjustedClose(), history.getClosePrice()),
@@ -1320,19 +1927,33 @@ public class MarketDataService {
         PricePoint endPoint = changeRange.endDate().isBefore(today)
             ? findPricePointAtOrBefore(instrument.getId(), changeRange.endDate())
             : new PricePoint(currentPrice, today);
+        PricePoint earliestPoint = startPoint == null && changeRange.startDate().isBefore(today)
+            ? findEarliestPricePoint(instrument.getId())
+            : null;
 
-        if (startPoint == null && changeRange.startDate().isBefore(today)) {
-            List<PriceHistory> earliestList = priceHistoryRepository.findByInstrumentIdOrderByPriceDateAsc(
-                instrument.getId(),
-                PageRequest.of(0, 1)
-            );
-            if (earliestList != null && !earliestList.isEmpty()) {
-                PriceHistory earliest = earliestList.get(0);
-                BigDecimal price = positiveOrFallback(earliest.getAdjustedClose(), earliest.getClosePrice());
-                if (price != null && (endPoint == null || earliest.getPriceDate().isBefore(endPoint.date()))) {
-                    startPoint = new PricePoint(price, earliest.getPriceDate());
-                }
-            }
+        return calculateInstrumentRangeChange(
+            instrument,
+            currentPrice,
+            openingBasePrice,
+            changeRange,
+            startPoint,
+            endPoint,
+            earliestPoint
+        );
+    }
+
+    private InstrumentRangeChange calculateInstrumentRangeChange(
+            Instrument instrument,
+            BigDecimal currentPrice,
+            BigDecimal openingBasePrice,
+            ChangeDateRange changeRange,
+            PricePoint startPoint,
+            PricePoint endPoint,
+            PricePoint earliestPoint) {
+        LocalDate today = istanbulDate();
+        if (startPoint == null && changeRange.startDate().isBefore(today) && earliestPoint != null
+                && (endPoint == null || earliestPoint.date().isBefore(endPoint.date()))) {
+            startPoint = earliestPoint;
         }
 
         // For VIOP/BOND/FUND instruments with endDate = today, use previousClose as start point
@@ -1393,6 +2014,21 @@ public class MarketDataService {
 
         PricePoint previousClosePoint = findPricePointAtOrBefore(instrumentId, date.minusDays(1));
         PriceHistory todayHistory = priceHistoryRepository.findByInstrumentIdAndPriceDate(instrumentId, date).orElse(null);
+        return resolveOpeningPricePoint(
+            date,
+            todayHistory,
+            previousClosePoint,
+            () -> findLatestSessionOpenAtOrBefore(instrumentId, date.minusDays(1)),
+            fallbackOpenPrice
+        );
+    }
+
+    private PricePoint resolveOpeningPricePoint(
+            LocalDate date,
+            PriceHistory todayHistory,
+            PricePoint previousClosePoint,
+            Supplier<PricePoint> latestSessionOpenLookup,
+            BigDecimal fallbackOpenPrice) {
         BigDecimal historyOpen = todayHistory != null
             ? positiveOrFallback(todayHistory.getOpenPrice(), todayHistory.getClosePrice())
             : null;
@@ -1401,7 +2037,7 @@ public class MarketDataService {
         }
 
         if (isSinglePriceHistory(todayHistory)) {
-            PricePoint latestSessionOpen = findLatestSessionOpenAtOrBefore(instrumentId, date.minusDays(1));
+            PricePoint latestSessionOpen = latestSessionOpenLookup.get();
             if (latestSessionOpen != null && isPositive(latestSessionOpen.price())) {
                 return latestSessionOpen;
             }
@@ -1430,8 +2066,12 @@ public class MarketDataService {
             .findByInstrumentIdAndPriceDateLessThanEqualOrderByPriceDateDesc(
                 instrumentId,
                 date,
-                PageRequest.of(0, 20)
+                PageRequest.of(0, SESSION_OPEN_LOOKBACK_ROWS)
             );
+        return firstSessionOpen(history);
+    }
+
+    private PricePoint firstSessionOpen(List<PriceHistory> history) {
         if (history == null || history.isEmpty()) {
             return null;
         }
@@ -1475,16 +2115,28 @@ public class MarketDataService {
                 PageRequest.of(0, 1)
             );
         if (history != null && !history.isEmpty()) {
-            PriceHistory point = history.get(0);
-            BigDecimal price = positiveOrFallback(point.getAdjustedClose(), point.getClosePrice());
-            if (price != null) {
-                return new PricePoint(price, point.getPriceDate());
-            }
+            return toResolvedPricePoint(history.get(0));
         }
         return null;
     }
 
-    private PriceHistoryResponse mapToPriceHistoryResponse(PriceHistory history) {
+    private PricePoint findEarliestPricePoint(UUID instrumentId) {
+        List<PriceHistory> earliestList = priceHistoryRepository.findByInstrumentIdOrderByPriceDateAsc(
+            instrumentId,
+            PageRequest.of(0, 1)
+        );
+        if (earliestList != null && !earliestList.isEmpty()) {
+            return toResolvedPricePoint(earliestList.get(0));
+        }
+        return null;
+    }
+
+    private PricePoint toResolvedPricePoint(PriceHistory history) {
+        BigDecimal price = positiveOrFallback(history.getAdjustedClose(), history.getClosePrice());
+        return price != null ? new PricePoint(price, history.getPriceDate()) : null;
+    }
+
+    private PriceHistoryResponse mapToPriceHistoryResponse(HistoryPointView history) {
         return PriceHistoryResponse.builder()
             .date(history.getPriceDate())
             .open(history.getOpenPrice())
@@ -1527,6 +2179,10 @@ public class MarketDataService {
     private record PricePoint(BigDecimal price, LocalDate date) {
     }
 
+    // Null date: earliest bar ever
+    private record BasePointsKey(LocalDate date, List<UUID> instrumentIds) {
+    }
+
     private record InstrumentRangeChange(
         BigDecimal change,
         BigDecimal changePercent,
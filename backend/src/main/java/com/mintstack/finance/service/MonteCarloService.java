@@ -6,11 +6,11 @@ import com.mintstack.finance.dto.response.VaRResult;
 import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.Portfolio;
 import com.mintstack.finance.entity.PortfolioItem;
-import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.exception.BadRequestException;
 import com.mintstack.finance.repository.InstrumentRepository;
 import com.mintstack.finance.repository.PortfolioRepository;
-import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -34,7 +34,7 @@ import java.util.concurrent.Executor;
 public class MonteCarloService {
 
     private final InstrumentRepository instrumentRepository;
-    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryStore priceHistoryStore;
     private final PortfolioRepository portfolioRepository;
     private final Executor taskExecutor;
 
@@ -46,12 +46,12 @@ public class MonteCarloService {
 
     public MonteCarloService(
         InstrumentRepository instrumentRepository,
-        PriceHistoryRepository priceHistoryRepository,
+        PriceHistoryStore priceHistoryStore,
         PortfolioRepository portfolioRepository,
         @Qualifier("taskExecutor") Executor taskExecutor
     ) {
         this.instrumentRepository = instrumentRepository;
-        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceHistoryStore = priceHistoryStore;
         this.portfolioRepository = portfolioRepository;
         this.taskExecutor = taskExecutor;
     }
@@ -298,12 +298,7 @@ public class MonteCarloService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days * 2);
 
-        List<PriceHistory> history = priceHistoryRepository
-            .findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                instrumentOpt.get().getId(),
-                startDate,
-                endDate
-            );
+        PriceBars history = priceHistoryStore.between(instrumentOpt.get().getId(), startDate, endDate);
 
         if (history.size() < 2) {
             return new double[0];
@@ -311,9 +306,7 @@ public class MonteCarloService {
 
         double[] returns = new double[history.size() - 1];
         for (int i = 1; i < history.size(); i++) {
-            double prevPrice = history.get(i - 1).getClosePrice().doubleValue();
-            double currPrice = history.get(i).getClosePrice().doubleValue();
-            returns[i - 1] = Math.log(currPrice / prevPrice);
+            returns[i - 1] = Math.log(history.close(i) / history.close(i - 1));
         }
 
         return returns;
@@ -28,13 +28,13 @@ public class NewsService {
     private final NewsCategoryRepository categoryRepository;
     private final com.mintstack.finance.scheduler.NewsScheduler newsScheduler;
 
-    @Cacheable(value = "news", key = "'latest'")
+    @Cacheable(value = "news", key = "'latest'", sync = true)
     @Transactional(readOnly = true)
     public List<NewsResponse> getLatestNews() {
         List<News> news = newsRepository.findTop5ByIsPublishedTrueOrderByPublishedAtDesc();
         return news.stream()
             .map(this::mapToResponse)
-            .collect(Collectors.toList());
+            .toList();
     }
 
     @Transactional(readOnly = true)
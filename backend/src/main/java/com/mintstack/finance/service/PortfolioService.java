@@ -25,10 +25,9 @@ import com.mintstack.finance.repository.PriceAlertRepository;
 import com.mintstack.finance.service.simulation.SimulationDataService;
 import com.mintstack.finance.service.portfolio.PortfolioFinancialRulesService;
 import com.mintstack.finance.service.portfolio.PortfolioOrderExecutionService;
+import com.mintstack.finance.service.portfolio.PortfolioValuationIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -63,29 +62,22 @@ public class PortfolioService {
     private final SimulationDataService simulationDataService;
     private final PortfolioFinancialRulesService financialRulesService;
     private final PortfolioOrderExecutionService orderExecutionService;
+    private final PortfolioValuationIndex valuationIndex;
 
-    @Cacheable(value = "userPortfolios", key = "#keycloakId")
     @Transactional(readOnly = true)
     public List<PortfolioResponse> getUserPortfolios(String keycloakId) {
         User user = userService.getUserByKeycloakId(keycloakId);
-        List<Portfolio> portfolios = portfolioRepository.findByUserIdWithItems(user.getId());
-        
-        return portfolios.stream()
-            .map(this::mapToResponse)
-            .collect(Collectors.toList());
+        return valuationIndex.readUserPortfolios(user.getId())
+            .orElseGet(() -> loadUserPortfolios(user.getId()));
     }
 
-    @Cacheable(value = "portfolios", key = "#portfolioId")
     @Transactional(readOnly = true)
     public PortfolioResponse getPortfolio(String keycloakId, UUID portfolioId) {
         User user = userService.getUserByKeycloakId(keycloakId);
-        Portfolio portfolio = portfolioRepository.findByIdAndUserIdWithItems(portfolioId, user.getId())
-            .orElseThrow(() -> new ResourceNotFoundException("Portföy", "id", portfolioId));
-        
-        return mapToResponse(portfolio);
+        return valuationIndex.read(user.getId(), portfolioId)
+            .orElseGet(() -> loadPortfolio(user.getId(), portfolioId));
     }
 
-    @CacheEvict(value = "userPortfolios", key = "#keycloakId")
     @Transactional
     public PortfolioResponse createPortfolio(String keycloakId, CreatePortfolioRequest request) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -128,15 +120,12 @@ public class PortfolioService {
             .build();
         
         Portfolio savedPortfolio = portfolioRepository.save(portfolio);
+        valuationIndex.invalidateUser(user.getId());
         log.info("Portfolio created: {} for user: {}", savedPortfolio.getId(), keycloakId);
         
         return mapToResponse(savedPortfolio);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public PortfolioResponse updatePortfolio(String keycloakId, UUID portfolioId, CreatePortfolioRequest request) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -170,15 +159,12 @@ public class PortfolioService {
         }
         
         Portfolio savedPortfolio = portfolioRepository.save(portfolio);
+        valuationIndex.invalidateUser(user.getId());
         log.info("Portfolio updated: {}", portfolioId);
         
         return mapToResponse(savedPortfolio);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public void deletePortfolio(String keycloakId, UUID portfolioId) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -188,13 +174,10 @@ public class PortfolioService {
         portfolioTransactionRepository.deleteByPortfolioId(portfolioId);
         portfolioItemRepository.deleteByPortfolioId(portfolioId);
         portfolioRepository.delete(portfolio);
+        valuationIndex.invalidateUser(user.getId());
         log.info("Portfolio deleted: {} for user: {}", portfolioId, keycloakId);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", allEntries = true),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public java.util.Map<String, Object> deleteAllUserData(String keycloakId) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -210,6 +193,7 @@ public class PortfolioService {
 
         watchlistRepository.deleteByUserId(user.getId());
         priceAlertRepository.deleteByUserId(user.getId());
+        valuationIndex.invalidateUser(user.getId());
 
         log.info("All user data reset executed for user: {} ({})", user.getId(), keycloakId);
 
@@ -219,10 +203,6 @@ public class PortfolioService {
         return result;
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public PortfolioResponse addItem(String keycloakId, UUID portfolioId, AddPortfolioItemRequest request) {
         ExecutePortfolioTradeRequest tradeRequest = ExecutePortfolioTradeRequest.builder()
@@ -238,10 +218,6 @@ public class PortfolioService {
         return executeTrade(keycloakId, portfolioId, tradeRequest);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public PortfolioResponse removeItem(String keycloakId, UUID portfolioId, UUID itemId) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -263,10 +239,6 @@ public class PortfolioService {
         return executeTrade(keycloakId, portfolioId, tradeRequest);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     public PortfolioResponse executeTrade(String keycloakId, UUID portfolioId, ExecutePortfolioTradeRequest request) {
         // Retry mechanism for optimistic locking conflicts
         int maxRetries = 3;
@@ -332,13 +304,10 @@ public class PortfolioService {
         if (isOrderDueForExecution(transactionDate)) {
             orderExecutionService.tryFillOrder(portfolio, order, instrument);
         }
+        valuationIndex.invalidateUser(user.getId());
         return reloadPortfolioResponse(user.getId(), portfolioId);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public PortfolioResponse processPendingOrders(String keycloakId, UUID portfolioId) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -358,13 +327,10 @@ public class PortfolioService {
             orderExecutionService.tryFillOrder(portfolio, order, order.getInstrument());
         }
 
+        valuationIndex.invalidateUser(user.getId());
         return reloadPortfolioResponse(user.getId(), portfolioId);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public PortfolioResponse cancelOrder(String keycloakId, UUID portfolioId, UUID orderId, String reason) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -385,13 +351,10 @@ public class PortfolioService {
         order.setFilledAt(LocalDateTime.now(BIST_ZONE));
         portfolioTransactionRepository.save(order);
 
+        valuationIndex.invalidateUser(user.getId());
         return reloadPortfolioResponse(user.getId(), portfolioId);
     }
 
-    @org.springframework.cache.annotation.Caching(evict = {
-        @CacheEvict(value = "portfolios", key = "#portfolioId"),
-        @CacheEvict(value = "userPortfolios", key = "#keycloakId")
-    })
     @Transactional
     public PortfolioResponse adjustCashBalance(String keycloakId, UUID portfolioId, AdjustPortfolioCashRequest request) {
         User user = userService.getUserByKeycloakId(keycloakId);
@@ -406,6 +369,7 @@ public class PortfolioService {
         }
 
         portfolioRepository.save(portfolio);
+        valuationIndex.invalidateUser(user.getId());
         return reloadPortfolioResponse(user.getId(), portfolioId);
     }
 
@@ -417,30 +381,31 @@ public class PortfolioService {
     @Transactional(readOnly = true)
     public PortfolioSummaryResponse getUserPortfolioSummary(String keycloakId) {
         User user = userService.getUserByKeycloakId(keycloakId);
-        List<Portfolio> portfolios = portfolioRepository.findByUserIdWithItems(user.getId());
+        List<PortfolioResponse> portfolios = valuationIndex.readUserPortfolios(user.getId())
+            .orElseGet(() -> loadUserPortfolios(user.getId()));
 
         BigDecimal totalValue = portfolios.stream()
-            .map(Portfolio::getPositionValue)
+            .map(PortfolioResponse::getPositionValue)
             .map(this::safe)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
         BigDecimal totalCost = portfolios.stream()
-            .map(Portfolio::getTotalCost)
+            .map(PortfolioResponse::getTotalCost)
             .map(this::safe)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         BigDecimal totalCashBalance = portfolios.stream()
-            .map(Portfolio::getCashBalance)
+            .map(PortfolioResponse::getCashBalance)
             .map(this::safe)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         BigDecimal totalNetAssetValue = portfolios.stream()
-            .map(Portfolio::getNetAssetValue)
+            .map(PortfolioResponse::getNetAssetValue)
             .map(this::safe)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         BigDecimal totalRealizedProfitLoss = safe(portfolioTransactionRepository.sumRealizedProfitLossByUserId(user.getId()));
         BigDecimal totalUnrealizedProfitLoss = portfolios.stream()
-            .map(Portfolio::getTotalProfitLoss)
+            .map(PortfolioResponse::getUnrealizedProfitLoss)
             .map(this::safe)
             .reduce(BigDecimal.ZERO, BigDecimal::add);
         BigDecimal totalProfitLoss = totalRealizedProfitLoss.add(totalUnrealizedProfitLoss);
@@ -538,6 +503,7 @@ public class PortfolioService {
             .instrumentSymbol(instrument.getSymbol())
             .instrumentName(instrument.getName())
             .instrumentType(instrument.getType())
+            .instrumentSimulated(instrument.getIsSimulated())
             .quantity(item.getQuantity())
             .purchasePrice(item.getPurchasePrice())
             .currentPrice(instrument.getCurrentPrice())
@@ -550,6 +516,22 @@ public class PortfolioService {
             .build();
     }
 
+    private List<PortfolioResponse> loadUserPortfolios(UUID userId) {
+        long generation = valuationIndex.generation();
+        List<PortfolioResponse> responses = portfolioRepository.findByUserIdWithItems(userId).stream()
+            .map(this::mapToResponse)
+            .collect(Collectors.toList());
+        valuationIndex.storeUserPortfolios(userId, responses, generation);
+        return responses;
+    }
+
+    private PortfolioResponse loadPortfolio(UUID userId, UUID portfolioId) {
+        long generation = valuationIndex.generation();
+        PortfolioResponse response = reloadPortfolioResponse(userId, portfolioId);
+        valuationIndex.store(userId, response, generation);
+        return response;
+    }
+
     private PortfolioResponse reloadPortfolioResponse(UUID userId, UUID portfolioId) {
         Portfolio portfolio = portfolioRepository.findByIdAndUserIdWithItems(portfolioId, userId)
             .orElseThrow(() -> new ResourceNotFoundException("Portföy", "id", portfolioId));
@@ -5,16 +5,32 @@ import com.mintstack.finance.dto.cache.IndexData;
 import com.mintstack.finance.dto.cache.SimulationConfigData;
 import com.mintstack.finance.dto.cache.StockPriceData;
 import com.mintstack.finance.entity.SimulationConfig;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 
+/**
+ * Simulation prices in Redis, backed by an in-process {@link LocalPriceStore}.
+ *
+ * When a Redis call fails the service switches to the local store: reads are answered from it and writes
+ * are buffered there. Redis is probed again with exponential backoff (on the next call that is due and
+ * from a scheduled check), and once a probe succeeds the buffered writes are replayed before Redis is
+ * used again.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -28,6 +44,8 @@ public class PriceCacheService {
     private static final String INDEX_SYMBOLS_KEY = "simulation:index-symbols";
     private static final String SIMULATION_CONFIG_KEY = "simulation:config";
 
+    private static final long DEFAULT_LOCAL_MAX_ENTRIES = 5000;
+
     @Value("${app.cache.simulation.stock-ttl:300}")
     private long simulationStockTtlSeconds;
 
@@ -40,294 +58,400 @@ public class PriceCacheService {
     @Value("${app.cache.simulation.config-ttl:600}")
     private long simulationConfigTtlSeconds;
 
+    @Value("${app.cache.simulation.local-max-entries:5000}")
+    private long localMaxEntries = DEFAULT_LOCAL_MAX_ENTRIES;
+
+    @Value("${app.cache.simulation.redis-probe.initial-backoff-ms:1000}")
+    private long probeInitialBackoffMs = 1000;
+
+    @Value("${app.cache.simulation.redis-probe.max-backoff-ms:30000}")
+    private long probeMaxBackoffMs = 30000;
+
     private final RedisTemplate<String, Object> redisTemplate;
 
-    private boolean redisAvailable = true;
+    private LocalPriceStore localStore = new LocalPriceStore(DEFAULT_LOCAL_MAX_ENTRIES);
+    private RedisHealthState health = new RedisHealthState(Duration.ofSeconds(1), Duration.ofSeconds(30));
+    private Clock clock = Clock.systemUTC();
+
+    @PostConstruct
+    void init() {
+        localStore = new LocalPriceStore(localMaxEntries);
+        health = new RedisHealthState(Duration.ofMillis(probeInitialBackoffMs), Duration.ofMillis(probeMaxBackoffMs));
+    }
+
+    void setClockForTesting(Clock clock) {
+        this.clock = clock;
+    }
 
     public void saveStockPrice(String symbol, StockPriceData data) {
-        if (!checkRedisConnection()) return;
-        try {
-            data.setTimestamp(LocalDateTime.now());
-            redisTemplate.opsForHash().put(STOCK_PRICES_KEY, symbol, data);
-            redisTemplate.opsForSet().add(STOCK_SYMBOLS_KEY, symbol);
-            refreshSimulationTtl(STOCK_PRICES_KEY, simulationStockTtlSeconds);
-            refreshSimulationTtl(STOCK_SYMBOLS_KEY, simulationStockTtlSeconds);
-            log.debug("Saved stock price to Redis: {}", symbol);
-        } catch (Exception e) {
-            log.error("Failed to save stock price to Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
+        data.setTimestamp(LocalDateTime.now());
+        save(localStore.stocks(), STOCK_PRICES_KEY, STOCK_SYMBOLS_KEY, simulationStockTtlSeconds, symbol, data, "stock price");
     }
 
-    @SuppressWarnings("unchecked")
     public Optional<StockPriceData> getStockPrice(String symbol) {
-        if (!checkRedisConnection()) return Optional.empty();
-        try {
-            Object data = redisTemplate.opsForHash().get(STOCK_PRICES_KEY, symbol);
-            if (data instanceof StockPriceData) {
-                return Optional.of((StockPriceData) data);
-            }
-            return Optional.empty();
-        } catch (Exception e) {
-            log.error("Failed to get stock price from Redis: {}", e.getMessage());
-            markRedisUnavailable();
-            return Optional.empty();
-        }
+        return read(localStore.stocks(), STOCK_PRICES_KEY, symbol, StockPriceData.class, "stock price");
     }
 
     public Map<String, StockPriceData> getAllStockPrices() {
-        Map<String, StockPriceData> result = new HashMap<>();
-        if (!checkRedisConnection()) return result;
-        try {
-            Map<Object, Object> entries = redisTemplate.opsForHash().entries(STOCK_PRICES_KEY);
-            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
-                if (entry.getValue() instanceof StockPriceData) {
-                    result.put(entry.getKey().toString(), (StockPriceData) entry.getValue());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to get all stock prices from Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
-        return result;
+        return readAll(localStore.stocks(), STOCK_PRICES_KEY, StockPriceData.class, "stock prices");
     }
 
     public void deleteStockPrice(String symbol) {
-        if (!checkRedisConnection()) return;
+        if (!checkRedisConnection() && bufferWhileDown(() -> localStore.stocks().remove(symbol, true))) return;
+        localStore.stocks().remove(symbol, false);
         try {
             redisTemplate.opsForHash().delete(STOCK_PRICES_KEY, symbol);
             redisTemplate.opsForSet().remove(STOCK_SYMBOLS_KEY, symbol);
         } catch (Exception e) {
             log.error("Failed to delete stock price from Redis: {}", e.getMessage());
             markRedisUnavailable();
+            localStore.stocks().remove(symbol, true);
         }
     }
 
     public void saveCurrencyRate(String code, CurrencyRateData data) {
-        if (!checkRedisConnection()) return;
-        try {
-            data.setTimestamp(LocalDateTime.now());
-            redisTemplate.opsForHash().put(CURRENCY_RATES_KEY, code, data);
-            redisTemplate.opsForSet().add(CURRENCY_CODES_KEY, code);
-            refreshSimulationTtl(CURRENCY_RATES_KEY, simulationCurrencyTtlSeconds);
-            refreshSimulationTtl(CURRENCY_CODES_KEY, simulationCurrencyTtlSeconds);
-            log.debug("Saved currency rate to Redis: {}", code);
-        } catch (Exception e) {
-            log.error("Failed to save currency rate to Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
+        data.setTimestamp(LocalDateTime.now());
+        save(localStore.currencies(), CURRENCY_RATES_KEY, CURRENCY_CODES_KEY, simulationCurrencyTtlSeconds, code, data, "currency rate");
     }
 
-    @SuppressWarnings("unchecked")
     public Optional<CurrencyRateData> getCurrencyRate(String code) {
-        if (!checkRedisConnection()) return Optional.empty();
-        try {
-            Object data = redisTemplate.opsForHash().get(CURRENCY_RATES_KEY, code);
-            if (data instanceof CurrencyRateData) {
-                return Optional.of((CurrencyRateData) data);
-            }
-            return Optional.empty();
-        } catch (Exception e) {
-            log.error("Failed to get currency rate from Redis: {}", e.getMessage());
-            markRedisUnavailable();
-            return Optional.empty();
-        }
+        return read(localStore.currencies(), CURRENCY_RATES_KEY, code, CurrencyRateData.class, "currency rate");
     }
 
     public Map<String, CurrencyRateData> getAllCurrencyRates() {
-        Map<String, CurrencyRateData> result = new HashMap<>();
-        if (!checkRedisConnection()) return result;
-        try {
-            Map<Object, Object> entries = redisTemplate.opsForHash().entries(CURRENCY_RATES_KEY);
-            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
-                if (entry.getValue() instanceof CurrencyRateData) {
-                    result.put(entry.getKey().toString(), (CurrencyRateData) entry.getValue());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to get all currency rates from Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
-        return result;
+        return readAll(localStore.currencies(), CURRENCY_RATES_KEY, CurrencyRateData.class, "currency rates");
     }
 
     public void saveIndexValue(String symbol, IndexData data) {
-        if (!checkRedisConnection()) return;
-        try {
-            data.setTimestamp(LocalDateTime.now());
-            redisTemplate.opsForHash().put(INDEX_VALUES_KEY, symbol, data);
-            redisTemplate.opsForSet().add(INDEX_SYMBOLS_KEY, symbol);
-            refreshSimulationTtl(INDEX_VALUES_KEY, simulationIndexTtlSeconds);
-            refreshSimulationTtl(INDEX_SYMBOLS_KEY, simulationIndexTtlSeconds);
-            log.debug("Saved index value to Redis: {}", symbol);
-        } catch (Exception e) {
-            log.error("Failed to save index value to Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
+        data.setTimestamp(LocalDateTime.now());
+        save(localStore.indices(), INDEX_VALUES_KEY, INDEX_SYMBOLS_KEY, simulationIndexTtlSeconds, symbol, data, "index value");
     }
 
-    @SuppressWarnings("unchecked")
     public Optional<IndexData> getIndexValue(String symbol) {
-        if (!checkRedisConnection()) return Optional.empty();
-        try {
-            Object data = redisTemplate.opsForHash().get(INDEX_VALUES_KEY, symbol);
-            if (data instanceof IndexData) {
-                return Optional.of((IndexData) data);
-            }
-            return Optional.empty();
-        } catch (Exception e) {
-            log.error("Failed to get index value from Redis: {}", e.getMessage());
-            markRedisUnavailable();
-            return Optional.empty();
-        }
+        return read(localStore.indices(), INDEX_VALUES_KEY, symbol, IndexData.class, "index value");
     }
 
     public Map<String, IndexData> getAllIndexValues() {
-        Map<String, IndexData> result = new HashMap<>();
-        if (!checkRedisConnection()) return result;
-        try {
-            Map<Object, Object> entries = redisTemplate.opsForHash().entries(INDEX_VALUES_KEY);
-            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
-                if (entry.getValue() instanceof IndexData) {
-                    result.put(entry.getKey().toString(), (IndexData) entry.getValue());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to get all index values from Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
-        return result;
+        return readAll(localStore.indices(), INDEX_VALUES_KEY, IndexData.class, "index values");
     }
 
     public void saveSimulationConfig(SimulationConfig config) {
-        if (!checkRedisConnection()) return;
+        SimulationConfigData data = SimulationConfigData.fromEntity(config);
+        if (!checkRedisConnection() && bufferWhileDown(() -> localStore.putConfig(data, true))) return;
+        localStore.putConfig(data, false);
         try {
-            SimulationConfigData data = SimulationConfigData.fromEntity(config);
             redisTemplate.opsForValue().set(SIMULATION_CONFIG_KEY, data);
             refreshSimulationTtl(SIMULATION_CONFIG_KEY, simulationConfigTtlSeconds);
             log.debug("Saved simulation config to Redis");
         } catch (Exception e) {
             log.error("Failed to save simulation config to Redis: {}", e.getMessage());
             markRedisUnavailable();
+            localStore.putConfig(data, true);
         }
     }
 
-    @SuppressWarnings("unchecked")
     public Optional<SimulationConfig> getSimulationConfig() {
-        if (!checkRedisConnection()) return Optional.empty();
-        try {
-            Object data = redisTemplate.opsForValue().get(SIMULATION_CONFIG_KEY);
-            if (data instanceof SimulationConfigData) {
-                return Optional.of(((SimulationConfigData) data).toEntity());
+        if (checkRedisConnection()) {
+            try {
+                Object data = redisTemplate.opsForValue().get(SIMULATION_CONFIG_KEY);
+                if (data instanceof SimulationConfigData) {
+                    return Optional.of(((SimulationConfigData) data).toEntity());
+                }
+                return Optional.empty();
+            } catch (Exception e) {
+                log.error("Failed to get simulation config from Redis: {}", e.getMessage());
+                markRedisUnavailable();
             }
-            return Optional.empty();
-        } catch (Exception e) {
-            log.error("Failed to get simulation config from Redis: {}", e.getMessage());
-            markRedisUnavailable();
-            return Optional.empty();
         }
+        return Optional.ofNullable(localStore.config()).map(SimulationConfigData::toEntity);
     }
 
     public void saveAllStockPrices(Map<String, StockPriceData> prices) {
-        if (!checkRedisConnection() || prices == null || prices.isEmpty()) return;
-        try {
-            Map<String, Object> map = new HashMap<>();
-            LocalDateTime now = LocalDateTime.now();
-            for (Map.Entry<String, StockPriceData> entry : prices.entrySet()) {
-                StockPriceData data = entry.getValue();
-                data.setTimestamp(now);
-                map.put(entry.getKey(), data);
-                redisTemplate.opsForSet().add(STOCK_SYMBOLS_KEY, entry.getKey());
-            }
-            redisTemplate.opsForHash().putAll(STOCK_PRICES_KEY, map);
-            refreshSimulationTtl(STOCK_PRICES_KEY, simulationStockTtlSeconds);
-            refreshSimulationTtl(STOCK_SYMBOLS_KEY, simulationStockTtlSeconds);
-            log.info("Saved {} stock prices to Redis", prices.size());
-        } catch (Exception e) {
-            log.error("Failed to save all stock prices to Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
+        if (prices == null || prices.isEmpty()) return;
+        flushTick(new TickBatch().stocks(prices));
+        log.info("Saved {} stock prices", prices.size());
     }
 
     public void saveAllCurrencyRates(Map<String, CurrencyRateData> rates) {
-        if (!checkRedisConnection() || rates == null || rates.isEmpty()) return;
-        try {
-            Map<String, Object> map = new HashMap<>();
-            LocalDateTime now = LocalDateTime.now();
-            for (Map.Entry<String, CurrencyRateData> entry : rates.entrySet()) {
-                CurrencyRateData data = entry.getValue();
-                data.setTimestamp(now);
-                map.put(entry.getKey(), data);
-                redisTemplate.opsForSet().add(CURRENCY_CODES_KEY, entry.getKey());
-            }
-            redisTemplate.opsForHash().putAll(CURRENCY_RATES_KEY, map);
-            refreshSimulationTtl(CURRENCY_RATES_KEY, simulationCurrencyTtlSeconds);
-            refreshSimulationTtl(CURRENCY_CODES_KEY, simulationCurrencyTtlSeconds);
-            log.info("Saved {} currency rates to Redis", rates.size());
-        } catch (Exception e) {
-            log.error("Failed to save all currency rates to Redis: {}", e.getMessage());
-            markRedisUnavailable();
-        }
+        if (rates == null || rates.isEmpty()) return;
+        flushTick(new TickBatch().currencies(rates));
+        log.info("Saved {} currency rates", rates.size());
     }
 
     public void saveAllIndexValues(Map<String, IndexData> indices) {
-        if (!checkRedisConnection() || indices == null || indices.isEmpty()) return;
+        if (indices == null || indices.isEmpty()) return;
+        flushTick(new TickBatch().indices(indices));
+        log.info("Saved {} index values", indices.size());
+    }
+
+    /**
+     * Writes every price staged in a simulation tick in one pipelined round-trip: per asset class a
+     * multi-field HSET, a single SADD with all members and one EXPIRE per key.
+     */
+    public void flushTick(TickBatch batch) {
+        if (batch == null || batch.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        batch.stocks.values().forEach(data -> data.setTimestamp(now));
+        batch.currencies.values().forEach(data -> data.setTimestamp(now));
+        batch.indices.values().forEach(data -> data.setTimestamp(now));
+        if (!checkRedisConnection() && bufferWhileDown(() -> mirror(batch, true))) return;
+        mirror(batch, false);
         try {
-            Map<String, Object> map = new HashMap<>();
-            LocalDateTime now = LocalDateTime.now();
-            for (Map.Entry<String, IndexData> entry : indices.entrySet()) {
-                IndexData data = entry.getValue();
-                data.setTimestamp(now);
-                map.put(entry.getKey(), data);
-                redisTemplate.opsForSet().add(INDEX_SYMBOLS_KEY, entry.getKey());
-            }
-            redisTemplate.opsForHash().putAll(INDEX_VALUES_KEY, map);
-            refreshSimulationTtl(INDEX_VALUES_KEY, simulationIndexTtlSeconds);
-            refreshSimulationTtl(INDEX_SYMBOLS_KEY, simulationIndexTtlSeconds);
-            log.info("Saved {} index values to Redis", indices.size());
+            executePipelined(operations -> {
+                writeAssetClass(operations, STOCK_PRICES_KEY, STOCK_SYMBOLS_KEY, batch.stocks, simulationStockTtlSeconds);
+                writeAssetClass(operations, CURRENCY_RATES_KEY, CURRENCY_CODES_KEY, batch.currencies, simulationCurrencyTtlSeconds);
+                writeAssetClass(operations, INDEX_VALUES_KEY, INDEX_SYMBOLS_KEY, batch.indices, simulationIndexTtlSeconds);
+            });
+            log.debug("Flushed tick to Redis: {} stocks, {} currencies, {} indices",
+                    batch.stocks.size(), batch.currencies.size(), batch.indices.size());
         } catch (Exception e) {
-            log.error("Failed to save all index values to Redis: {}", e.getMessage());
+            log.error("Failed to flush simulation tick to Redis: {}", e.getMessage());
             markRedisUnavailable();
+            mirror(batch, true);
         }
     }
 
     public void clearAllCache() {
-        if (!checkRedisConnection()) return;
+        if (!checkRedisConnection() && bufferWhileDown(() -> localStore.clear(true))) return;
+        localStore.clear(false);
         try {
-            redisTemplate.delete(STOCK_PRICES_KEY);
-            redisTemplate.delete(STOCK_SYMBOLS_KEY);
-            redisTemplate.delete(CURRENCY_RATES_KEY);
-            redisTemplate.delete(CURRENCY_CODES_KEY);
-            redisTemplate.delete(INDEX_VALUES_KEY);
-            redisTemplate.delete(INDEX_SYMBOLS_KEY);
-            redisTemplate.delete(SIMULATION_CONFIG_KEY);
+            deleteAllKeys(redisTemplate);
             log.info("Cleared all simulation cache from Redis");
         } catch (Exception e) {
             log.error("Failed to clear cache from Redis: {}", e.getMessage());
             markRedisUnavailable();
+            localStore.clear(true);
         }
     }
 
     public boolean isRedisAvailable() {
-        return redisAvailable;
+        return health.isUp();
+    }
+
+    /**
+     * Probes Redis now, ignoring the backoff, and replays buffered writes if it answers.
+     */
+    public void resetRedisAvailability() {
+        health.probeNow();
+        if (probeRedis()) {
+            log.info("Redis availability reset to true");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.simulation.redis-probe.interval-ms:5000}")
+    public void probeIfUnavailable() {
+        if (!health.isUp()) {
+            probeRedis();
+        }
     }
 
     private boolean checkRedisConnection() {
-        if (!redisAvailable) {
-            log.debug("Redis is marked as unavailable, skipping operation");
+        if (health.isUp()) {
+            return true;
+        }
+        if (probeRedis()) {
+            return true;
+        }
+        log.debug("Redis is marked as unavailable, using in-process store");
+        return false;
+    }
+
+    /**
+     * Runs a probe when one is due. The PING and the replay run outside the store lock so writers keep
+     * buffering meanwhile; only draining the buffer and marking Redis up take the lock. Writes buffered
+     * during a replay are drained by the next round, and Redis is marked up in the same locked step that
+     * finds the buffer empty, so no write can be buffered after the last replay and then be left behind.
+     */
+    private boolean probeRedis() {
+        if (!health.tryStartProbe(clock.instant())) {
+            return health.isUp();
+        }
+        LocalPriceStore.Pending pending = null;
+        try {
+            redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+            while (true) {
+                synchronized (localStore) {
+                    pending = localStore.drain();
+                    if (pending.isEmpty()) {
+                        health.markUp();
+                        break;
+                    }
+                }
+                replay(pending);
+                pending = null;
+            }
+            log.info("Redis is reachable again; replayed buffered simulation writes");
+            return true;
+        } catch (Exception e) {
+            synchronized (localStore) {
+                if (pending != null) {
+                    localStore.restore(pending);
+                }
+                Duration backoff = health.markDown(clock.instant());
+                log.warn("Redis probe failed, next attempt in {} ms: {}", backoff.toMillis(), e.getMessage());
+            }
             return false;
         }
-        return true;
+    }
+
+    private void replay(LocalPriceStore.Pending pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        executePipelined(operations -> {
+            replayAssetClass(operations, STOCK_PRICES_KEY, STOCK_SYMBOLS_KEY, pending.stocks(), simulationStockTtlSeconds);
+            replayAssetClass(operations, CURRENCY_RATES_KEY, CURRENCY_CODES_KEY, pending.currencies(), simulationCurrencyTtlSeconds);
+            replayAssetClass(operations, INDEX_VALUES_KEY, INDEX_SYMBOLS_KEY, pending.indices(), simulationIndexTtlSeconds);
+            if (pending.configCleared()) {
+                operations.delete(SIMULATION_CONFIG_KEY);
+            }
+            if (pending.config() != null) {
+                operations.opsForValue().set(SIMULATION_CONFIG_KEY, pending.config());
+                if (simulationConfigTtlSeconds > 0) {
+                    operations.expire(SIMULATION_CONFIG_KEY, Duration.ofSeconds(simulationConfigTtlSeconds));
+                }
+            }
+        });
+    }
+
+    private static void replayAssetClass(RedisOperations<String, Object> operations,
+                                         String dataKey,
+                                         String membersKey,
+                                         LocalPriceStore.Changes changes,
+                                         long ttlSeconds) {
+        if (changes.cleared()) {
+            operations.delete(List.of(dataKey, membersKey));
+        }
+        if (!changes.deletes().isEmpty()) {
+            operations.opsForHash().delete(dataKey, changes.deletes().toArray());
+            operations.opsForSet().remove(membersKey, changes.deletes().toArray());
+        }
+        writeAssetClass(operations, dataKey, membersKey, changes.upserts(), ttlSeconds);
     }
 
     private void markRedisUnavailable() {
-        this.redisAvailable = false;
-        log.warn("Redis marked as unavailable, will use in-memory fallback");
+        if (health.isUp()) {
+            Duration backoff = health.markDown(clock.instant());
+            log.warn("Redis marked as unavailable, serving from in-process store; probing again in {} ms", backoff.toMillis());
+        }
     }
 
-    public void resetRedisAvailability() {
-        this.redisAvailable = true;
-        log.info("Redis availability reset to true");
+    /**
+     * Runs {@code buffer} if Redis is still not up, atomically with respect to a replay.
+     */
+    private boolean bufferWhileDown(Runnable buffer) {
+        synchronized (localStore) {
+            if (health.isUp()) {
+                return false;
+            }
+            buffer.run();
+            return true;
+        }
+    }
+
+    private void save(LocalPriceStore.Area area,
+                      String dataKey,
+                      String membersKey,
+                      long ttlSeconds,
+                      String key,
+                      Object data,
+                      String label) {
+        if (!checkRedisConnection() && bufferWhileDown(() -> area.put(key, data, true))) return;
+        area.put(key, data, false);
+        try {
+            redisTemplate.opsForHash().put(dataKey, key, data);
+            redisTemplate.opsForSet().add(membersKey, key);
+            refreshSimulationTtl(dataKey, ttlSeconds);
+            refreshSimulationTtl(membersKey, ttlSeconds);
+            log.debug("Saved {} to Redis: {}", label, key);
+        } catch (Exception e) {
+            log.error("Failed to save {} to Redis: {}", label, e.getMessage());
+            markRedisUnavailable();
+            area.put(key, data, true);
+        }
+    }
+
+    private <T> Optional<T> read(LocalPriceStore.Area area, String dataKey, String key, Class<T> type, String label) {
+        Object data = null;
+        boolean fromRedis = false;
+        if (checkRedisConnection()) {
+            try {
+                data = redisTemplate.opsForHash().get(dataKey, key);
+                fromRedis = true;
+            } catch (Exception e) {
+                log.error("Failed to get {} from Redis: {}", label, e.getMessage());
+                markRedisUnavailable();
+            }
+        }
+        if (!fromRedis) {
+            data = area.get(key);
+        }
+        return type.isInstance(data) ? Optional.of(type.cast(data)) : Optional.empty();
+    }
+
+    private <T> Map<String, T> readAll(LocalPriceStore.Area area, String dataKey, Class<T> type, String label) {
+        Map<?, ?> entries = null;
+        if (checkRedisConnection()) {
+            try {
+                entries = redisTemplate.opsForHash().entries(dataKey);
+            } catch (Exception e) {
+                log.error("Failed to get all {} from Redis: {}", label, e.getMessage());
+                markRedisUnavailable();
+            }
+        }
+        if (entries == null) {
+            entries = area.snapshot();
+        }
+        Map<String, T> result = new HashMap<>();
+        for (Map.Entry<?, ?> entry : entries.entrySet()) {
+            if (type.isInstance(entry.getValue())) {
+                result.put(entry.getKey().toString(), type.cast(entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private void mirror(TickBatch batch, boolean pending) {
+        localStore.stocks().putAll(batch.stocks, pending);
+        localStore.currencies().putAll(batch.currencies, pending);
+        localStore.indices().putAll(batch.indices, pending);
+    }
+
+    private static void deleteAllKeys(RedisOperations<String, Object> operations) {
+        operations.delete(STOCK_PRICES_KEY);
+        operations.delete(STOCK_SYMBOLS_KEY);
+        operations.delete(CURRENCY_RATES_KEY);
+        operations.delete(CURRENCY_CODES_KEY);
+        operations.delete(INDEX_VALUES_KEY);
+        operations.delete(INDEX_SYMBOLS_KEY);
+        operations.delete(SIMULATION_CONFIG_KEY);
+    }
+
+    private void executePipelined(Consumer<RedisOperations<String, Object>> commands) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+
+    private static void writeAssetClass(RedisOperations<String, Object> operations,
+                                        String dataKey,
+                                        String membersKey,
+                                        Map<String, ?> entries,
+                                        long ttlSeconds) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        operations.opsForHash().putAll(dataKey, entries);
+        operations.opsForSet().add(membersKey, entries.keySet().toArray());
+        if (ttlSeconds > 0) {
+            operations.expire(dataKey, Duration.ofSeconds(ttlSeconds));
+            operations.expire(membersKey, Duration.ofSeconds(ttlSeconds));
+        }
     }
 
     private void refreshSimulationTtl(String key, long ttlSeconds) {
@@ -336,4 +460,49 @@ public class PriceCacheService {
         }
         redisTemplate.expire(key, Duration.ofSeconds(ttlSeconds));
     }
+
+    /**
+     * Prices changed during one simulation tick, staged for {@link #flushTick(TickBatch)}. Later
+     * updates of the same symbol replace earlier ones. Not thread-safe; one batch belongs to one tick.
+     */
+    public static final class TickBatch {
+
+        private final Map<String, StockPriceData> stocks = new LinkedHashMap<>();
+        private final Map<String, CurrencyRateData> currencies = new LinkedHashMap<>();
+        private final Map<String, IndexData> indices = new LinkedHashMap<>();
+
+        public TickBatch stock(String symbol, StockPriceData data) {
+            stocks.put(symbol, data);
+            return this;
+        }
+
+        public TickBatch currency(String code, CurrencyRateData data) {
+            currencies.put(code, data);
+            return this;
+        }
+
+        public TickBatch index(String symbol, IndexData data) {
+            indices.put(symbol, data);
+            return this;
+        }
+
+        private TickBatch stocks(Map<String, StockPriceData> entries) {
+            stocks.putAll(entries);
+            return this;
+        }
+
+        private TickBatch currencies(Map<String, CurrencyRateData> entries) {
+            currencies.putAll(entries);
+            return this;
+        }
+
+        private TickBatch indices(Map<String, IndexData> entries) {
+            indices.putAll(entries);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return stocks.isEmpty() && currencies.isEmpty() && indices.isEmpty();
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package com.mintstack.finance.service;
+
+import com.mintstack.finance.dto.response.PriceUpdateMessage;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Receives every price update broadcast to the cluster-wide price topics, on every node.
+ *
+ * Called once per update (not once per destination) from the WebSocket delivery path, so implementations
+ * must be cheap and must not throw.
+ */
+public interface PriceTickListener {
+
+    void onPriceUpdate(PriceUpdateMessage update);
+
+    /**
+     * Symbol of the instrument the update prices. Currency updates carry the bare code; the instrument is
+     * the TRY pair. A simulated and a real instrument can share the symbol, so listeners route on the symbol
+     * together with {@link PriceUpdateMessage#isSimulated()}.
+     */
+    static String instrumentSymbol(PriceUpdateMessage update) {
+        if (update == null || update.getSymbol() == null || update.getSymbol().isBlank()) {
+            return null;
+        }
+        String symbol = update.getSymbol().trim().toUpperCase();
+        if ("CURRENCY".equals(update.getType()) && symbol.length() == 3) {
+            return symbol + "TRY";
+        }
+        return symbol;
+    }
+
+    /**
+     * Price as stored on the instrument. Currency updates lead with the buying rate, but currency
+     * instruments are priced at the selling rate.
+     */
+    static BigDecimal instrumentPrice(PriceUpdateMessage update) {
+        if (update == null) {
+            return null;
+        }
+        if (!"CURRENCY".equals(update.getType())) {
+            return update.getPrice();
+        }
+        Map<String, Object> additionalData = update.getAdditionalData();
+        Object sellingRate = additionalData != null ? additionalData.get("sellingRate") : null;
+        if (sellingRate == null) {
+            return null;
+        }
+        try {
+            return sellingRate instanceof BigDecimal decimal ? decimal : new BigDecimal(sellingRate.toString());
+        } catch (NumberFormatException error) {
+            return null;
+        }
+    }
+}
@@ -70,9 +70,20 @@ public class PriceUpdateService {
     public void broadcastStockUpdate(String symbol, BigDecimal currentPrice, 
                                      BigDecimal previousClose, BigDecimal change,
                                      BigDecimal changePercent) {
+        broadcastStockUpdate(symbol, currentPrice, previousClose, change, changePercent, false);
+    }
+
+    /**
+     * Broadcast a stock price update, marking whether it prices the simulated instrument
+     */
+    @Observed(name = "ws.broadcast.stock", contextualName = "broadcast-stock-update")
+    public void broadcastStockUpdate(String symbol, BigDecimal currentPrice,
+                                     BigDecimal previousClose, BigDecimal change,
+                                     BigDecimal changePercent, boolean simulated) {
         PriceUpdateMessage message = PriceUpdateMessage.builder()
                 .type("STOCK")
                 .symbol(symbol)
+                .simulated(simulated)
                 .price(currentPrice)
                 .previousPrice(lastPrices.get("STOCK_" + symbol))
                 .additionalData(Map.of(
@@ -104,9 +115,21 @@ public class PriceUpdateService {
     public void broadcastCryptoUpdate(String symbol, BigDecimal currentPrice, 
                                        BigDecimal previousClose, BigDecimal changePercent24h,
                                        BigDecimal high24h, BigDecimal low24h, Long volume24h) {
+        broadcastCryptoUpdate(symbol, currentPrice, previousClose, changePercent24h, high24h, low24h, volume24h, false);
+    }
+
+    /**
+     * Broadcast a cryptocurrency price update, marking whether it prices the simulated instrument
+     */
+    @Observed(name = "ws.broadcast.crypto", contextualName = "broadcast-crypto-update")
+    public void broadcastCryptoUpdate(String symbol, BigDecimal currentPrice,
+                                       BigDecimal previousClose, BigDecimal changePercent24h,
+                                       BigDecimal high24h, BigDecimal low24h, Long volume24h,
+                                       boolean simulated) {
         PriceUpdateMessage message = PriceUpdateMessage.builder()
                 .type("CRYPTO")
                 .symbol(symbol)
+                .simulated(simulated)
                 .price(currentPrice)
                 .previousPrice(lastPrices.get("CRYPTO_" + symbol))
                 .additionalData(Map.of(
@@ -138,9 +161,19 @@ public class PriceUpdateService {
     @Observed(name = "ws.broadcast.market", contextualName = "broadcast-market-update")
     public void broadcastMarketUpdate(String type, String symbol, BigDecimal price,
                                       Map<String, Object> additionalData) {
+        broadcastMarketUpdate(type, symbol, price, additionalData, false);
+    }
+
+    /**
+     * Broadcast a general market update, marking whether it prices the simulated instrument
+     */
+    @Observed(name = "ws.broadcast.market", contextualName = "broadcast-market-update")
+    public void broadcastMarketUpdate(String type, String symbol, BigDecimal price,
+                                      Map<String, Object> additionalData, boolean simulated) {
         PriceUpdateMessage message = PriceUpdateMessage.builder()
                 .type(type)
                 .symbol(symbol)
+                .simulated(simulated)
                 .price(price)
                 .previousPrice(lastPrices.get(type + "_" + symbol))
                 .additionalData(additionalData)
@@ -0,0 +1,76 @@
+package com.mintstack.finance.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Availability state of Redis as seen by {@link PriceCacheService}.
+ *
+ * UP until an operation fails, then DOWN with a probe scheduled after the current backoff. Once the backoff
+ * has passed, exactly one caller moves the state to PROBING and checks Redis; success brings it back UP,
+ * failure returns it to DOWN with the backoff doubled up to the maximum.
+ */
+final class RedisHealthState {
+
+    enum Status { UP, DOWN, PROBING }
+
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private volatile Status status = Status.UP;
+    private Duration backoff;
+    private Instant nextProbeAt = Instant.MIN;
+
+    RedisHealthState(Duration initialBackoff, Duration maxBackoff) {
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.backoff = initialBackoff;
+    }
+
+    boolean isUp() {
+        return status == Status.UP;
+    }
+
+    Status status() {
+        return status;
+    }
+
+    /**
+     * Claims the next probe when Redis is down and its backoff has passed.
+     */
+    synchronized boolean tryStartProbe(Instant now) {
+        if (status != Status.DOWN || now.isBefore(nextProbeAt)) {
+            return false;
+        }
+        status = Status.PROBING;
+        return true;
+    }
+
+    /**
+     * Makes the next {@link #tryStartProbe} succeed regardless of the backoff.
+     */
+    synchronized void probeNow() {
+        nextProbeAt = Instant.MIN;
+    }
+
+    synchronized Duration markDown(Instant now) {
+        switch (status) {
+            case UP -> backoff = initialBackoff;
+            case PROBING -> {
+                Duration doubled = backoff.multipliedBy(2);
+                backoff = doubled.compareTo(maxBackoff) > 0 ? maxBackoff : doubled;
+            }
+            case DOWN -> {
+                return backoff;
+            }
+        }
+        status = Status.DOWN;
+        nextProbeAt = now.plus(backoff);
+        return backoff;
+    }
+
+    synchronized void markUp() {
+        status = Status.UP;
+        backoff = initialBackoff;
+    }
+}
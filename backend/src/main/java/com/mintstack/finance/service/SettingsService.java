@@ -27,6 +27,7 @@ public class SettingsService {
     private final UserApiConfigRepository userApiConfigRepository;
     private final UserRepository userRepository;
     private final ApiKeyValidationService apiKeyValidationService;
+    private final ApiProviderRegistry apiProviderRegistry;
 
     @Value("${app.external-api.fintables.enabled:false}")
     private boolean fintablesEnabled;
@@ -131,6 +132,7 @@ public class SettingsService {
         config.setIsActive(requestedActive);
 
         UserApiConfig saved = userApiConfigRepository.save(config);
+        apiProviderRegistry.invalidate();
         log.info("{} API config for user {} provider {}", isUpdate ? "Updated" : "Created", userId != null ? userId : "system", request.getProvider());
 
         return mapToResponse(saved);
@@ -146,6 +148,7 @@ public class SettingsService {
         }
 
         userApiConfigRepository.delete(config);
+        apiProviderRegistry.invalidate();
         log.info("Deleted API config {} for user {}", configId, userId);
     }
 
@@ -1,22 +1,37 @@
 package com.mintstack.finance.service;
 
 import com.mintstack.finance.dto.response.BollingerBandsResult;
+import com.mintstack.finance.dto.response.BollingerBandsSeriesResult;
+import com.mintstack.finance.dto.response.IndicatorSeriesResult;
+import com.mintstack.finance.dto.response.LiveIndicatorsResult;
 import com.mintstack.finance.dto.response.MACDResult;
+import com.mintstack.finance.dto.response.MACDSeriesResult;
 import com.mintstack.finance.dto.response.StochasticResult;
+import com.mintstack.finance.dto.response.StochasticSeriesResult;
 import com.mintstack.finance.dto.response.TechnicalIndicatorsResult;
 import com.mintstack.finance.entity.Instrument;
-import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.entity.InstrumentCatalogChangedEvent;
+import com.mintstack.finance.exception.BadRequestException;
 import com.mintstack.finance.repository.InstrumentRepository;
-import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.indicator.IndicatorEngine;
+import com.mintstack.finance.service.indicator.IndicatorResultCache;
+import com.mintstack.finance.service.indicator.IndicatorSeries;
+import com.mintstack.finance.service.indicator.LiveIndicatorIndex;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Teknik Analiz Göstergeleri Servisi
@@ -28,7 +43,11 @@ import java.util.Optional;
 public class TechnicalIndicatorService {
 
     private final InstrumentRepository instrumentRepository;
-    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryStore priceHistoryStore;
+    private final LiveIndicatorIndex liveIndicatorIndex;
+    private final IndicatorResultCache indicatorResultCache;
+
+    private final Map<String, UUID> instrumentIdsBySymbol = new ConcurrentHashMap<>();
 
     private static final int DEFAULT_RSI_PERIOD = 14;
     private static final int DEFAULT_MACD_FAST = 12;
@@ -36,6 +55,8 @@ public class TechnicalIndicatorService {
     private static final int DEFAULT_MACD_SIGNAL = 9;
     private static final int DEFAULT_BOLLINGER_PERIOD = 20;
     private static final double DEFAULT_BOLLINGER_STD_DEV = 2.0;
+    private static final int DATA_QUALITY_SAMPLE_SIZE = 220;
+    private static final int MAX_SERIES_POINTS = 2600;
 
     /**
      * RSI (Relative Strength Index) hesaplama
@@ -47,39 +68,14 @@ public class TechnicalIndicatorService {
      * @return RSI değeri (0-100 arası) veya null
      */
     public Double calculateRSI(String symbol, int period) {
-        List<BigDecimal> closePrices = getClosePrices(symbol, period + 1);
-        if (closePrices.size() < period + 1) {
-            log.warn("RSI hesaplaması için yeterli veri yok: {} (gerekli: {}, mevcut: {})",
-                    symbol, period + 1, closePrices.size());
-            return null;
-        }
-
-        List<Double> gains = new ArrayList<>();
-        List<Double> losses = new ArrayList<>();
-
-        for (int i = 1; i < closePrices.size(); i++) {
-            double change = closePrices.get(i).subtract(closePrices.get(i - 1)).doubleValue();
-            if (change > 0) {
-                gains.add(change);
-                losses.add(0.0);
-            } else {
-                gains.add(0.0);
-                losses.add(Math.abs(change));
+        return compute(symbol, "rsi", IndicatorEngine.rsiBars(period), history -> {
+            Double rsi = IndicatorEngine.rsi(history, period);
+            if (rsi == null) {
+                log.warn("RSI hesaplaması için yeterli veri yok: {} (gerekli: {}, mevcut: {})",
+                        symbol, period + 1, history.size());
             }
-        }
-
-        // İlk ortalama (SMA)
-        double avgGain = gains.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-        double avgLoss = losses.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-
-        if (avgLoss == 0) {
-            return 100.0; // Tüm hareketler yukarı
-        }
-
-        double rs = avgGain / avgLoss;
-        double rsi = 100 - (100 / (1 + rs));
-
-        return Math.round(rsi * 100.0) / 100.0;
+            return rsi;
+        }, period);
     }
 
     /**
@@ -93,39 +89,30 @@ public class TechnicalIndicatorService {
     }
 
     public MACDResult calculateMACD(String symbol, int fastPeriod, int slowPeriod, int signalPeriod) {
-        int requiredPeriod = slowPeriod + signalPeriod;
-        List<BigDecimal> closePrices = getClosePrices(symbol, requiredPeriod);
-        
-        if (closePrices.size() < requiredPeriod) {
-            log.warn("MACD hesaplaması için yeterli veri yok: {}", symbol);
-            return null;
-        }
-
-        // EMA hesaplamaları
-        double[] prices = closePrices.stream().mapToDouble(BigDecimal::doubleValue).toArray();
-        double fastEMA = calculateEMAFromPrices(prices, fastPeriod);
-        double slowEMA = calculateEMAFromPrices(prices, slowPeriod);
-        double macdLine = fastEMA - slowEMA;
-
-        // Signal line için MACD değerlerini hesapla
-        List<Double> macdValues = new ArrayList<>();
-        for (int i = slowPeriod - 1; i < prices.length; i++) {
-            double fEMA = calculateEMAFromPrices(java.util.Arrays.copyOf(prices, i + 1), fastPeriod);
-            double sEMA = calculateEMAFromPrices(java.util.Arrays.copyOf(prices, i + 1), slowPeriod);
-            macdValues.add(fEMA - sEMA);
-        }
-
-        double signalLine = calculateEMAFromDoubles(macdValues, signalPeriod);
-        double histogram = macdLine - signalLine;
+        return compute(symbol, "macd", IndicatorEngine.macdBars(slowPeriod, signalPeriod), history -> {
+            MACDResult macd = IndicatorEngine.macd(history, fastPeriod, slowPeriod, signalPeriod);
+            if (macd == null) {
+                log.warn("MACD hesaplaması için yeterli veri yok: {}", symbol);
+            }
+            return macd;
+        }, fastPeriod, slowPeriod, signalPeriod);
+    }
 
-        return new MACDResult(
-                round(macdLine),
-                round(signalLine),
-                round(histogram),
-                fastPeriod,
-                slowPeriod,
-                signalPeriod
-        );
+    /**
+     * MACD serisi: son {@code points} gün için MACD, sinyal ve histogram değerleri.
+     * Tüm seri tek geçişte (O(n)) hesaplanır.
+     */
+    public MACDSeriesResult calculateMACDSeries(String symbol, int fastPeriod, int slowPeriod, int signalPeriod,
+                                                int points) {
+        int warmup = IndicatorEngine.macdBars(slowPeriod, signalPeriod) - 2;
+        int limit = seriesPoints(points);
+        return compute(symbol, "macd-series", limit + warmup, history -> {
+            MACDSeriesResult series = IndicatorSeries.macd(history, fastPeriod, slowPeriod, signalPeriod, limit);
+            if (series == null) {
+                log.warn("MACD serisi için yeterli veri yok: {}", symbol);
+            }
+            return series;
+        }, fastPeriod, slowPeriod, signalPeriod, limit);
     }
 
     /**
@@ -135,42 +122,13 @@ public class TechnicalIndicatorService {
      * Lower Band = Middle Band - (2 * Standard Deviation)
      */
     public BollingerBandsResult calculateBollingerBands(String symbol, int period, double stdDevMultiplier) {
-        List<BigDecimal> closePrices = getClosePrices(symbol, period);
-        
-        if (closePrices.size() < period) {
-            log.warn("Bollinger Bands hesaplaması için yeterli veri yok: {}", symbol);
-            return null;
-        }
-
-        double[] prices = closePrices.stream().mapToDouble(BigDecimal::doubleValue).toArray();
-        
-        // Middle Band (SMA)
-        double middleBand = java.util.Arrays.stream(prices).average().orElse(0);
-        
-        // Standart sapma hesaplama
-        double variance = 0;
-        for (double price : prices) {
-            variance += Math.pow(price - middleBand, 2);
-        }
-        double stdDev = Math.sqrt(variance / period);
-        
-        double upperBand = middleBand + (stdDevMultiplier * stdDev);
-        double lowerBand = middleBand - (stdDevMultiplier * stdDev);
-        
-        // Bandwidth ve %B hesaplama
-        double bandwidth = ((upperBand - lowerBand) / middleBand) * 100;
-        double currentPrice = prices[prices.length - 1];
-        double percentB = (currentPrice - lowerBand) / (upperBand - lowerBand) * 100;
-
-        return new BollingerBandsResult(
-                round(upperBand),
-                round(middleBand),
-                round(lowerBand),
-                round(bandwidth),
-                round(percentB),
-                period,
-                stdDevMultiplier
-        );
+        return compute(symbol, "bollinger", period, history -> {
+            BollingerBandsResult bollinger = IndicatorEngine.bollingerBands(history, period, stdDevMultiplier);
+            if (bollinger == null) {
+                log.warn("Bollinger Bands hesaplaması için yeterli veri yok: {}", symbol);
+            }
+            return bollinger;
+        }, period, stdDevMultiplier);
     }
 
     public BollingerBandsResult calculateBollingerBands(String symbol) {
@@ -181,33 +139,26 @@ public class TechnicalIndicatorService {
      * Simple Moving Average (SMA) hesaplama
      */
     public Double calculateSMA(String symbol, int period) {
-        List<BigDecimal> closePrices = getClosePrices(symbol, period);
-        
-        if (closePrices.size() < period) {
-            log.warn("SMA hesaplaması için yeterli veri yok: {}", symbol);
-            return null;
-        }
-
-        double sum = closePrices.stream()
-                .mapToDouble(BigDecimal::doubleValue)
-                .sum();
-        
-        return round(sum / period);
+        return compute(symbol, "sma", period, history -> {
+            Double sma = IndicatorEngine.sma(history, period);
+            if (sma == null) {
+                log.warn("SMA hesaplaması için yeterli veri yok: {}", symbol);
+            }
+            return sma;
+        }, period);
     }
 
     /**
      * Exponential Moving Average (EMA) hesaplama
      */
     public Double calculateEMA(String symbol, int period) {
-        List<BigDecimal> closePrices = getClosePrices(symbol, period * 2);
-        
-        if (closePrices.size() < period) {
-            log.warn("EMA hesaplaması için yeterli veri yok: {}", symbol);
-            return null;
-        }
-
-        double[] prices = closePrices.stream().mapToDouble(BigDecimal::doubleValue).toArray();
-        return round(calculateEMAFromPrices(prices, period));
+        return compute(symbol, "ema", IndicatorEngine.emaBars(period), history -> {
+            Double ema = IndicatorEngine.ema(history, period);
+            if (ema == null) {
+                log.warn("EMA hesaplaması için yeterli veri yok: {}", symbol);
+            }
+            return ema;
+        }, period);
     }
 
     /**
@@ -216,66 +167,13 @@ public class TechnicalIndicatorService {
      * %D = 3-period SMA of %K
      */
     public StochasticResult calculateStochastic(String symbol, int kPeriod, int dPeriod) {
-        List<PriceHistory> priceHistory = getPriceHistory(symbol, kPeriod + dPeriod);
-        
-        if (priceHistory.size() < kPeriod) {
-            log.warn("Stochastic hesaplaması için yeterli veri yok: {}", symbol);
-            return null;
-        }
-
-        List<Double> kValues = new ArrayList<>();
-        
-        for (int i = kPeriod - 1; i < priceHistory.size(); i++) {
-            double highestHigh = Double.MIN_VALUE;
-            double lowestLow = Double.MAX_VALUE;
-            
-            for (int j = i - kPeriod + 1; j <= i; j++) {
-                PriceHistory ph = priceHistory.get(j);
-                highestHigh = Math.max(highestHigh, safeHigh(ph));
-                lowestLow = Math.min(lowestLow, safeLow(ph));
+        return compute(symbol, "stochastic", IndicatorEngine.stochasticBars(kPeriod, dPeriod), history -> {
+            StochasticResult stochastic = IndicatorEngine.stochastic(history, kPeriod, dPeriod);
+            if (stochastic == null) {
+                log.warn("Stochastic hesaplaması için yeterli veri yok: {}", symbol);
             }
-            
-            double currentClose = priceHistory.get(i).getClosePrice().doubleValue();
-            double range = highestHigh - lowestLow;
-            double k = range == 0 ? 50.0 : ((currentClose - lowestLow) / range) * 100;
-            kValues.add(k);
-        }
-
-        if (kValues.isEmpty()) {
-            return null;
-        }
-
-        double currentK = kValues.get(kValues.size() - 1);
-        
-        // %D hesaplama (SMA of K)
-        double sumD = 0;
-        int count = Math.min(dPeriod, kValues.size());
-        for (int i = kValues.size() - count; i < kValues.size(); i++) {
-            sumD += kValues.get(i);
-        }
-        double currentD = sumD / count;
-
-        // Oversold/Overbought durumu
-        String signal;
-        if (currentK < 20 && currentD < 20) {
-            signal = "OVERSOLD";
-        } else if (currentK > 80 && currentD > 80) {
-            signal = "OVERBOUGHT";
-        } else if (currentK > currentD) {
-            signal = "BULLISH";
-        } else if (currentK < currentD) {
-            signal = "BEARISH";
-        } else {
-            signal = "NEUTRAL";
-        }
-
-        return new StochasticResult(
-                round(currentK),
-                round(currentD),
-                kPeriod,
-                dPeriod,
-                signal
-        );
+            return stochastic;
+        }, kPeriod, dPeriod);
     }
 
     public StochasticResult calculateStochastic(String symbol) {
@@ -283,165 +181,105 @@ public class TechnicalIndicatorService {
     }
 
     public Double calculateATR(String symbol, int period) {
-        List<PriceHistory> history = getPriceHistory(symbol, period + 1);
-        if (history.size() < period + 1) {
-            return null;
-        }
-
-        double totalTrueRange = 0;
-        for (int i = 1; i < history.size(); i++) {
-            PriceHistory current = history.get(i);
-            double high = safeHigh(current);
-            double low = safeLow(current);
-            double previousClose = history.get(i - 1).getClosePrice().doubleValue();
-            totalTrueRange += Math.max(high - low, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
-        }
-        return round(totalTrueRange / period);
+        return compute(symbol, "atr", period + 1, history -> IndicatorEngine.atr(history, period), period);
     }
 
     public Double calculateADX(String symbol, int period) {
-        List<PriceHistory> history = getPriceHistory(symbol, period + 1);
-        if (history.size() < period + 1) {
-            return null;
-        }
-
-        double positiveDm = 0;
-        double negativeDm = 0;
-        double trueRangeSum = 0;
-        for (int i = 1; i < history.size(); i++) {
-            PriceHistory current = history.get(i);
-            PriceHistory previous = history.get(i - 1);
-            double upMove = safeHigh(current) - safeHigh(previous);
-            double downMove = safeLow(previous) - safeLow(current);
-            if (upMove > downMove && upMove > 0) {
-                positiveDm += upMove;
-            }
-            if (downMove > upMove && downMove > 0) {
-                negativeDm += downMove;
-            }
-            double previousClose = previous.getClosePrice().doubleValue();
-            trueRangeSum += Math.max(
-                safeHigh(current) - safeLow(current),
-                Math.max(Math.abs(safeHigh(current) - previousClose), Math.abs(safeLow(current) - previousClose))
-            );
-        }
-        if (trueRangeSum == 0) {
-            return 0.0;
-        }
-        double positiveDi = 100 * (positiveDm / trueRangeSum);
-        double negativeDi = 100 * (negativeDm / trueRangeSum);
-        double denominator = positiveDi + negativeDi;
-        return denominator == 0 ? 0.0 : round(100 * Math.abs(positiveDi - negativeDi) / denominator);
+        return compute(symbol, "adx", period + 1, history -> IndicatorEngine.adx(history, period), period);
     }
 
     public Long calculateOBV(String symbol, int limit) {
-        List<PriceHistory> history = getPriceHistory(symbol, limit);
-        if (history.size() < 2) {
-            return null;
-        }
-
-        long obv = 0L;
-        for (int i = 1; i < history.size(); i++) {
-            long volume = history.get(i).getVolume() != null ? history.get(i).getVolume() : 0L;
-            int comparison = history.get(i).getClosePrice().compareTo(history.get(i - 1).getClosePrice());
-            if (comparison > 0) {
-                obv += volume;
-            } else if (comparison < 0) {
-                obv -= volume;
-            }
-        }
-        return obv;
+        return compute(symbol, "obv", limit, history -> IndicatorEngine.obv(history, limit), limit);
     }
 
     public Double calculateVWAP(String symbol, int period) {
-        List<PriceHistory> history = getPriceHistory(symbol, period);
-        if (history.isEmpty()) {
-            return null;
-        }
-
-        double priceVolume = 0;
-        double volumeSum = 0;
-        for (PriceHistory item : history) {
-            long volume = item.getVolume() != null ? item.getVolume() : 0L;
-            priceVolume += typicalPrice(item) * volume;
-            volumeSum += volume;
-        }
-        return volumeSum == 0 ? null : round(priceVolume / volumeSum);
+        return compute(symbol, "vwap", period, history -> IndicatorEngine.vwap(history, period), period);
     }
 
     public Double calculateCCI(String symbol, int period) {
-        List<PriceHistory> history = getPriceHistory(symbol, period);
-        if (history.size() < period) {
-            return null;
-        }
-
-        double[] typicalPrices = history.stream().mapToDouble(this::typicalPrice).toArray();
-        double sma = java.util.Arrays.stream(typicalPrices).average().orElse(0);
-        double meanDeviation = java.util.Arrays.stream(typicalPrices)
-            .map(value -> Math.abs(value - sma))
-            .average()
-            .orElse(0);
-        return meanDeviation == 0 ? 0.0 : round((typicalPrices[typicalPrices.length - 1] - sma) / (0.015 * meanDeviation));
+        return compute(symbol, "cci", period, history -> IndicatorEngine.cci(history, period), period);
     }
 
     public Double calculateMFI(String symbol, int period) {
-        List<PriceHistory> history = getPriceHistory(symbol, period + 1);
-        if (history.size() < period + 1) {
-            return null;
-        }
+        return compute(symbol, "mfi", period + 1, history -> IndicatorEngine.mfi(history, period), period);
+    }
+
+    public Double calculateWilliamsR(String symbol, int period) {
+        return compute(symbol, "williams-r", period, history -> IndicatorEngine.williamsR(history, period), period);
+    }
 
-        double positiveFlow = 0;
-        double negativeFlow = 0;
-        for (int i = 1; i < history.size(); i++) {
-            double currentTypical = typicalPrice(history.get(i));
-            double previousTypical = typicalPrice(history.get(i - 1));
-            long volume = history.get(i).getVolume() != null ? history.get(i).getVolume() : 0L;
-            double moneyFlow = currentTypical * volume;
-            if (currentTypical > previousTypical) {
-                positiveFlow += moneyFlow;
-            } else if (currentTypical < previousTypical) {
-                negativeFlow += moneyFlow;
+    /**
+     * Tek çizgili göstergelerin (RSI, SMA, EMA, ATR, ADX, OBV, VWAP, CCI, MFI, Williams %R) serisi.
+     * Son {@code points} gün, ısınma için gereken ek barlarla birlikte tek okumayla alınır ve seri tek
+     * geçişte hesaplanır.
+     */
+    public IndicatorSeriesResult calculateSeries(String symbol, String indicator, int period, int points) {
+        String key = indicator != null ? indicator.trim().toLowerCase() : "";
+        if (!IndicatorSeries.SINGLE_LINE_INDICATORS.contains(key)) {
+            throw new BadRequestException("Desteklenmeyen gösterge: " + indicator);
+        }
+        if (period <= 0) {
+            throw new BadRequestException("Periyot pozitif olmalıdır");
+        }
+        int limit = seriesPoints(points);
+        return compute(symbol, key + "-series", limit + IndicatorSeries.warmupBars(key, period), history -> {
+            IndicatorSeriesResult series = IndicatorSeries.series(key, history, period, limit);
+            if (series == null) {
+                log.warn("{} serisi için yeterli veri yok: {}", key.toUpperCase(), symbol);
             }
-        }
-        if (negativeFlow == 0) {
-            return positiveFlow == 0 ? 50.0 : 100.0;
-        }
-        double ratio = positiveFlow / negativeFlow;
-        return round(100 - (100 / (1 + ratio)));
+            return series;
+        }, period, limit);
     }
 
-    public Double calculateWilliamsR(String symbol, int period) {
-        List<PriceHistory> history = getPriceHistory(symbol, period);
-        if (history.size() < period) {
-            return null;
-        }
+    public BollingerBandsSeriesResult calculateBollingerBandsSeries(String symbol, int period, double stdDevMultiplier,
+                                                                    int points) {
+        int limit = seriesPoints(points);
+        return compute(symbol, "bollinger-series", limit + period - 1, history -> {
+            BollingerBandsSeriesResult series = IndicatorSeries.bollingerBands(history, period, stdDevMultiplier, limit);
+            if (series == null) {
+                log.warn("Bollinger Bands serisi için yeterli veri yok: {}", symbol);
+            }
+            return series;
+        }, period, stdDevMultiplier, limit);
+    }
 
-        double highestHigh = history.stream().mapToDouble(this::safeHigh).max().orElse(0);
-        double lowestLow = history.stream().mapToDouble(this::safeLow).min().orElse(0);
-        double close = history.get(history.size() - 1).getClosePrice().doubleValue();
-        double range = highestHigh - lowestLow;
-        return range == 0 ? 0.0 : round(((highestHigh - close) / range) * -100);
+    public StochasticSeriesResult calculateStochasticSeries(String symbol, int kPeriod, int dPeriod, int points) {
+        int limit = seriesPoints(points);
+        return compute(symbol, "stochastic-series", limit + kPeriod + dPeriod - 2, history -> {
+            StochasticSeriesResult series = IndicatorSeries.stochastic(history, kPeriod, dPeriod, limit);
+            if (series == null) {
+                log.warn("Stochastic serisi için yeterli veri yok: {}", symbol);
+            }
+            return series;
+        }, kPeriod, dPeriod, limit);
     }
 
     /**
-     * Tüm göstergeleri tek seferde hesapla
+     * Tüm göstergeleri tek seferde hesapla.
+     * Enstrüman bir kez çözülür ve en uzun pencereyi (SMA200 ve veri kalitesi) kapsayan seri tek okumayla
+     * alınır; tüm göstergeler bu seri üzerinden hesaplanır.
      */
     public TechnicalIndicatorsResult calculateAllIndicators(String symbol) {
-        Double rsi = calculateRSI(symbol, DEFAULT_RSI_PERIOD);
-        MACDResult macd = calculateMACD(symbol);
-        BollingerBandsResult bollinger = calculateBollingerBands(symbol);
-        Double sma50 = calculateSMA(symbol, 50);
-        Double sma200 = calculateSMA(symbol, 200);
-        Double ema20 = calculateEMA(symbol, 20);
-        StochasticResult stochastic = calculateStochastic(symbol);
-        Double atr14 = calculateATR(symbol, 14);
-        Double adx14 = calculateADX(symbol, 14);
-        Long obv = calculateOBV(symbol, 90);
-        Double vwap20 = calculateVWAP(symbol, 20);
-        Double cci20 = calculateCCI(symbol, 20);
-        Double mfi14 = calculateMFI(symbol, 14);
-        Double williamsR14 = calculateWilliamsR(symbol, 14);
-        String dataQuality = evaluateDataQuality(symbol);
+        return compute(symbol, "all", DATA_QUALITY_SAMPLE_SIZE, history -> calculateAllIndicators(symbol, history));
+    }
+
+    private TechnicalIndicatorsResult calculateAllIndicators(String symbol, PriceBars history) {
+        Double rsi = IndicatorEngine.rsi(history, DEFAULT_RSI_PERIOD);
+        MACDResult macd = IndicatorEngine.macd(history, DEFAULT_MACD_FAST, DEFAULT_MACD_SLOW, DEFAULT_MACD_SIGNAL);
+        BollingerBandsResult bollinger = IndicatorEngine.bollingerBands(
+                history, DEFAULT_BOLLINGER_PERIOD, DEFAULT_BOLLINGER_STD_DEV);
+        Double sma50 = IndicatorEngine.sma(history, 50);
+        Double sma200 = IndicatorEngine.sma(history, 200);
+        Double ema20 = IndicatorEngine.ema(history, 20);
+        StochasticResult stochastic = IndicatorEngine.stochastic(history, 14, 3);
+        Double atr14 = IndicatorEngine.atr(history, 14);
+        Double adx14 = IndicatorEngine.adx(history, 14);
+        Long obv = IndicatorEngine.obv(history, 90);
+        Double vwap20 = IndicatorEngine.vwap(history, 20);
+        Double cci20 = IndicatorEngine.cci(history, 20);
+        Double mfi14 = IndicatorEngine.mfi(history, 14);
+        Double williamsR14 = IndicatorEngine.williamsR(history, 14);
+        String dataQuality = evaluateDataQuality(history.size());
 
         // Genel sinyal değerlendirmesi
         String overallSignal = evaluateOverallSignal(rsi, macd, stochastic);
@@ -467,68 +305,79 @@ public class TechnicalIndicatorService {
         );
     }
 
-    // ===================== HELPER METHODS =====================
-
-    private List<BigDecimal> getClosePrices(String symbol, int limit) {
-        return getPriceHistory(symbol, limit).stream()
-                .map(PriceHistory::getClosePrice)
-                .toList();
+    /**
+     * Fiyat akışıyla güncellenen canlı göstergeler (varsayılan periyotlar).
+     * Geçmiş veri taranmaz; değerler bellekteki akış durumundan okunur. RSI ve ATR Wilder yumuşatması
+     * kullandığından pencere tabanlı hesaplamalardan küçük farklar gösterebilir.
+     */
+    public Optional<LiveIndicatorsResult> getLiveIndicators(String symbol) {
+        return liveIndicatorIndex.get(symbol);
     }
 
-    private List<PriceHistory> getPriceHistory(String symbol, int limit) {
-        Optional<Instrument> instrumentOpt = instrumentRepository.findBySymbol(symbol);
-        if (instrumentOpt.isEmpty()) {
-            return List.of();
-        }
-
-        List<PriceHistory> recentHistory = getRecentStoredHistory(instrumentOpt.get(), limit);
-        return recentHistory;
-    }
+    // ===================== HELPER METHODS =====================
 
-    private List<PriceHistory> getRecentStoredHistory(Instrument instrument, int limit) {
-        List<PriceHistory> latestDesc = priceHistoryRepository
-                .findByInstrumentIdOrderByPriceDateDesc(instrument.getId(), org.springframework.data.domain.PageRequest.of(0, limit));
-        List<PriceHistory> latestAsc = new ArrayList<>(latestDesc);
-        Collections.reverse(latestAsc);
-        return latestAsc;
+    /**
+     * Göstergeyi enstrümanın son {@code limit} barı üzerinden hesaplar. Sonuç (sembol, gösterge, parametreler,
+     * bar versiyonu) anahtarıyla önbelleğe alınır; enstrümana yeni bar yazılana kadar tekrar eden istekler
+     * yalnızca versiyon kontrolüne mal olur. Sembol, düğüm içi haritadan çözülür; veritabanına yalnızca ilk
+     * istekte gidilir.
+     */
+    private <T> T compute(String symbol, String indicator, int limit, Function<PriceBars, T> kernel,
+                          Object... params) {
+        UUID instrumentId = resolveInstrumentId(symbol);
+        if (instrumentId == null) {
+            return kernel.apply(PriceBars.empty());
+        }
+
+        List<Object> key = new ArrayList<>(params.length + 1);
+        key.add(limit);
+        Collections.addAll(key, params);
+        return indicatorResultCache.get(instrumentId, indicator, key,
+                () -> kernel.apply(getRecentStoredHistory(instrumentId, limit)));
     }
 
-    private double calculateEMAFromPrices(double[] prices, int period) {
-        if (prices.length < period) {
-            return prices[prices.length - 1];
+    private UUID resolveInstrumentId(String symbol) {
+        if (symbol == null) {
+            return null;
         }
-
-        double multiplier = 2.0 / (period + 1);
-        
-        // İlk EMA = SMA
-        double ema = 0;
-        for (int i = 0; i < period; i++) {
-            ema += prices[i];
+        UUID instrumentId = instrumentIdsBySymbol.get(symbol);
+        if (instrumentId != null) {
+            return instrumentId;
         }
-        ema /= period;
-
-        // Sonraki günler için EMA
-        for (int i = period; i < prices.length; i++) {
-            ema = (prices[i] - ema) * multiplier + ema;
+        instrumentId = instrumentRepository.findBySymbol(symbol).map(Instrument::getId).orElse(null);
+        if (instrumentId != null) {
+            instrumentIdsBySymbol.put(symbol, instrumentId);
         }
-
-        return ema;
+        return instrumentId;
     }
 
-    private double calculateEMAFromDoubles(List<Double> values, int period) {
-        if (values.size() < period) {
-            return values.get(values.size() - 1);
+    /**
+     * Katalog değişikliği: sembolü değişen ya da silinen enstrümanın eşlemesi düşürülür. Fiyat güncellemeleri
+     * eşlemeyi değiştirmediğinden tek bir harita okumasına mal olur.
+     */
+    @EventListener
+    public void onCatalogChanged(InstrumentCatalogChangedEvent event) {
+        Instrument instrument = event.instrument();
+        if (instrument == null || instrument.getId() == null) {
+            instrumentIdsBySymbol.clear();
+            return;
         }
-
-        double multiplier = 2.0 / (period + 1);
-        
-        double ema = values.stream().limit(period).mapToDouble(Double::doubleValue).average().orElse(0);
-
-        for (int i = period; i < values.size(); i++) {
-            ema = (values.get(i) - ema) * multiplier + ema;
+        UUID instrumentId = instrument.getId();
+        if (!event.removed() && instrumentId.equals(instrumentIdsBySymbol.get(instrument.getSymbol()))) {
+            return;
+        }
+        instrumentIdsBySymbol.values().removeIf(instrumentId::equals);
+        if (instrument.getSymbol() != null) {
+            instrumentIdsBySymbol.remove(instrument.getSymbol());
         }
+    }
+
+    private static int seriesPoints(int points) {
+        return Math.max(1, Math.min(points, MAX_SERIES_POINTS));
+    }
 
-        return ema;
+    private PriceBars getRecentStoredHistory(UUID instrumentId, int limit) {
+        return priceHistoryStore.recent(instrumentId, limit);
     }
 
     private String evaluateOverallSignal(Double rsi, MACDResult macd, StochasticResult stochastic) {
@@ -564,13 +413,7 @@ public class TechnicalIndicatorService {
         return "NEUTRAL";
     }
 
-    private String evaluateDataQuality(String symbol) {
-        Optional<Instrument> instrumentOpt = instrumentRepository.findBySymbol(symbol);
-        if (instrumentOpt.isEmpty()) {
-            return "NO_DATA";
-        }
-
-        int sampleSize = getRecentStoredHistory(instrumentOpt.get(), 220).size();
+    private String evaluateDataQuality(int sampleSize) {
         if (sampleSize >= 200) {
             return "COMPLETE";
         }
@@ -582,20 +425,4 @@ public class TechnicalIndicatorService {
         }
         return "NO_DATA";
     }
-
-    private double typicalPrice(PriceHistory item) {
-        return (safeHigh(item) + safeLow(item) + item.getClosePrice().doubleValue()) / 3;
-    }
-
-    private double safeHigh(PriceHistory item) {
-        return item.getHighPrice() != null ? item.getHighPrice().doubleValue() : item.getClosePrice().doubleValue();
-    }
-
-    private double safeLow(PriceHistory item) {
-        return item.getLowPrice() != null ? item.getLowPrice().doubleValue() : item.getClosePrice().doubleValue();
-    }
-
-    private double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
-    }
 }
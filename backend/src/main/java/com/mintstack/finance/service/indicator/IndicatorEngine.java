@@ -0,0 +1,366 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.BollingerBandsResult;
+import com.mintstack.finance.dto.response.MACDResult;
+import com.mintstack.finance.dto.response.StochasticResult;
+import com.mintstack.finance.service.market.PriceBars;
+
+/**
+ * Technical indicator kernels over an in-memory bar series.
+ *
+ * Each kernel reads only the trailing window it needs (its {@code *Bars} method says how many bars that is)
+ * straight from the primitive columns, so one series loaded for the longest window can feed every indicator
+ * without further queries or copies. Kernels return {@code null} when the series is shorter than the window.
+ */
+public final class IndicatorEngine {
+
+    private IndicatorEngine() {
+    }
+
+    public static int rsiBars(int period) {
+        return period + 1;
+    }
+
+    public static Double rsi(PriceBars bars, int period) {
+        int from = windowStart(bars, rsiBars(period));
+        if (from < 0) {
+            return null;
+        }
+
+        double gainSum = 0;
+        double lossSum = 0;
+        for (int i = from + 1; i < bars.size(); i++) {
+            double change = bars.close(i) - bars.close(i - 1);
+            if (change > 0) {
+                gainSum += change;
+            } else {
+                lossSum += Math.abs(change);
+            }
+        }
+
+        double avgGain = gainSum / period;
+        double avgLoss = lossSum / period;
+        if (avgLoss == 0) {
+            return 100.0;
+        }
+        double rs = avgGain / avgLoss;
+        return round(100 - (100 / (1 + rs)));
+    }
+
+    public static int macdBars(int slowPeriod, int signalPeriod) {
+        return slowPeriod + signalPeriod;
+    }
+
+    public static MACDResult macd(PriceBars bars, int fastPeriod, int slowPeriod, int signalPeriod) {
+        int from = windowStart(bars, macdBars(slowPeriod, signalPeriod));
+        if (from < 0) {
+            return null;
+        }
+        double[][] lines = IndicatorSeries.macdLines(closes(bars, from), fastPeriod, slowPeriod, signalPeriod);
+        int last = lines[0].length - 1;
+        double macdLine = lines[0][last];
+        double signalLine = lines[1][last];
+
+        return new MACDResult(
+                round(macdLine),
+                round(signalLine),
+                round(macdLine - signalLine),
+                fastPeriod,
+                slowPeriod,
+                signalPeriod
+        );
+    }
+
+    public static BollingerBandsResult bollingerBands(PriceBars bars, int period, double stdDevMultiplier) {
+        int from = windowStart(bars, period);
+        if (from < 0) {
+            return null;
+        }
+
+        double sum = 0;
+        for (int i = from; i < bars.size(); i++) {
+            sum += bars.close(i);
+        }
+        double middleBand = sum / period;
+
+        double variance = 0;
+        for (int i = from; i < bars.size(); i++) {
+            double deviation = bars.close(i) - middleBand;
+            variance += deviation * deviation;
+        }
+        double stdDev = Math.sqrt(variance / period);
+
+        double upperBand = middleBand + (stdDevMultiplier * stdDev);
+        double lowerBand = middleBand - (stdDevMultiplier * stdDev);
+        double bandwidth = ((upperBand - lowerBand) / middleBand) * 100;
+        double currentPrice = bars.close(bars.lastIndex());
+        double percentB = (currentPrice - lowerBand) / (upperBand - lowerBand) * 100;
+
+        return new BollingerBandsResult(
+                round(upperBand),
+                round(middleBand),
+                round(lowerBand),
+                round(bandwidth),
+                round(percentB),
+                period,
+                stdDevMultiplier
+        );
+    }
+
+    public static Double sma(PriceBars bars, int period) {
+        int from = windowStart(bars, period);
+        if (from < 0) {
+            return null;
+        }
+        double sum = 0;
+        for (int i = from; i < bars.size(); i++) {
+            sum += bars.close(i);
+        }
+        return round(sum / period);
+    }
+
+    public static int emaBars(int period) {
+        return period * 2;
+    }
+
+    /**
+     * EMA seeded with the SMA of the first {@code period} closes of a window of up to {@code 2 * period} bars.
+     */
+    public static Double ema(PriceBars bars, int period) {
+        if (bars.size() < period || period <= 0) {
+            return null;
+        }
+        int from = Math.max(0, bars.size() - emaBars(period));
+        return round(ema(closes(bars, from), bars.size() - from, period));
+    }
+
+    public static int stochasticBars(int kPeriod, int dPeriod) {
+        return kPeriod + dPeriod;
+    }
+
+    public static StochasticResult stochastic(PriceBars bars, int kPeriod, int dPeriod) {
+        if (bars.size() < kPeriod) {
+            return null;
+        }
+        int from = Math.max(0, bars.size() - stochasticBars(kPeriod, dPeriod));
+        int windowSize = bars.size() - from;
+
+        double[] kValues = new double[windowSize - kPeriod + 1];
+        for (int i = kPeriod - 1; i < windowSize; i++) {
+            double highestHigh = Double.MIN_VALUE;
+            double lowestLow = Double.MAX_VALUE;
+            for (int j = i - kPeriod + 1; j <= i; j++) {
+                highestHigh = Math.max(highestHigh, bars.high(from + j));
+                lowestLow = Math.min(lowestLow, bars.low(from + j));
+            }
+            double range = highestHigh - lowestLow;
+            kValues[i - kPeriod + 1] = range == 0 ? 50.0 : ((bars.close(from + i) - lowestLow) / range) * 100;
+        }
+
+        double currentK = kValues[kValues.length - 1];
+        int count = Math.min(dPeriod, kValues.length);
+        double sumD = 0;
+        for (int i = kValues.length - count; i < kValues.length; i++) {
+            sumD += kValues[i];
+        }
+        double currentD = sumD / count;
+
+        return new StochasticResult(round(currentK), round(currentD), kPeriod, dPeriod,
+                stochasticSignal(currentK, currentD));
+    }
+
+    static String stochasticSignal(double percentK, double percentD) {
+        if (percentK < 20 && percentD < 20) {
+            return "OVERSOLD";
+        } else if (percentK > 80 && percentD > 80) {
+            return "OVERBOUGHT";
+        } else if (percentK > percentD) {
+            return "BULLISH";
+        } else if (percentK < percentD) {
+            return "BEARISH";
+        }
+        return "NEUTRAL";
+    }
+
+    public static Double atr(PriceBars bars, int period) {
+        int from = windowStart(bars, period + 1);
+        if (from < 0) {
+            return null;
+        }
+        double totalTrueRange = 0;
+        for (int i = from + 1; i < bars.size(); i++) {
+            totalTrueRange += trueRange(bars, i);
+        }
+        return round(totalTrueRange / period);
+    }
+
+    public static Double adx(PriceBars bars, int period) {
+        int from = windowStart(bars, period + 1);
+        if (from < 0) {
+            return null;
+        }
+
+        double positiveDm = 0;
+        double negativeDm = 0;
+        double trueRangeSum = 0;
+        for (int i = from + 1; i < bars.size(); i++) {
+            double upMove = bars.high(i) - bars.high(i - 1);
+            double downMove = bars.low(i - 1) - bars.low(i);
+            if (upMove > downMove && upMove > 0) {
+                positiveDm += upMove;
+            }
+            if (downMove > upMove && downMove > 0) {
+                negativeDm += downMove;
+            }
+            trueRangeSum += trueRange(bars, i);
+        }
+        if (trueRangeSum == 0) {
+            return 0.0;
+        }
+        double positiveDi = 100 * (positiveDm / trueRangeSum);
+        double negativeDi = 100 * (negativeDm / trueRangeSum);
+        double denominator = positiveDi + negativeDi;
+        return denominator == 0 ? 0.0 : round(100 * Math.abs(positiveDi - negativeDi) / denominator);
+    }
+
+    /**
+     * On-balance volume over the latest {@code limit} bars.
+     */
+    public static Long obv(PriceBars bars, int limit) {
+        int from = Math.max(0, bars.size() - limit);
+        if (bars.size() - from < 2) {
+            return null;
+        }
+        long obv = 0L;
+        for (int i = from + 1; i < bars.size(); i++) {
+            int comparison = Double.compare(bars.close(i), bars.close(i - 1));
+            if (comparison > 0) {
+                obv += bars.volume(i);
+            } else if (comparison < 0) {
+                obv -= bars.volume(i);
+            }
+        }
+        return obv;
+    }
+
+    /**
+     * Volume-weighted typical price over the latest {@code period} bars (fewer if that is all there is).
+     */
+    public static Double vwap(PriceBars bars, int period) {
+        int from = Math.max(0, bars.size() - period);
+        if (from >= bars.size()) {
+            return null;
+        }
+        double priceVolume = 0;
+        double volumeSum = 0;
+        for (int i = from; i < bars.size(); i++) {
+            long volume = bars.volume(i);
+            priceVolume += bars.typicalPrice(i) * volume;
+            volumeSum += volume;
+        }
+        return volumeSum == 0 ? null : round(priceVolume / volumeSum);
+    }
+
+    public static Double cci(PriceBars bars, int period) {
+        int from = windowStart(bars, period);
+        if (from < 0) {
+            return null;
+        }
+        double sum = 0;
+        for (int i = from; i < bars.size(); i++) {
+            sum += bars.typicalPrice(i);
+        }
+        double sma = sum / period;
+        double deviationSum = 0;
+        for (int i = from; i < bars.size(); i++) {
+            deviationSum += Math.abs(bars.typicalPrice(i) - sma);
+        }
+        double meanDeviation = deviationSum / period;
+        return meanDeviation == 0 ? 0.0 : round((bars.typicalPrice(bars.lastIndex()) - sma) / (0.015 * meanDeviation));
+    }
+
+    public static Double mfi(PriceBars bars, int period) {
+        int from = windowStart(bars, period + 1);
+        if (from < 0) {
+            return null;
+        }
+        double positiveFlow = 0;
+        double negativeFlow = 0;
+        for (int i = from + 1; i < bars.size(); i++) {
+            double currentTypical = bars.typicalPrice(i);
+            double previousTypical = bars.typicalPrice(i - 1);
+            double moneyFlow = currentTypical * bars.volume(i);
+            if (currentTypical > previousTypical) {
+                positiveFlow += moneyFlow;
+            } else if (currentTypical < previousTypical) {
+                negativeFlow += moneyFlow;
+            }
+        }
+        if (negativeFlow == 0) {
+            return positiveFlow == 0 ? 50.0 : 100.0;
+        }
+        double ratio = positiveFlow / negativeFlow;
+        return round(100 - (100 / (1 + ratio)));
+    }
+
+    public static Double williamsR(PriceBars bars, int period) {
+        int from = windowStart(bars, period);
+        if (from < 0) {
+            return null;
+        }
+        double highestHigh = Double.NEGATIVE_INFINITY;
+        double lowestLow = Double.POSITIVE_INFINITY;
+        for (int i = from; i < bars.size(); i++) {
+            highestHigh = Math.max(highestHigh, bars.high(i));
+            lowestLow = Math.min(lowestLow, bars.low(i));
+        }
+        double range = highestHigh - lowestLow;
+        return range == 0 ? 0.0 : round(((highestHigh - bars.close(bars.lastIndex())) / range) * -100);
+    }
+
+    public static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * First index of the trailing {@code window} bars, or -1 when the series is shorter than that.
+     */
+    private static int windowStart(PriceBars bars, int window) {
+        return window <= 0 || bars.size() < window ? -1 : bars.size() - window;
+    }
+
+    private static double[] closes(PriceBars bars, int from) {
+        double[] closes = new double[bars.size() - from];
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = bars.close(from + i);
+        }
+        return closes;
+    }
+
+    private static double trueRange(PriceBars bars, int index) {
+        double high = bars.high(index);
+        double low = bars.low(index);
+        double previousClose = bars.close(index - 1);
+        return Math.max(high - low, Math.max(Math.abs(high - previousClose), Math.abs(low - previousClose)));
+    }
+
+    /**
+     * EMA of {@code values[0, length)} seeded with the SMA of the first {@code period} values; with fewer values
+     * than the period it is simply the last value.
+     */
+    private static double ema(double[] values, int length, int period) {
+        if (length < period) {
+            return values[length - 1];
+        }
+        double multiplier = 2.0 / (period + 1);
+        double ema = 0;
+        for (int i = 0; i < period; i++) {
+            ema += values[i];
+        }
+        ema /= period;
+        for (int i = period; i < length; i++) {
+            ema = (values[i] - ema) * multiplier + ema;
+        }
+        return ema;
+    }
+}
@@ -0,0 +1,55 @@
+package com.mintstack.finance.service.indicator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mintstack.finance.service.market.PriceHistoryStore;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of indicator results keyed by instrument, indicator, parameters and the version of the
+ * instrument's bars in {@link PriceHistoryStore}.
+ *
+ * A repeated request costs one version check: the version changes exactly when a written bar of the instrument
+ * is committed (or picked up from another node), so later lookups miss and recompute, while entries under older
+ * versions are never read again and age out of the bounded cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndicatorResultCache {
+
+    private final PriceHistoryStore priceHistoryStore;
+
+    @Value("${app.market-data.indicator-cache.max-entries:20000}")
+    private long maxEntries = 20_000;
+
+    private Cache<Key, Optional<Object>> results;
+
+    @PostConstruct
+    public void init() {
+        results = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxEntries))
+                .build();
+    }
+
+    /**
+     * Result of {@code indicator} with {@code params} for the instrument's current bars, computed by
+     * {@code loader} on a miss. A {@code null} result (not enough data) is cached as well.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID instrumentId, String indicator, List<?> params, Supplier<T> loader) {
+        // The version is read before the loader runs, so an entry never holds bars older than its key.
+        Key key = new Key(instrumentId, priceHistoryStore.version(instrumentId), indicator, params);
+        return (T) results.get(key, ignored -> Optional.ofNullable(loader.get())).orElse(null);
+    }
+
+    private record Key(UUID instrumentId, long version, String indicator, List<?> params) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.ScreenerMatch;
+import com.mintstack.finance.dto.response.ScreenerResult;
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.Instrument.InstrumentType;
+import com.mintstack.finance.exception.BadRequestException;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.InstrumentBarView;
+import com.mintstack.finance.service.indicator.ScreenerExpression.Ranking;
+import com.mintstack.finance.service.indicator.ScreenerExpression.Term;
+import com.mintstack.finance.service.market.PriceBars;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Market-wide indicator screener.
+ *
+ * A filter is compiled once, the trailing history every term needs is loaded for all active instruments of the
+ * type with a single query, and instruments are evaluated in parallel on a dedicated {@link ForkJoinPool}
+ * (evaluation is CPU-only, so it stays off the shared common pool and the request threads).
+ */
+@Slf4j
+@Service
+public class IndicatorScreenerService {
+
+    private static final ZoneId BIST_ZONE = ZoneId.of("Europe/Istanbul");
+    private static final int MAX_LIMIT = 500;
+
+    private final InstrumentRepository instrumentRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final ForkJoinPool pool;
+
+    private Clock clock = Clock.system(BIST_ZONE);
+
+    public IndicatorScreenerService(
+            InstrumentRepository instrumentRepository,
+            PriceHistoryRepository priceHistoryRepository,
+            @Value("${app.market-data.screener.parallelism:0}") int parallelism) {
+        this.instrumentRepository = instrumentRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    void setClockForTesting(Clock clock) {
+        this.clock = clock != null ? clock.withZone(BIST_ZONE) : Clock.system(BIST_ZONE);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Active instruments of {@code type} matching {@code filter}, ranked by {@code rankBy} (or by the term of the
+     * first comparison) and cut to {@code limit}.
+     */
+    @Transactional(readOnly = true)
+    public ScreenerResult screen(String type, String filter, String rankBy, String order, int limit) {
+        InstrumentType instrumentType = parseType(type);
+        ScreenerExpression expression = ScreenerExpression.parse(filter);
+        Ranking ranking = rankBy != null && !rankBy.isBlank()
+                ? new Ranking(expression.termIndex(rankBy), true)
+                : expression.defaultRanking();
+        if (ranking != null && order != null && !order.isBlank()) {
+            ranking = new Ranking(ranking.termIndex(), !"desc".equalsIgnoreCase(order));
+        }
+
+        List<Instrument> instruments = onePerSymbol(instrumentRepository.findByTypeAndIsActiveTrue(instrumentType));
+        Map<UUID, List<InstrumentBarView>> rowsByInstrument = loadBars(instruments, expression.requiredBars());
+
+        Ranking rankingTerm = ranking;
+        List<ScreenerMatch> matches = pool.submit(() -> instruments.parallelStream()
+                .map(instrument -> evaluate(instrument, rowsByInstrument.get(instrument.getId()), expression, rankingTerm))
+                .filter(Objects::nonNull)
+                .toList()).join();
+
+        List<ScreenerMatch> ranked = new ArrayList<>(matches);
+        ranked.sort(comparator(ranking));
+        String rankName = ranking != null ? expression.terms().get(ranking.termIndex()).name() : null;
+        log.debug("Screened {} {} instruments with '{}': {} matches", instruments.size(), instrumentType, filter,
+                matches.size());
+        return new ScreenerResult(
+                instrumentType.name(),
+                filter,
+                rankName,
+                instruments.size(),
+                matches.size(),
+                ranked.subList(0, Math.min(ranked.size(), Math.max(1, Math.min(limit, MAX_LIMIT))))
+        );
+    }
+
+    /**
+     * A symbol can exist as both a real and a simulated instrument; like the analysis endpoints, the simulated
+     * one wins so every symbol is screened once.
+     */
+    private static List<Instrument> onePerSymbol(List<Instrument> instruments) {
+        Map<String, Instrument> bySymbol = new LinkedHashMap<>();
+        for (Instrument instrument : instruments) {
+            Instrument current = bySymbol.get(instrument.getSymbol());
+            if (current == null || Boolean.TRUE.equals(instrument.getIsSimulated())
+                    && !Boolean.TRUE.equals(current.getIsSimulated())) {
+                bySymbol.put(instrument.getSymbol(), instrument);
+            }
+        }
+        return List.copyOf(bySymbol.values());
+    }
+
+    private Map<UUID, List<InstrumentBarView>> loadBars(List<Instrument> instruments, int requiredBars) {
+        if (instruments.isEmpty()) {
+            return Map.of();
+        }
+        // Calendar days covering the required trading days, with room for weekends and holidays.
+        LocalDate startDate = LocalDate.now(clock).minusDays(requiredBars * 3L / 2 + 15);
+        List<InstrumentBarView> rows = priceHistoryRepository.findBarsByInstrumentIdsSince(
+                instruments.stream().map(Instrument::getId).toList(), startDate);
+        Map<UUID, List<InstrumentBarView>> rowsByInstrument = new HashMap<>();
+        for (InstrumentBarView row : rows) {
+            rowsByInstrument.computeIfAbsent(row.getInstrumentId(), ignored -> new ArrayList<>()).add(row);
+        }
+        return rowsByInstrument;
+    }
+
+    private static ScreenerMatch evaluate(Instrument instrument, List<InstrumentBarView> rows,
+                                          ScreenerExpression expression, Ranking ranking) {
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+        PriceBars bars = PriceBars.fromViews(rows);
+        if (bars.isEmpty()) {
+            return null;
+        }
+        double[] values = expression.evaluate(bars);
+        if (!expression.matches(values)) {
+            return null;
+        }
+        Map<String, Double> named = new LinkedHashMap<>();
+        List<Term> terms = expression.terms();
+        for (int i = 0; i < terms.size(); i++) {
+            named.put(terms.get(i).name(), finite(values[i]));
+        }
+        return new ScreenerMatch(
+                instrument.getSymbol(),
+                instrument.getName(),
+                bars.date(bars.lastIndex()),
+                ranking != null ? finite(values[ranking.termIndex()]) : null,
+                named
+        );
+    }
+
+    private static Comparator<ScreenerMatch> comparator(Ranking ranking) {
+        Comparator<ScreenerMatch> bySymbol = Comparator.comparing(ScreenerMatch::symbol);
+        if (ranking == null) {
+            return bySymbol;
+        }
+        Comparator<Double> values = ranking.ascending() ? Comparator.naturalOrder() : Comparator.reverseOrder();
+        return Comparator.comparing(ScreenerMatch::rankValue, Comparator.nullsLast(values)).thenComparing(bySymbol);
+    }
+
+    private static InstrumentType parseType(String type) {
+        try {
+            return InstrumentType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Geçersiz enstrüman tipi: " + type);
+        }
+    }
+
+    private static Double finite(double value) {
+        return Double.isFinite(value) ? IndicatorEngine.round(value) : null;
+    }
+}
@@ -0,0 +1,487 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.BollingerBandsSeriesResult;
+import com.mintstack.finance.dto.response.IndicatorSeriesResult;
+import com.mintstack.finance.dto.response.MACDSeriesResult;
+import com.mintstack.finance.dto.response.StochasticSeriesResult;
+import com.mintstack.finance.service.market.PriceBars;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.mintstack.finance.service.indicator.IndicatorEngine.round;
+
+/**
+ * Full-series variants of the {@link IndicatorEngine} kernels.
+ *
+ * Each indicator is computed for every bar in one pass over the primitive columns: window sums slide, window
+ * extremes use monotonic deques, and only CCI's mean deviation rescans its (short) window. Internally a series
+ * is aligned with the bars and holds {@link Double#NaN} where the indicator is undefined; results start at the
+ * first defined point and keep at most the requested number of trailing points. Each point equals what the
+ * single-value kernel returns for the bars up to it (VWAP over a window without volume stays NaN where the
+ * kernel returns null).
+ */
+public final class IndicatorSeries {
+
+    public static final Set<String> SINGLE_LINE_INDICATORS = Set.of(
+            "rsi", "sma", "ema", "atr", "adx", "obv", "vwap", "cci", "mfi", "williams-r");
+
+    private IndicatorSeries() {
+    }
+
+    /**
+     * Bars needed before the first point whose window is complete.
+     */
+    public static int warmupBars(String indicator, int period) {
+        return switch (indicator) {
+            case "rsi", "atr", "adx", "mfi" -> period;
+            case "sma", "ema", "obv", "vwap", "cci", "williams-r" -> period - 1;
+            default -> throw new IllegalArgumentException("Unsupported indicator: " + indicator);
+        };
+    }
+
+    public static IndicatorSeriesResult series(String indicator, PriceBars bars, int period, int maxPoints) {
+        if (period <= 0) {
+            return null;
+        }
+        double[] values = switch (indicator) {
+            case "rsi" -> rsi(bars, period);
+            case "sma" -> scale(rollingSum(bars.closes(), 0, period), 1.0 / period);
+            case "ema" -> ema(bars.closes(), period);
+            case "atr" -> scale(rollingSum(trueRange(bars), 1, period), 1.0 / period);
+            case "adx" -> adx(bars, period);
+            case "obv" -> obv(bars, period);
+            case "vwap" -> vwap(bars, period);
+            case "cci" -> cci(bars, period);
+            case "mfi" -> mfi(bars, period);
+            case "williams-r" -> williamsR(bars, period);
+            default -> throw new IllegalArgumentException("Unsupported indicator: " + indicator);
+        };
+        int from = start(values, maxPoints);
+        if (from < 0) {
+            return null;
+        }
+        return new IndicatorSeriesResult(indicator.toUpperCase(), period, dates(bars, from), rounded(values, from));
+    }
+
+    public static MACDSeriesResult macd(PriceBars bars, int fastPeriod, int slowPeriod, int signalPeriod,
+                                        int maxPoints) {
+        if (fastPeriod <= 0 || slowPeriod <= 0 || signalPeriod <= 0 || bars.size() < slowPeriod) {
+            return null;
+        }
+        double[] prices = bars.closes();
+        double[][] lines = macdLines(prices, fastPeriod, slowPeriod, signalPeriod);
+        double[] macdLine = new double[prices.length];
+        double[] signalLine = new double[prices.length];
+        double[] histogram = new double[prices.length];
+        Arrays.fill(signalLine, Double.NaN);
+        int offset = slowPeriod - 1;
+        for (int i = 0; i < prices.length; i++) {
+            if (i < offset) {
+                macdLine[i] = Double.NaN;
+                histogram[i] = Double.NaN;
+                continue;
+            }
+            macdLine[i] = lines[0][i - offset];
+            signalLine[i] = lines[1][i - offset];
+            histogram[i] = macdLine[i] - signalLine[i];
+        }
+        int from = start(signalLine, maxPoints);
+        if (from < 0) {
+            return null;
+        }
+        return new MACDSeriesResult(
+                dates(bars, from),
+                rounded(macdLine, from),
+                rounded(signalLine, from),
+                rounded(histogram, from),
+                fastPeriod,
+                slowPeriod,
+                signalPeriod
+        );
+    }
+
+    public static BollingerBandsSeriesResult bollingerBands(PriceBars bars, int period, double stdDevMultiplier,
+                                                            int maxPoints) {
+        if (period <= 0) {
+            return null;
+        }
+        double[] closes = bars.closes();
+        double[] upper = nanFilled(closes.length);
+        double[] middle = nanFilled(closes.length);
+        double[] lower = nanFilled(closes.length);
+        double mean = 0;
+        double m2 = 0;
+        for (int i = 0; i < closes.length; i++) {
+            double close = closes[i];
+            if (i < period) {
+                double delta = close - mean;
+                mean += delta / (i + 1);
+                m2 += delta * (close - mean);
+            } else {
+                double evicted = closes[i - period];
+                double previousMean = mean;
+                mean += (close - evicted) / period;
+                m2 = Math.max(0, m2 + (close - evicted) * (close - mean + evicted - previousMean));
+            }
+            if (i >= period - 1) {
+                double width = stdDevMultiplier * Math.sqrt(m2 / period);
+                middle[i] = mean;
+                upper[i] = mean + width;
+                lower[i] = mean - width;
+            }
+        }
+        int from = start(middle, maxPoints);
+        if (from < 0) {
+            return null;
+        }
+        return new BollingerBandsSeriesResult(
+                dates(bars, from),
+                rounded(upper, from),
+                rounded(middle, from),
+                rounded(lower, from),
+                period,
+                stdDevMultiplier
+        );
+    }
+
+    public static StochasticSeriesResult stochastic(PriceBars bars, int kPeriod, int dPeriod, int maxPoints) {
+        if (kPeriod <= 0 || dPeriod <= 0) {
+            return null;
+        }
+        double[] closes = bars.closes();
+        double[] highest = rollingMax(bars.highs(), kPeriod);
+        double[] lowest = rollingMin(bars.lows(), kPeriod);
+        double[] percentK = nanFilled(closes.length);
+        double[] percentD = nanFilled(closes.length);
+        double kSum = 0;
+        for (int i = kPeriod - 1; i < closes.length; i++) {
+            double range = highest[i] - lowest[i];
+            percentK[i] = range == 0 ? 50.0 : ((closes[i] - lowest[i]) / range) * 100;
+            kSum += percentK[i];
+            int count = i - kPeriod + 2;
+            if (count > dPeriod) {
+                kSum -= percentK[i - dPeriod];
+                count = dPeriod;
+            }
+            percentD[i] = kSum / count;
+        }
+        int from = start(percentK, maxPoints);
+        if (from < 0) {
+            return null;
+        }
+        return new StochasticSeriesResult(
+                dates(bars, from),
+                rounded(percentK, from),
+                rounded(percentD, from),
+                kPeriod,
+                dPeriod
+        );
+    }
+
+    // ===================== INDICATORS =====================
+
+    private static double[] rsi(PriceBars bars, int period) {
+        double[] closes = bars.closes();
+        double[] gains = new double[closes.length];
+        double[] losses = new double[closes.length];
+        for (int i = 1; i < closes.length; i++) {
+            double change = closes[i] - closes[i - 1];
+            gains[i] = Math.max(change, 0);
+            losses[i] = Math.max(-change, 0);
+        }
+        double[] gainSums = rollingSum(gains, 1, period);
+        double[] lossSums = rollingSum(losses, 1, period);
+        double[] rsi = nanFilled(closes.length);
+        for (int i = period; i < closes.length; i++) {
+            rsi[i] = lossSums[i] <= 0 ? 100.0 : 100 - (100 / (1 + gainSums[i] / lossSums[i]));
+        }
+        return rsi;
+    }
+
+    private static double[] adx(PriceBars bars, int period) {
+        double[] highs = bars.highs();
+        double[] lows = bars.lows();
+        double[] positiveDm = new double[highs.length];
+        double[] negativeDm = new double[highs.length];
+        for (int i = 1; i < highs.length; i++) {
+            double upMove = highs[i] - highs[i - 1];
+            double downMove = lows[i - 1] - lows[i];
+            positiveDm[i] = upMove > downMove && upMove > 0 ? upMove : 0;
+            negativeDm[i] = downMove > upMove && downMove > 0 ? downMove : 0;
+        }
+        double[] positiveSums = rollingSum(positiveDm, 1, period);
+        double[] negativeSums = rollingSum(negativeDm, 1, period);
+        double[] trueRangeSums = rollingSum(trueRange(bars), 1, period);
+        double[] adx = nanFilled(highs.length);
+        for (int i = period; i < highs.length; i++) {
+            if (trueRangeSums[i] <= 0) {
+                adx[i] = 0.0;
+                continue;
+            }
+            double positiveDi = 100 * (positiveSums[i] / trueRangeSums[i]);
+            double negativeDi = 100 * (negativeSums[i] / trueRangeSums[i]);
+            double denominator = positiveDi + negativeDi;
+            adx[i] = denominator == 0 ? 0.0 : 100 * Math.abs(positiveDi - negativeDi) / denominator;
+        }
+        return adx;
+    }
+
+    /**
+     * OBV over the latest {@code limit} bars ending at each bar, so the first points cover fewer bars.
+     */
+    private static double[] obv(PriceBars bars, int limit) {
+        double[] closes = bars.closes();
+        long[] volumes = bars.volumes();
+        long[] signed = new long[closes.length];
+        double[] obv = nanFilled(closes.length);
+        long sum = 0;
+        for (int i = 1; i < closes.length; i++) {
+            int comparison = Double.compare(closes[i], closes[i - 1]);
+            signed[i] = comparison > 0 ? volumes[i] : comparison < 0 ? -volumes[i] : 0L;
+            sum += signed[i];
+            if (i - limit + 1 >= 1) {
+                sum -= signed[i - limit + 1];
+            }
+            if (limit >= 2) {
+                obv[i] = sum;
+            }
+        }
+        return obv;
+    }
+
+    /**
+     * VWAP over the latest {@code period} bars ending at each bar, so the first points cover fewer bars.
+     */
+    private static double[] vwap(PriceBars bars, int period) {
+        double[] typical = typicalPrice(bars);
+        long[] volumes = bars.volumes();
+        double[] vwap = nanFilled(typical.length);
+        double priceVolume = 0;
+        long volumeSum = 0;
+        for (int i = 0; i < typical.length; i++) {
+            priceVolume += typical[i] * volumes[i];
+            volumeSum += volumes[i];
+            if (i >= period) {
+                priceVolume -= typical[i - period] * volumes[i - period];
+                volumeSum -= volumes[i - period];
+            }
+            if (volumeSum != 0) {
+                vwap[i] = priceVolume / volumeSum;
+            }
+        }
+        return vwap;
+    }
+
+    private static double[] cci(PriceBars bars, int period) {
+        double[] typical = typicalPrice(bars);
+        double[] sums = rollingSum(typical, 0, period);
+        double[] cci = nanFilled(typical.length);
+        for (int i = period - 1; i < typical.length; i++) {
+            double sma = sums[i] / period;
+            double deviationSum = 0;
+            for (int j = i - period + 1; j <= i; j++) {
+                deviationSum += Math.abs(typical[j] - sma);
+            }
+            double meanDeviation = deviationSum / period;
+            cci[i] = meanDeviation == 0 ? 0.0 : (typical[i] - sma) / (0.015 * meanDeviation);
+        }
+        return cci;
+    }
+
+    private static double[] mfi(PriceBars bars, int period) {
+        double[] typical = typicalPrice(bars);
+        long[] volumes = bars.volumes();
+        double[] positive = new double[typical.length];
+        double[] negative = new double[typical.length];
+        for (int i = 1; i < typical.length; i++) {
+            double moneyFlow = typical[i] * volumes[i];
+            positive[i] = typical[i] > typical[i - 1] ? moneyFlow : 0;
+            negative[i] = typical[i] < typical[i - 1] ? moneyFlow : 0;
+        }
+        double[] positiveSums = rollingSum(positive, 1, period);
+        double[] negativeSums = rollingSum(negative, 1, period);
+        double[] mfi = nanFilled(typical.length);
+        for (int i = period; i < typical.length; i++) {
+            if (negativeSums[i] <= 0) {
+                mfi[i] = positiveSums[i] <= 0 ? 50.0 : 100.0;
+            } else {
+                mfi[i] = 100 - (100 / (1 + positiveSums[i] / negativeSums[i]));
+            }
+        }
+        return mfi;
+    }
+
+    private static double[] williamsR(PriceBars bars, int period) {
+        double[] closes = bars.closes();
+        double[] highest = rollingMax(bars.highs(), period);
+        double[] lowest = rollingMin(bars.lows(), period);
+        double[] williamsR = nanFilled(closes.length);
+        for (int i = period - 1; i < closes.length; i++) {
+            double range = highest[i] - lowest[i];
+            williamsR[i] = range == 0 ? 0.0 : ((highest[i] - closes[i]) / range) * -100;
+        }
+        return williamsR;
+    }
+
+    // ===================== KERNELS =====================
+
+    /**
+     * MACD and signal lines over {@code prices}, indexed from the first bar with a slow EMA; signal values
+     * before the first full signal period are {@link Double#NaN}. A fast period longer than the slow one falls
+     * back to the close, as the prefix EMA does.
+     */
+    static double[][] macdLines(double[] prices, int fastPeriod, int slowPeriod, int signalPeriod) {
+        double[] fast = ema(prices, fastPeriod);
+        double[] slow = ema(prices, slowPeriod);
+        double[] macdLine = new double[prices.length - slowPeriod + 1];
+        for (int i = 0; i < macdLine.length; i++) {
+            int index = slowPeriod - 1 + i;
+            double fastValue = Double.isNaN(fast[index]) ? prices[index] : fast[index];
+            macdLine[i] = fastValue - slow[index];
+        }
+        return new double[][]{macdLine, ema(macdLine, signalPeriod)};
+    }
+
+    /**
+     * Running EMA of {@code values} seeded with the SMA of the first {@code period} values.
+     */
+    static double[] ema(double[] values, int period) {
+        double[] ema = nanFilled(values.length);
+        if (values.length < period) {
+            return ema;
+        }
+        double multiplier = 2.0 / (period + 1);
+        double current = 0;
+        for (int i = 0; i < period; i++) {
+            current += values[i];
+        }
+        current /= period;
+        ema[period - 1] = current;
+        for (int i = period; i < values.length; i++) {
+            current = (values[i] - current) * multiplier + current;
+            ema[i] = current;
+        }
+        return ema;
+    }
+
+    /**
+     * Sum of {@code values[i - period + 1, i]} for every {@code i} whose window starts at or after {@code from}.
+     */
+    static double[] rollingSum(double[] values, int from, int period) {
+        double[] sums = nanFilled(values.length);
+        double sum = 0;
+        for (int i = from; i < values.length; i++) {
+            sum += values[i];
+            if (i - period >= from) {
+                sum -= values[i - period];
+            }
+            if (i - period + 1 >= from) {
+                sums[i] = sum;
+            }
+        }
+        return sums;
+    }
+
+    static double[] rollingMax(double[] values, int period) {
+        return rollingExtreme(values, period, true);
+    }
+
+    static double[] rollingMin(double[] values, int period) {
+        return rollingExtreme(values, period, false);
+    }
+
+    /**
+     * Window extremes with a monotonic deque of indices, amortized O(1) per bar.
+     */
+    private static double[] rollingExtreme(double[] values, int period, boolean max) {
+        double[] extremes = nanFilled(values.length);
+        int[] deque = new int[values.length];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < values.length; i++) {
+            while (tail > head && (max ? values[deque[tail - 1]] <= values[i] : values[deque[tail - 1]] >= values[i])) {
+                tail--;
+            }
+            deque[tail++] = i;
+            if (deque[head] <= i - period) {
+                head++;
+            }
+            if (i >= period - 1) {
+                extremes[i] = values[deque[head]];
+            }
+        }
+        return extremes;
+    }
+
+    static double[] trueRange(PriceBars bars) {
+        double[] highs = bars.highs();
+        double[] lows = bars.lows();
+        double[] closes = bars.closes();
+        double[] trueRange = new double[closes.length];
+        for (int i = 1; i < closes.length; i++) {
+            double previousClose = closes[i - 1];
+            trueRange[i] = Math.max(highs[i] - lows[i],
+                    Math.max(Math.abs(highs[i] - previousClose), Math.abs(lows[i] - previousClose)));
+        }
+        return trueRange;
+    }
+
+    static double[] typicalPrice(PriceBars bars) {
+        double[] typical = bars.highs();
+        double[] lows = bars.lows();
+        double[] closes = bars.closes();
+        for (int i = 0; i < typical.length; i++) {
+            typical[i] = (typical[i] + lows[i] + closes[i]) / 3;
+        }
+        return typical;
+    }
+
+    private static double[] scale(double[] values, double factor) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= factor;
+        }
+        return values;
+    }
+
+    private static double[] nanFilled(int length) {
+        double[] values = new double[length];
+        Arrays.fill(values, Double.NaN);
+        return values;
+    }
+
+    /**
+     * Index of the first point to return: the first defined one, or later to keep at most {@code maxPoints};
+     * -1 when the series never becomes defined.
+     */
+    private static int start(double[] values, int maxPoints) {
+        int first = 0;
+        while (first < values.length && Double.isNaN(values[first])) {
+            first++;
+        }
+        if (first == values.length) {
+            return -1;
+        }
+        return Math.max(first, values.length - Math.max(1, maxPoints));
+    }
+
+    private static double[] rounded(double[] values, int from) {
+        double[] rounded = new double[values.length - from];
+        for (int i = 0; i < rounded.length; i++) {
+            double value = values[from + i];
+            rounded[i] = Double.isNaN(value) ? value : round(value);
+        }
+        return rounded;
+    }
+
+    private static List<LocalDate> dates(PriceBars bars, int from) {
+        List<LocalDate> dates = new ArrayList<>(bars.size() - from);
+        for (int i = from; i < bars.size(); i++) {
+            dates.add(bars.date(i));
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,227 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.LiveIndicatorsResult;
+import com.mintstack.finance.dto.response.PriceUpdateMessage;
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.service.PriceTickListener;
+import com.mintstack.finance.service.indicator.StreamingIndicatorState.Bar;
+import com.mintstack.finance.service.market.PriceBarPersistedEvent;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryClearedEvent;
+import com.mintstack.finance.service.market.PriceHistoryStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming indicator read model: per-instrument {@link StreamingIndicatorState} kept current by persisted
+ * daily bars and live price ticks, so indicator reads are a map lookup instead of a history scan.
+ *
+ * Each entry holds the state over all closed bars plus the latest (provisional) bar, which ticks and same-day
+ * bar writes keep replacing; a bar for a later day closes it into the state. Bar writes arrive as
+ * {@link PriceBarPersistedEvent}s once their transaction commits. A change only drops the published result;
+ * the next read computes the output values with the provisional bar applied on top of the closed state and
+ * publishes them as an immutable snapshot, so a burst of ticks costs one evaluation. Ticks are matched on the
+ * symbol and the simulated flag, as a simulated instrument may share the symbol of a real one. Entries are seeded lazily from
+ * {@link PriceHistoryStore}, dropped when an earlier bar is corrected, and re-seeded after the reload
+ * interval so bars written by other nodes are picked up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveIndicatorIndex implements PriceTickListener {
+
+    private static final ZoneId BIST_ZONE = ZoneId.of("Europe/Istanbul");
+
+    private final InstrumentRepository instrumentRepository;
+    private final PriceHistoryStore priceHistoryStore;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, UUID> instrumentIdsBySymbol = new ConcurrentHashMap<>();
+    private final Map<UUID, Boolean> simulatedInstrumentIds = new ConcurrentHashMap<>();
+
+    @Value("${app.market-data.live-indicators.warmup-bars:250}")
+    private int warmupBars = 250;
+
+    @Value("${app.market-data.live-indicators.reload-interval-ms:900000}")
+    private long reloadIntervalMs = 900_000L;
+
+    private Clock clock = Clock.system(BIST_ZONE);
+
+    void setClockForTesting(Clock clock) {
+        this.clock = clock != null ? clock.withZone(BIST_ZONE) : Clock.system(BIST_ZONE);
+    }
+
+    /**
+     * Current indicators for the symbol, seeding the instrument on first access.
+     */
+    public Optional<LiveIndicatorsResult> get(String symbol) {
+        if (symbol == null || symbol.isBlank()) {
+            return Optional.empty();
+        }
+        String normalized = symbol.trim().toUpperCase();
+        UUID instrumentId = instrumentIdsBySymbol.get(normalized);
+        if (instrumentId == null) {
+            Optional<Instrument> instrument = instrumentRepository.findBySymbol(normalized);
+            if (instrument.isEmpty() || instrument.get().getId() == null) {
+                return Optional.empty();
+            }
+            instrumentId = instrument.get().getId();
+            instrumentIdsBySymbol.put(normalized, instrumentId);
+            simulatedInstrumentIds.put(instrumentId, Boolean.TRUE.equals(instrument.get().getIsSimulated()));
+        }
+
+        long now = clock.millis();
+        Entry entry = entries.get(instrumentId);
+        if (entry == null || now - entry.loadedAt > reloadIntervalMs) {
+            // Re-checked inside compute so concurrent first reads share one seed
+            boolean simulated = simulatedInstrumentIds.getOrDefault(instrumentId, false);
+            entry = entries.compute(instrumentId, (id, current) ->
+                    current == null || now - current.loadedAt > reloadIntervalMs
+                            ? seed(id, normalized, simulated, now)
+                            : current);
+        }
+        return Optional.of(entry.result());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBarPersisted(PriceBarPersistedEvent event) {
+        record(event.history());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHistoryCleared(PriceHistoryClearedEvent event) {
+        clear();
+    }
+
+    /**
+     * Applies a persisted bar. Unseeded instruments are left alone; they are seeded on first access.
+     */
+    public void record(PriceHistory history) {
+        if (history == null || history.getInstrument() == null || history.getInstrument().getId() == null) {
+            return;
+        }
+        UUID instrumentId = history.getInstrument().getId();
+        Entry entry = entries.get(instrumentId);
+        Bar bar = Bar.of(history);
+        if (entry == null || bar == null) {
+            return;
+        }
+        if (!entry.apply(bar)) {
+            entries.remove(instrumentId, entry);
+        }
+    }
+
+    @Override
+    public void onPriceUpdate(PriceUpdateMessage update) {
+        String symbol = PriceTickListener.instrumentSymbol(update);
+        if (symbol == null) {
+            return;
+        }
+        UUID instrumentId = instrumentIdsBySymbol.get(symbol);
+        Entry entry = instrumentId != null ? entries.get(instrumentId) : null;
+        BigDecimal price = PriceTickListener.instrumentPrice(update);
+        if (entry == null || entry.simulated != update.isSimulated() || price == null || price.signum() <= 0) {
+            return;
+        }
+        entry.tick(LocalDate.now(clock).toEpochDay(), price.doubleValue());
+    }
+
+    public void evict(UUID instrumentId) {
+        if (instrumentId != null) {
+            entries.remove(instrumentId);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        instrumentIdsBySymbol.clear();
+        simulatedInstrumentIds.clear();
+    }
+
+    private Entry seed(UUID instrumentId, String symbol, boolean simulated, long now) {
+        PriceBars bars = priceHistoryStore.recent(instrumentId, warmupBars);
+        StreamingIndicatorState state = new StreamingIndicatorState();
+        for (int i = 0; i < bars.size() - 1; i++) {
+            state.advance(Bar.of(bars, i));
+        }
+        Bar latest = bars.isEmpty() ? null : Bar.of(bars, bars.lastIndex());
+        log.debug("Seeded live indicators for {} from {} bars", symbol, bars.size());
+        return new Entry(symbol, simulated, state, latest, now);
+    }
+
+    private static final class Entry {
+
+        private final String symbol;
+        private final boolean simulated;
+        private final StreamingIndicatorState closed;
+        private final long loadedAt;
+        private Bar latest;
+        private volatile LiveIndicatorsResult result;
+
+        private Entry(String symbol, boolean simulated, StreamingIndicatorState closed, Bar latest, long loadedAt) {
+            this.symbol = symbol;
+            this.simulated = simulated;
+            this.closed = closed;
+            this.latest = latest;
+            this.loadedAt = loadedAt;
+        }
+
+        LiveIndicatorsResult result() {
+            LiveIndicatorsResult published = result;
+            if (published != null) {
+                return published;
+            }
+            synchronized (this) {
+                if (result == null) {
+                    result = closed.valuesWith(latest, symbol);
+                }
+                return result;
+            }
+        }
+
+        /**
+         * @return false when the bar predates the latest one and the entry has to be re-seeded
+         */
+        synchronized boolean apply(Bar bar) {
+            if (latest != null && bar.epochDay() < latest.epochDay()) {
+                return false;
+            }
+            if (latest != null && bar.epochDay() > latest.epochDay()) {
+                closed.advance(latest);
+            }
+            latest = bar;
+            result = null;
+            return true;
+        }
+
+        synchronized void tick(long epochDay, double price) {
+            if (latest != null && epochDay < latest.epochDay()) {
+                return;
+            }
+            if (latest != null && epochDay == latest.epochDay()) {
+                latest = latest.withTick(price);
+            } else {
+                if (latest != null) {
+                    closed.advance(latest);
+                }
+                latest = Bar.ofTick(epochDay, price);
+            }
+            result = null;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mintstack.finance.service.indicator;
+
+import java.util.Arrays;
+
+/**
+ * Rolling moving-average engine: every requested period is advanced together in a single pass over the values,
+ * so a set of averages costs O(n · periods) instead of O(n · period) per average.
+ *
+ * Each result row is aligned with the input ({@code result[k][i]} is the average for {@code periods[k]} ending at
+ * {@code values[i]}) and holds {@link Double#NaN} until the period has filled.
+ */
+public final class MovingAverages {
+
+    public static final String SMA = "SMA";
+    public static final String EMA = "EMA";
+    public static final String WMA = "WMA";
+
+    private MovingAverages() {
+    }
+
+    public static boolean isSupported(String type) {
+        return SMA.equals(type) || EMA.equals(type) || WMA.equals(type);
+    }
+
+    public static double[][] compute(String type, double[] values, int... periods) {
+        return switch (type) {
+            case EMA -> exponential(values, periods);
+            case WMA -> weighted(values, periods);
+            default -> simple(values, periods);
+        };
+    }
+
+    /**
+     * Simple averages from one running window sum per period.
+     */
+    public static double[][] simple(double[] values, int... periods) {
+        double[][] result = allocate(values.length, periods);
+        double[] sums = new double[periods.length];
+        for (int i = 0; i < values.length; i++) {
+            for (int k = 0; k < periods.length; k++) {
+                int period = periods[k];
+                sums[k] += values[i];
+                if (i >= period) {
+                    sums[k] -= values[i - period];
+                }
+                if (i >= period - 1) {
+                    result[k][i] = sums[k] / period;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Exponential averages with multiplier {@code 2 / (period + 1)}, seeded with the simple average of the first
+     * {@code period} values.
+     */
+    public static double[][] exponential(double[] values, int... periods) {
+        double[][] result = allocate(values.length, periods);
+        double[] state = new double[periods.length];
+        for (int i = 0; i < values.length; i++) {
+            for (int k = 0; k < periods.length; k++) {
+                int period = periods[k];
+                if (i < period) {
+                    state[k] += values[i];
+                    if (i == period - 1) {
+                        state[k] /= period;
+                        result[k][i] = state[k];
+                    }
+                } else {
+                    state[k] += (values[i] - state[k]) * (2.0 / (period + 1.0));
+                    result[k][i] = state[k];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Linearly weighted averages (weight 1 for the oldest value up to {@code period} for the newest). Adding a value
+     * at weight {@code period} and subtracting the previous window sum shifts every other weight down by one, so
+     * each step is O(1).
+     */
+    public static double[][] weighted(double[] values, int... periods) {
+        double[][] result = allocate(values.length, periods);
+        double[] sums = new double[periods.length];
+        double[] numerators = new double[periods.length];
+        for (int i = 0; i < values.length; i++) {
+            for (int k = 0; k < periods.length; k++) {
+                int period = periods[k];
+                numerators[k] += period * values[i] - sums[k];
+                sums[k] += values[i];
+                if (i >= period) {
+                    sums[k] -= values[i - period];
+                }
+                if (i >= period - 1) {
+                    result[k][i] = numerators[k] / (period * (period + 1) / 2.0);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double[][] allocate(int size, int[] periods) {
+        for (int period : periods) {
+            if (period <= 0) {
+                throw new IllegalArgumentException("Period must be positive: " + period);
+            }
+        }
+        double[][] result = new double[periods.length][size];
+        for (double[] row : result) {
+            Arrays.fill(row, Double.NaN);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,299 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.exception.BadRequestException;
+import com.mintstack.finance.service.market.PriceBars;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled screener filter such as {@code RSI14 < 30 AND close > SMA200 AND volume > 2*AVG20}.
+ *
+ * Grammar: comparisons joined by {@code AND}, with {@code OR} binding looser; each side is a product of
+ * numbers and terms ({@code *} or {@code ×}). Terms are price fields ({@code CLOSE}, {@code OPEN}, {@code HIGH},
+ * {@code LOW}, {@code VOLUME}, {@code CHANGE} in percent) or an indicator with its period ({@code RSI14},
+ * {@code SMA200}, {@code EMA20}, {@code ATR14}, {@code ADX14}, {@code CCI20}, {@code MFI14}, {@code WILLR14},
+ * {@code VWAP20}, {@code AVG20} for average volume). Terms are evaluated once per instrument; an undefined term
+ * fails every comparison it takes part in.
+ */
+final class ScreenerExpression {
+
+    private static final Pattern TOKEN = Pattern.compile(
+            "\\s*(?:\\d+(?:\\.\\d+)?|[A-Za-z]+\\d*|<=|>=|<|>|=|\\*|×)");
+    private static final Pattern TERM = Pattern.compile("([A-Z]+)(\\d*)");
+
+    private final List<Term> terms = new ArrayList<>();
+    private final List<List<Comparison>> disjunction;
+
+    private ScreenerExpression(String text) {
+        List<String> tokens = tokenize(text);
+        Parser parser = new Parser(tokens);
+        disjunction = parser.parse();
+    }
+
+    static ScreenerExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new BadRequestException("Filtre ifadesi boş olamaz");
+        }
+        return new ScreenerExpression(text);
+    }
+
+    List<Term> terms() {
+        return terms;
+    }
+
+    /**
+     * Trailing bars needed to evaluate every term.
+     */
+    int requiredBars() {
+        return terms.stream().mapToInt(Term::requiredBars).max().orElse(1);
+    }
+
+    int termIndex(String name) {
+        Term term = Term.parse(name.trim().toUpperCase(Locale.ROOT));
+        int index = terms.indexOf(term);
+        if (index < 0) {
+            terms.add(term);
+            index = terms.size() - 1;
+        }
+        return index;
+    }
+
+    double[] evaluate(PriceBars bars) {
+        double[] values = new double[terms.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = terms.get(i).evaluate(bars);
+        }
+        return values;
+    }
+
+    boolean matches(double[] values) {
+        for (List<Comparison> conjunction : disjunction) {
+            boolean all = true;
+            for (Comparison comparison : conjunction) {
+                if (!comparison.test(values)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Term and direction implied by the first comparison: ascending for {@code <}, descending otherwise.
+     */
+    Ranking defaultRanking() {
+        Comparison first = disjunction.get(0).get(0);
+        Operand side = first.left.termIndex >= 0 ? first.left : first.right;
+        if (side.termIndex < 0) {
+            return null;
+        }
+        boolean lowerIsBetter = side == first.left ? first.operator.startsWith("<") : first.operator.startsWith(">");
+        return new Ranking(side.termIndex, lowerIsBetter);
+    }
+
+    record Ranking(int termIndex, boolean ascending) {
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(text);
+        int position = 0;
+        while (position < text.length()) {
+            if (text.substring(position).isBlank()) {
+                break;
+            }
+            if (!matcher.find(position) || matcher.start() != position) {
+                throw new BadRequestException("Filtre ifadesi çözümlenemedi: " + text.substring(position).trim());
+            }
+            tokens.add(matcher.group().trim());
+            position = matcher.end();
+        }
+        return tokens;
+    }
+
+    private final class Parser {
+
+        private final List<String> tokens;
+        private int position;
+
+        private Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        List<List<Comparison>> parse() {
+            List<List<Comparison>> disjunction = new ArrayList<>();
+            disjunction.add(conjunction());
+            while (accept("OR")) {
+                disjunction.add(conjunction());
+            }
+            if (position < tokens.size()) {
+                throw new BadRequestException("Beklenmeyen ifade: " + tokens.get(position));
+            }
+            return disjunction;
+        }
+
+        private List<Comparison> conjunction() {
+            List<Comparison> comparisons = new ArrayList<>();
+            comparisons.add(comparison());
+            while (accept("AND")) {
+                comparisons.add(comparison());
+            }
+            return comparisons;
+        }
+
+        private Comparison comparison() {
+            Operand left = operand();
+            String operator = next();
+            if (!List.of("<", "<=", ">", ">=", "=").contains(operator)) {
+                throw new BadRequestException("Karşılaştırma operatörü bekleniyordu: " + operator);
+            }
+            return new Comparison(left, operator, operand());
+        }
+
+        private Operand operand() {
+            double factor = 1;
+            int termIndex = -1;
+            do {
+                String token = next();
+                if (Character.isDigit(token.charAt(0))) {
+                    factor *= Double.parseDouble(token);
+                } else if (Character.isLetter(token.charAt(0)) && termIndex < 0
+                        && !token.equalsIgnoreCase("AND") && !token.equalsIgnoreCase("OR")) {
+                    termIndex = termIndex(token);
+                } else {
+                    throw new BadRequestException("Beklenmeyen ifade: " + token);
+                }
+            } while (accept("*") || accept("×"));
+            return new Operand(factor, termIndex);
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private String next() {
+            if (position >= tokens.size()) {
+                throw new BadRequestException("Filtre ifadesi eksik");
+            }
+            return tokens.get(position++);
+        }
+    }
+
+    private record Operand(double factor, int termIndex) {
+
+        double value(double[] values) {
+            return termIndex < 0 ? factor : factor * values[termIndex];
+        }
+    }
+
+    private record Comparison(Operand left, String operator, Operand right) {
+
+        boolean test(double[] values) {
+            double lhs = left.value(values);
+            double rhs = right.value(values);
+            if (Double.isNaN(lhs) || Double.isNaN(rhs)) {
+                return false;
+            }
+            return switch (operator) {
+                case "<" -> lhs < rhs;
+                case "<=" -> lhs <= rhs;
+                case ">" -> lhs > rhs;
+                case ">=" -> lhs >= rhs;
+                default -> lhs == rhs;
+            };
+        }
+    }
+
+    /**
+     * A price field or an indicator at a fixed period.
+     */
+    record Term(String kind, int period) {
+
+        static Term parse(String name) {
+            Matcher matcher = TERM.matcher(name);
+            if (!matcher.matches()) {
+                throw new BadRequestException("Bilinmeyen terim: " + name);
+            }
+            String kind = matcher.group(1);
+            int period;
+            try {
+                period = matcher.group(2).isEmpty() ? 0 : Integer.parseInt(matcher.group(2));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Geçersiz periyot: " + name);
+            }
+            boolean field = switch (kind) {
+                case "CLOSE", "OPEN", "HIGH", "LOW", "VOLUME", "CHANGE" -> true;
+                case "RSI", "SMA", "EMA", "ATR", "ADX", "CCI", "MFI", "WILLR", "VWAP", "AVG" -> false;
+                default -> throw new BadRequestException("Bilinmeyen terim: " + name);
+            };
+            if (field != (period == 0) || period > 1000) {
+                throw new BadRequestException("Geçersiz periyot: " + name);
+            }
+            return new Term(kind, period);
+        }
+
+        String name() {
+            return period == 0 ? kind : kind + period;
+        }
+
+        int requiredBars() {
+            return switch (kind) {
+                case "CHANGE" -> 2;
+                case "RSI", "ATR", "ADX", "MFI" -> period + 1;
+                case "EMA" -> IndicatorEngine.emaBars(period);
+                case "SMA", "CCI", "WILLR", "VWAP", "AVG" -> period;
+                default -> 1;
+            };
+        }
+
+        double evaluate(PriceBars bars) {
+            if (bars.size() < requiredBars()) {
+                return Double.NaN;
+            }
+            int last = bars.lastIndex();
+            return switch (kind) {
+                case "CLOSE" -> bars.close(last);
+                case "OPEN" -> bars.open(last);
+                case "HIGH" -> bars.high(last);
+                case "LOW" -> bars.low(last);
+                case "VOLUME" -> bars.volume(last);
+                case "CHANGE" -> bars.close(last - 1) == 0 ? Double.NaN
+                        : (bars.close(last) - bars.close(last - 1)) / bars.close(last - 1) * 100;
+                case "RSI" -> orNaN(IndicatorEngine.rsi(bars, period));
+                case "SMA" -> orNaN(IndicatorEngine.sma(bars, period));
+                case "EMA" -> orNaN(IndicatorEngine.ema(bars, period));
+                case "ATR" -> orNaN(IndicatorEngine.atr(bars, period));
+                case "ADX" -> orNaN(IndicatorEngine.adx(bars, period));
+                case "CCI" -> orNaN(IndicatorEngine.cci(bars, period));
+                case "MFI" -> orNaN(IndicatorEngine.mfi(bars, period));
+                case "WILLR" -> orNaN(IndicatorEngine.williamsR(bars, period));
+                case "VWAP" -> orNaN(IndicatorEngine.vwap(bars, period));
+                default -> averageVolume(bars, period);
+            };
+        }
+
+        private static double averageVolume(PriceBars bars, int period) {
+            long sum = 0;
+            for (int i = bars.size() - period; i < bars.size(); i++) {
+                sum += bars.volume(i);
+            }
+            return (double) sum / period;
+        }
+
+        private static double orNaN(Double value) {
+            return value != null ? value : Double.NaN;
+        }
+    }
+}
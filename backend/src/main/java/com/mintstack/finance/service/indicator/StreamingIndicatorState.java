@@ -0,0 +1,395 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.BollingerBandsResult;
+import com.mintstack.finance.dto.response.LiveIndicatorsResult;
+import com.mintstack.finance.dto.response.MACDResult;
+import com.mintstack.finance.dto.response.StochasticResult;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.service.market.PriceBars;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static com.mintstack.finance.service.indicator.IndicatorEngine.round;
+
+/**
+ * Incremental indicator state for one instrument at the default periods, advanced one daily bar at a time.
+ *
+ * Every {@link #advance(Bar)} is O(1): RSI and ATR use Wilder smoothing, MACD and its signal are an EMA chain,
+ * Bollinger variance is a sliding Welford window, and the Stochastic/Williams extremes, OBV and VWAP are kept
+ * in fixed-size rings with running sums. Not thread-safe; {@link LiveIndicatorIndex} confines each instance
+ * to its entry lock and publishes immutable {@link LiveIndicatorsResult}s.
+ */
+final class StreamingIndicatorState {
+
+    static final int RSI_PERIOD = 14;
+    static final int MACD_FAST = 12;
+    static final int MACD_SLOW = 26;
+    static final int MACD_SIGNAL = 9;
+    static final int BOLLINGER_PERIOD = 20;
+    static final double BOLLINGER_STD_DEV = 2.0;
+    static final int STOCHASTIC_K = 14;
+    static final int STOCHASTIC_D = 3;
+    static final int ATR_PERIOD = 14;
+    static final int OBV_LIMIT = 90;
+    static final int VWAP_PERIOD = 20;
+
+    private static final double FAST_MULTIPLIER = 2.0 / (MACD_FAST + 1);
+    private static final double SLOW_MULTIPLIER = 2.0 / (MACD_SLOW + 1);
+    private static final double SIGNAL_MULTIPLIER = 2.0 / (MACD_SIGNAL + 1);
+
+    private int barCount;
+    private long lastEpochDay = Long.MIN_VALUE;
+    private double lastClose = Double.NaN;
+
+    private double avgGain;
+    private double avgLoss;
+
+    private double emaFast;
+    private double emaSlow;
+    private double macdSignal;
+    private int macdCount;
+
+    private final double[] bollingerCloses;
+    private double bollingerMean;
+    private double bollingerM2;
+
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] percentK;
+    private double percentKSum;
+    private int percentKCount;
+
+    private double atr;
+
+    private final long[] obvVolumes;
+    private long obv;
+
+    private final double[] vwapPriceVolume;
+    private final long[] vwapVolume;
+    private double vwapPriceVolumeSum;
+    private long vwapVolumeSum;
+
+    StreamingIndicatorState() {
+        bollingerCloses = new double[BOLLINGER_PERIOD];
+        highs = new double[STOCHASTIC_K];
+        lows = new double[STOCHASTIC_K];
+        percentK = new double[STOCHASTIC_D];
+        obvVolumes = new long[OBV_LIMIT - 1];
+        vwapPriceVolume = new double[VWAP_PERIOD];
+        vwapVolume = new long[VWAP_PERIOD];
+    }
+
+    void advance(Bar bar) {
+        int index = barCount;
+        double close = bar.close();
+        double high = bar.high();
+        double low = bar.low();
+
+        if (index > 0) {
+            double change = close - lastClose;
+            double gain = Math.max(change, 0);
+            double loss = Math.max(-change, 0);
+            double range = Math.max(high - low, Math.max(Math.abs(high - lastClose), Math.abs(low - lastClose)));
+            if (index <= RSI_PERIOD) {
+                avgGain += gain / RSI_PERIOD;
+                avgLoss += loss / RSI_PERIOD;
+            } else {
+                avgGain = (avgGain * (RSI_PERIOD - 1) + gain) / RSI_PERIOD;
+                avgLoss = (avgLoss * (RSI_PERIOD - 1) + loss) / RSI_PERIOD;
+            }
+            if (index <= ATR_PERIOD) {
+                atr += range / ATR_PERIOD;
+            } else {
+                atr = (atr * (ATR_PERIOD - 1) + range) / ATR_PERIOD;
+            }
+
+            int comparison = Double.compare(close, lastClose);
+            long signedVolume = comparison > 0 ? bar.volume() : comparison < 0 ? -bar.volume() : 0L;
+            int slot = (index - 1) % obvVolumes.length;
+            obv += signedVolume - obvVolumes[slot];
+            obvVolumes[slot] = signedVolume;
+        }
+
+        advanceMacd(index, close);
+        advanceBollinger(index, close);
+
+        int extremeSlot = index % STOCHASTIC_K;
+        highs[extremeSlot] = high;
+        lows[extremeSlot] = low;
+        if (index + 1 >= STOCHASTIC_K) {
+            double k = stochasticK(close);
+            int kSlot = percentKCount % STOCHASTIC_D;
+            percentKSum += k - (percentKCount >= STOCHASTIC_D ? percentK[kSlot] : 0);
+            percentK[kSlot] = k;
+            percentKCount++;
+        }
+
+        int vwapSlot = index % VWAP_PERIOD;
+        double priceVolume = bar.typicalPrice() * bar.volume();
+        vwapPriceVolumeSum += priceVolume - vwapPriceVolume[vwapSlot];
+        vwapVolumeSum += bar.volume() - vwapVolume[vwapSlot];
+        vwapPriceVolume[vwapSlot] = priceVolume;
+        vwapVolume[vwapSlot] = bar.volume();
+
+        lastClose = close;
+        lastEpochDay = bar.epochDay();
+        barCount++;
+    }
+
+    /**
+     * Values as if {@code provisional} were the next bar, leaving the state as it was. Only the scalars and the
+     * ring slots one bar overwrites are saved and restored, so this is O(1) and copies no rings.
+     */
+    LiveIndicatorsResult valuesWith(Bar provisional, String symbol) {
+        if (provisional == null) {
+            return values(symbol);
+        }
+        Checkpoint checkpoint = new Checkpoint();
+        advance(provisional);
+        try {
+            return values(symbol);
+        } finally {
+            checkpoint.restore();
+        }
+    }
+
+    LiveIndicatorsResult values(String symbol) {
+        if (barCount == 0) {
+            return new LiveIndicatorsResult(symbol, null, null, null, null, null, null, null, null, null, null, 0);
+        }
+        return new LiveIndicatorsResult(
+                symbol,
+                LocalDate.ofEpochDay(lastEpochDay),
+                lastClose,
+                rsi(),
+                macd(),
+                bollingerBands(),
+                stochastic(),
+                williamsR(),
+                barCount > ATR_PERIOD ? round(atr) : null,
+                barCount >= 2 ? obv : null,
+                vwapVolumeSum == 0 ? null : round(vwapPriceVolumeSum / vwapVolumeSum),
+                barCount
+        );
+    }
+
+    private void advanceMacd(int index, double close) {
+        if (index < MACD_FAST) {
+            emaFast += close / MACD_FAST;
+        } else {
+            emaFast = (close - emaFast) * FAST_MULTIPLIER + emaFast;
+        }
+        if (index < MACD_SLOW) {
+            emaSlow += close / MACD_SLOW;
+        } else {
+            emaSlow = (close - emaSlow) * SLOW_MULTIPLIER + emaSlow;
+        }
+        if (index < MACD_SLOW - 1) {
+            return;
+        }
+        double macdLine = emaFast - emaSlow;
+        if (macdCount < MACD_SIGNAL) {
+            macdSignal += macdLine / MACD_SIGNAL;
+        } else {
+            macdSignal = (macdLine - macdSignal) * SIGNAL_MULTIPLIER + macdSignal;
+        }
+        macdCount++;
+    }
+
+    /**
+     * Welford update while the window fills, then the sliding form that swaps the oldest close for the new one.
+     */
+    private void advanceBollinger(int index, double close) {
+        int slot = index % BOLLINGER_PERIOD;
+        if (index < BOLLINGER_PERIOD) {
+            double delta = close - bollingerMean;
+            bollingerMean += delta / (index + 1);
+            bollingerM2 += delta * (close - bollingerMean);
+        } else {
+            double evicted = bollingerCloses[slot];
+            double previousMean = bollingerMean;
+            bollingerMean += (close - evicted) / BOLLINGER_PERIOD;
+            bollingerM2 += (close - evicted) * (close - bollingerMean + evicted - previousMean);
+            bollingerM2 = Math.max(bollingerM2, 0);
+        }
+        bollingerCloses[slot] = close;
+    }
+
+    private double stochasticK(double close) {
+        double highestHigh = Double.NEGATIVE_INFINITY;
+        double lowestLow = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < STOCHASTIC_K; i++) {
+            highestHigh = Math.max(highestHigh, highs[i]);
+            lowestLow = Math.min(lowestLow, lows[i]);
+        }
+        double range = highestHigh - lowestLow;
+        return range == 0 ? 50.0 : ((close - lowestLow) / range) * 100;
+    }
+
+    private Double rsi() {
+        if (barCount <= RSI_PERIOD) {
+            return null;
+        }
+        if (avgLoss == 0) {
+            return 100.0;
+        }
+        return round(100 - (100 / (1 + avgGain / avgLoss)));
+    }
+
+    private MACDResult macd() {
+        if (macdCount < MACD_SIGNAL) {
+            return null;
+        }
+        double macdLine = emaFast - emaSlow;
+        return new MACDResult(
+                round(macdLine),
+                round(macdSignal),
+                round(macdLine - macdSignal),
+                MACD_FAST,
+                MACD_SLOW,
+                MACD_SIGNAL
+        );
+    }
+
+    private BollingerBandsResult bollingerBands() {
+        if (barCount < BOLLINGER_PERIOD) {
+            return null;
+        }
+        double stdDev = Math.sqrt(bollingerM2 / BOLLINGER_PERIOD);
+        double upperBand = bollingerMean + BOLLINGER_STD_DEV * stdDev;
+        double lowerBand = bollingerMean - BOLLINGER_STD_DEV * stdDev;
+        double bandwidth = ((upperBand - lowerBand) / bollingerMean) * 100;
+        double percentB = (lastClose - lowerBand) / (upperBand - lowerBand) * 100;
+        return new BollingerBandsResult(
+                round(upperBand),
+                round(bollingerMean),
+                round(lowerBand),
+                round(bandwidth),
+                round(percentB),
+                BOLLINGER_PERIOD,
+                BOLLINGER_STD_DEV
+        );
+    }
+
+    private StochasticResult stochastic() {
+        if (percentKCount == 0) {
+            return null;
+        }
+        double currentK = percentK[(percentKCount - 1) % STOCHASTIC_D];
+        double currentD = percentKSum / Math.min(percentKCount, STOCHASTIC_D);
+        return new StochasticResult(round(currentK), round(currentD), STOCHASTIC_K, STOCHASTIC_D,
+                IndicatorEngine.stochasticSignal(currentK, currentD));
+    }
+
+    private Double williamsR() {
+        if (barCount < STOCHASTIC_K) {
+            return null;
+        }
+        double highestHigh = Arrays.stream(highs).max().orElse(lastClose);
+        double lowestLow = Arrays.stream(lows).min().orElse(lastClose);
+        double range = highestHigh - lowestLow;
+        return range == 0 ? 0.0 : round(((highestHigh - lastClose) / range) * -100);
+    }
+
+    /**
+     * Everything {@link #advance(Bar)} overwrites for the next bar.
+     */
+    private final class Checkpoint {
+
+        private final int savedBarCount = barCount;
+        private final long savedLastEpochDay = lastEpochDay;
+        private final double savedLastClose = lastClose;
+        private final double savedAvgGain = avgGain;
+        private final double savedAvgLoss = avgLoss;
+        private final double savedEmaFast = emaFast;
+        private final double savedEmaSlow = emaSlow;
+        private final double savedMacdSignal = macdSignal;
+        private final int savedMacdCount = macdCount;
+        private final double savedBollingerMean = bollingerMean;
+        private final double savedBollingerM2 = bollingerM2;
+        private final double savedPercentKSum = percentKSum;
+        private final int savedPercentKCount = percentKCount;
+        private final double savedAtr = atr;
+        private final long savedObv = obv;
+        private final double savedVwapPriceVolumeSum = vwapPriceVolumeSum;
+        private final long savedVwapVolumeSum = vwapVolumeSum;
+
+        private final int bollingerSlot = barCount % BOLLINGER_PERIOD;
+        private final double savedBollingerClose = bollingerCloses[bollingerSlot];
+        private final int extremeSlot = barCount % STOCHASTIC_K;
+        private final double savedHigh = highs[extremeSlot];
+        private final double savedLow = lows[extremeSlot];
+        private final int percentKSlot = percentKCount % STOCHASTIC_D;
+        private final double savedPercentK = percentK[percentKSlot];
+        private final int obvSlot = barCount > 0 ? (barCount - 1) % obvVolumes.length : 0;
+        private final long savedObvVolume = obvVolumes[obvSlot];
+        private final int vwapSlot = barCount % VWAP_PERIOD;
+        private final double savedVwapPriceVolume = vwapPriceVolume[vwapSlot];
+        private final long savedVwapVolume = vwapVolume[vwapSlot];
+
+        private void restore() {
+            barCount = savedBarCount;
+            lastEpochDay = savedLastEpochDay;
+            lastClose = savedLastClose;
+            avgGain = savedAvgGain;
+            avgLoss = savedAvgLoss;
+            emaFast = savedEmaFast;
+            emaSlow = savedEmaSlow;
+            macdSignal = savedMacdSignal;
+            macdCount = savedMacdCount;
+            bollingerMean = savedBollingerMean;
+            bollingerM2 = savedBollingerM2;
+            percentKSum = savedPercentKSum;
+            percentKCount = savedPercentKCount;
+            atr = savedAtr;
+            obv = savedObv;
+            vwapPriceVolumeSum = savedVwapPriceVolumeSum;
+            vwapVolumeSum = savedVwapVolumeSum;
+            bollingerCloses[bollingerSlot] = savedBollingerClose;
+            highs[extremeSlot] = savedHigh;
+            lows[extremeSlot] = savedLow;
+            percentK[percentKSlot] = savedPercentK;
+            obvVolumes[obvSlot] = savedObvVolume;
+            vwapPriceVolume[vwapSlot] = savedVwapPriceVolume;
+            vwapVolume[vwapSlot] = savedVwapVolume;
+        }
+    }
+
+    /**
+     * One daily bar; a missing high or low falls back to the close, as in {@code PriceBars}.
+     */
+    record Bar(long epochDay, double high, double low, double close, long volume) {
+
+        static Bar of(PriceBars bars, int index) {
+            return new Bar(bars.epochDay(index), bars.high(index), bars.low(index), bars.close(index),
+                    bars.volume(index));
+        }
+
+        static Bar of(PriceHistory history) {
+            if (history.getPriceDate() == null || history.getClosePrice() == null) {
+                return null;
+            }
+            double close = history.getClosePrice().doubleValue();
+            return new Bar(
+                    history.getPriceDate().toEpochDay(),
+                    history.getHighPrice() != null ? history.getHighPrice().doubleValue() : close,
+                    history.getLowPrice() != null ? history.getLowPrice().doubleValue() : close,
+                    close,
+                    history.getVolume() != null ? history.getVolume() : 0L
+            );
+        }
+
+        static Bar ofTick(long epochDay, double price) {
+            return new Bar(epochDay, price, price, price, 0L);
+        }
+
+        double typicalPrice() {
+            return (high + low + close) / 3;
+        }
+
+        Bar withTick(double price) {
+            return new Bar(epochDay, Math.max(high, price), Math.min(low, price), price, volume);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.mintstack.finance.service.external.BistDataStoreClient.BistBondPrice;
 import com.mintstack.finance.service.external.BistDataStoreClient.BistViopPrice;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -46,6 +47,7 @@ public class BistDataStoreMarketDataService {
     private final InstrumentRepository instrumentRepository;
     private final PriceHistoryRepository priceHistoryRepository;
     private final PriceUpdateService priceUpdateService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Value("${app.external-api.bist-datastore.enabled:true}")
     private boolean enabled;
@@ -363,6 +365,7 @@ public class BistDataStoreMarketDataService {
         history.setAdjustedClose(close);
         history.setVolume(volume);
         priceHistoryRepository.save(history);
+        applicationEventPublisher.publishEvent(new PriceBarPersistedEvent(history));
     }
 
     private Predicate<String> symbolFilter(Set<String> symbols) {
@@ -0,0 +1,179 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.dto.response.CurrencyRateResponse;
+import com.mintstack.finance.service.MarketDataService;
+import com.mintstack.finance.service.simulation.SimulationDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Refresh-ahead for the {@code currencyRates} cache.
+ *
+ * Instead of evicting after each ingestion batch (which leaves the next reader to pay for the recompute),
+ * the default entry and every {@link RangeChangeCache.Preset} range are recomputed in the background and
+ * swapped in once they are all ready, so readers keep getting the previous value until then. Arbitrary
+ * ranges are not shared; their node-local entries are simply dropped. Requests arriving while a refresh is queued
+ * are folded into it, and refreshes never overlap, so the last one to finish always saw the latest batch.
+ * Sources that ingest less often than the cache TTL (TCMB publishes twice a day) are kept warm by a
+ * periodic refresh shorter than the TTL.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheRefreshAheadService {
+
+    static final String CURRENCY_RATES_CACHE = "currencyRates";
+
+    private final ObjectProvider<MarketDataService> marketDataServiceProvider;
+    private final SimulationDataService simulationDataService;
+    private final CacheManager cacheManager;
+    private final RangeChangeCache rangeChangeCache;
+    private final Executor taskExecutor;
+
+    @Value("${app.cache.refresh-ahead.enabled:true}")
+    private boolean enabled = true;
+
+    private Clock clock = Clock.system(ZoneId.of("Europe/Istanbul"));
+
+    private final AtomicBoolean currencyRefreshQueued = new AtomicBoolean();
+    private final Object refreshLock = new Object();
+
+    /**
+     * Schedules a background refresh of the cached currency rates; inside a transaction this happens after
+     * commit so the recompute sees the new rows.
+     */
+    public void refreshCurrencyRates() {
+        if (!enabled) {
+            evictCurrencyRates();
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitCurrencyRefresh();
+                }
+            });
+            return;
+        }
+        submitCurrencyRefresh();
+    }
+
+    @Scheduled(
+        fixedDelayString = "${app.cache.refresh-ahead.keep-warm-interval-ms:240000}",
+        initialDelayString = "${app.cache.refresh-ahead.keep-warm-interval-ms:240000}")
+    @SchedulerLock(name = "keepCurrencyRatesWarm", lockAtLeastFor = "30s", lockAtMostFor = "2m")
+    public void keepCurrencyRatesWarm() {
+        if (enabled) {
+            submitCurrencyRefresh();
+        }
+    }
+
+    private void submitCurrencyRefresh() {
+        if (!currencyRefreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                currencyRefreshQueued.set(false);
+                refreshCurrencyRatesNow();
+            });
+        } catch (RuntimeException e) {
+            currencyRefreshQueued.set(false);
+            log.warn("Could not schedule currency rates refresh, evicting instead: {}", e.getMessage());
+            evictCurrencyRates();
+        }
+    }
+
+    /**
+     * Recomputes the default and preset ranges and writes the fresh values over the cached ones. On failure the
+     * cache is evicted so readers fall back to loading on demand rather than keeping a stale value.
+     */
+    void refreshCurrencyRatesNow() {
+        Cache cache = cacheManager.getCache(CURRENCY_RATES_CACHE);
+        MarketDataService marketDataService = marketDataServiceProvider.getIfAvailable();
+        if (cache == null || marketDataService == null) {
+            return;
+        }
+        synchronized (refreshLock) {
+            try {
+                boolean simulation = simulationDataService.isSimulationEnabled();
+                LocalDate today = LocalDate.now(clock);
+                Map<String, List<CurrencyRateResponse>> fresh = new LinkedHashMap<>();
+                for (ChangeRange range : rangesEndingOn(today)) {
+                    fresh.put(key(simulation, range), marketDataService.loadLatestCurrencyRates(range.start(), range.end()));
+                }
+                // Overwrite the live keys in place so readers never see them missing, then drop the entries of the
+                // other mode and of yesterday's presets
+                fresh.forEach(cache::put);
+                retiredKeys(simulation, today).stream()
+                    .filter(key -> !fresh.containsKey(key))
+                    .forEach(cache::evict);
+                rangeChangeCache.invalidateCurrencyRates();
+                log.debug("Refreshed {} currency rate cache entries", fresh.size());
+            } catch (RuntimeException e) {
+                log.warn("Currency rates refresh failed, evicting cache: {}", e.getMessage());
+                evictCurrencyRates();
+            }
+        }
+    }
+
+    private static List<ChangeRange> rangesEndingOn(LocalDate day) {
+        List<ChangeRange> ranges = new ArrayList<>();
+        ranges.add(new ChangeRange(null, null));
+        for (RangeChangeCache.Preset preset : RangeChangeCache.Preset.values()) {
+            ranges.add(new ChangeRange(preset.startDate(day), day));
+        }
+        return ranges;
+    }
+
+    private static List<String> retiredKeys(boolean simulation, LocalDate today) {
+        List<String> keys = new ArrayList<>();
+        for (ChangeRange range : rangesEndingOn(today)) {
+            keys.add(key(!simulation, range));
+        }
+        for (ChangeRange range : rangesEndingOn(today.minusDays(1))) {
+            keys.add(key(simulation, range));
+            keys.add(key(!simulation, range));
+        }
+        return keys;
+    }
+
+    private static String key(boolean simulation, ChangeRange range) {
+        return MarketDataService.latestCurrencyRatesKey(simulation, range.start(), range.end());
+    }
+
+    private void evictCurrencyRates() {
+        Cache cache = cacheManager.getCache(CURRENCY_RATES_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+        rangeChangeCache.invalidateCurrencyRates();
+    }
+
+    void setClockForTesting(Clock clock) {
+        this.clock = clock;
+    }
+
+    private record ChangeRange(LocalDate start, LocalDate end) {
+    }
+}
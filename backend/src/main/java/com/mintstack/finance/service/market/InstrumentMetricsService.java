@@ -4,6 +4,8 @@ import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.Instrument.InstrumentType;
 import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.service.external.YahooFinanceClient;
+import com.mintstack.finance.service.market.QuoteSnapshotStore.QuoteBar;
+import com.mintstack.finance.service.market.QuoteSnapshotStore.QuoteSnapshot;
 import com.mintstack.finance.repository.PriceHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
@@ -14,8 +16,8 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -35,9 +37,11 @@ public class InstrumentMetricsService {
 
     private final PriceHistoryRepository priceHistoryRepository;
     private final YahooFinanceClient yahooFinanceClient;
+    private final QuoteSnapshotStore quoteSnapshotStore;
+    private final Week52RangeIndex week52RangeIndex;
 
     public InstrumentMetrics resolveMetrics(Instrument instrument) {
-        List<PriceHistory> recentHistory = resolveRecentHistory(instrument, RECENT_HISTORY_LIMIT);
+        List<QuoteBar> recentHistory = resolveRecentHistory(instrument, RECENT_HISTORY_LIMIT);
         PriceRange week52Range = resolveWeek52Range(instrument);
         return resolveMetrics(instrument, recentHistory, week52Range, true);
     }
@@ -56,35 +60,22 @@ public class InstrumentMetricsService {
             return Map.of();
         }
 
-        Map<UUID, List<PriceHistory>> historyByInstrument = new HashMap<>();
-        priceHistoryRepository.findRecentByInstrumentIds(instrumentIds, RECENT_HISTORY_LIMIT)
-                .forEach(history -> historyByInstrument
-                        .computeIfAbsent(history.getInstrument().getId(), ignored -> new ArrayList<>())
-                        .add(history));
-
-        LocalDate endDate = LocalDate.now();
-        Map<UUID, PriceRange> rangeByInstrument = new HashMap<>();
-        priceHistoryRepository.findPriceRangesByInstrumentIds(
-                        instrumentIds,
-                        endDate.minusDays(365),
-                        endDate
-                )
-                .forEach(range -> rangeByInstrument.put(
-                        range.getInstrumentId(),
-                        normalizeRange(range.getWeek52High(), range.getWeek52Low())
-                ));
+        Map<UUID, QuoteSnapshot> snapshots = quoteSnapshotStore.snapshots(instrumentIds);
 
         Map<UUID, InstrumentMetrics> result = new HashMap<>();
         for (Instrument instrument : instruments) {
             if (instrument.getId() == null) {
                 continue;
             }
+            QuoteSnapshot snapshot = snapshots.get(instrument.getId());
             result.put(
                     instrument.getId(),
                     resolveMetrics(
                             instrument,
-                            historyByInstrument.getOrDefault(instrument.getId(), List.of()),
-                            rangeByInstrument.getOrDefault(instrument.getId(), new PriceRange(null, null)),
+                            snapshot != null ? snapshot.recentBars() : List.of(),
+                            snapshot != null
+                                    ? normalizeRange(snapshot.week52High(), snapshot.week52Low())
+                                    : new PriceRange(null, null),
                             false
                     )
             );
@@ -92,12 +83,25 @@ public class InstrumentMetricsService {
         return result;
     }
 
+    /**
+     * Latest committed daily bar per instrument, read from the same snapshots the list metrics use.
+     */
+    public Map<UUID, QuoteBar> latestBars(Collection<UUID> instrumentIds) {
+        Map<UUID, QuoteBar> latest = new HashMap<>();
+        quoteSnapshotStore.snapshots(instrumentIds).forEach((instrumentId, snapshot) -> {
+            if (!snapshot.recentBars().isEmpty()) {
+                latest.put(instrumentId, snapshot.recentBars().get(0));
+            }
+        });
+        return latest;
+    }
+
     private InstrumentMetrics resolveMetrics(
             Instrument instrument,
-            List<PriceHistory> recentHistory,
+            List<QuoteBar> recentHistory,
             PriceRange week52Range,
             boolean allowExternalVolumeLookup) {
-        Optional<PriceHistory> latestHistory = recentHistory.stream().findFirst();
+        Optional<QuoteBar> latestHistory = recentHistory.stream().findFirst();
         BigDecimal currentPrice = resolveCurrentPrice(instrument, latestHistory);
         BigDecimal previousClose = resolvePreviousClose(instrument, recentHistory, currentPrice);
         Long volume = resolveLatestVolume(instrument, latestHistory, allowExternalVolumeLookup);
@@ -125,7 +129,7 @@ public class InstrumentMetricsService {
         );
     }
 
-    private List<PriceHistory> resolveRecentHistory(Instrument instrument, int limit) {
+    private List<QuoteBar> resolveRecentHistory(Instrument instrument, int limit) {
         if (instrument == null || instrument.getId() == null) {
             return List.of();
         }
@@ -133,38 +137,38 @@ public class InstrumentMetricsService {
             instrument.getId(),
             PageRequest.of(0, limit)
         );
-        return history != null ? history : List.of();
+        return history != null ? history.stream().map(QuoteBar::of).toList() : List.of();
     }
 
-    private BigDecimal resolveCurrentPrice(Instrument instrument, Optional<PriceHistory> latestHistory) {
+    private BigDecimal resolveCurrentPrice(Instrument instrument, Optional<QuoteBar> latestHistory) {
         if (shouldResolvePriceFromHistory(instrument)
             && latestHistory.isPresent()
-            && firstPositive(latestHistory.get().getClosePrice()) != null) {
-            return latestHistory.get().getClosePrice();
+            && firstPositive(latestHistory.get().closePrice()) != null) {
+            return latestHistory.get().closePrice();
         }
         return firstPositive(
             instrument != null ? instrument.getCurrentPrice() : null,
-            latestHistory.map(PriceHistory::getClosePrice).orElse(null)
+            latestHistory.map(QuoteBar::closePrice).orElse(null)
         );
     }
 
-    private BigDecimal resolvePreviousClose(Instrument instrument, List<PriceHistory> recentHistory, BigDecimal currentPrice) {
+    private BigDecimal resolvePreviousClose(Instrument instrument, List<QuoteBar> recentHistory, BigDecimal currentPrice) {
         if (shouldResolvePriceFromHistory(instrument) && recentHistory != null && recentHistory.size() > 1) {
             BigDecimal previousHistoryClose = recentHistory.stream()
                 .skip(1)
-                .map(PriceHistory::getClosePrice)
+                .map(QuoteBar::closePrice)
                 .map(value -> firstPositive(value))
                 .filter(java.util.Objects::nonNull)
                 .filter(close -> currentPrice == null || close.compareTo(currentPrice) != 0)
                 .findFirst()
-                .orElseGet(() -> firstPositive(recentHistory.get(1).getClosePrice()));
+                .orElseGet(() -> firstPositive(recentHistory.get(1).closePrice()));
             if (previousHistoryClose != null) {
                 return previousHistoryClose;
             }
         }
         return firstPositive(
             instrument != null ? instrument.getPreviousClose() : null,
-            recentHistory != null && !recentHistory.isEmpty() ? recentHistory.get(0).getOpenPrice() : null
+            recentHistory != null && !recentHistory.isEmpty() ? recentHistory.get(0).openPrice() : null
         );
     }
 
@@ -179,37 +183,37 @@ public class InstrumentMetricsService {
             || instrument.getType() == InstrumentType.VIOP;
     }
 
-    private BigDecimal resolveOpenPrice(Instrument instrument, Optional<PriceHistory> latestHistory) {
-        if (latestHistory.isPresent() && latestHistory.get().getOpenPrice() != null) {
-            return latestHistory.get().getOpenPrice();
+    private BigDecimal resolveOpenPrice(Instrument instrument, Optional<QuoteBar> latestHistory) {
+        if (latestHistory.isPresent() && latestHistory.get().openPrice() != null) {
+            return latestHistory.get().openPrice();
         }
         return firstPositive(instrument.getPreviousClose(), instrument.getCurrentPrice());
     }
 
-    private BigDecimal resolveHighPrice(Instrument instrument, Optional<PriceHistory> latestHistory) {
-        if (latestHistory.isPresent() && latestHistory.get().getHighPrice() != null) {
-            return latestHistory.get().getHighPrice();
+    private BigDecimal resolveHighPrice(Instrument instrument, Optional<QuoteBar> latestHistory) {
+        if (latestHistory.isPresent() && latestHistory.get().highPrice() != null) {
+            return latestHistory.get().highPrice();
         }
         return firstPositive(instrument.getCurrentPrice(), instrument.getPreviousClose());
     }
 
-    private BigDecimal resolveLowPrice(Instrument instrument, Optional<PriceHistory> latestHistory) {
-        if (latestHistory.isPresent() && latestHistory.get().getLowPrice() != null) {
-            return latestHistory.get().getLowPrice();
+    private BigDecimal resolveLowPrice(Instrument instrument, Optional<QuoteBar> latestHistory) {
+        if (latestHistory.isPresent() && latestHistory.get().lowPrice() != null) {
+            return latestHistory.get().lowPrice();
         }
         return firstPositive(instrument.getCurrentPrice(), instrument.getPreviousClose());
     }
 
     private Long resolveLatestVolume(
             Instrument instrument,
-            Optional<PriceHistory> latestHistory,
+            Optional<QuoteBar> latestHistory,
             boolean allowExternalVolumeLookup) {
         if (instrument == null) {
             return null;
         }
 
-        if (latestHistory != null && latestHistory.isPresent() && latestHistory.get().getVolume() != null) {
-            return latestHistory.get().getVolume();
+        if (latestHistory != null && latestHistory.isPresent() && latestHistory.get().volume() != null) {
+            return latestHistory.get().volume();
         }
 
         if (allowExternalVolumeLookup
@@ -361,26 +365,12 @@ public class InstrumentMetricsService {
     }
 
     private PriceRange resolveWeek52Range(Instrument instrument) {
-        if (instrument == null || instrument.getType() != InstrumentType.STOCK || instrument.getSymbol() == null) {
+        if (instrument == null || instrument.getType() != InstrumentType.STOCK || instrument.getId() == null) {
             return new PriceRange(null, null);
         }
 
-        LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(365);
-        List<PriceHistory> history = priceHistoryRepository.findBySymbolAndDateRange(instrument.getSymbol(), startDate, endDate);
-
-        BigDecimal high = history.stream()
-            .map(price -> firstPositive(price.getHighPrice(), price.getClosePrice(), price.getOpenPrice()))
-            .filter(java.util.Objects::nonNull)
-            .max(BigDecimal::compareTo)
-            .orElse(null);
-        BigDecimal low = history.stream()
-            .map(price -> firstPositive(price.getLowPrice(), price.getClosePrice(), price.getOpenPrice()))
-            .filter(java.util.Objects::nonNull)
-            .min(BigDecimal::compareTo)
-            .orElse(null);
-
-        return normalizeRange(high, low);
+        Week52RangeIndex.Week52Range range = week52RangeIndex.range(instrument.getId());
+        return normalizeRange(range.high(), range.low());
     }
 
     private PriceRange normalizeRange(BigDecimal high, BigDecimal low) {
@@ -0,0 +1,399 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.InstrumentCatalogChangedEvent;
+import com.mintstack.finance.entity.Instrument.InstrumentType;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.repository.InstrumentRepository.CatalogEntryView;
+import com.mintstack.finance.service.simulation.SimulatedStock;
+import com.mintstack.finance.service.simulation.SimulationDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * In-memory typeahead index over instrument symbols and names.
+ *
+ * Every catalog instrument and every entry of the simulation caches is indexed by the 1-, 2- and 3-grams
+ * of its Turkish-folded symbol and name, so a query of any length is answered from one posting list plus
+ * a substring check on its candidates, and hits are ranked (exact symbol, symbol prefix, name prefix,
+ * substring). The index is rebuilt lazily after a catalog write seen as an {@link InstrumentCatalogChangedEvent},
+ * when the simulation caches change size, or after the reload interval for writes made by other nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InstrumentSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+    private static final List<InstrumentType> SIMULATION_CACHE_TYPES =
+            List.of(InstrumentType.STOCK, InstrumentType.BOND, InstrumentType.FUND, InstrumentType.VIOP);
+    private static final Comparator<RankedEntry> RANKING = Comparator
+            .comparingInt(RankedEntry::rank)
+            .thenComparingInt(hit -> hit.entry().symbol().length())
+            .thenComparing(hit -> hit.entry().symbol());
+
+    private final InstrumentRepository instrumentRepository;
+    private final SimulationDataService simulationDataService;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    @Value("${app.market-data.search-index.reload-interval-ms:300000}")
+    private long reloadIntervalMs = 300_000L;
+
+    /**
+     * Ranked hits for {@code query} within {@code scope}, optionally restricted to one instrument type.
+     * A blank query matches every entry in scope, ordered by symbol.
+     */
+    public List<SearchHit> search(String query, InstrumentType type, Scope scope) {
+        Snapshot current = resolveSnapshot();
+        String folded = fold(query != null ? query.trim() : "");
+
+        int[] candidates = folded.isEmpty() ? null : current.candidates(folded);
+        if (candidates != null && candidates.length == 0) {
+            return List.of();
+        }
+
+        List<RankedEntry> ranked = new ArrayList<>();
+        int count = candidates != null ? candidates.length : current.entries.length;
+        for (int position = 0; position < count; position++) {
+            Entry entry = current.entries[candidates != null ? candidates[position] : position];
+            if (!scope.includes(entry) || (type != null && entry.type() != type)) {
+                continue;
+            }
+            int rank = folded.isEmpty() ? 0 : entry.rank(folded);
+            if (rank >= 0) {
+                ranked.add(new RankedEntry(entry, rank));
+            }
+        }
+        ranked.sort(RANKING);
+        return ranked.stream()
+                .map(hit -> new SearchHit(hit.entry().id(), hit.entry().symbol(), hit.entry().type()))
+                .toList();
+    }
+
+    @EventListener
+    public void onCatalogChanged(InstrumentCatalogChangedEvent event) {
+        if (event.removed()) {
+            invalidate();
+        } else {
+            onCatalogChange(event.instrument());
+        }
+    }
+
+    /**
+     * Catalog write hook: only changes to indexed fields (or new instruments) mark the index stale, so
+     * routine price updates cost one map lookup.
+     */
+    public void onCatalogChange(Instrument instrument) {
+        Snapshot current = snapshot;
+        if (stale || current == null || instrument == null) {
+            return;
+        }
+        Entry indexed = instrument.getId() != null ? current.byId.get(instrument.getId()) : null;
+        if (indexed == null || !indexed.matches(instrument)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Marks the index stale; inside a transaction this happens after commit so the rebuild sees the change.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale = true;
+                }
+            });
+            return;
+        }
+        stale = true;
+    }
+
+    private Snapshot resolveSnapshot() {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        long simulationSignature = simulationSignature();
+        if (current != null && !stale && now - current.loadedAt <= reloadIntervalMs
+                && current.simulationSignature == simulationSignature) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && !stale && now - current.loadedAt <= reloadIntervalMs
+                    && current.simulationSignature == simulationSignature) {
+                return current;
+            }
+            stale = false;
+            try {
+                current = build(now, simulationSignature);
+                snapshot = current;
+            } catch (RuntimeException error) {
+                if (current == null) {
+                    stale = true;
+                    throw error;
+                }
+                log.warn("Instrument search index rebuild failed, serving previous index: {}", error.getMessage());
+            }
+            return current;
+        }
+    }
+
+    private Snapshot build(long now, long simulationSignature) {
+        List<Entry> entries = new ArrayList<>();
+        for (CatalogEntryView row : instrumentRepository.findCatalogEntries()) {
+            if (row.getSymbol() == null) {
+                continue;
+            }
+            entries.add(Entry.of(
+                    row.getId(),
+                    row.getSymbol(),
+                    row.getName(),
+                    row.getType(),
+                    Boolean.TRUE.equals(row.getIsActive()),
+                    Boolean.TRUE.equals(row.getIsSimulated()),
+                    false
+            ));
+        }
+        for (InstrumentType type : SIMULATION_CACHE_TYPES) {
+            simulationCache(type).forEach((symbol, stock) -> {
+                if (symbol != null) {
+                    entries.add(Entry.of(null, symbol, stock != null ? stock.getName() : null, type, true, true, true));
+                }
+            });
+        }
+        Snapshot built = new Snapshot(entries.toArray(Entry[]::new), now, simulationSignature);
+        log.debug("Built instrument search index with {} entries and {} grams", built.entries.length, built.postings.size());
+        return built;
+    }
+
+    private long simulationSignature() {
+        long signature = 1;
+        for (InstrumentType type : SIMULATION_CACHE_TYPES) {
+            signature = signature * 31 + simulationCache(type).size();
+        }
+        return signature;
+    }
+
+    private Map<String, SimulatedStock> simulationCache(InstrumentType type) {
+        Map<String, SimulatedStock> cache = switch (type) {
+            case STOCK -> simulationDataService.getStocks();
+            case BOND -> simulationDataService.getBonds();
+            case FUND -> simulationDataService.getFunds();
+            case VIOP -> simulationDataService.getViop();
+            default -> null;
+        };
+        return cache != null ? cache : Map.of();
+    }
+
+    /**
+     * Case folding for Turkish text: dotted/dotless i and the Turkish letters fold to their ASCII base
+     * letter, so "isbank", "İŞBANK" and "IŞBANK" all match each other.
+     */
+    static String fold(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            folded.append(switch (character) {
+                case 'I', 'ı', 'İ', 'Î', 'î' -> 'i';
+                case 'Ş', 'ş' -> 's';
+                case 'Ğ', 'ğ' -> 'g';
+                case 'Ü', 'ü', 'Û', 'û' -> 'u';
+                case 'Ö', 'ö' -> 'o';
+                case 'Ç', 'ç' -> 'c';
+                case 'Â', 'â' -> 'a';
+                default -> Character.toLowerCase(character);
+            });
+        }
+        return folded.toString();
+    }
+
+    public enum Scope {
+        /** Active catalog instruments outside simulation mode. */
+        REAL {
+            @Override
+            boolean includes(Entry entry) {
+                return !entry.cached() && !entry.simulated() && entry.active();
+            }
+        },
+        /** Every real catalog instrument, active or not. */
+        REAL_CATALOG {
+            @Override
+            boolean includes(Entry entry) {
+                return !entry.cached() && !entry.simulated();
+            }
+        },
+        /** Active persisted simulated instruments. */
+        SIMULATED {
+            @Override
+            boolean includes(Entry entry) {
+                return !entry.cached() && entry.simulated() && entry.active();
+            }
+        },
+        /** In-memory simulation cache entries; they have no instrument id. */
+        SIMULATION_CACHE {
+            @Override
+            boolean includes(Entry entry) {
+                return entry.cached();
+            }
+        };
+
+        abstract boolean includes(Entry entry);
+    }
+
+    /**
+     * A ranked match; {@code instrumentId} is {@code null} for simulation cache entries.
+     */
+    public record SearchHit(UUID instrumentId, String symbol, InstrumentType type) {
+    }
+
+    private record RankedEntry(Entry entry, int rank) {
+    }
+
+    record Entry(
+            UUID id,
+            String symbol,
+            String name,
+            InstrumentType type,
+            boolean active,
+            boolean simulated,
+            boolean cached,
+            String foldedSymbol,
+            String foldedName
+    ) {
+
+        static Entry of(UUID id, String symbol, String name, InstrumentType type,
+                        boolean active, boolean simulated, boolean cached) {
+            return new Entry(id, symbol, name, type, active, simulated, cached, fold(symbol), fold(name));
+        }
+
+        /**
+         * 0 exact symbol, 1 symbol prefix, 2 name or name-word prefix, 3 symbol substring,
+         * 4 name substring, -1 no match.
+         */
+        int rank(String query) {
+            if (foldedSymbol.equals(query)) {
+                return 0;
+            }
+            if (foldedSymbol.startsWith(query)) {
+                return 1;
+            }
+            int nameIndex = foldedName.indexOf(query);
+            if (nameIndex == 0 || (nameIndex > 0 && !Character.isLetterOrDigit(foldedName.charAt(nameIndex - 1)))) {
+                return 2;
+            }
+            if (foldedSymbol.contains(query)) {
+                return 3;
+            }
+            return nameIndex >= 0 ? 4 : -1;
+        }
+
+        boolean matches(Instrument instrument) {
+            return Objects.equals(symbol, instrument.getSymbol())
+                    && Objects.equals(name, instrument.getName())
+                    && type == instrument.getType()
+                    && active == Boolean.TRUE.equals(instrument.getIsActive())
+                    && simulated == Boolean.TRUE.equals(instrument.getIsSimulated());
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Entry[] entries;
+        private final Map<UUID, Entry> byId;
+        private final Map<String, int[]> postings;
+        private final long loadedAt;
+        private final long simulationSignature;
+
+        private Snapshot(Entry[] entries, long loadedAt, long simulationSignature) {
+            this.entries = entries;
+            this.loadedAt = loadedAt;
+            this.simulationSignature = simulationSignature;
+            this.byId = new HashMap<>();
+            Map<String, IntList> grams = new HashMap<>();
+            for (int position = 0; position < entries.length; position++) {
+                Entry entry = entries[position];
+                if (entry.id() != null) {
+                    byId.put(entry.id(), entry);
+                }
+                addGrams(grams, entry.foldedSymbol(), position);
+                addGrams(grams, entry.foldedName(), position);
+            }
+            this.postings = new HashMap<>(grams.size() * 2);
+            grams.forEach((gram, list) -> postings.put(gram, list.toArray()));
+        }
+
+        /**
+         * Entry positions that may contain {@code query}: the exact posting list for short queries, the
+         * smallest trigram posting list otherwise (entries are verified by {@link Entry#rank}).
+         */
+        private int[] candidates(String query) {
+            if (query.length() <= MAX_GRAM) {
+                return postings.getOrDefault(query, new int[0]);
+            }
+            int[] smallest = null;
+            for (int start = 0; start + MAX_GRAM <= query.length(); start++) {
+                int[] list = postings.get(query.substring(start, start + MAX_GRAM));
+                if (list == null) {
+                    return new int[0];
+                }
+                if (smallest == null || list.length < smallest.length) {
+                    smallest = list;
+                }
+            }
+            return smallest;
+        }
+
+        private static void addGrams(Map<String, IntList> grams, String text, int position) {
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (int start = 0; start + length <= text.length(); start++) {
+                    grams.computeIfAbsent(text.substring(start, start + length), ignored -> new IntList())
+                            .addDistinct(position);
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable posting list; positions are appended in increasing order, so de-duplication only has to
+     * look at the last element.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void addDistinct(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.mintstack.finance.repository.NewsRepository;
 import com.mintstack.finance.repository.PriceHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +32,7 @@ public class MarketDataMaintenanceService {
     private final CurrencyRateRepository currencyRateRepository;
     private final PriceHistoryRepository priceHistoryRepository;
     private final NewsRepository newsRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Transactional
     public void saveCurrencyRates(List<CurrencyRate> rates) {
@@ -83,10 +85,12 @@ public class MarketDataMaintenanceService {
                 current.setVolume(priceHistory.getVolume());
             }
             priceHistoryRepository.save(current);
+            applicationEventPublisher.publishEvent(new PriceBarPersistedEvent(current));
             return;
         }
 
         priceHistoryRepository.save(priceHistory);
+        applicationEventPublisher.publishEvent(new PriceBarPersistedEvent(priceHistory));
     }
 
     private boolean isSinglePriceHistory(PriceHistory history) {
@@ -168,6 +172,7 @@ public class MarketDataMaintenanceService {
 
         currencyRateRepository.deleteAll();
         priceHistoryRepository.deleteAll();
+        applicationEventPublisher.publishEvent(new PriceHistoryClearedEvent());
         newsRepository.deleteAllInBatch();
 
         log.info("Deleted all market data: {} currency rates, {} price history records, {} news, {} real instruments deactivated ({} indices)",
@@ -259,6 +264,7 @@ public class MarketDataMaintenanceService {
         history.setClosePrice(rate.getSellingRate());
         history.setAdjustedClose(rate.getSellingRate());
         priceHistoryRepository.save(history);
+        applicationEventPublisher.publishEvent(new PriceBarPersistedEvent(history));
     }
 
     private record InstrumentDeactivationSummary(long total, long indices) {
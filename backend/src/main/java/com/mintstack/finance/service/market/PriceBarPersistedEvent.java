@@ -0,0 +1,10 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.PriceHistory;
+
+/**
+ * Published by the price_history write paths after a bar is saved. In-memory read models apply it once the
+ * surrounding transaction commits, so a rolled-back write never reaches them.
+ */
+public record PriceBarPersistedEvent(PriceHistory history) {
+}
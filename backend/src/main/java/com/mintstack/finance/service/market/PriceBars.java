@@ -0,0 +1,249 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.PriceHistoryRepository.PriceBarView;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, column-oriented slice of daily bars for a single instrument, ordered by date ascending.
+ * Missing open/high/low values are stored as {@link Double#NaN}; missing volume is stored as zero.
+ */
+public final class PriceBars {
+
+    private static final PriceBars EMPTY = new PriceBars(
+            new int[0], new double[0], new double[0], new double[0], new double[0], new long[0]);
+
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+
+    PriceBars(int[] epochDays, double[] open, double[] high, double[] low, double[] close, long[] volume) {
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public static PriceBars empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds bars from persisted rows in any order; rows without a date or close price are skipped.
+     */
+    public static PriceBars of(List<PriceHistory> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return EMPTY;
+        }
+        List<PriceHistory> sorted = rows.stream()
+                .filter(Objects::nonNull)
+                .filter(row -> row.getPriceDate() != null && row.getClosePrice() != null)
+                .sorted(Comparator.comparing(PriceHistory::getPriceDate))
+                .toList();
+        int size = sorted.size();
+        int[] epochDays = new int[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+        for (int i = 0; i < size; i++) {
+            PriceHistory row = sorted.get(i);
+            epochDays[i] = (int) row.getPriceDate().toEpochDay();
+            open[i] = toDouble(row.getOpenPrice());
+            high[i] = toDouble(row.getHighPrice());
+            low[i] = toDouble(row.getLowPrice());
+            close[i] = row.getClosePrice().doubleValue();
+            volume[i] = row.getVolume() != null ? row.getVolume() : 0L;
+        }
+        return new PriceBars(epochDays, open, high, low, close, volume);
+    }
+
+    /**
+     * Builds bars from projected rows ordered by date ascending; rows without a date or close price are skipped.
+     */
+    public static PriceBars fromViews(List<? extends PriceBarView> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return EMPTY;
+        }
+        int[] epochDays = new int[rows.size()];
+        double[] open = new double[rows.size()];
+        double[] high = new double[rows.size()];
+        double[] low = new double[rows.size()];
+        double[] close = new double[rows.size()];
+        long[] volume = new long[rows.size()];
+        int size = 0;
+        for (PriceBarView row : rows) {
+            if (row.getPriceDate() == null || row.getClosePrice() == null) {
+                continue;
+            }
+            epochDays[size] = (int) row.getPriceDate().toEpochDay();
+            open[size] = toDouble(row.getOpenPrice());
+            high[size] = toDouble(row.getHighPrice());
+            low[size] = toDouble(row.getLowPrice());
+            close[size] = row.getClosePrice().doubleValue();
+            volume[size] = row.getVolume() != null ? row.getVolume() : 0L;
+            size++;
+        }
+        PriceBars bars = new PriceBars(epochDays, open, high, low, close, volume);
+        return size == rows.size() ? bars : bars.slice(0, size);
+    }
+
+    public int size() {
+        return close.length;
+    }
+
+    public boolean isEmpty() {
+        return close.length == 0;
+    }
+
+    public int lastIndex() {
+        return close.length - 1;
+    }
+
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public double close(int index) {
+        return close[index];
+    }
+
+    public BigDecimal closeDecimal(int index) {
+        return BigDecimal.valueOf(close[index]);
+    }
+
+    /**
+     * Open price, falling back to the close when the bar has no open.
+     */
+    public double open(int index) {
+        return Double.isNaN(open[index]) ? close[index] : open[index];
+    }
+
+    /**
+     * High price, falling back to the close when the bar has no high.
+     */
+    public double high(int index) {
+        return Double.isNaN(high[index]) ? close[index] : high[index];
+    }
+
+    /**
+     * Low price, falling back to the close when the bar has no low.
+     */
+    public double low(int index) {
+        return Double.isNaN(low[index]) ? close[index] : low[index];
+    }
+
+    public boolean hasHigh(int index) {
+        return !Double.isNaN(high[index]);
+    }
+
+    public boolean hasLow(int index) {
+        return !Double.isNaN(low[index]);
+    }
+
+    public long volume(int index) {
+        return volume[index];
+    }
+
+    public double typicalPrice(int index) {
+        return (high(index) + low(index) + close[index]) / 3;
+    }
+
+    /**
+     * Copy of the close column; callers may mutate the returned array.
+     */
+    public double[] closes() {
+        return close.clone();
+    }
+
+    /**
+     * High column with missing highs replaced by the close; callers may mutate the returned array.
+     */
+    public double[] highs() {
+        double[] highs = new double[close.length];
+        for (int i = 0; i < highs.length; i++) {
+            highs[i] = high(i);
+        }
+        return highs;
+    }
+
+    /**
+     * Low column with missing lows replaced by the close; callers may mutate the returned array.
+     */
+    public double[] lows() {
+        double[] lows = new double[close.length];
+        for (int i = 0; i < lows.length; i++) {
+            lows[i] = low(i);
+        }
+        return lows;
+    }
+
+    /**
+     * Copy of the volume column; callers may mutate the returned array.
+     */
+    public long[] volumes() {
+        return volume.clone();
+    }
+
+    /**
+     * Bars whose index lies in {@code [fromIndex, toIndex)}.
+     */
+    public PriceBars slice(int fromIndex, int toIndex) {
+        if (fromIndex <= 0 && toIndex >= size()) {
+            return this;
+        }
+        if (fromIndex >= toIndex) {
+            return EMPTY;
+        }
+        return new PriceBars(
+                Arrays.copyOfRange(epochDays, fromIndex, toIndex),
+                Arrays.copyOfRange(open, fromIndex, toIndex),
+                Arrays.copyOfRange(high, fromIndex, toIndex),
+                Arrays.copyOfRange(low, fromIndex, toIndex),
+                Arrays.copyOfRange(close, fromIndex, toIndex),
+                Arrays.copyOfRange(volume, fromIndex, toIndex)
+        );
+    }
+
+    /**
+     * Latest {@code limit} bars.
+     */
+    public PriceBars tail(int limit) {
+        return slice(Math.max(0, size() - Math.max(0, limit)), size());
+    }
+
+    /**
+     * Index of the first bar on or after {@code date}, or {@link #size()} when none.
+     */
+    public int indexOnOrAfter(LocalDate date) {
+        int index = Arrays.binarySearch(epochDays, (int) date.toEpochDay());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Bars dated within {@code [startDate, endDate]}.
+     */
+    public PriceBars between(LocalDate startDate, LocalDate endDate) {
+        return slice(indexOnOrAfter(startDate), indexOnOrAfter(endDate.plusDays(1)));
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,8 @@
+package com.mintstack.finance.service.market;
+
+/**
+ * Published when price_history rows are removed in bulk (a full wipe or dropped retention partitions). The
+ * in-memory read models drop everything they hold once the transaction commits and rebuild lazily.
+ */
+public record PriceHistoryClearedEvent() {
+}
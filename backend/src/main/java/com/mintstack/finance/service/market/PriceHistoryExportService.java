@@ -0,0 +1,193 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.exception.BadRequestException;
+import com.mintstack.finance.exception.ResourceNotFoundException;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.service.simulation.SimulationDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Streams a symbol's daily bars straight from price_history to an output stream as NDJSON or CSV.
+ *
+ * The symbol is resolved to a single instrument up front, preferring the one matching the current
+ * simulation mode like the read endpoints do, so a symbol held by both a real and a simulated
+ * instrument never mixes the two series.
+ *
+ * Rows are read through a forward-only, read-only cursor with a bounded fetch size and written as they
+ * arrive, so heap use does not grow with the length of the range. The read runs in a read-only
+ * transaction because the PostgreSQL driver only honours the fetch size with auto-commit off.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryExportService {
+
+    static final String EXPORT_SQL =
+            "SELECT ph.price_date, ph.open_price, ph.high_price, ph.low_price, ph.close_price, ph.adj_close, ph.volume " +
+            "FROM price_history ph " +
+            "WHERE ph.instrument_id = ? AND ph.price_date BETWEEN ? AND ? " +
+            "ORDER BY ph.price_date ASC";
+
+    private static final String CSV_HEADER = "date,open,high,low,close,adjustedClose,volume\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InstrumentRepository instrumentRepository;
+    private final SimulationDataService simulationDataService;
+
+    @Value("${app.market-data.history.export-fetch-size:500}")
+    private int fetchSize = 500;
+
+    public enum ExportFormat {
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        ExportFormat(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static ExportFormat fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            String normalized = value.trim().toLowerCase(Locale.ROOT);
+            for (ExportFormat format : values()) {
+                if (format.extension.equals(normalized)) {
+                    return format;
+                }
+            }
+            throw new BadRequestException("Geçersiz dışa aktarma formatı: " + value + " (ndjson veya csv olmalı)");
+        }
+    }
+
+    /**
+     * Resolves the instrument whose history is exported. Called before the response starts streaming so an
+     * unknown symbol still maps to a 404.
+     */
+    @Transactional(readOnly = true)
+    public UUID resolveInstrumentId(String symbol) {
+        boolean isSimulation = simulationDataService.isSimulationEnabled();
+        String normalizedSymbol = symbol != null ? symbol.toUpperCase(Locale.ROOT) : "";
+        return instrumentRepository.findBySymbolAndIsSimulated(normalizedSymbol, isSimulation)
+            .or(() -> instrumentRepository.findBySymbol(normalizedSymbol))
+            .map(Instrument::getId)
+            .orElseThrow(() -> new ResourceNotFoundException("Enstrüman", "sembol", symbol));
+    }
+
+    /**
+     * Writes the bars in date order and returns the number of rows written. The stream is flushed but
+     * not closed.
+     */
+    @Transactional(readOnly = true)
+    public long export(UUID instrumentId, LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = new RowWriter(writer, format);
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setObject(1, instrumentId);
+                statement.setDate(2, Date.valueOf(startDate));
+                statement.setDate(3, Date.valueOf(endDate));
+                return statement;
+            }, rowWriter);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Exported {} price history rows for instrument {} as {}", rowWriter.rows, instrumentId, format);
+        return rowWriter.rows;
+    }
+
+    private static final class RowWriter implements RowCallbackHandler {
+
+        private final Writer writer;
+        private final ExportFormat format;
+        private long rows;
+
+        private RowWriter(Writer writer, ExportFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            Date priceDate = rs.getDate("price_date");
+            String date = priceDate != null ? priceDate.toLocalDate().toString() : null;
+            String open = plain(rs.getBigDecimal("open_price"));
+            String high = plain(rs.getBigDecimal("high_price"));
+            String low = plain(rs.getBigDecimal("low_price"));
+            String close = plain(rs.getBigDecimal("close_price"));
+            String adjustedClose = plain(rs.getBigDecimal("adj_close"));
+            long volumeValue = rs.getLong("volume");
+            String volume = rs.wasNull() ? null : Long.toString(volumeValue);
+            try {
+                if (format == ExportFormat.CSV) {
+                    writer.write(String.join(",",
+                            orEmpty(date), orEmpty(open), orEmpty(high), orEmpty(low),
+                            orEmpty(close), orEmpty(adjustedClose), orEmpty(volume)));
+                } else {
+                    writer.write("{\"date\":" + (date != null ? "\"" + date + "\"" : "null")
+                            + ",\"open\":" + open
+                            + ",\"high\":" + high
+                            + ",\"low\":" + low
+                            + ",\"close\":" + close
+                            + ",\"adjustedClose\":" + adjustedClose
+                            + ",\"volume\":" + volume + "}");
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                // Client went away; abort the cursor instead of reading the rest of the range
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+
+        private static String plain(BigDecimal value) {
+            return value != null ? value.toPlainString() : null;
+        }
+
+        private static String orEmpty(String value) {
+            return value != null ? value : "";
+        }
+    }
+}
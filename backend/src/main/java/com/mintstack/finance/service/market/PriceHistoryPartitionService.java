@@ -0,0 +1,147 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of price_history (see V32).
+ *
+ * Upcoming months are created ahead of time, and retention detaches and drops every partition that lies
+ * entirely before the cutoff, so old bars go away without row deletes. Retention is month-granular: bars
+ * in the cutoff month are kept until the whole month has aged out. When the table is not partitioned
+ * (e.g. the H2 test schema), retention falls back to a plain delete.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryPartitionService {
+
+    static final String PARTITION_PREFIX = "price_history_p";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    @Value("${app.market-data.price-history.partition-months-ahead:3}")
+    private int monthsAhead = 3;
+
+    private volatile Boolean partitioned;
+
+    public boolean isPartitioned() {
+        Boolean current = partitioned;
+        if (current == null) {
+            try {
+                Integer count = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('price_history')",
+                        Integer.class);
+                current = count != null && count > 0;
+            } catch (DataAccessException e) {
+                log.debug("price_history partition catalog not available: {}", e.getMessage());
+                current = false;
+            }
+            partitioned = current;
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        try {
+            ensureUpcomingPartitions(LocalDate.now());
+        } catch (Exception error) {
+            log.warn("price_history partition check failed on startup: {}", error.getMessage());
+        }
+    }
+
+    /**
+     * Makes sure the partitions from the current month through {@code monthsAhead} months out exist.
+     * Returns the number of partitions created.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int ensureUpcomingPartitions(LocalDate today) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        int created = 0;
+        YearMonth month = YearMonth.from(today);
+        for (int i = 0; i <= monthsAhead; i++) {
+            Boolean result = jdbcTemplate.queryForObject(
+                    "SELECT ensure_price_history_partition(?)",
+                    Boolean.class,
+                    Date.valueOf(month.plusMonths(i).atDay(1)));
+            if (Boolean.TRUE.equals(result)) {
+                created++;
+            }
+        }
+        if (created > 0) {
+            log.info("Created {} price_history partitions ahead of {}", created, month);
+        }
+        return created;
+    }
+
+    /**
+     * Drops the partitions whose whole month is before {@code cutoff} and trims the default partition.
+     * Returns how many partitions were dropped and how many rows were deleted outside them.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Retention dropPartitionsBefore(LocalDate cutoff) {
+        if (!isPartitioned()) {
+            return new Retention(0, priceHistoryRepository.deleteByPriceDateBefore(cutoff));
+        }
+
+        YearMonth cutoffMonth = YearMonth.from(cutoff);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'price_history'::regclass ORDER BY c.relname",
+                String.class);
+        int dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(partition);
+            if (month == null || !month.isBefore(cutoffMonth)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE price_history DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            dropped++;
+        }
+        // Normally empty; only out-of-range dates land here
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM price_history_default WHERE price_date < ?", Date.valueOf(cutoffMonth.atDay(1)));
+        log.info("Dropped {} price_history partitions before {}", dropped, cutoffMonth);
+        return new Retention(dropped, deleted);
+    }
+
+    /**
+     * Outcome of a retention run.
+     */
+    public record Retention(int droppedPartitions, long deletedRows) {
+
+        public boolean removedAny() {
+            return droppedPartitions > 0 || deletedRows > 0;
+        }
+    }
+
+    static YearMonth partitionMonth(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        return matcher.matches() ? YearMonth.parse(matcher.group(1), PARTITION_MONTH) : null;
+    }
+}
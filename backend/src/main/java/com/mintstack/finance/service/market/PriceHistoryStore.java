@@ -0,0 +1,433 @@
+package com.mintstack.finance.service.market;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.PriceBarView;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-instrument columnar cache of daily price history.
+ *
+ * Series are loaded lazily from price_history on first read and then kept current by the
+ * write paths, whose {@link PriceBarPersistedEvent}s are applied once their transaction commits.
+ * Bars written by other nodes are picked up by a cheap tail sync once the series is older than
+ * the sync interval, and each series is fully reloaded after the reload interval so back-filled
+ * history is eventually visible. A series never holds more than the configured number of bars;
+ * the oldest are dropped as new ones arrive. The store itself is bounded by instrument count, and
+ * series that have not been read for the idle timeout are dropped; they are reloaded on next access.
+ *
+ * Every series carries a version that changes whenever its bars do (a new or corrected bar, a sync
+ * that picked up rows, a reload), so results derived from a series can be cached under it. Versions
+ * are drawn from one counter, so a series reloaded after eviction never repeats an earlier version,
+ * and are bumped under the same lock that changes the bars. Loads and reloads go through the map's
+ * atomic compute, so concurrent first reads of an instrument share one load.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryStore {
+
+    private static final LocalDate SYNC_UPPER_BOUND = LocalDate.of(9999, 12, 31);
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    private final AtomicLong versions = new AtomicLong();
+    private Cache<UUID, Series> seriesByInstrument;
+
+    @Value("${app.market-data.price-store.max-bars:2600}")
+    private int maxBars = 2600;
+
+    @Value("${app.market-data.price-store.sync-interval-ms:30000}")
+    private long syncIntervalMs = 30_000L;
+
+    @Value("${app.market-data.price-store.reload-interval-ms:900000}")
+    private long reloadIntervalMs = 900_000L;
+
+    @Value("${app.market-data.price-store.max-instruments:500}")
+    private long maxInstruments = 500;
+
+    @Value("${app.market-data.price-store.idle-timeout-ms:1800000}")
+    private long idleTimeoutMs = 1_800_000L;
+
+    @PostConstruct
+    public void init() {
+        seriesByInstrument = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxInstruments))
+                .expireAfterAccess(Duration.ofMillis(Math.max(1, idleTimeoutMs)))
+                .build();
+    }
+
+    /**
+     * Latest {@code limit} bars of the instrument, oldest first.
+     */
+    public PriceBars recent(UUID instrumentId, int limit) {
+        if (instrumentId == null || limit <= 0) {
+            return PriceBars.empty();
+        }
+        Series series = resolveSeries(instrumentId);
+        if (limit > series.size() && !series.complete) {
+            return toBars(priceHistoryRepository.findBarsByInstrumentId(instrumentId, PageRequest.of(0, limit)), true);
+        }
+        return series.tail(limit);
+    }
+
+    /**
+     * Bars dated within {@code [startDate, endDate]}, oldest first.
+     */
+    public PriceBars between(UUID instrumentId, LocalDate startDate, LocalDate endDate) {
+        if (instrumentId == null || startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            return PriceBars.empty();
+        }
+        Series series = resolveSeries(instrumentId);
+        if (!series.complete && !series.covers(startDate)) {
+            return toBars(priceHistoryRepository.findBarsByInstrumentIdAndDateRange(instrumentId, startDate, endDate), false);
+        }
+        return series.between(startDate, endDate);
+    }
+
+    /**
+     * Version of the instrument's bars; it changes whenever a bar is added or corrected.
+     */
+    public long version(UUID instrumentId) {
+        if (instrumentId == null) {
+            return 0L;
+        }
+        return resolveSeries(instrumentId).version;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBarPersisted(PriceBarPersistedEvent event) {
+        record(event.history());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHistoryCleared(PriceHistoryClearedEvent event) {
+        clear();
+    }
+
+    /**
+     * Applies a persisted bar to the in-memory series. Instruments that have not been read yet
+     * are left alone; they are loaded from the database on first access.
+     */
+    public void record(PriceHistory history) {
+        if (history == null || history.getInstrument() == null || history.getInstrument().getId() == null
+                || history.getPriceDate() == null || history.getClosePrice() == null) {
+            return;
+        }
+        Series series = seriesByInstrument.getIfPresent(history.getInstrument().getId());
+        if (series == null) {
+            return;
+        }
+        series.apply(
+                (int) history.getPriceDate().toEpochDay(),
+                toDouble(history.getOpenPrice()),
+                toDouble(history.getHighPrice()),
+                toDouble(history.getLowPrice()),
+                history.getClosePrice().doubleValue(),
+                history.getVolume() != null ? history.getVolume() : 0L,
+                versions::incrementAndGet
+        );
+    }
+
+    public void evict(UUID instrumentId) {
+        if (instrumentId != null) {
+            seriesByInstrument.invalidate(instrumentId);
+        }
+    }
+
+    public void clear() {
+        seriesByInstrument.invalidateAll();
+    }
+
+    private Series resolveSeries(UUID instrumentId) {
+        long now = System.currentTimeMillis();
+        Series series = seriesByInstrument.getIfPresent(instrumentId);
+        if (series == null || isStale(series, now)) {
+            // Re-checked inside compute so only the first of several concurrent readers loads
+            series = seriesByInstrument.asMap().compute(instrumentId,
+                    (id, current) -> current == null || isStale(current, now) ? load(id, now) : current);
+        }
+        if (now - series.syncedAt > syncIntervalMs) {
+            return sync(instrumentId, series, now);
+        }
+        return series;
+    }
+
+    private boolean isStale(Series series, long now) {
+        return now - series.loadedAt > reloadIntervalMs;
+    }
+
+    private Series load(UUID instrumentId, long now) {
+        List<PriceBarView> latest = priceHistoryRepository.findBarsByInstrumentId(instrumentId, PageRequest.of(0, maxBars));
+        Series series = new Series(latest.size() < maxBars, maxBars, now, versions.incrementAndGet());
+        for (int index = latest.size() - 1; index >= 0; index--) {
+            series.upsert(latest.get(index));
+        }
+        log.debug("Loaded {} price bars for instrument {}", latest.size(), instrumentId);
+        return series;
+    }
+
+    private Series sync(UUID instrumentId, Series series, long now) {
+        series.syncedAt = now;
+        LocalDate lastDate = series.lastDate();
+        if (lastDate == null) {
+            // Replace only the series this read saw; a concurrent reload or eviction wins
+            Series reloaded = seriesByInstrument.asMap().computeIfPresent(instrumentId,
+                    (id, current) -> current == series ? load(id, now) : current);
+            return reloaded != null ? reloaded : series;
+        }
+        try {
+            series.applyAll(priceHistoryRepository.findBarsByInstrumentIdAndDateRange(
+                    instrumentId, lastDate, SYNC_UPPER_BOUND), versions::incrementAndGet);
+        } catch (RuntimeException error) {
+            log.warn("Price bar sync failed for instrument {}: {}", instrumentId, error.getMessage());
+        }
+        return series;
+    }
+
+    private PriceBars toBars(List<PriceBarView> rows, boolean descending) {
+        Series series = new Series(true, Integer.MAX_VALUE, 0L, 0L);
+        if (descending) {
+            for (int index = rows.size() - 1; index >= 0; index--) {
+                series.upsert(rows.get(index));
+            }
+        } else {
+            rows.forEach(series::upsert);
+        }
+        return series.tail(series.size());
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static final class Series {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final int maxSize;
+        private final long loadedAt;
+        private volatile boolean complete;
+        private volatile long syncedAt;
+        private volatile long version;
+
+        private int[] epochDays = new int[16];
+        private double[] open = new double[16];
+        private double[] high = new double[16];
+        private double[] low = new double[16];
+        private double[] close = new double[16];
+        private long[] volume = new long[16];
+        private int size;
+
+        private Series(boolean complete, int maxSize, long loadedAt, long version) {
+            this.complete = complete;
+            this.maxSize = maxSize;
+            this.loadedAt = loadedAt;
+            this.syncedAt = loadedAt;
+            this.version = version;
+        }
+
+        private int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private LocalDate lastDate() {
+            lock.readLock().lock();
+            try {
+                return size == 0 ? null : LocalDate.ofEpochDay(epochDays[size - 1]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private boolean covers(LocalDate date) {
+            lock.readLock().lock();
+            try {
+                return size > 0 && epochDays[0] <= date.toEpochDay();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private boolean upsert(PriceBarView row) {
+            if (row == null || row.getPriceDate() == null || row.getClosePrice() == null) {
+                return false;
+            }
+            return upsert(
+                    (int) row.getPriceDate().toEpochDay(),
+                    toDouble(row.getOpenPrice()),
+                    toDouble(row.getHighPrice()),
+                    toDouble(row.getLowPrice()),
+                    row.getClosePrice().doubleValue(),
+                    row.getVolume() != null ? row.getVolume() : 0L
+            );
+        }
+
+        /**
+         * Upserts the bar and, if it changed the series, takes a new version while still holding the write lock.
+         */
+        private void apply(int epochDay, double openValue, double highValue, double lowValue,
+                           double closeValue, long volumeValue, LongSupplier nextVersion) {
+            lock.writeLock().lock();
+            try {
+                if (upsert(epochDay, openValue, highValue, lowValue, closeValue, volumeValue)) {
+                    version = nextVersion.getAsLong();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Upserts the rows and takes one new version if any of them changed the series, under a single write lock.
+         */
+        private void applyAll(List<PriceBarView> rows, LongSupplier nextVersion) {
+            lock.writeLock().lock();
+            try {
+                boolean changed = false;
+                for (PriceBarView row : rows) {
+                    changed |= upsert(row);
+                }
+                if (changed) {
+                    version = nextVersion.getAsLong();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Inserts or replaces the bar; returns whether the series changed.
+         */
+        private boolean upsert(int epochDay, double openValue, double highValue, double lowValue,
+                               double closeValue, long volumeValue) {
+            lock.writeLock().lock();
+            try {
+                int index = size > 0 && epochDays[size - 1] < epochDay
+                        ? -(size + 1)
+                        : Arrays.binarySearch(epochDays, 0, size, epochDay);
+                if (index < 0) {
+                    index = -index - 1;
+                    ensureCapacity(size + 1);
+                    int tail = size - index;
+                    if (tail > 0) {
+                        System.arraycopy(epochDays, index, epochDays, index + 1, tail);
+                        System.arraycopy(open, index, open, index + 1, tail);
+                        System.arraycopy(high, index, high, index + 1, tail);
+                        System.arraycopy(low, index, low, index + 1, tail);
+                        System.arraycopy(close, index, close, index + 1, tail);
+                        System.arraycopy(volume, index, volume, index + 1, tail);
+                    }
+                    size++;
+                } else if (Double.compare(open[index], openValue) == 0
+                        && Double.compare(high[index], highValue) == 0
+                        && Double.compare(low[index], lowValue) == 0
+                        && Double.compare(close[index], closeValue) == 0
+                        && volume[index] == volumeValue) {
+                    return false;
+                }
+                epochDays[index] = epochDay;
+                open[index] = openValue;
+                high[index] = highValue;
+                low[index] = lowValue;
+                close[index] = closeValue;
+                volume[index] = volumeValue;
+                if (size > maxSize) {
+                    dropOldest(size - maxSize);
+                }
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Drops the oldest {@code count} bars; the series no longer reaches back to the first stored bar.
+         */
+        private void dropOldest(int count) {
+            int remaining = size - count;
+            System.arraycopy(epochDays, count, epochDays, 0, remaining);
+            System.arraycopy(open, count, open, 0, remaining);
+            System.arraycopy(high, count, high, 0, remaining);
+            System.arraycopy(low, count, low, 0, remaining);
+            System.arraycopy(close, count, close, 0, remaining);
+            System.arraycopy(volume, count, volume, 0, remaining);
+            size = remaining;
+            complete = false;
+        }
+
+        private PriceBars tail(int limit) {
+            lock.readLock().lock();
+            try {
+                return copy(Math.max(0, size - limit), size);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private PriceBars between(LocalDate startDate, LocalDate endDate) {
+            lock.readLock().lock();
+            try {
+                return copy(indexOnOrAfter(startDate.toEpochDay()), indexOnOrAfter(endDate.toEpochDay() + 1));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private int indexOnOrAfter(long epochDay) {
+            int key = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay));
+            int index = Arrays.binarySearch(epochDays, 0, size, key);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private PriceBars copy(int fromIndex, int toIndex) {
+            if (fromIndex >= toIndex) {
+                return PriceBars.empty();
+            }
+            return new PriceBars(
+                    Arrays.copyOfRange(epochDays, fromIndex, toIndex),
+                    Arrays.copyOfRange(open, fromIndex, toIndex),
+                    Arrays.copyOfRange(high, fromIndex, toIndex),
+                    Arrays.copyOfRange(low, fromIndex, toIndex),
+                    Arrays.copyOfRange(close, fromIndex, toIndex),
+                    Arrays.copyOfRange(volume, fromIndex, toIndex)
+            );
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= epochDays.length) {
+                return;
+            }
+            int capacity = Math.max(required, epochDays.length * 2);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+            volume = Arrays.copyOf(volume, capacity);
+        }
+    }
+}
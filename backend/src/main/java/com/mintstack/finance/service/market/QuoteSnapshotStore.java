@@ -0,0 +1,190 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denormalized per-instrument quote read model: the latest daily bars and the 52-week range that
+ * {@link InstrumentMetricsService} needs for list endpoints.
+ *
+ * Recent bars are built in batch on first access and then updated in place from each committed
+ * {@link PriceBarPersistedEvent}, so warm list requests run no history aggregation at all; they are
+ * rebuilt after the refresh interval, which bounds staleness for bars written by other nodes. The
+ * 52-week range comes from {@link Week52RangeIndex}, which follows the same events on its own.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuoteSnapshotStore {
+
+    static final int RECENT_BAR_LIMIT = 10;
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final Week52RangeIndex week52RangeIndex;
+
+    private final Map<UUID, RecentBars> recentBars = new ConcurrentHashMap<>();
+
+    @Value("${app.market-data.quote-snapshot.refresh-interval-ms:60000}")
+    private long refreshIntervalMs = 60_000L;
+
+    /**
+     * Snapshots for the given instruments; missing or expired recent bars are rebuilt with one batch query.
+     */
+    public Map<UUID, QuoteSnapshot> snapshots(Collection<UUID> instrumentIds) {
+        if (instrumentIds == null || instrumentIds.isEmpty()) {
+            return Map.of();
+        }
+
+        long now = System.currentTimeMillis();
+        Map<UUID, RecentBars> barsByInstrument = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID instrumentId : instrumentIds) {
+            if (instrumentId == null || barsByInstrument.containsKey(instrumentId)) {
+                continue;
+            }
+            RecentBars bars = recentBars.get(instrumentId);
+            if (bars != null && now - bars.loadedAt() <= refreshIntervalMs) {
+                barsByInstrument.put(instrumentId, bars);
+            } else if (!missing.contains(instrumentId)) {
+                missing.add(instrumentId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<UUID, RecentBars> loaded = load(missing, now);
+            recentBars.putAll(loaded);
+            barsByInstrument.putAll(loaded);
+        }
+
+        Map<UUID, Week52RangeIndex.Week52Range> ranges = week52RangeIndex.ranges(barsByInstrument.keySet());
+        Map<UUID, QuoteSnapshot> result = new HashMap<>();
+        barsByInstrument.forEach((instrumentId, bars) -> {
+            Week52RangeIndex.Week52Range range = ranges.get(instrumentId);
+            result.put(instrumentId, new QuoteSnapshot(
+                    bars.bars(),
+                    range != null ? range.high() : null,
+                    range != null ? range.low() : null
+            ));
+        });
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBarPersisted(PriceBarPersistedEvent event) {
+        record(event.history());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHistoryCleared(PriceHistoryClearedEvent event) {
+        clear();
+    }
+
+    /**
+     * Applies a persisted bar to the instrument's recent bars, if they are held. Uncached instruments are left
+     * alone; they are built from the database on first access.
+     */
+    public void record(PriceHistory history) {
+        if (history == null || history.getInstrument() == null || history.getInstrument().getId() == null
+                || history.getPriceDate() == null) {
+            return;
+        }
+        QuoteBar bar = QuoteBar.of(history);
+        recentBars.computeIfPresent(history.getInstrument().getId(), (ignored, bars) -> bars.with(bar));
+    }
+
+    public void evict(UUID instrumentId) {
+        if (instrumentId != null) {
+            recentBars.remove(instrumentId);
+        }
+    }
+
+    public void clear() {
+        recentBars.clear();
+    }
+
+    private Map<UUID, RecentBars> load(List<UUID> instrumentIds, long now) {
+        Map<UUID, List<QuoteBar>> barsByInstrument = new HashMap<>();
+        priceHistoryRepository.findRecentByInstrumentIds(instrumentIds, RECENT_BAR_LIMIT)
+                .forEach(history -> barsByInstrument
+                        .computeIfAbsent(history.getInstrument().getId(), ignored -> new ArrayList<>())
+                        .add(QuoteBar.of(history)));
+
+        Map<UUID, RecentBars> loaded = new HashMap<>();
+        for (UUID instrumentId : instrumentIds) {
+            List<QuoteBar> bars = barsByInstrument.getOrDefault(instrumentId, List.of());
+            loaded.put(instrumentId, new RecentBars(sortLatestFirst(bars), now));
+        }
+        log.debug("Built quote snapshots for {} instruments", loaded.size());
+        return loaded;
+    }
+
+    private static List<QuoteBar> sortLatestFirst(List<QuoteBar> bars) {
+        return bars.stream()
+                .sorted(Comparator.comparing(QuoteBar::priceDate).reversed())
+                .limit(RECENT_BAR_LIMIT)
+                .toList();
+    }
+
+    /**
+     * Latest bars (newest first) plus the raw 52-week high/low as of today.
+     */
+    public record QuoteSnapshot(
+            List<QuoteBar> recentBars,
+            BigDecimal week52High,
+            BigDecimal week52Low
+    ) {
+    }
+
+    private record RecentBars(List<QuoteBar> bars, long loadedAt) {
+
+        RecentBars with(QuoteBar bar) {
+            List<QuoteBar> updated = new ArrayList<>(bars.size() + 1);
+            bars.stream()
+                    .filter(existing -> !existing.priceDate().equals(bar.priceDate()))
+                    .forEach(updated::add);
+            updated.add(bar);
+            return new RecentBars(sortLatestFirst(updated), loadedAt);
+        }
+    }
+
+    /**
+     * Detached daily bar; snapshots never hold on to JPA entities.
+     */
+    public record QuoteBar(
+            LocalDate priceDate,
+            BigDecimal openPrice,
+            BigDecimal highPrice,
+            BigDecimal lowPrice,
+            BigDecimal closePrice,
+            Long volume
+    ) {
+
+        public static QuoteBar of(PriceHistory history) {
+            return new QuoteBar(
+                    history.getPriceDate(),
+                    history.getOpenPrice(),
+                    history.getHighPrice(),
+                    history.getLowPrice(),
+                    history.getClosePrice(),
+                    history.getVolume()
+            );
+        }
+    }
+}
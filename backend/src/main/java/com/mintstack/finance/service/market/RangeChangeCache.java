@@ -0,0 +1,216 @@
+package com.mintstack.finance.service.market;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size, node-local caches for range-change data that is not worth a shared cache entry.
+ *
+ * The preset ranges the UI offers ({@link Preset}) are cached in the shared {@code currencyRates} cache and
+ * refreshed after every ingestion. Arbitrary user ranges would give that cache unbounded key cardinality, so
+ * their results live here instead, along with the historical base prices instrument listings measure their
+ * range changes from. Both regions are bounded by entry count and expire after a short TTL; each is also
+ * dropped when the data behind it changes, on every node: the invalidation is published on {@link #CHANNEL}
+ * with the region name. Base points follow every committed past-dated {@link PriceBarPersistedEvent} and
+ * {@link PriceHistoryClearedEvent}, whichever write path produced it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RangeChangeCache {
+
+    public static final String CHANNEL = "mintstack:range-change:invalidate";
+
+    static final String CURRENCY_RATES = "currencyRates";
+    static final String INSTRUMENT_BASE_POINTS = "instrumentBasePoints";
+
+    private static final ZoneId ISTANBUL_TZ = ZoneId.of("Europe/Istanbul");
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${app.redis.cache.enabled:true}")
+    private boolean redisEnabled = true;
+
+    @Value("${app.cache.range-change.max-entries:64}")
+    private long maxEntries = 64;
+
+    @Value("${app.cache.range-change.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    private Cache<Object, Object> currencyRates;
+    private Cache<Object, Object> instrumentBasePoints;
+
+    @PostConstruct
+    public void init() {
+        currencyRates = newRegion();
+        instrumentBasePoints = newRegion();
+    }
+
+    /**
+     * Currency rate lists for ranges that are not a {@link Preset}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T currencyRates(Object key, Supplier<T> loader) {
+        return (T) currencyRates.get(key, ignored -> loader.get());
+    }
+
+    /**
+     * Historical price points (at or before a past date) for a set of instruments.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T instrumentBasePoints(Object key, Supplier<T> loader) {
+        return (T) instrumentBasePoints.get(key, ignored -> loader.get());
+    }
+
+    public void invalidateCurrencyRates() {
+        afterCommit(CURRENCY_RATES);
+    }
+
+    public void invalidateInstrumentBasePoints() {
+        afterCommit(INSTRUMENT_BASE_POINTS);
+    }
+
+    /**
+     * Today's bars only move the live quote; base points are read strictly before today, so only a bar
+     * dated in the past (a backfill or a late correction) can change them. Handled inside the writing
+     * transaction, so a backfill saving many bars invalidates once when it commits.
+     */
+    @EventListener
+    public void onBarPersisted(PriceBarPersistedEvent event) {
+        LocalDate priceDate = event.history() == null ? null : event.history().getPriceDate();
+        if (priceDate == null || priceDate.isBefore(LocalDate.now(ISTANBUL_TZ))) {
+            afterCommit(INSTRUMENT_BASE_POINTS);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHistoryCleared(PriceHistoryClearedEvent event) {
+        invalidateAndPublish(INSTRUMENT_BASE_POINTS);
+    }
+
+    /**
+     * Entry point for invalidations received from other nodes.
+     */
+    public void onInvalidation(String message) {
+        Cache<Object, Object> region = region(message.trim());
+        if (region != null) {
+            region.invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidates the region once the current transaction commits; repeated calls within one transaction
+     * share a single invalidation and broadcast.
+     */
+    private void afterCommit(String regionName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateAndPublish(regionName);
+            return;
+        }
+        PendingInvalidation pending = new PendingInvalidation(this, regionName);
+        if (TransactionSynchronizationManager.hasResource(pending)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(pending, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateAndPublish(regionName);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pending);
+            }
+        });
+    }
+
+    private void invalidateAndPublish(String regionName) {
+        region(regionName).invalidateAll();
+        if (!redisEnabled) {
+            return;
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, regionName);
+        } catch (Exception error) {
+            log.warn("Range change cache invalidation could not be published: {}", error.getMessage());
+        }
+    }
+
+    private Cache<Object, Object> region(String regionName) {
+        return switch (regionName) {
+            case CURRENCY_RATES -> currencyRates;
+            case INSTRUMENT_BASE_POINTS -> instrumentBasePoints;
+            default -> null;
+        };
+    }
+
+    private Cache<Object, Object> newRegion() {
+        return Caffeine.newBuilder()
+            .maximumSize(Math.max(1, maxEntries))
+            .expireAfterWrite(Duration.ofSeconds(Math.max(1, ttlSeconds)))
+            .build();
+    }
+
+    private record PendingInvalidation(RangeChangeCache cache, String regionName) {
+    }
+
+    /**
+     * Change ranges offered by the market screens; each ends today.
+     */
+    public enum Preset {
+        ONE_DAY,
+        ONE_WEEK,
+        ONE_MONTH,
+        THREE_MONTHS,
+        SIX_MONTHS,
+        YEAR_TO_DATE,
+        ONE_YEAR;
+
+        public LocalDate startDate(LocalDate today) {
+            return switch (this) {
+                case ONE_DAY -> today.minusDays(1);
+                case ONE_WEEK -> today.minusDays(7);
+                case ONE_MONTH -> today.minusDays(30);
+                case THREE_MONTHS -> today.minusDays(90);
+                case SIX_MONTHS -> today.minusDays(180);
+                case YEAR_TO_DATE -> today.withDayOfYear(1);
+                case ONE_YEAR -> today.minusDays(365);
+            };
+        }
+
+        public static Optional<Preset> match(LocalDate startDate, LocalDate endDate, LocalDate today) {
+            if (startDate == null || endDate == null || !endDate.isEqual(today)) {
+                return Optional.empty();
+            }
+            for (Preset preset : values()) {
+                if (preset.startDate(today).isEqual(startDate)) {
+                    return Optional.of(preset);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
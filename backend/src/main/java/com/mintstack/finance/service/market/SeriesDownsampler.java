@@ -0,0 +1,183 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Reduces time series for chart endpoints: OHLC bucketing of time-ordered points at a fixed resolution,
+ * and Largest-Triangle-Three-Buckets selection down to a target point count.
+ *
+ * Both run in a single pass; bucketing consumes an iterator, so rows can be streamed from the database
+ * without materialising the raw window.
+ */
+public final class SeriesDownsampler {
+
+    private SeriesDownsampler() {
+    }
+
+    public enum Resolution {
+        MINUTE("1m", ChronoUnit.MINUTES),
+        HOUR("1h", ChronoUnit.HOURS),
+        DAY("1d", ChronoUnit.DAYS);
+
+        private final String param;
+        private final ChronoUnit unit;
+
+        Resolution(String param, ChronoUnit unit) {
+            this.param = param;
+            this.unit = unit;
+        }
+
+        public String param() {
+            return param;
+        }
+
+        public LocalDateTime bucketStart(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+
+        /**
+         * Parses the {@code resolution} request parameter; {@code null} or blank means raw points.
+         */
+        public static Resolution fromParam(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            String normalized = value.trim().toLowerCase(Locale.ROOT);
+            for (Resolution resolution : values()) {
+                if (resolution.param.equals(normalized)) {
+                    return resolution;
+                }
+            }
+            throw new BadRequestException("Geçersiz çözünürlük: " + value + " (1m, 1h veya 1d olmalı)");
+        }
+    }
+
+    /**
+     * One OHLC bucket. {@code last} is the latest source point in the bucket, kept so callers can
+     * carry its non-aggregated attributes into the response.
+     */
+    public record OhlcBucket<T>(
+            LocalDateTime start,
+            BigDecimal open,
+            BigDecimal high,
+            BigDecimal low,
+            BigDecimal close,
+            LocalDateTime lastAt,
+            T last,
+            int samples
+    ) {
+    }
+
+    /**
+     * Folds points ordered by time ascending into buckets of the given resolution. Points without a time
+     * or value are skipped; a point older than the open bucket is folded into it rather than reopening
+     * an earlier bucket.
+     */
+    public static <T> List<OhlcBucket<T>> bucket(Iterator<T> points,
+                                                 Resolution resolution,
+                                                 Function<T, LocalDateTime> time,
+                                                 Function<T, BigDecimal> value) {
+        List<OhlcBucket<T>> buckets = new ArrayList<>();
+        LocalDateTime start = null;
+        BigDecimal open = null;
+        BigDecimal high = null;
+        BigDecimal low = null;
+        BigDecimal close = null;
+        LocalDateTime lastAt = null;
+        T last = null;
+        int samples = 0;
+
+        while (points.hasNext()) {
+            T point = points.next();
+            LocalDateTime at = point == null ? null : time.apply(point);
+            BigDecimal price = at == null ? null : value.apply(point);
+            if (price == null) {
+                continue;
+            }
+            LocalDateTime bucketStart = resolution.bucketStart(at);
+            if (start == null || bucketStart.isAfter(start)) {
+                if (start != null) {
+                    buckets.add(new OhlcBucket<>(start, open, high, low, close, lastAt, last, samples));
+                }
+                start = bucketStart;
+                open = price;
+                high = price;
+                low = price;
+                samples = 0;
+            } else {
+                high = high.max(price);
+                low = low.min(price);
+            }
+            close = price;
+            lastAt = at;
+            last = point;
+            samples++;
+        }
+        if (start != null) {
+            buckets.add(new OhlcBucket<>(start, open, high, low, close, lastAt, last, samples));
+        }
+        return buckets;
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: keeps the first and last points and, from each of the
+     * {@code threshold - 2} equal-width buckets in between, the point forming the largest triangle with
+     * the previously kept point and the next bucket's average. Returns the input when it already fits.
+     */
+    public static <T> List<T> lttb(List<T> points, int threshold, ToDoubleFunction<T> x, ToDoubleFunction<T> y) {
+        int size = points.size();
+        if (threshold < 3 || size <= threshold) {
+            return points;
+        }
+
+        List<T> sampled = new ArrayList<>(threshold);
+        sampled.add(points.get(0));
+        double bucketWidth = (double) (size - 2) / (threshold - 2);
+        int kept = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketWidth) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketWidth) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x.applyAsDouble(points.get(i));
+                avgY += y.applyAsDouble(points.get(i));
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int rangeStart = (int) Math.floor(bucket * bucketWidth) + 1;
+            int rangeEnd = nextStart;
+            double keptX = x.applyAsDouble(points.get(kept));
+            double keptY = y.applyAsDouble(points.get(kept));
+            double maxArea = -1;
+            int selected = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                double pointX = x.applyAsDouble(points.get(i));
+                double pointY = y.applyAsDouble(points.get(i));
+                double area = Math.abs((keptX - avgX) * (pointY - keptY) - (keptX - pointX) * (avgY - keptY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+            sampled.add(points.get(selected));
+            kept = selected;
+        }
+
+        sampled.add(points.get(size - 1));
+        return sampled;
+    }
+}
@@ -9,6 +9,7 @@ import com.mintstack.finance.service.external.TefasFundClient;
 import com.mintstack.finance.service.external.TefasFundClient.TefasFundPrice;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -32,6 +33,7 @@ public class TefasFundDataService {
     private final InstrumentRepository instrumentRepository;
     private final PriceHistoryRepository priceHistoryRepository;
     private final PriceUpdateService priceUpdateService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Value("${app.external-api.tefas.enabled:true}")
     private boolean enabled;
@@ -111,6 +113,7 @@ public class TefasFundDataService {
         history.setAdjustedClose(fundPrice.price());
         history.setVolume(toLong(fundPrice.sharesOutstanding()));
         priceHistoryRepository.save(history);
+        applicationEventPublisher.publishEvent(new PriceBarPersistedEvent(history));
 
         Map<String, Object> additionalData = new HashMap<>();
         if (fundPrice.date() != null) {
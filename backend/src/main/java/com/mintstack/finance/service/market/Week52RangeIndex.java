@@ -0,0 +1,280 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.RangeBarView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling 52-week high/low per instrument.
+ *
+ * Each instrument keeps the daily highs/lows of the trailing year together with two monotonic deques,
+ * so the range is read in O(1) and a new daily bar is applied in amortized O(1). Windows are seeded in
+ * batch from price_history on first access, advanced by each committed {@link PriceBarPersistedEvent},
+ * and re-seeded after the reload interval so bars written by other nodes are picked up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class Week52RangeIndex {
+
+    static final int WEEK_52_DAYS = 365;
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    private final Map<UUID, Window> windows = new ConcurrentHashMap<>();
+
+    @Value("${app.market-data.week52-index.reload-interval-ms:900000}")
+    private long reloadIntervalMs = 900_000L;
+
+    public Week52Range range(UUID instrumentId) {
+        if (instrumentId == null) {
+            return Week52Range.EMPTY;
+        }
+        return ranges(List.of(instrumentId)).getOrDefault(instrumentId, Week52Range.EMPTY);
+    }
+
+    /**
+     * Ranges for the given instruments as of today; unseeded or expired windows are loaded with one batch query.
+     */
+    public Map<UUID, Week52Range> ranges(Collection<UUID> instrumentIds) {
+        if (instrumentIds == null || instrumentIds.isEmpty()) {
+            return Map.of();
+        }
+
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        long windowStart = windowStart(today);
+        Map<UUID, Week52Range> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID instrumentId : instrumentIds) {
+            if (instrumentId == null || result.containsKey(instrumentId)) {
+                continue;
+            }
+            Window window = windows.get(instrumentId);
+            if (window != null && now - window.loadedAt <= reloadIntervalMs) {
+                result.put(instrumentId, window.range(windowStart));
+            } else if (!missing.contains(instrumentId)) {
+                missing.add(instrumentId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<UUID, Window> loaded = load(missing, today, now);
+            windows.putAll(loaded);
+            loaded.forEach((instrumentId, window) -> result.put(instrumentId, window.range(windowStart)));
+        }
+        return result;
+    }
+
+    /**
+     * Advances the instrument's window with a persisted bar. Unseeded instruments are left alone; they
+     * are loaded from the database on first access.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBarPersisted(PriceBarPersistedEvent event) {
+        record(event.history());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHistoryCleared(PriceHistoryClearedEvent event) {
+        clear();
+    }
+
+    public void record(PriceHistory history) {
+        if (history == null || history.getInstrument() == null || history.getInstrument().getId() == null
+                || history.getPriceDate() == null) {
+            return;
+        }
+        Window window = windows.get(history.getInstrument().getId());
+        if (window == null) {
+            return;
+        }
+        RangePoint point = RangePoint.of(
+                history.getPriceDate(),
+                history.getOpenPrice(),
+                history.getHighPrice(),
+                history.getLowPrice(),
+                history.getClosePrice()
+        );
+        if (point != null && !history.getPriceDate().isAfter(LocalDate.now())) {
+            window.add(point);
+        }
+    }
+
+    public void evict(UUID instrumentId) {
+        if (instrumentId != null) {
+            windows.remove(instrumentId);
+        }
+    }
+
+    public void clear() {
+        windows.clear();
+    }
+
+    private Map<UUID, Window> load(List<UUID> instrumentIds, LocalDate today, long now) {
+        Map<UUID, Window> loaded = new HashMap<>();
+        instrumentIds.forEach(instrumentId -> loaded.put(instrumentId, new Window(now)));
+        List<RangeBarView> rows = priceHistoryRepository.findRangeBarsByInstrumentIds(
+                instrumentIds,
+                today.minusDays(WEEK_52_DAYS),
+                today
+        );
+        for (RangeBarView row : rows) {
+            Window window = loaded.get(row.getInstrumentId());
+            RangePoint point = RangePoint.of(
+                    row.getPriceDate(),
+                    row.getOpenPrice(),
+                    row.getHighPrice(),
+                    row.getLowPrice(),
+                    row.getClosePrice()
+            );
+            if (window != null && point != null) {
+                window.add(point);
+            }
+        }
+        log.debug("Seeded 52-week windows for {} instruments from {} bars", loaded.size(), rows.size());
+        return loaded;
+    }
+
+    private static long windowStart(LocalDate today) {
+        return today.minusDays(WEEK_52_DAYS).toEpochDay();
+    }
+
+    private static BigDecimal firstPositive(BigDecimal... values) {
+        for (BigDecimal value : values) {
+            if (value != null && value.compareTo(BigDecimal.ZERO) > 0) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Raw (unscaled) 52-week high and low; both are {@code null} when the instrument has no priced bar in the window.
+     */
+    public record Week52Range(BigDecimal high, BigDecimal low) {
+
+        static final Week52Range EMPTY = new Week52Range(null, null);
+    }
+
+    private record RangePoint(long epochDay, BigDecimal high, BigDecimal low) {
+
+        static RangePoint of(LocalDate date, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close) {
+            if (date == null) {
+                return null;
+            }
+            BigDecimal barHigh = firstPositive(high, close, open);
+            BigDecimal barLow = firstPositive(low, close, open);
+            if (barHigh == null || barLow == null) {
+                return null;
+            }
+            return new RangePoint(date.toEpochDay(), barHigh, barLow);
+        }
+    }
+
+    /**
+     * Trailing daily points in date order plus monotonic deques whose heads are the window maximum and
+     * minimum. Intraday updates of the latest bar only widen its range, so they stay on the O(1) path;
+     * anything else (back-filled or narrowed bars) rebuilds the deques from the retained points.
+     */
+    private static final class Window {
+
+        private final long loadedAt;
+        private final ArrayDeque<RangePoint> points = new ArrayDeque<>();
+        private final ArrayDeque<RangePoint> maxDeque = new ArrayDeque<>();
+        private final ArrayDeque<RangePoint> minDeque = new ArrayDeque<>();
+
+        private Window(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private synchronized Week52Range range(long windowStart) {
+            expire(windowStart);
+            RangePoint highest = maxDeque.peekFirst();
+            RangePoint lowest = minDeque.peekFirst();
+            return highest == null || lowest == null
+                    ? Week52Range.EMPTY
+                    : new Week52Range(highest.high(), lowest.low());
+        }
+
+        private synchronized void add(RangePoint point) {
+            RangePoint last = points.peekLast();
+            if (last == null || point.epochDay() > last.epochDay()) {
+                append(point);
+                return;
+            }
+            if (point.epochDay() == last.epochDay()
+                    && point.high().compareTo(last.high()) >= 0
+                    && point.low().compareTo(last.low()) <= 0) {
+                points.pollLast();
+                if (maxDeque.peekLast() == last) {
+                    maxDeque.pollLast();
+                }
+                if (minDeque.peekLast() == last) {
+                    minDeque.pollLast();
+                }
+                append(point);
+                return;
+            }
+            insertAndRebuild(point);
+        }
+
+        private void append(RangePoint point) {
+            points.addLast(point);
+            while (!maxDeque.isEmpty() && maxDeque.peekLast().high().compareTo(point.high()) <= 0) {
+                maxDeque.pollLast();
+            }
+            maxDeque.addLast(point);
+            while (!minDeque.isEmpty() && minDeque.peekLast().low().compareTo(point.low()) >= 0) {
+                minDeque.pollLast();
+            }
+            minDeque.addLast(point);
+        }
+
+        private void insertAndRebuild(RangePoint point) {
+            List<RangePoint> ordered = new ArrayList<>(points.size() + 1);
+            for (RangePoint existing : points) {
+                if (existing.epochDay() != point.epochDay()) {
+                    ordered.add(existing);
+                }
+            }
+            ordered.add(point);
+            ordered.sort(Comparator.comparingLong(RangePoint::epochDay));
+
+            points.clear();
+            maxDeque.clear();
+            minDeque.clear();
+            ordered.forEach(this::append);
+        }
+
+        private void expire(long windowStart) {
+            while (!points.isEmpty() && points.peekFirst().epochDay() < windowStart) {
+                points.pollFirst();
+            }
+            while (!maxDeque.isEmpty() && maxDeque.peekFirst().epochDay() < windowStart) {
+                maxDeque.pollFirst();
+            }
+            while (!minDeque.isEmpty() && minDeque.peekFirst().epochDay() < windowStart) {
+                minDeque.pollFirst();
+            }
+        }
+    }
+}
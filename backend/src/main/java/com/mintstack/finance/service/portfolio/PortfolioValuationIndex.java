@@ -0,0 +1,400 @@
+package com.mintstack.finance.service.portfolio;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.mintstack.finance.dto.response.PortfolioItemResponse;
+import com.mintstack.finance.dto.response.PortfolioResponse;
+import com.mintstack.finance.dto.response.PriceUpdateMessage;
+import com.mintstack.finance.service.PriceTickListener;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live valuations of the portfolios users have recently read.
+ *
+ * A portfolio is loaded from the database once and from then on kept current by the price updates broadcast to
+ * the cluster: an update reprices only the positions holding its instrument (symbol plus the simulated flag, as a
+ * simulated and a real instrument may share a symbol), found through an instrument to portfolio index, and shifts
+ * the running position value by the difference. Reads copy the current state, so they cost
+ * no queries and always reflect the last tick.
+ *
+ * Everything a tick does not describe (trades, orders, cash, settings) goes through PortfolioService, which
+ * drops the owner's entries with {@link #invalidateUser(UUID)}. As with the other node-local read models the
+ * drop happens after commit and is fanned out to the other nodes over Redis pub/sub. Entries also expire after
+ * a fixed age, which bounds drift from price writes that are never broadcast.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PortfolioValuationIndex implements PriceTickListener {
+
+    public static final String CHANNEL = "mintstack:portfolio-valuation:invalidate";
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Value("${app.redis.cache.enabled:true}")
+    private boolean redisEnabled = true;
+
+    @Value("${app.cache.portfolio-valuation.max-entries:10000}")
+    private long maxEntries = 10_000;
+
+    @Value("${app.cache.portfolio-valuation.max-age-seconds:120}")
+    private long maxAgeSeconds = 120;
+
+    private Cache<UUID, PortfolioValuation> portfolios;
+    private Cache<UUID, List<UUID>> portfolioIdsByUser;
+    private final ConcurrentMap<InstrumentKey, Set<UUID>> portfoliosByInstrument = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        portfolios = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, maxEntries))
+            .expireAfterWrite(Duration.ofSeconds(Math.max(1, maxAgeSeconds)))
+            .executor(Runnable::run)
+            .removalListener((UUID portfolioId, PortfolioValuation valuation, RemovalCause cause) -> {
+                if (portfolioId != null && valuation != null && cause != RemovalCause.REPLACED) {
+                    unindex(portfolioId, valuation);
+                }
+            })
+            .build();
+        portfolioIdsByUser = Caffeine.newBuilder()
+            .maximumSize(Math.max(1, maxEntries))
+            .expireAfterWrite(Duration.ofSeconds(Math.max(1, maxAgeSeconds)))
+            .build();
+    }
+
+    /**
+     * Token to take before loading from the database; a load that races with an invalidation is not stored.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public Optional<PortfolioResponse> read(UUID userId, UUID portfolioId) {
+        PortfolioValuation valuation = portfolios.getIfPresent(portfolioId);
+        if (valuation == null || !valuation.userId.equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(valuation.snapshot());
+    }
+
+    public Optional<List<PortfolioResponse>> readUserPortfolios(UUID userId) {
+        List<UUID> portfolioIds = portfolioIdsByUser.getIfPresent(userId);
+        if (portfolioIds == null) {
+            return Optional.empty();
+        }
+        List<PortfolioResponse> responses = new ArrayList<>(portfolioIds.size());
+        for (UUID portfolioId : portfolioIds) {
+            PortfolioValuation valuation = portfolios.getIfPresent(portfolioId);
+            if (valuation == null) {
+                return Optional.empty();
+            }
+            responses.add(valuation.snapshot());
+        }
+        return Optional.of(responses);
+    }
+
+    public void store(UUID userId, PortfolioResponse loaded, long loadGeneration) {
+        put(userId, loaded, loadGeneration);
+    }
+
+    public void storeUserPortfolios(UUID userId, List<PortfolioResponse> loaded, long loadGeneration) {
+        List<UUID> portfolioIds = new ArrayList<>(loaded.size());
+        for (PortfolioResponse response : loaded) {
+            if (!put(userId, response, loadGeneration)) {
+                return;
+            }
+            portfolioIds.add(response.getId());
+        }
+        portfolioIdsByUser.put(userId, List.copyOf(portfolioIds));
+        if (generation.get() != loadGeneration) {
+            portfolioIdsByUser.invalidate(userId);
+        }
+    }
+
+    /**
+     * Drops the user's portfolios on this node and on the rest of the cluster. Inside a transaction the drop
+     * happens after commit, so concurrent readers cannot re-store the pre-change state.
+     */
+    public void invalidateUser(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAndPublish(userId);
+                }
+            });
+            return;
+        }
+        invalidateAndPublish(userId);
+    }
+
+    /**
+     * Entry point for invalidations received from other nodes.
+     */
+    public void onInvalidation(String message) {
+        try {
+            invalidateUserLocally(UUID.fromString(message.trim()));
+        } catch (IllegalArgumentException error) {
+            log.warn("Ignoring invalid portfolio valuation invalidation: {}", message);
+        }
+    }
+
+    @Override
+    public void onPriceUpdate(PriceUpdateMessage update) {
+        String symbol = PriceTickListener.instrumentSymbol(update);
+        if (symbol == null) {
+            return;
+        }
+        BigDecimal price = PriceTickListener.instrumentPrice(update);
+        if (price == null || price.signum() <= 0) {
+            return;
+        }
+        InstrumentKey instrument = new InstrumentKey(symbol, update.isSimulated());
+        Set<UUID> holders = portfoliosByInstrument.get(instrument);
+        if (holders == null) {
+            return;
+        }
+        for (UUID portfolioId : holders) {
+            PortfolioValuation valuation = portfolios.getIfPresent(portfolioId);
+            if (valuation != null) {
+                valuation.reprice(instrument, price);
+            }
+        }
+    }
+
+    private boolean put(UUID userId, PortfolioResponse loaded, long loadGeneration) {
+        if (loaded == null || loaded.getId() == null || generation.get() != loadGeneration) {
+            return false;
+        }
+        PortfolioValuation valuation = new PortfolioValuation(userId, loaded);
+        portfolios.put(loaded.getId(), valuation);
+        for (InstrumentKey instrument : valuation.instruments()) {
+            portfoliosByInstrument.compute(instrument, (key, holders) -> {
+                Set<UUID> updated = holders != null ? holders : ConcurrentHashMap.newKeySet();
+                updated.add(loaded.getId());
+                return updated;
+            });
+        }
+        if (generation.get() != loadGeneration) {
+            portfolios.invalidate(loaded.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private void unindex(UUID portfolioId, PortfolioValuation removed) {
+        for (InstrumentKey instrument : removed.instruments()) {
+            portfoliosByInstrument.computeIfPresent(instrument, (key, holders) -> {
+                // A reload of the same portfolio may already have re-registered the instrument
+                PortfolioValuation current = portfolios.getIfPresent(portfolioId);
+                if (current == null || !current.holds(instrument)) {
+                    holders.remove(portfolioId);
+                }
+                return holders.isEmpty() ? null : holders;
+            });
+        }
+    }
+
+    private void invalidateAndPublish(UUID userId) {
+        invalidateUserLocally(userId);
+        if (!redisEnabled) {
+            return;
+        }
+        StringRedisTemplate redisTemplate = redisTemplateProvider.getIfAvailable();
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, userId.toString());
+        } catch (Exception error) {
+            log.warn("Portfolio valuation invalidation could not be published: {}", error.getMessage());
+        }
+    }
+
+    private void invalidateUserLocally(UUID userId) {
+        generation.incrementAndGet();
+        portfolioIdsByUser.invalidate(userId);
+        portfolios.asMap().values().removeIf(valuation -> valuation.userId.equals(userId));
+    }
+
+    private static BigDecimal safe(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal percentOf(BigDecimal profitLoss, BigDecimal base) {
+        if (base.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return profitLoss.divide(base, 6, RoundingMode.HALF_UP).multiply(HUNDRED);
+    }
+
+    /**
+     * One portfolio's positions and running totals. Everything except prices is fixed for the entry's lifetime.
+     */
+    private static final class PortfolioValuation {
+
+        private final UUID userId;
+        private final PortfolioResponse loaded;
+        private final List<Position> positions;
+        private final BigDecimal totalCost;
+        private final BigDecimal cashBalance;
+        private final BigDecimal realizedProfitLoss;
+        private BigDecimal positionValue = BigDecimal.ZERO;
+
+        private PortfolioValuation(UUID userId, PortfolioResponse loaded) {
+            this.userId = userId;
+            this.loaded = loaded;
+            List<Position> loadedPositions = new ArrayList<>();
+            BigDecimal cost = BigDecimal.ZERO;
+            if (loaded.getItems() != null) {
+                for (PortfolioItemResponse item : loaded.getItems()) {
+                    Position position = new Position(item);
+                    loadedPositions.add(position);
+                    cost = cost.add(position.totalCost);
+                    positionValue = positionValue.add(position.currentValue);
+                }
+            }
+            this.positions = List.copyOf(loadedPositions);
+            this.totalCost = cost;
+            this.cashBalance = safe(loaded.getCashBalance());
+            this.realizedProfitLoss = safe(loaded.getRealizedProfitLoss());
+        }
+
+        private Set<InstrumentKey> instruments() {
+            Set<InstrumentKey> instruments = new HashSet<>();
+            for (Position position : positions) {
+                if (position.instrument != null) {
+                    instruments.add(position.instrument);
+                }
+            }
+            return instruments;
+        }
+
+        private boolean holds(InstrumentKey instrument) {
+            for (Position position : positions) {
+                if (instrument.equals(position.instrument)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized void reprice(InstrumentKey instrument, BigDecimal price) {
+            for (Position position : positions) {
+                if (instrument.equals(position.instrument)) {
+                    BigDecimal previousValue = position.currentValue;
+                    position.reprice(price);
+                    positionValue = positionValue.add(position.currentValue.subtract(previousValue));
+                }
+            }
+        }
+
+        private synchronized PortfolioResponse snapshot() {
+            List<PortfolioItemResponse> items = new ArrayList<>(positions.size());
+            for (Position position : positions) {
+                items.add(position.snapshot());
+            }
+            BigDecimal unrealizedProfitLoss = positionValue.subtract(totalCost);
+            BigDecimal profitLoss = realizedProfitLoss.add(unrealizedProfitLoss);
+
+            return PortfolioResponse.builder()
+                .id(loaded.getId())
+                .name(loaded.getName())
+                .description(loaded.getDescription())
+                .isDefault(loaded.getIsDefault())
+                .totalValue(positionValue)
+                .positionValue(positionValue)
+                .totalCost(totalCost)
+                .profitLoss(profitLoss)
+                .profitLossPercent(percentOf(profitLoss, totalCost))
+                .cashBalance(cashBalance)
+                .initialCashBalance(loaded.getInitialCashBalance())
+                .commissionRate(loaded.getCommissionRate())
+                .minimumCommissionAmount(loaded.getMinimumCommissionAmount())
+                .commissionTaxRate(loaded.getCommissionTaxRate())
+                .netAssetValue(positionValue.add(cashBalance))
+                .realizedProfitLoss(realizedProfitLoss)
+                .unrealizedProfitLoss(unrealizedProfitLoss)
+                .itemCount(loaded.getItemCount())
+                .items(items)
+                .createdAt(loaded.getCreatedAt())
+                .updatedAt(loaded.getUpdatedAt())
+                .build();
+        }
+    }
+
+    private static final class Position {
+
+        private final PortfolioItemResponse loaded;
+        private final InstrumentKey instrument;
+        private final BigDecimal quantity;
+        private final BigDecimal totalCost;
+        private BigDecimal currentPrice;
+        private BigDecimal currentValue;
+
+        private Position(PortfolioItemResponse loaded) {
+            this.loaded = loaded;
+            this.instrument = loaded.getInstrumentSymbol() != null
+                ? new InstrumentKey(loaded.getInstrumentSymbol().toUpperCase(), Boolean.TRUE.equals(loaded.getInstrumentSimulated()))
+                : null;
+            this.quantity = safe(loaded.getQuantity());
+            this.totalCost = safe(loaded.getTotalCost());
+            this.currentPrice = loaded.getCurrentPrice();
+            this.currentValue = loaded.getCurrentValue() != null ? loaded.getCurrentValue() : totalCost;
+        }
+
+        private void reprice(BigDecimal price) {
+            currentPrice = price;
+            currentValue = quantity.multiply(price);
+        }
+
+        private PortfolioItemResponse snapshot() {
+            BigDecimal profitLoss = currentValue.subtract(totalCost);
+            return PortfolioItemResponse.builder()
+                .id(loaded.getId())
+                .instrumentId(loaded.getInstrumentId())
+                .instrumentSymbol(loaded.getInstrumentSymbol())
+                .instrumentName(loaded.getInstrumentName())
+                .instrumentType(loaded.getInstrumentType())
+                .instrumentSimulated(loaded.getInstrumentSimulated())
+                .quantity(loaded.getQuantity())
+                .purchasePrice(loaded.getPurchasePrice())
+                .currentPrice(currentPrice)
+                .totalCost(loaded.getTotalCost())
+                .currentValue(currentValue)
+                .profitLoss(profitLoss)
+                .profitLossPercent(percentOf(profitLoss, totalCost))
+                .purchaseDate(loaded.getPurchaseDate())
+                .notes(loaded.getNotes())
+                .build();
+        }
+    }
+
+    private record InstrumentKey(String symbol, boolean simulated) {
+    }
+}
@@ -183,12 +183,15 @@ public class SimulationDataService {
             lastTradingDate = today;
         }
 
-        simulateStocks(volatility, trend, intervalSeconds, eventMultiplier, newsImpacts, sectorMovements);
+        // Cache writes of the whole tick go to Redis in one pipelined flush
+        PriceCacheService.TickBatch tick = new PriceCacheService.TickBatch();
+        simulateStocks(volatility, trend, intervalSeconds, eventMultiplier, newsImpacts, sectorMovements, tick);
         simulateBonds(volatility, intervalSeconds);
         simulateFunds(volatility, trend, intervalSeconds);
         simulateViop(volatility, trend, intervalSeconds, eventMultiplier);
-        simulateCurrencies(volatility, intervalSeconds);
-        simulateIndices(volatility, trend, intervalSeconds, eventMultiplier);
+        simulateCurrencies(volatility, intervalSeconds, tick);
+        simulateIndices(volatility, trend, intervalSeconds, eventMultiplier, tick);
+        priceCacheService.flushTick(tick);
         if (newsFeedProperties.isSimulationNewsEnabled()) {
             maybeGenerateSimulationHeadline(intervalSeconds);
         }
@@ -351,7 +354,8 @@ public class SimulationDataService {
         int intervalSeconds,
         double eventMultiplier,
         Map<String, Double> newsImpacts,
-        Map<String, Double> sectorMovements
+        Map<String, Double> sectorMovements,
+        PriceCacheService.TickBatch tick
     ) {
         for (Map.Entry<String, SimulatedStock> entry : stockCache.entrySet()) {
             String symbol = entry.getKey();
@@ -385,7 +389,7 @@ public class SimulationDataService {
             BigDecimal previousClose = stock.getCurrentPrice();
             stock.updatePrice(newPrice);
 
-            persistenceService.saveAndBroadcastStock(symbol, stock, previousClose, newPrice);
+            persistenceService.saveAndBroadcastStock(symbol, stock, previousClose, newPrice, tick);
         }
     }
 
@@ -479,7 +483,7 @@ public class SimulationDataService {
         }
     }
 
-    private void simulateCurrencies(VolatilityLevel volatility, int intervalSeconds) {
+    private void simulateCurrencies(VolatilityLevel volatility, int intervalSeconds, PriceCacheService.TickBatch tick) {
         for (Map.Entry<String, SimulatedCurrency> entry : currencyCache.entrySet()) {
             String code = entry.getKey();
             SimulatedCurrency currency = entry.getValue();
@@ -509,11 +513,17 @@ public class SimulationDataService {
                 currency.updateRates(spread[0], spread[1]);
             }
 
-            persistenceService.saveCurrencyRate(code, currency);
+            persistenceService.saveCurrencyRate(code, currency, tick);
         }
     }
 
-    private void simulateIndices(VolatilityLevel volatility, MarketTrend trend, int intervalSeconds, double eventMultiplier) {
+    private void simulateIndices(
+        VolatilityLevel volatility,
+        MarketTrend trend,
+        int intervalSeconds,
+        double eventMultiplier,
+        PriceCacheService.TickBatch tick
+    ) {
         for (Map.Entry<String, SimulatedIndex> entry : indexCache.entrySet()) {
             String symbol = entry.getKey();
             SimulatedIndex index = entry.getValue();
@@ -532,7 +542,7 @@ public class SimulationDataService {
             }
 
             index.updateValue(newValue);
-            persistenceService.saveAndBroadcastIndex(symbol, index, newValue);
+            persistenceService.saveAndBroadcastIndex(symbol, index, newValue, tick);
         }
     }
 
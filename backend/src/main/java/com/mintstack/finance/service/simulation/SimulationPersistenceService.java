@@ -12,8 +12,10 @@ import com.mintstack.finance.repository.NewsRepository;
 import com.mintstack.finance.repository.PriceHistoryRepository;
 import com.mintstack.finance.service.PriceCacheService;
 import com.mintstack.finance.service.PriceUpdateService;
+import com.mintstack.finance.service.market.PriceBarPersistedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,8 +38,17 @@ public class SimulationPersistenceService {
     private final NewsRepository newsRepository;
     private final PriceUpdateService priceUpdateService;
     private final PriceCacheService priceCacheService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     public void saveAndBroadcastIndex(String symbol, SimulatedIndex index, BigDecimal newPrice) {
+        saveAndBroadcastIndex(symbol, index, newPrice, null);
+    }
+
+    /**
+     * Same as {@link #saveAndBroadcastIndex(String, SimulatedIndex, BigDecimal)}, but stages the Redis write in
+     * {@code tick} (when given) so the caller can flush the whole tick at once.
+     */
+    public void saveAndBroadcastIndex(String symbol, SimulatedIndex index, BigDecimal newPrice, PriceCacheService.TickBatch tick) {
         try {
             IndexData indexData = IndexData.builder()
                 .symbol(symbol)
@@ -46,7 +57,11 @@ public class SimulationPersistenceService {
                 .changePercent(index.getChangePercent())
                 .previousClose(index.getPreviousClose())
                 .build();
-            priceCacheService.saveIndexValue(symbol, indexData);
+            if (tick != null) {
+                tick.index(symbol, indexData);
+            } else {
+                priceCacheService.saveIndexValue(symbol, indexData);
+            }
 
             Instrument instrument = instrumentRepository.findBySymbolAndIsSimulated(symbol, true)
                 .orElseGet(() -> Instrument.builder()
@@ -77,7 +92,8 @@ public class SimulationPersistenceService {
                 newPrice,
                 index.getPreviousClose(),
                 change,
-                changePercent
+                changePercent,
+                true
             );
         } catch (Exception error) {
             log.error("Index kaydedilemedi {}: {}", symbol, error.getMessage());
@@ -120,10 +136,29 @@ public class SimulationPersistenceService {
 
         Instrument saved = instrumentRepository.save(instrument);
         saveDailyPriceHistory(saved, quote);
+
+        // Bonds, funds and VIOP contracts have no dedicated topic; the general one still reaches the tick listeners
+        Map<String, Object> additionalData = new LinkedHashMap<>();
+        if (previousClose != null) {
+            additionalData.put("previousClose", previousClose);
+        }
+        additionalData.put("changePercent", quote.getChangePercent());
+        priceUpdateService.broadcastMarketUpdate(type.name(), symbol, newPrice, additionalData, true);
     }
 
     @Transactional
     public void saveAndBroadcastStock(String symbol, SimulatedStock stock, BigDecimal previousClose, BigDecimal newPrice) {
+        saveAndBroadcastStock(symbol, stock, previousClose, newPrice, null);
+    }
+
+    @Transactional
+    public void saveAndBroadcastStock(
+        String symbol,
+        SimulatedStock stock,
+        BigDecimal previousClose,
+        BigDecimal newPrice,
+        PriceCacheService.TickBatch tick
+    ) {
         StockPriceData stockData = StockPriceData.builder()
             .symbol(symbol)
             .name(stock.getName())
@@ -136,7 +171,11 @@ public class SimulationPersistenceService {
             .sector(stock.getSector())
             .previousClose(previousClose)
             .build();
-        priceCacheService.saveStockPrice(symbol, stockData);
+        if (tick != null) {
+            tick.stock(symbol, stockData);
+        } else {
+            priceCacheService.saveStockPrice(symbol, stockData);
+        }
 
         Optional<Instrument> existing = instrumentRepository.findBySymbolAndIsSimulated(symbol, true);
         Instrument instrument;
@@ -179,11 +218,16 @@ public class SimulationPersistenceService {
             newPrice,
             previousClose,
             change,
-            changePercent
+            changePercent,
+            true
         );
     }
 
     public void saveCurrencyRate(String code, SimulatedCurrency currency) {
+        saveCurrencyRate(code, currency, null);
+    }
+
+    public void saveCurrencyRate(String code, SimulatedCurrency currency, PriceCacheService.TickBatch tick) {
         CurrencyRateData currencyData = CurrencyRateData.builder()
             .code(code)
             .name(currency.getName())
@@ -191,7 +235,11 @@ public class SimulationPersistenceService {
             .sellingRate(currency.getSellingRate())
             .midRate(currency.getMidRate())
             .build();
-        priceCacheService.saveCurrencyRate(code, currencyData);
+        if (tick != null) {
+            tick.currency(code, currencyData);
+        } else {
+            priceCacheService.saveCurrencyRate(code, currencyData);
+        }
 
         CurrencyRate rate = CurrencyRate.builder()
             .currencyCode(code)
@@ -215,7 +263,8 @@ public class SimulationPersistenceService {
             crypto.getChangePercent(),
             crypto.getHigh24h(),
             crypto.getLow24h(),
-            crypto.getVolume24h()
+            crypto.getVolume24h(),
+            true
         );
     }
 
@@ -285,6 +334,7 @@ public class SimulationPersistenceService {
                     .build());
 
             priceHistoryRepository.save(history);
+            applicationEventPublisher.publishEvent(new PriceBarPersistedEvent(history));
         } catch (Exception error) {
             log.warn("Price history kaydedilemedi: {}", error.getMessage());
         }
@@ -1,10 +1,8 @@
 package com.mintstack.finance.service.strategy;
 
-import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.service.market.PriceBars;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 /**
  * Moving Average Crossover Stratejisi
  * Kısa vadeli SMA uzun vadeli SMA'yı yukarı keserse AL
@@ -36,25 +34,24 @@ public class MovingAverageCrossoverStrategy implements TradingStrategy {
     }
 
     @Override
-    public Signal generateSignal(PriceHistory currentData, 
-                                  List<PriceHistory> historicalData,
+    public Signal generateSignal(PriceBars history,
+                                  int currentIndex,
                                   int currentPosition) {
-        if (historicalData.size() < longPeriod) {
+        if (currentIndex + 1 < longPeriod) {
             return Signal.HOLD; // Yeterli veri yok
         }
 
         // Mevcut SMA değerlerini hesapla
-        double currentShortSMA = calculateSMA(historicalData, shortPeriod);
-        double currentLongSMA = calculateSMA(historicalData, longPeriod);
+        double currentShortSMA = calculateSMA(history, currentIndex, shortPeriod);
+        double currentLongSMA = calculateSMA(history, currentIndex, longPeriod);
 
         // Önceki gün SMA değerlerini hesapla
-        List<PriceHistory> previousHistory = historicalData.subList(0, historicalData.size() - 1);
-        if (previousHistory.size() < longPeriod) {
+        if (currentIndex < longPeriod) {
             return Signal.HOLD;
         }
         
-        double prevShortSMA = calculateSMA(previousHistory, shortPeriod);
-        double prevLongSMA = calculateSMA(previousHistory, longPeriod);
+        double prevShortSMA = calculateSMA(history, currentIndex - 1, shortPeriod);
+        double prevLongSMA = calculateSMA(history, currentIndex - 1, longPeriod);
 
         // Crossover kontrolü
         boolean goldenCross = prevShortSMA <= prevLongSMA && currentShortSMA > currentLongSMA;
@@ -74,15 +71,15 @@ public class MovingAverageCrossoverStrategy implements TradingStrategy {
         return longPeriod + 10; // Biraz buffer
     }
 
-    private double calculateSMA(List<PriceHistory> history, int period) {
-        if (history.size() < period) {
+    private double calculateSMA(PriceBars history, int endIndex, int period) {
+        if (endIndex + 1 < period) {
             return 0;
         }
         
         double sum = 0;
-        int startIndex = history.size() - period;
-        for (int i = startIndex; i < history.size(); i++) {
-            sum += history.get(i).getClosePrice().doubleValue();
+        int startIndex = endIndex - period + 1;
+        for (int i = startIndex; i <= endIndex; i++) {
+            sum += history.close(i);
         }
         return sum / period;
     }
@@ -1,10 +1,8 @@
 package com.mintstack.finance.service.strategy;
 
-import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.service.market.PriceBars;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 /**
  * RSI Stratejisi
  * RSI &lt; 30 (Oversold) ise AL
@@ -39,14 +37,14 @@ public class RSIStrategy implements TradingStrategy {
     }
 
     @Override
-    public Signal generateSignal(PriceHistory currentData, 
-                                  List<PriceHistory> historicalData,
+    public Signal generateSignal(PriceBars history,
+                                  int currentIndex,
                                   int currentPosition) {
-        if (historicalData.size() < period + 1) {
+        if (currentIndex < period) {
             return Signal.HOLD;
         }
 
-        double rsi = calculateRSI(historicalData);
+        double rsi = calculateRSI(history, currentIndex);
 
         if (rsi < oversoldThreshold && currentPosition <= 0) {
             return Signal.BUY; // Oversold - Alım fırsatı
@@ -62,18 +60,17 @@ public class RSIStrategy implements TradingStrategy {
         return period + 10;
     }
 
-    private double calculateRSI(List<PriceHistory> history) {
-        if (history.size() < period + 1) {
+    private double calculateRSI(PriceBars history, int endIndex) {
+        if (endIndex < period) {
             return 50.0; // Varsayılan nötr
         }
 
         double gains = 0;
         double losses = 0;
 
-        int startIndex = history.size() - period - 1;
-        for (int i = startIndex + 1; i < history.size(); i++) {
-            double change = history.get(i).getClosePrice().doubleValue() 
-                          - history.get(i - 1).getClosePrice().doubleValue();
+        int startIndex = endIndex - period;
+        for (int i = startIndex + 1; i <= endIndex; i++) {
+            double change = history.close(i) - history.close(i - 1);
             if (change > 0) {
                 gains += change;
             } else {
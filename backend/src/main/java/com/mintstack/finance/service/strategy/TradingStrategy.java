@@ -1,6 +1,6 @@
 package com.mintstack.finance.service.strategy;
 
-import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.service.market.PriceBars;
 
 /**
  * Trading stratejisi interface'i
@@ -21,13 +21,13 @@ public interface TradingStrategy {
     /**
      * Mevcut fiyat verisine göre sinyal üretir
      * 
-     * @param currentData Mevcut gün verileri
-     * @param historicalData Geçmiş veriler (en yeni son sırada)
+     * @param history Fiyat serisi (en yeni son sırada)
+     * @param currentIndex Mevcut günün indeksi; yalnızca 0..currentIndex arası veriler kullanılmalı
      * @param currentPosition Mevcut pozisyon (pozitif: long, negatif: short, 0: yok)
      * @return Trading sinyali
      */
-    Signal generateSignal(PriceHistory currentData, 
-                          java.util.List<PriceHistory> historicalData,
+    Signal generateSignal(PriceBars history,
+                          int currentIndex,
                           int currentPosition);
     
     /**
@@ -0,0 +1,98 @@
+-- Monthly range partitions for price_history.
+-- Range reads on price_date prune to the months they cover, and retention detaches and drops whole
+-- partitions instead of bulk-deleting rows. A default partition catches dates outside the created months
+-- until ensure_price_history_partition() moves them into their own month.
+
+CREATE TABLE price_history_partitioned (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    instrument_id UUID NOT NULL,
+    open_price DECIMAL(18, 6),
+    high_price DECIMAL(18, 6),
+    low_price DECIMAL(18, 6),
+    close_price DECIMAL(18, 6) NOT NULL,
+    adj_close DECIMAL(18, 6),
+    volume BIGINT,
+    price_date DATE NOT NULL
+) PARTITION BY RANGE (price_date);
+
+CREATE TABLE price_history_default PARTITION OF price_history_partitioned DEFAULT;
+
+DO $$
+DECLARE
+    v_month DATE;
+    v_last DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date;
+BEGIN
+    -- Anything older than fifteen years stays in the default partition rather than spawning hundreds of months
+    SELECT GREATEST(
+               COALESCE(date_trunc('month', MIN(price_date))::date, date_trunc('month', CURRENT_DATE)::date),
+               (date_trunc('month', CURRENT_DATE) - INTERVAL '15 years')::date
+           )
+      INTO v_month
+      FROM price_history;
+
+    WHILE v_month <= v_last LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF price_history_partitioned FOR VALUES FROM (%L) TO (%L)',
+            'price_history_p' || to_char(v_month, 'YYYYMM'),
+            v_month,
+            (v_month + INTERVAL '1 month')::date
+        );
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+END
+$$;
+
+INSERT INTO price_history_partitioned (
+    id, instrument_id, open_price, high_price, low_price, close_price, adj_close, volume, price_date
+)
+SELECT id, instrument_id, open_price, high_price, low_price, close_price, adj_close, volume, price_date
+FROM price_history;
+
+DROP TABLE price_history;
+
+ALTER TABLE price_history_partitioned RENAME TO price_history;
+
+-- Primary and unique keys on a partitioned table must include the partition key.
+ALTER TABLE price_history
+    ADD CONSTRAINT price_history_pkey PRIMARY KEY (id, price_date);
+
+ALTER TABLE price_history
+    ADD CONSTRAINT price_history_instrument_id_price_date_key UNIQUE (instrument_id, price_date);
+
+ALTER TABLE price_history
+    ADD CONSTRAINT price_history_instrument_id_fkey
+    FOREIGN KEY (instrument_id) REFERENCES instruments(id) ON DELETE CASCADE;
+
+-- The unique key already serves instrument_id and (instrument_id, price_date) lookups.
+CREATE INDEX idx_price_history_date ON price_history(price_date DESC);
+
+-- Creates the month's partition if it is missing, moving any rows for that month out of the default
+-- partition first. The bound CHECK lets ATTACH skip its validation scan.
+CREATE OR REPLACE FUNCTION ensure_price_history_partition(p_month DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::date;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name TEXT := 'price_history_p' || to_char(date_trunc('month', p_month), 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE price_history INCLUDING DEFAULTS)', v_name);
+    EXECUTE format(
+        'ALTER TABLE %I ADD CONSTRAINT %I CHECK (price_date >= %L AND price_date < %L)',
+        v_name, v_name || '_bound', v_start, v_end
+    );
+    EXECUTE format(
+        'WITH moved AS (DELETE FROM price_history_default WHERE price_date >= %L AND price_date < %L RETURNING *) '
+            || 'INSERT INTO %I SELECT * FROM moved',
+        v_start, v_end, v_name
+    );
+    EXECUTE format(
+        'ALTER TABLE price_history ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_start, v_end
+    );
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_name, v_name || '_bound');
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,7 @@
+-- Instrument search is served from the in-memory InstrumentSearchIndex, so nothing filters instruments
+-- with LIKE any more and the trigram indexes only slow down catalog writes. The news and users trigram
+-- indexes from V31 still back their LIKE searches and stay.
+
+DROP INDEX IF EXISTS idx_instruments_symbol_trgm;
+
+DROP INDEX IF EXISTS idx_instruments_name_trgm;
@@ -0,0 +1,112 @@
+package com.mintstack.finance.config;
+
+import com.mintstack.finance.dto.cache.StockPriceData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and encode/decode time of the compact codec against the Jackson serializer for a
+ * simulation-sized set of stock prices. Opt-in: {@code mvn test -Dtest=CompactRedisSerializerBenchmarkTest
+ * -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CompactRedisSerializerBenchmarkTest {
+
+    private static final int SYMBOLS = 500;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 1000;
+
+    @Test
+    void compareWithJson() {
+        GenericJackson2JsonRedisSerializer json = CompactRedisSerializerTest.jsonSerializer();
+        CompactRedisSerializer compact = new CompactRedisSerializer(json, PriceCacheCodecs.defaults());
+        List<StockPriceData> prices = prices();
+
+        Result jsonResult = measure(json, prices);
+        Result compactResult = measure(compact, prices);
+
+        System.out.printf("%-8s %12s %14s %14s%n", "codec", "bytes/value", "encode ns/val", "decode ns/val");
+        System.out.printf("%-8s %12.1f %14.1f %14.1f%n", "json", jsonResult.bytesPerValue(),
+            jsonResult.encodeNanosPerValue(), jsonResult.decodeNanosPerValue());
+        System.out.printf("%-8s %12.1f %14.1f %14.1f%n", "compact", compactResult.bytesPerValue(),
+            compactResult.encodeNanosPerValue(), compactResult.decodeNanosPerValue());
+
+        assertThat(compactResult.bytesPerValue()).isLessThan(jsonResult.bytesPerValue());
+    }
+
+    private static Result measure(RedisSerializer<Object> serializer, List<StockPriceData> prices) {
+        List<byte[]> payloads = new ArrayList<>(prices.size());
+        for (StockPriceData price : prices) {
+            payloads.add(serializer.serialize(price));
+        }
+        long bytes = payloads.stream().mapToLong(payload -> payload.length).sum();
+
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += encodeAll(serializer, prices) + decodeAll(serializer, payloads);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += encodeAll(serializer, prices);
+            long encoded = System.nanoTime();
+            sink += decodeAll(serializer, payloads);
+            decodeNanos += System.nanoTime() - encoded;
+            encodeNanos += encoded - start;
+        }
+        assertThat(sink).isPositive();
+        double values = (double) MEASURED_ROUNDS * prices.size();
+        return new Result((double) bytes / prices.size(), encodeNanos / values, decodeNanos / values);
+    }
+
+    private static long encodeAll(RedisSerializer<Object> serializer, List<StockPriceData> prices) {
+        long total = 0;
+        for (StockPriceData price : prices) {
+            total += serializer.serialize(price).length;
+        }
+        return total;
+    }
+
+    private static long decodeAll(RedisSerializer<Object> serializer, List<byte[]> payloads) {
+        long total = 0;
+        for (byte[] payload : payloads) {
+            total += serializer.deserialize(payload) != null ? 1 : 0;
+        }
+        return total;
+    }
+
+    private static List<StockPriceData> prices() {
+        List<StockPriceData> prices = new ArrayList<>(SYMBOLS);
+        LocalDateTime now = LocalDateTime.of(2026, 3, 2, 10, 30);
+        for (int i = 0; i < SYMBOLS; i++) {
+            BigDecimal price = BigDecimal.valueOf(10_000 + i * 37L, 2);
+            prices.add(StockPriceData.builder()
+                .symbol("SYM" + i)
+                .name("Simulated Company " + i)
+                .price(price)
+                .open(price.subtract(BigDecimal.ONE))
+                .high(price.add(BigDecimal.ONE))
+                .low(price.subtract(BigDecimal.TEN))
+                .volume(1_000_000L + i)
+                .changePercent(BigDecimal.valueOf(i % 700 - 350, 2))
+                .sector("Sector " + i % 12)
+                .timestamp(now.plusSeconds(i))
+                .previousClose(price.subtract(BigDecimal.ONE))
+                .build());
+        }
+        return prices;
+    }
+
+    private record Result(double bytesPerValue, double encodeNanosPerValue, double decodeNanosPerValue) {
+    }
+}
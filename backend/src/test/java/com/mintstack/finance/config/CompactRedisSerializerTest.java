@@ -0,0 +1,116 @@
+package com.mintstack.finance.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mintstack.finance.dto.cache.SimulationConfigData;
+import com.mintstack.finance.dto.cache.StockPriceData;
+import com.mintstack.finance.dto.response.CurrencyRateResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = jsonSerializer();
+    private final CompactRedisSerializer serializer = new CompactRedisSerializer(json, PriceCacheCodecs.defaults());
+
+    @Test
+    void serialize_ShouldRoundTripStockPriceInSmallerPayloadThanJson() {
+        StockPriceData stock = stock();
+
+        byte[] compact = serializer.serialize(stock);
+
+        assertThat(compact[0]).isEqualTo(CompactRedisSerializer.MARKER);
+        assertThat(serializer.deserialize(compact)).isEqualTo(stock);
+        assertThat(compact.length * 3).isLessThan(json.serialize(stock).length);
+    }
+
+    @Test
+    void serialize_ShouldRoundTripListsOfOneRegisteredType() {
+        CurrencyRateResponse usd = CurrencyRateResponse.builder()
+            .id(UUID.randomUUID())
+            .currencyCode("USD")
+            .currencyName("ABD DOLARI")
+            .buyingRate(new BigDecimal("34.1520"))
+            .sellingRate(new BigDecimal("34.2135"))
+            .changePercent(new BigDecimal("-0.42"))
+            .source("TCMB")
+            .fetchedAt(LocalDateTime.of(2026, 3, 2, 10, 30, 0, 123_456_000))
+            .samples(12)
+            .build();
+        // Unscaled value wider than a long takes the variable-length path
+        CurrencyRateResponse gold = CurrencyRateResponse.builder()
+            .currencyCode("XAU")
+            .sellingRate(new BigDecimal("123456789012345678901234.5678"))
+            .build();
+
+        Object restored = serializer.deserialize(serializer.serialize(List.of(usd, gold)));
+
+        assertThat(restored).isEqualTo(List.of(usd, gold));
+    }
+
+    @Test
+    void deserialize_ShouldFallBackToJsonForOtherTypesAndLegacyEntries() {
+        SimulationConfigData config = SimulationConfigData.builder().isEnabled(true).updateIntervalSeconds(5).build();
+        StockPriceData stock = stock();
+
+        assertThat(serializer.deserialize(serializer.serialize(config))).isEqualTo(config);
+        assertThat(serializer.deserialize(json.serialize(stock))).isEqualTo(stock);
+        assertThat(serializer.deserialize(serializer.serialize(new ArrayList<>()))).isEqualTo(List.of());
+    }
+
+    @Test
+    void serialize_ShouldWriteJsonButStillReadCompactPayloadsWhenCompactWritesAreOff() {
+        CompactRedisSerializer readOnly = new CompactRedisSerializer(json, PriceCacheCodecs.defaults(), false);
+        StockPriceData stock = stock();
+
+        byte[] written = readOnly.serialize(stock);
+
+        assertThat(written).isEqualTo(json.serialize(stock));
+        assertThat(readOnly.deserialize(written)).isEqualTo(stock);
+        assertThat(readOnly.deserialize(serializer.serialize(stock))).isEqualTo(stock);
+    }
+
+    @Test
+    void deserialize_ShouldTreatNewerSchemaVersionAsMiss() {
+        byte[] payload = serializer.serialize(stock());
+        payload[2] = (byte) 99;
+
+        assertThat(serializer.deserialize(payload)).isNull();
+    }
+
+    private static StockPriceData stock() {
+        return StockPriceData.builder()
+            .symbol("THYAO")
+            .name("Turk Hava Yollari")
+            .price(new BigDecimal("145.30"))
+            .open(new BigDecimal("143.10"))
+            .high(new BigDecimal("146.00"))
+            .low(new BigDecimal("142.85"))
+            .volume(18_250_000L)
+            .changePercent(new BigDecimal("1.54"))
+            .sector("Ulastirma")
+            .timestamp(LocalDateTime.of(2026, 3, 2, 10, 30, 5))
+            .previousClose(new BigDecimal("143.10"))
+            .build();
+    }
+
+    static GenericJackson2JsonRedisSerializer jsonSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.activateDefaultTyping(
+            new RedisConfig().secureRedisTypeValidator(),
+            ObjectMapper.DefaultTyping.NON_FINAL,
+            JsonTypeInfo.As.PROPERTY
+        );
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+}
@@ -0,0 +1,152 @@
+package com.mintstack.finance.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightTest {
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight(redisTemplateProvider);
+        ReflectionTestUtils.setField(singleFlight, "pollIntervalMs", 1L);
+        lenient().when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void execute_ShouldRunLoaderOnceForConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CompletableFuture<String> release = new CompletableFuture<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("rates", () -> {
+                loads.incrementAndGet();
+                leaderStarted.countDown();
+                return release.join();
+            }));
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<String> follower = executor.submit(() -> singleFlight.execute("rates", () -> {
+                loads.incrementAndGet();
+                return "second";
+            }));
+
+            // Give the follower time to join the running computation
+            Thread.sleep(50);
+            release.complete("first");
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldLoadDirectlyWhenComputationOutlastsMaxWait() throws Exception {
+        ReflectionTestUtils.setField(singleFlight, "maxWaitMs", 20L);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CompletableFuture<String> release = new CompletableFuture<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("rates", () -> {
+                leaderStarted.countDown();
+                return release.join();
+            }));
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(singleFlight.execute("rates", () -> "direct")).isEqualTo("direct");
+
+            release.complete("first");
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeClustered_ShouldComputeAfterClusterWait() {
+        ReflectionTestUtils.setField(singleFlight, "clusterWaitMs", 30L);
+        when(valueOperations.setIfAbsent(eq(SingleFlight.LOCK_PREFIX + "news"), anyString(), any(Duration.class)))
+                .thenReturn(false);
+        when(redisTemplate.hasKey(SingleFlight.LOCK_PREFIX + "news")).thenReturn(true);
+        AtomicInteger polls = new AtomicInteger();
+
+        String result = singleFlight.executeClustered("news", () -> "computed here", () -> {
+            polls.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(result).isEqualTo("computed here");
+        assertThat(polls.get()).isLessThan(10);
+    }
+
+    @Test
+    void executeClustered_ShouldUseResultOfNodeHoldingTheLock() {
+        when(valueOperations.setIfAbsent(eq(SingleFlight.LOCK_PREFIX + "news"), anyString(), any(Duration.class)))
+                .thenReturn(false);
+        when(redisTemplate.hasKey(SingleFlight.LOCK_PREFIX + "news")).thenReturn(true);
+        AtomicInteger polls = new AtomicInteger();
+
+        String result = singleFlight.executeClustered(
+                "news",
+                () -> "computed here",
+                () -> polls.incrementAndGet() < 3 ? Optional.empty() : Optional.of("computed elsewhere"));
+
+        assertThat(result).isEqualTo("computed elsewhere");
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyString());
+    }
+
+    @Test
+    void executeClustered_ShouldComputeAndReleaseLockWhenAcquired() {
+        when(valueOperations.setIfAbsent(eq(SingleFlight.LOCK_PREFIX + "news"), anyString(), any(Duration.class)))
+                .thenReturn(true);
+
+        String result = singleFlight.executeClustered("news", () -> "computed here", Optional::empty);
+
+        assertThat(result).isEqualTo("computed here");
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(SingleFlight.LOCK_PREFIX + "news")), anyString());
+    }
+}
@@ -0,0 +1,146 @@
+package com.mintstack.finance.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TwoTierCacheManagerTest {
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    // Stands in for the shared Redis tier
+    private ConcurrentMapCacheManager remote;
+
+    private TwoTierCacheManager nodeA;
+    private TwoTierCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager("currencyRates");
+        lenient().when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        nodeA = newNode();
+        nodeB = newNode();
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadsFromLocalTier() {
+        remote.getCache("currencyRates").put("latest", "v1");
+        Cache cache = nodeA.getCache("currencyRates");
+
+        assertThat(cache.get("latest").get()).isEqualTo("v1");
+        remote.getCache("currencyRates").evict("latest");
+
+        assertThat(cache.get("latest").get()).isEqualTo("v1");
+        assertThat(cache.get("latest", String.class)).isEqualTo("v1");
+    }
+
+    @Test
+    void put_ShouldInvalidateOtherNodesLocalTier() {
+        Cache cacheA = nodeA.getCache("currencyRates");
+        Cache cacheB = nodeB.getCache("currencyRates");
+        cacheA.put("latest", "v1");
+        assertThat(cacheB.get("latest").get()).isEqualTo("v1");
+
+        cacheA.put("latest", "v2");
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(2)).convertAndSend(eq(TwoTierCacheManager.CHANNEL), messages.capture());
+        assertThat(cacheB.get("latest").get()).isEqualTo("v1");
+
+        nodeB.onInvalidation(messages.getValue());
+
+        assertThat(cacheB.get("latest").get()).isEqualTo("v2");
+    }
+
+    @Test
+    void clear_ShouldDropEveryLocalEntryOnOtherNodesButIgnoreOwnMessages() {
+        Cache cacheA = nodeA.getCache("currencyRates");
+        Cache cacheB = nodeB.getCache("currencyRates");
+        cacheA.put("usd", "v1");
+        cacheA.put("eur", "v1");
+        cacheB.get("usd");
+        cacheB.get("eur");
+
+        cacheA.clear();
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, times(3)).convertAndSend(eq(TwoTierCacheManager.CHANNEL), messages.capture());
+        String clearMessage = messages.getValue();
+
+        nodeA.getCache("currencyRates").put("usd", "v2");
+        nodeA.onInvalidation(clearMessage);
+        assertThat(cacheA.get("usd").get()).isEqualTo("v2");
+
+        nodeB.onInvalidation(clearMessage);
+        assertThat(cacheB.get("usd").get()).isEqualTo("v2");
+        assertThat(cacheB.get("eur")).isNull();
+    }
+
+    @Test
+    void getWithLoader_ShouldLoadOnceAndPublishToRemoteTier() {
+        TwoTierCacheManager node = newNode(new SingleFlight(redisTemplateProvider));
+        Cache cache = node.getCache("currencyRates");
+        AtomicInteger loads = new AtomicInteger();
+
+        String first = cache.get("latest", () -> "v" + loads.incrementAndGet());
+        String second = nodeB.getCache("currencyRates").get("latest", () -> "v" + loads.incrementAndGet());
+
+        assertThat(first).isEqualTo("v1");
+        assertThat(second).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(remote.getCache("currencyRates").get("latest").get()).isEqualTo("v1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void get_ShouldShareLocalEntriesAsReadOnlyCollections() {
+        nodeA.getCache("currencyRates").put("latest", new ArrayList<>(List.of("USD", "EUR")));
+
+        Object first = nodeB.getCache("currencyRates").get("latest").get();
+        Object second = nodeB.getCache("currencyRates").get("latest").get();
+
+        assertThat(second).isSameAs(first);
+        assertThatThrownBy(() -> ((List<Object>) first).add("GBP"))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private TwoTierCacheManager newNode() {
+        return newNode(null);
+    }
+
+    private TwoTierCacheManager newNode(SingleFlight singleFlight) {
+        return new TwoTierCacheManager(
+            remote,
+            Map.of("currencyRates", Duration.ofMinutes(5)),
+            Duration.ofMinutes(5),
+            100,
+            Duration.ofMinutes(1),
+            redisTemplateProvider,
+            false,
+            singleFlight
+        );
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -77,7 +78,7 @@ class AnalysisControllerTest {
         maResult.put("ma25", BigDecimal.valueOf(48.75));
         maResult.put("ma99", BigDecimal.valueOf(45.00));
 
-        when(analysisService.getMultipleMovingAverages(eq("SISE"), any(LocalDate.class))).thenReturn(maResult);
+        when(analysisService.getMultipleMovingAverages(eq("SISE"), any(LocalDate.class), isNull(), eq("SMA"))).thenReturn(maResult);
 
         // When & Then
         mockMvc.perform(get("/api/v1/analysis/ma/multiple/{symbol}", "SISE")
@@ -4,26 +4,45 @@ import com.mintstack.finance.config.CorsProperties;
 import com.mintstack.finance.config.RateLimitConfig;
 import com.mintstack.finance.config.SecurityConfig;
 import com.mintstack.finance.dto.response.CurrencyRateResponse;
+import com.mintstack.finance.dto.response.InstrumentResponse;
+import com.mintstack.finance.entity.Instrument.InstrumentType;
 import com.mintstack.finance.service.MarketDataRefreshService;
 import com.mintstack.finance.service.MarketDataService;
+import com.mintstack.finance.service.market.PriceHistoryExportService;
+import com.mintstack.finance.service.market.PriceHistoryExportService.ExportFormat;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(MarketDataController.class)
@@ -40,6 +59,9 @@ class MarketDataControllerTest {
     @MockitoBean
     private MarketDataRefreshService marketDataRefreshService;
 
+    @MockitoBean
+    private PriceHistoryExportService priceHistoryExportService;
+
     @MockitoBean
     private RateLimitConfig rateLimitConfig;
 
@@ -95,4 +117,84 @@ class MarketDataControllerTest {
         mockMvc.perform(get("/api/v1/market/crypto"))
             .andExpect(status().isNotFound());
     }
+
+    @Test
+    void getStocks_ShouldReturnETag() throws Exception {
+        stubStockListing();
+
+        mockMvc.perform(get("/api/v1/market/stocks"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"v1\""))
+            .andExpect(jsonPath("$.data[0].symbol").value("THYAO"))
+            .andExpect(jsonPath("$.pagination.totalElements").value(1));
+    }
+
+    @Test
+    void getStocks_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        stubStockListing();
+
+        mockMvc.perform(get("/api/v1/market/stocks").header("If-None-Match", "\"v1\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"v1\""));
+    }
+
+    @Test
+    void getStocks_WithCursor_ShouldReturnNextCursor() throws Exception {
+        InstrumentResponse thyao = InstrumentResponse.builder().symbol("THYAO").type(InstrumentType.STOCK).build();
+        when(marketDataService.getInstrumentsByType(
+            eq(InstrumentType.STOCK), any(), eq("GARAN"), isNull(), isNull(), any()))
+            .thenReturn(Optional.of(new SliceImpl<>(List.of(thyao), PageRequest.of(0, 1), true)));
+
+        mockMvc.perform(get("/api/v1/market/stocks").param("cursor", "GARAN").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].symbol").value("THYAO"))
+            .andExpect(jsonPath("$.pagination.hasNext").value(true))
+            .andExpect(jsonPath("$.pagination.hasPrevious").value(true))
+            .andExpect(jsonPath("$.pagination.nextCursor").value("THYAO"));
+    }
+
+    @Test
+    void exportStockHistory_ShouldStreamCsvAttachment() throws Exception {
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        LocalDate end = LocalDate.of(2026, 1, 31);
+        UUID instrumentId = UUID.randomUUID();
+        when(priceHistoryExportService.resolveInstrumentId("THYAO")).thenReturn(instrumentId);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            out.write("date,open,high,low,close,adjustedClose,volume\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        }).when(priceHistoryExportService).export(eq(instrumentId), eq(start), eq(end), eq(ExportFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/market/stocks/THYAO/history/export")
+                .param("startDate", "2026-01-01")
+                .param("endDate", "2026-01-31")
+                .param("format", "csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"THYAO-history.csv\""))
+            .andExpect(content().string("date,open,high,low,close,adjustedClose,volume\n"));
+    }
+
+    @Test
+    void exportStockHistory_ShouldRejectUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/market/stocks/THYAO/history/export").param("format", "xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubStockListing() {
+        InstrumentResponse thyao = InstrumentResponse.builder().symbol("THYAO").type(InstrumentType.STOCK).build();
+        when(marketDataService.getInstrumentsByType(
+            eq(InstrumentType.STOCK), any(), isNull(), isNull(), isNull(), any()))
+            .thenAnswer(invocation -> {
+                Predicate<String> notModified = invocation.getArgument(5, Predicate.class);
+                return notModified.test("v1")
+                    ? Optional.empty()
+                    : Optional.of(new PageImpl<>(List.of(thyao), PageRequest.of(0, 20), 1));
+            });
+    }
 }
@@ -5,8 +5,8 @@ import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.UserApiConfig;
 import com.mintstack.finance.entity.UserApiConfig.ApiProvider;
 import com.mintstack.finance.entity.UserDataPreference.DataType;
-import com.mintstack.finance.repository.UserApiConfigRepository;
 import com.mintstack.finance.repository.UserDataPreferenceRepository;
+import com.mintstack.finance.service.ApiProviderRegistry;
 import com.mintstack.finance.service.external.AlphaVantageClient;
 import com.mintstack.finance.service.external.FinnhubClient;
 import com.mintstack.finance.service.external.YahooFinanceClient;
@@ -38,7 +38,7 @@ class MarketDataProviderResolverTest {
     private FinnhubClient finnhubClient;
 
     @Mock
-    private UserApiConfigRepository userApiConfigRepository;
+    private ApiProviderRegistry apiProviderRegistry;
 
     @Mock
     private UserDataPreferenceRepository preferenceRepository;
@@ -4,7 +4,11 @@ import com.mintstack.finance.dto.request.CompareInstrumentsRequest;
 import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.exception.BadRequestException;
 import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.RangeBarView;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,14 +18,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +42,9 @@ class AnalysisServiceTest {
     @Mock
     private PriceHistoryRepository priceHistoryRepository;
 
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+
     @InjectMocks
     private AnalysisService analysisService;
 
@@ -112,8 +124,9 @@ class AnalysisServiceTest {
     @Test
     void getMovingAverage_ShouldCalculateSmaAndSignal() {
         LocalDate endDate = LocalDate.now();
-        when(priceHistoryRepository.findBySymbolAndDateRange(eq("THYAO"), any(LocalDate.class), eq(endDate)))
-            .thenReturn(priceHistoryList);
+        when(instrumentRepository.findBySymbolAndIsSimulated("THYAO", true)).thenReturn(Optional.of(testInstrument));
+        when(priceHistoryStore.between(eq(testInstrument.getId()), any(LocalDate.class), eq(endDate)))
+            .thenReturn(PriceBars.of(priceHistoryList));
 
         Map<String, Object> result = analysisService.getMovingAverage("THYAO", 3, endDate, "SMA");
 
@@ -125,8 +138,9 @@ class AnalysisServiceTest {
 
     @Test
     void getTrendAnalysis_ShouldReturnUptrend() {
-        when(priceHistoryRepository.findBySymbolAndDateRange(eq("THYAO"), any(LocalDate.class), any(LocalDate.class)))
-            .thenReturn(priceHistoryList);
+        when(instrumentRepository.findBySymbolAndIsSimulated("THYAO", true)).thenReturn(Optional.of(testInstrument));
+        when(priceHistoryStore.between(eq(testInstrument.getId()), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(PriceBars.of(priceHistoryList));
 
         Map<String, Object> result = analysisService.getTrendAnalysis("THYAO", 2);
 
@@ -138,25 +152,92 @@ class AnalysisServiceTest {
 
     @Test
     @SuppressWarnings("unchecked")
-    void compareInstruments_ShouldNormalizeSeries() {
+    void getMultipleMovingAverages_ShouldComputeRequestedPeriods() {
+        LocalDate endDate = LocalDate.now();
+        when(instrumentRepository.findBySymbolAndIsSimulated("THYAO", true)).thenReturn(Optional.of(testInstrument));
+        when(priceHistoryStore.between(eq(testInstrument.getId()), eq(endDate.minusDays(94)), eq(endDate)))
+            .thenReturn(PriceBars.of(priceHistoryList));
+
+        Map<String, Object> result = analysisService.getMultipleMovingAverages("THYAO", endDate, List.of(2, 3), "wma");
+
+        assertThat(result.get("type")).isEqualTo("WMA");
+        assertThat(result.get("periods")).isEqualTo(List.of(2, 3));
+        List<Map<String, Object>> series = (List<Map<String, Object>>) result.get("data");
+        assertThat(series).hasSize(1);
+        assertThat((BigDecimal) series.get(0).get("ma2")).isEqualByComparingTo("99.333333");
+        assertThat((BigDecimal) series.get(0).get("ma3")).isEqualByComparingTo("98.500000");
+        assertThatThrownBy(() -> analysisService.getMultipleMovingAverages("THYAO", endDate, List.of(0), "SMA"))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compareInstruments_ShouldNormalizeSeriesFromOneBulkLoad() {
+        Instrument real = Instrument.builder().symbol("GARAN").name("Garanti").isSimulated(false).build();
+        real.setId(UUID.randomUUID());
+        Instrument simulated = Instrument.builder().symbol("GARAN").name("Garanti (sim)").isSimulated(true).build();
+        simulated.setId(UUID.randomUUID());
         CompareInstrumentsRequest request = CompareInstrumentsRequest.builder()
-            .symbols(List.of("THYAO"))
+            .symbols(List.of("THYAO", "GARAN", "MISSING"))
             .startDate(LocalDate.now().minusDays(2))
             .endDate(LocalDate.now())
             .build();
 
-        when(priceHistoryRepository.findBySymbolAndDateRange(eq("THYAO"), any(LocalDate.class), any(LocalDate.class)))
-            .thenReturn(priceHistoryList);
-        when(instrumentRepository.findBySymbolAndIsSimulated("THYAO", true)).thenReturn(Optional.of(testInstrument));
+        when(instrumentRepository.findBySymbolIn(List.of("THYAO", "GARAN", "MISSING")))
+            .thenReturn(List.of(testInstrument, real, simulated));
+        List<RangeBarView> rows = new ArrayList<>();
+        priceHistoryList.forEach(history -> rows.add(rangeBar(testInstrument, history)));
+        rows.add(rangeBar(simulated, createPriceHistory(LocalDate.now().minusDays(1), BigDecimal.valueOf(40))));
+        rows.add(rangeBar(simulated, createPriceHistory(LocalDate.now(), BigDecimal.valueOf(50))));
+        when(priceHistoryRepository.findRangeBarsByInstrumentIds(anyList(), eq(request.getStartDate()),
+            eq(request.getEndDate()))).thenReturn(rows);
 
         Map<String, Object> result = analysisService.compareInstruments(request);
 
         List<Map<String, Object>> instruments = (List<Map<String, Object>>) result.get("instruments");
-        assertThat(instruments).hasSize(1);
-        assertThat(instruments.get(0).get("symbol")).isEqualTo("THYAO");
+        assertThat(instruments).extracting(data -> data.get("symbol")).containsExactly("THYAO", "GARAN");
+        assertThat(instruments.get(1).get("name")).isEqualTo("Garanti (sim)");
 
         List<Map<String, Object>> series = (List<Map<String, Object>>) instruments.get(0).get("data");
         assertThat(series).hasSize(3);
         assertThat((BigDecimal) series.get(0).get("value")).isEqualByComparingTo("0.000000");
+        List<Map<String, Object>> garan = (List<Map<String, Object>>) instruments.get(1).get("data");
+        assertThat((BigDecimal) garan.get(1).get("value")).isEqualByComparingTo("25.000000");
+        verify(priceHistoryRepository).findRangeBarsByInstrumentIds(anyList(), any(LocalDate.class), any(LocalDate.class));
+        verifyNoInteractions(priceHistoryStore);
+    }
+
+    private static RangeBarView rangeBar(Instrument instrument, PriceHistory history) {
+        return new RangeBarView() {
+            @Override
+            public UUID getInstrumentId() {
+                return instrument.getId();
+            }
+
+            @Override
+            public LocalDate getPriceDate() {
+                return history.getPriceDate();
+            }
+
+            @Override
+            public BigDecimal getOpenPrice() {
+                return history.getOpenPrice();
+            }
+
+            @Override
+            public BigDecimal getHighPrice() {
+                return history.getHighPrice();
+            }
+
+            @Override
+            public BigDecimal getLowPrice() {
+                return history.getLowPrice();
+            }
+
+            @Override
+            public BigDecimal getClosePrice() {
+                return history.getClosePrice();
+            }
+        };
     }
 }
@@ -0,0 +1,88 @@
+package com.mintstack.finance.service;
+
+import com.mintstack.finance.entity.UserApiConfig;
+import com.mintstack.finance.entity.UserApiConfig.ApiProvider;
+import com.mintstack.finance.repository.UserApiConfigRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiProviderRegistryTest {
+
+    @Mock
+    private UserApiConfigRepository userApiConfigRepository;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ApiProviderRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ApiProviderRegistry(userApiConfigRepository, redisTemplateProvider);
+    }
+
+    @Test
+    void isActive_ShouldLoadProviderOnce() {
+        when(userApiConfigRepository.findByProviderAndIsActiveTrue(ApiProvider.TCMB))
+            .thenReturn(List.of(config(ApiProvider.TCMB, "PUBLIC")));
+
+        assertThat(registry.isActive(ApiProvider.TCMB)).isTrue();
+        assertThat(registry.isActive(ApiProvider.TCMB)).isTrue();
+        assertThat(registry.getActiveConfig(ApiProvider.TCMB).getApiKey()).isEqualTo("PUBLIC");
+
+        verify(userApiConfigRepository, times(1)).findByProviderAndIsActiveTrue(ApiProvider.TCMB);
+    }
+
+    @Test
+    void getActiveConfig_ShouldReturnDetachedCopies() {
+        when(userApiConfigRepository.findByProviderAndIsActiveTrue(ApiProvider.FINNHUB))
+            .thenReturn(List.of(config(ApiProvider.FINNHUB, "secret-key")));
+
+        UserApiConfig first = registry.getActiveConfig(ApiProvider.FINNHUB);
+        first.setApiKey("mutated");
+
+        assertThat(registry.getActiveConfig(ApiProvider.FINNHUB).getApiKey()).isEqualTo("secret-key");
+        assertThat(registry.getActiveConfig(ApiProvider.ALPHA_VANTAGE)).isNull();
+    }
+
+    @Test
+    void invalidate_ShouldReloadAndPublishToCluster() {
+        when(userApiConfigRepository.findByProviderAndIsActiveTrue(ApiProvider.YAHOO_FINANCE))
+            .thenReturn(List.of(config(ApiProvider.YAHOO_FINANCE, "PUBLIC")))
+            .thenReturn(List.of());
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+
+        assertThat(registry.isActive(ApiProvider.YAHOO_FINANCE)).isTrue();
+        registry.invalidate();
+
+        assertThat(registry.isActive(ApiProvider.YAHOO_FINANCE)).isFalse();
+        verify(redisTemplate).convertAndSend(ApiProviderRegistry.CHANNEL, "all");
+    }
+
+    private UserApiConfig config(ApiProvider provider, String apiKey) {
+        UserApiConfig config = UserApiConfig.builder()
+            .provider(provider)
+            .apiKey(apiKey)
+            .isActive(true)
+            .build();
+        config.setId(UUID.randomUUID());
+        return config;
+    }
+}
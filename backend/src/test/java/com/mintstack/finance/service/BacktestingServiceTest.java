@@ -4,7 +4,8 @@ import com.mintstack.finance.dto.response.BacktestResult;
 import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.repository.InstrumentRepository;
-import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -33,7 +34,7 @@ class BacktestingServiceTest {
     private InstrumentRepository instrumentRepository;
 
     @Mock
-    private PriceHistoryRepository priceHistoryRepository;
+    private PriceHistoryStore priceHistoryStore;
 
     private BacktestingService backtestingService;
     private Instrument testInstrument;
@@ -41,7 +42,7 @@ class BacktestingServiceTest {
 
     @BeforeEach
     void setUp() {
-        backtestingService = new BacktestingService(instrumentRepository, priceHistoryRepository);
+        backtestingService = new BacktestingService(instrumentRepository, priceHistoryStore);
         
         instrumentId = UUID.randomUUID();
         testInstrument = Instrument.builder()
@@ -61,8 +62,8 @@ class BacktestingServiceTest {
         
         // Trend oluşturan fiyat verisi (önce yükseliş, sonra düşüş)
         List<PriceHistory> priceHistory = createTrendingPriceHistory(400, 100.0);
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                eq(instrumentId), any(), any())).thenReturn(priceHistory);
+        when(priceHistoryStore.between(
+                eq(instrumentId), any(), any())).thenReturn(PriceBars.of(priceHistory));
 
         // When
         BacktestResult result = backtestingService.runBacktest(
@@ -87,8 +88,8 @@ class BacktestingServiceTest {
         when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
         
         List<PriceHistory> priceHistory = createVolatilePriceHistory(100, 100.0);
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                eq(instrumentId), any(), any())).thenReturn(priceHistory);
+        when(priceHistoryStore.between(
+                eq(instrumentId), any(), any())).thenReturn(PriceBars.of(priceHistory));
 
         // When
         BacktestResult result = backtestingService.runBacktest(
@@ -161,8 +162,8 @@ class BacktestingServiceTest {
         when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
         
         List<PriceHistory> priceHistory = createTrendingPriceHistory(300, 100.0);
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                eq(instrumentId), any(), any())).thenReturn(priceHistory);
+        when(priceHistoryStore.between(
+                eq(instrumentId), any(), any())).thenReturn(PriceBars.of(priceHistory));
 
         // When
         BacktestResult result = backtestingService.runBacktest(
@@ -1,7 +1,9 @@
 package com.mintstack.finance.service;
 
+import com.mintstack.finance.config.SingleFlight;
 import com.mintstack.finance.dto.response.CurrencyRateResponse;
 import com.mintstack.finance.dto.response.InstrumentResponse;
+import com.mintstack.finance.dto.response.PriceHistoryResponse;
 import com.mintstack.finance.entity.CurrencyRate;
 import com.mintstack.finance.entity.CurrencyRate.RateSource;
 import com.mintstack.finance.entity.Instrument;
@@ -11,13 +13,21 @@ import com.mintstack.finance.entity.UserApiConfig;
 import com.mintstack.finance.entity.UserApiConfig.ApiProvider;
 import com.mintstack.finance.exception.ResourceNotFoundException;
 import com.mintstack.finance.repository.CurrencyRateRepository;
+import com.mintstack.finance.repository.CurrencyRateRepository.RatePointView;
 import com.mintstack.finance.repository.InstrumentRepository;
 import com.mintstack.finance.repository.NewsRepository;
 import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.HistoryPointView;
 import com.mintstack.finance.repository.UserApiConfigRepository;
 import com.mintstack.finance.repository.UserDataPreferenceRepository;
+import com.mintstack.finance.service.market.CacheRefreshAheadService;
 import com.mintstack.finance.service.market.InstrumentMetricsService;
+import com.mintstack.finance.service.market.InstrumentSearchIndex;
 import com.mintstack.finance.service.market.MarketDataMaintenanceService;
+import com.mintstack.finance.service.market.QuoteSnapshotStore;
+import com.mintstack.finance.service.market.RangeChangeCache;
+import com.mintstack.finance.service.market.SeriesDownsampler.Resolution;
+import com.mintstack.finance.service.market.Week52RangeIndex;
 import com.mintstack.finance.service.external.YahooFinanceClient;
 import com.mintstack.finance.service.simulation.SimulatedIndex;
 import com.mintstack.finance.service.simulation.SimulatedStock;
@@ -28,20 +38,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -54,6 +70,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
@@ -77,6 +94,9 @@ class MarketDataServiceTest {
     @Mock
     private NewsRepository newsRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Mock
     private UserApiConfigRepository userApiConfigRepository;
 
@@ -89,7 +109,15 @@ class MarketDataServiceTest {
     @Mock
     private SimulationDataService simulationDataService;
 
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private CacheRefreshAheadService cacheRefreshAheadService;
+
     private MarketDataService marketDataService;
+    private RangeChangeCache rangeChangeCache;
+    private QuoteSnapshotStore quoteSnapshotStore;
 
     private CurrencyRate usdRate;
     private CurrencyRate eurRate;
@@ -128,26 +156,69 @@ class MarketDataServiceTest {
                             .toList();
                 });
 
+        lenient().when(priceHistoryRepository.findRecentAtOrBeforeByInstrumentIds(
+                        anyList(),
+                        any(LocalDate.class),
+                        anyInt()
+                ))
+                .thenAnswer(invocation -> {
+                    List<UUID> instrumentIds = invocation.getArgument(0);
+                    LocalDate date = invocation.getArgument(1);
+                    int limit = invocation.getArgument(2);
+                    return instrumentIds.stream()
+                            .flatMap(instrumentId -> priceHistoryRepository
+                                    .findByInstrumentIdAndPriceDateLessThanEqualOrderByPriceDateDesc(
+                                            instrumentId,
+                                            date,
+                                            PageRequest.of(0, limit)
+                                    )
+                                    .stream())
+                            .toList();
+                });
+        lenient().when(priceHistoryRepository.findEarliestByInstrumentIds(anyList()))
+                .thenAnswer(invocation -> {
+                    List<UUID> instrumentIds = invocation.getArgument(0);
+                    return instrumentIds.stream()
+                            .flatMap(instrumentId -> priceHistoryRepository
+                                    .findByInstrumentIdOrderByPriceDateAsc(
+                                            instrumentId,
+                                            PageRequest.of(0, 1)
+                                    )
+                                    .stream())
+                            .toList();
+                });
+
+        Week52RangeIndex week52RangeIndex = new Week52RangeIndex(priceHistoryRepository);
+        quoteSnapshotStore = new QuoteSnapshotStore(priceHistoryRepository, week52RangeIndex);
         MarketDataMaintenanceService marketDataMaintenanceService = new MarketDataMaintenanceService(
             instrumentRepository,
             currencyRateRepository,
             priceHistoryRepository,
-            newsRepository
+            newsRepository,
+            applicationEventPublisher
         );
         InstrumentMetricsService instrumentMetricsService = new InstrumentMetricsService(
             priceHistoryRepository,
-            yahooFinanceClient
+            yahooFinanceClient,
+            quoteSnapshotStore,
+            week52RangeIndex
         );
+        rangeChangeCache = new RangeChangeCache(redisTemplateProvider);
+        rangeChangeCache.init();
         marketDataService = new MarketDataService(
             instrumentRepository,
             currencyRateRepository,
             priceHistoryRepository,
-            userApiConfigRepository,
+            new ApiProviderRegistry(userApiConfigRepository, redisTemplateProvider),
             userDataPreferenceRepository,
             yahooFinanceClient,
             simulationDataService,
             marketDataMaintenanceService,
-            instrumentMetricsService
+            instrumentMetricsService,
+            new InstrumentSearchIndex(instrumentRepository, simulationDataService),
+            new SingleFlight(redisTemplateProvider),
+            cacheRefreshAheadService,
+            rangeChangeCache
         );
 
         // Setup test currency rates
@@ -228,6 +299,37 @@ class MarketDataServiceTest {
         verify(currencyRateRepository, times(1)).findLatestBySource(RateSource.TCMB);
     }
 
+    @Test
+    @DisplayName("getLatestCurrencyRates should resolve an arbitrary range with set-based lookups and reuse it")
+    void getLatestCurrencyRates_ShouldBatchArbitraryRangeAndCacheIt() {
+        LocalDate start = LocalDate.now().minusDays(12);
+        LocalDate end = LocalDate.now().minusDays(4);
+        CurrencyRate usdEnd = historicalRate("USD", "33.00", end);
+        CurrencyRate eurEnd = historicalRate("EUR", "36.00", end);
+        CurrencyRate usdStart = historicalRate("USD", "30.00", start);
+        when(currencyRateRepository.findLatestBySource(RateSource.TCMB))
+                .thenReturn(Arrays.asList(usdRate, eurRate));
+        when(currencyRateRepository.findLatestAtOrBeforeByCurrencyCodes(
+                any(), eq("TCMB"), eq(end.atTime(23, 59, 59)), eq(BigDecimal.ZERO)))
+                .thenReturn(List.of(usdEnd, eurEnd));
+        when(currencyRateRepository.findLatestAtOrBeforeByCurrencyCodes(
+                any(), eq("TCMB"), eq(start.atTime(23, 59, 59)), eq(BigDecimal.ZERO)))
+                .thenReturn(List.of(usdStart));
+        when(currencyRateRepository.findEarliestAtOrAfterByCurrencyCodes(
+                eq(java.util.Set.of("EUR")), eq("TCMB"), eq(start.atStartOfDay()), eq(BigDecimal.ZERO)))
+                .thenReturn(List.of(historicalRate("EUR", "40.00", start.plusDays(1))));
+
+        List<CurrencyRateResponse> first = marketDataService.getLatestCurrencyRates(start, end);
+        List<CurrencyRateResponse> second = marketDataService.getLatestCurrencyRates(start, end);
+
+        assertThat(first.get(0).getChangePercent()).isEqualByComparingTo("10.000000");
+        assertThat(first.get(1).getChangePercent()).isEqualByComparingTo("-10.000000");
+        assertThat(second).isSameAs(first);
+        verify(currencyRateRepository, times(1)).findLatestBySource(RateSource.TCMB);
+        verify(currencyRateRepository, never()).findEarliestByCurrencyCodes(any(), any(), any());
+        verify(currencyRateRepository, never()).findPreviousRatesByRateDate(any(), any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("getCurrencyRate should return specific currency rate")
     void getCurrencyRate_ShouldReturnSpecificRate() {
@@ -303,9 +405,9 @@ class MarketDataServiceTest {
         LocalDate startDate = LocalDate.now().minusDays(7);
         LocalDate endDate = LocalDate.now();
         
-        when(currencyRateRepository.findHistoryByCurrencyCode(
+        when(currencyRateRepository.streamHistoryPoints(
                 eq("USD"), eq(RateSource.TCMB), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Arrays.asList(usdRate));
+                .thenReturn(Stream.of(ratePoint(LocalDateTime.now().minusHours(1), "32.70")));
 
         List<CurrencyRateResponse> result = marketDataService.getCurrencyHistory("USD", startDate, endDate);
 
@@ -313,6 +415,80 @@ class MarketDataServiceTest {
         assertThat(result.get(0).getCurrencyCode()).isEqualTo("USD");
     }
 
+    @Test
+    @DisplayName("getCurrencyHistory should aggregate streamed rows into OHLC buckets")
+    void getCurrencyHistory_ShouldAggregateIntoBuckets() {
+        LocalDate day = LocalDate.now().minusDays(1);
+        LocalDateTime base = day.atTime(10, 0);
+        when(currencyRateRepository.streamHistoryPoints(
+                eq("USD"), eq(RateSource.TCMB), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(
+                        ratePoint(base.plusMinutes(1), "32.00"),
+                        ratePoint(base.plusMinutes(20), "32.50"),
+                        ratePoint(base.plusMinutes(40), "31.80"),
+                        ratePoint(base.plusMinutes(59), "32.10"),
+                        ratePoint(base.plusHours(1).plusMinutes(5), "32.421")
+                ));
+
+        List<CurrencyRateResponse> result = marketDataService.getCurrencyHistory(
+                "USD", day, day, Resolution.HOUR, null);
+
+        assertThat(result).hasSize(2);
+        CurrencyRateResponse first = result.get(0);
+        assertThat(first.getFetchedAt()).isEqualTo(base);
+        assertThat(first.getOpen()).isEqualByComparingTo("32.00");
+        assertThat(first.getHigh()).isEqualByComparingTo("32.50");
+        assertThat(first.getLow()).isEqualByComparingTo("31.80");
+        assertThat(first.getClose()).isEqualByComparingTo("32.10");
+        assertThat(first.getSamples()).isEqualTo(4);
+        assertThat(result.get(1).getChangeBaseRate()).isEqualByComparingTo("32.10");
+        assertThat(result.get(1).getChangePercent()).isEqualByComparingTo("1.00");
+        verify(currencyRateRepository, never()).findPreviousRatesByRateDate(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getCurrencyHistory should downsample raw rows before mapping them")
+    void getCurrencyHistory_ShouldDownsampleRawRows() {
+        LocalDate day = LocalDate.now().minusDays(1);
+        List<RatePointView> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String sellingRate = new BigDecimal("32.10").add(BigDecimal.valueOf(i % 7)).toPlainString();
+            rows.add(ratePoint(day.atTime(9, 0).plusMinutes(i), sellingRate));
+        }
+        when(currencyRateRepository.streamHistoryPoints(
+                eq("USD"), eq(RateSource.TCMB), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(rows.stream());
+
+        List<CurrencyRateResponse> result = marketDataService.getCurrencyHistory("USD", day, day, null, 10);
+
+        assertThat(result).hasSize(10);
+        assertThat(result.get(0).getFetchedAt()).isEqualTo(rows.get(0).getFetchedAt());
+        assertThat(result.get(9).getFetchedAt()).isEqualTo(rows.get(49).getFetchedAt());
+        assertThat(result.get(0).getOpen()).isNull();
+        // Previous-date rates come from the streamed series; only the first point's predecessor is queried
+        assertThat(result.get(9).getChangeBaseRate()).isEqualByComparingTo(rows.get(48).getSellingRate());
+        verify(currencyRateRepository, times(1)).findPreviousRatesByRateDate(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getPriceHistory should downsample streamed bar projections")
+    void getPriceHistory_ShouldDownsampleStreamedBars() {
+        LocalDate start = LocalDate.now().minusDays(30);
+        List<HistoryPointView> rows = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            rows.add(historyPoint(start.plusDays(i), new BigDecimal("100").add(BigDecimal.valueOf(i % 5))));
+        }
+        when(priceHistoryRepository.streamBySymbolAndDateRange("THYAO", start, start.plusDays(29)))
+                .thenReturn(rows.stream());
+
+        List<PriceHistoryResponse> result = marketDataService.getPriceHistory("THYAO", start, start.plusDays(29), 5);
+
+        assertThat(result).hasSize(5);
+        assertThat(result.get(0).getDate()).isEqualTo(start);
+        assertThat(result.get(4).getDate()).isEqualTo(start.plusDays(29));
+        assertThat(result.get(4).getClose()).isEqualByComparingTo("104");
+    }
+
     // ===================== INSTRUMENT TESTS =====================
 
     @Test
@@ -343,6 +519,76 @@ class MarketDataServiceTest {
         assertThat(result.getTotalElements()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("getInstrumentsByType with cursor should read the next keyset page")
+    void getInstrumentsByType_WithCursor_ShouldReadKeysetPage() {
+        Instrument tuprsStock = Instrument.builder()
+                .symbol("TUPRS")
+                .name("Tupras")
+                .type(InstrumentType.STOCK)
+                .currentPrice(new BigDecimal("150.00"))
+                .isActive(true)
+                .build();
+        tuprsStock.setId(UUID.randomUUID());
+        when(instrumentRepository.findByTypeAndIsActiveTrueAndIsSimulatedAndSymbolGreaterThanOrderBySymbolAsc(
+                InstrumentType.STOCK, false, "GARAN", PageRequest.of(0, 2)))
+                .thenReturn(List.of(thyaoStock, tuprsStock));
+
+        Slice<InstrumentResponse> result = marketDataService.getInstrumentsByType(
+                InstrumentType.STOCK, PageRequest.of(0, 1), "GARAN", null, null, version -> false).orElseThrow();
+
+        assertThat(result).isNotInstanceOf(Page.class);
+        assertThat(result.getContent()).extracting(InstrumentResponse::getSymbol).containsExactly("THYAO");
+        assertThat(result.hasNext()).isTrue();
+        verify(instrumentRepository, never())
+                .findByTypeAndIsActiveTrueAndIsSimulated(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("getInstrumentsByType should skip the page build when the client version is current")
+    void getInstrumentsByType_WithCurrentVersion_ShouldReturnNotModified() {
+        Pageable pageable = PageRequest.of(0, 10);
+        thyaoStock.setVersion(1L);
+        when(instrumentRepository.findByTypeAndIsActiveTrueAndIsSimulated(InstrumentType.STOCK, false, pageable))
+                .thenReturn(new PageImpl<>(List.of(thyaoStock), pageable, 1));
+        List<String> versions = new ArrayList<>();
+
+        Optional<Slice<InstrumentResponse>> first = marketDataService.getInstrumentsByType(
+                InstrumentType.STOCK, pageable, null, null, null, version -> !versions.add(version));
+        Optional<Slice<InstrumentResponse>> unchanged = marketDataService.getInstrumentsByType(
+                InstrumentType.STOCK, pageable, null, null, null, versions.get(0)::equals);
+        thyaoStock.setVersion(2L);
+        Optional<Slice<InstrumentResponse>> changed = marketDataService.getInstrumentsByType(
+                InstrumentType.STOCK, pageable, null, null, null, versions.get(0)::equals);
+
+        assertThat(first).isPresent();
+        assertThat(first.get()).isInstanceOf(Page.class);
+        assertThat(unchanged).isEmpty();
+        assertThat(changed).isPresent();
+    }
+
+    @Test
+    @DisplayName("getInstrumentsByType should change the page version when a bar is persisted")
+    void getInstrumentsByType_WithNewBar_ShouldChangeVersion() {
+        Pageable pageable = PageRequest.of(0, 10);
+        thyaoStock.setVersion(1L);
+        when(instrumentRepository.findByTypeAndIsActiveTrueAndIsSimulated(InstrumentType.STOCK, false, pageable))
+                .thenReturn(new PageImpl<>(List.of(thyaoStock), pageable, 1));
+        List<String> versions = new ArrayList<>();
+
+        marketDataService.getInstrumentsByType(
+                InstrumentType.STOCK, pageable, null, null, null, version -> !versions.add(version));
+        quoteSnapshotStore.record(PriceHistory.builder()
+                .instrument(thyaoStock)
+                .priceDate(istanbulDate())
+                .closePrice(new BigDecimal("301.00"))
+                .build());
+        Optional<Slice<InstrumentResponse>> changed = marketDataService.getInstrumentsByType(
+                InstrumentType.STOCK, pageable, null, null, null, versions.get(0)::equals);
+
+        assertThat(changed).isPresent();
+    }
+
     @Test
     @DisplayName("getInstrumentsByType with pagination should derive stock change from price history")
     void getInstrumentsByType_WithPagination_ShouldDeriveStockChangeFromPriceHistory() {
@@ -443,8 +689,9 @@ class MarketDataServiceTest {
                 .thenReturn(new PageImpl<>(List.of(thyaoStock), pageable, 1));
         when(priceHistoryRepository.findByInstrumentIdOrderByPriceDateDesc(eq(thyaoStock.getId()), any(Pageable.class)))
                 .thenReturn(List.of(todayHistory));
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDate(thyaoStock.getId(), today))
-                .thenReturn(Optional.of(todayHistory));
+        when(priceHistoryRepository.findByInstrumentIdAndPriceDateLessThanEqualOrderByPriceDateDesc(
+                eq(thyaoStock.getId()), eq(today), any(Pageable.class)))
+                .thenReturn(List.of(todayHistory));
 
         Page<InstrumentResponse> result = marketDataService.getInstrumentsByType(
                 InstrumentType.STOCK,
@@ -492,8 +739,9 @@ class MarketDataServiceTest {
                 .thenReturn(new PageImpl<>(List.of(thyaoStock), pageable, 1));
         when(priceHistoryRepository.findByInstrumentIdOrderByPriceDateDesc(eq(thyaoStock.getId()), any(Pageable.class)))
                 .thenReturn(List.of(todayHistory, previousHistory));
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDate(thyaoStock.getId(), today))
-                .thenReturn(Optional.of(todayHistory));
+        when(priceHistoryRepository.findByInstrumentIdAndPriceDateLessThanEqualOrderByPriceDateDesc(
+                eq(thyaoStock.getId()), eq(today), any(Pageable.class)))
+                .thenReturn(List.of(todayHistory, previousHistory));
         when(priceHistoryRepository.findByInstrumentIdAndPriceDateLessThanEqualOrderByPriceDateDesc(
                 eq(thyaoStock.getId()), eq(today.minusDays(1)), any(Pageable.class)))
                 .thenReturn(List.of(previousHistory));
@@ -513,6 +761,54 @@ class MarketDataServiceTest {
         assertThat(response.getChangeEndDate()).isEqualTo(today);
     }
 
+    @Test
+    @DisplayName("getInstrumentsByType with 1D range should resolve opening prices for the whole page in one query")
+    void getInstrumentsByType_WithOneDayRange_ShouldResolveOpeningPricesInBatch() {
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDate today = LocalDate.now();
+        List<Instrument> stocks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Instrument stock = Instrument.builder()
+                    .symbol("STK" + i)
+                    .name("Stock " + i)
+                    .type(InstrumentType.STOCK)
+                    .exchange("BIST")
+                    .currency("TRY")
+                    .currentPrice(new BigDecimal("110.000000"))
+                    .previousClose(new BigDecimal("100.000000"))
+                    .isActive(true)
+                    .build();
+            stock.setId(UUID.randomUUID());
+            stocks.add(stock);
+            PriceHistory todayHistory = PriceHistory.builder()
+                    .instrument(stock)
+                    .priceDate(today)
+                    .openPrice(new BigDecimal("105.000000"))
+                    .closePrice(new BigDecimal("110.000000"))
+                    .build();
+            lenient().when(priceHistoryRepository.findByInstrumentIdAndPriceDateLessThanEqualOrderByPriceDateDesc(
+                    eq(stock.getId()), eq(today), any(Pageable.class)))
+                    .thenReturn(List.of(todayHistory));
+        }
+
+        when(instrumentRepository.findByTypeAndIsActiveTrueAndIsSimulated(InstrumentType.STOCK, false, pageable))
+                .thenReturn(new PageImpl<>(stocks, pageable, stocks.size()));
+
+        Page<InstrumentResponse> result = marketDataService.getInstrumentsByType(
+                InstrumentType.STOCK,
+                pageable,
+                today,
+                today
+        );
+
+        assertThat(result.getContent()).hasSize(3);
+        assertThat(result.getContent())
+                .allSatisfy(response -> assertThat(response.getChangeBasePrice())
+                        .isEqualByComparingTo(new BigDecimal("105.000000")));
+        verify(priceHistoryRepository, times(1)).findRecentAtOrBeforeByInstrumentIds(anyList(), eq(today), eq(2));
+        verify(priceHistoryRepository, never()).findByInstrumentIdAndPriceDate(any(UUID.class), any(LocalDate.class));
+    }
+
     @Test
     @DisplayName("getInstrumentsByType with pagination should not fabricate stock change for sparse flat history")
     void getInstrumentsByType_WithPagination_ShouldNotFabricateStockChangeForSparseFlatHistory() {
@@ -700,8 +996,8 @@ class MarketDataServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<Instrument> instrumentPage = new PageImpl<>(Arrays.asList(thyaoStock), pageable, 1);
         
-        when(instrumentRepository.searchBySymbolOrName("THY", pageable))
-                .thenReturn(instrumentPage);
+        when(instrumentRepository.findCatalogEntries()).thenReturn(List.of(catalogEntry(thyaoStock)));
+        when(instrumentRepository.findAllById(List.of(thyaoStock.getId()))).thenReturn(instrumentPage.getContent());
 
         Page<InstrumentResponse> result = marketDataService.searchInstruments("THY", pageable);
 
@@ -724,11 +1020,12 @@ class MarketDataServiceTest {
                 .isActive(true)
                 .isSimulated(true)
                 .build();
-        Page<Instrument> instrumentPage = new PageImpl<>(List.of(simulatedStock), pageable, 1);
+        simulatedStock.setId(UUID.randomUUID());
 
         when(simulationDataService.isSimulationEnabled()).thenReturn(true);
-        when(instrumentRepository.searchBySymbolOrNameAndSimulationMode("SIM", true, pageable))
-                .thenReturn(instrumentPage);
+        when(instrumentRepository.findCatalogEntries())
+                .thenReturn(List.of(catalogEntry(thyaoStock), catalogEntry(simulatedStock)));
+        when(instrumentRepository.findAllById(List.of(simulatedStock.getId()))).thenReturn(List.of(simulatedStock));
 
         Page<InstrumentResponse> result = marketDataService.searchInstruments("SIM", pageable);
 
@@ -741,10 +1038,8 @@ class MarketDataServiceTest {
     @DisplayName("searchInstruments by type should use real search when simulation is disabled")
     void searchInstrumentsByType_ShouldUseRealSearch_WhenSimulationDisabled() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Instrument> instrumentPage = new PageImpl<>(List.of(thyaoStock), pageable, 1);
-
-        when(instrumentRepository.searchByTypeAndQuery(InstrumentType.STOCK, "THY", pageable))
-                .thenReturn(instrumentPage);
+        when(instrumentRepository.findCatalogEntries()).thenReturn(List.of(catalogEntry(thyaoStock)));
+        when(instrumentRepository.findAllById(List.of(thyaoStock.getId()))).thenReturn(List.of(thyaoStock));
 
         Page<InstrumentResponse> result = marketDataService.searchInstruments(InstrumentType.STOCK, "THY", pageable);
 
@@ -949,6 +1244,7 @@ class MarketDataServiceTest {
         marketDataService.saveCurrencyRates(rates);
 
         verify(currencyRateRepository, times(1)).saveAll(rates);
+        verify(cacheRefreshAheadService).refreshCurrencyRates();
     }
 
     @Test
@@ -1015,4 +1311,103 @@ class MarketDataServiceTest {
     void service_ShouldBeInjected() {
         assertThat(marketDataService).isNotNull();
     }
+
+    private InstrumentRepository.CatalogEntryView catalogEntry(Instrument instrument) {
+        return new InstrumentRepository.CatalogEntryView() {
+            @Override
+            public UUID getId() {
+                return instrument.getId();
+            }
+
+            @Override
+            public String getSymbol() {
+                return instrument.getSymbol();
+            }
+
+            @Override
+            public String getName() {
+                return instrument.getName();
+            }
+
+            @Override
+            public InstrumentType getType() {
+                return instrument.getType();
+            }
+
+            @Override
+            public Boolean getIsActive() {
+                return instrument.getIsActive();
+            }
+
+            @Override
+            public Boolean getIsSimulated() {
+                return instrument.getIsSimulated();
+            }
+        };
+    }
+
+    private HistoryPointView historyPoint(LocalDate date, BigDecimal close) {
+        HistoryPointView point = mock(HistoryPointView.class);
+        lenient().when(point.getPriceDate()).thenReturn(date);
+        lenient().when(point.getClosePrice()).thenReturn(close);
+        return point;
+    }
+
+    private RatePointView ratePoint(LocalDateTime fetchedAt, String sellingRate) {
+        UUID id = UUID.randomUUID();
+        return new RatePointView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getFetchedAt() {
+                return fetchedAt;
+            }
+
+            @Override
+            public LocalDateTime getRateDate() {
+                return fetchedAt;
+            }
+
+            @Override
+            public String getCurrencyName() {
+                return "US Dollar";
+            }
+
+            @Override
+            public BigDecimal getBuyingRate() {
+                return new BigDecimal(sellingRate).subtract(new BigDecimal("0.10"));
+            }
+
+            @Override
+            public BigDecimal getSellingRate() {
+                return new BigDecimal(sellingRate);
+            }
+
+            @Override
+            public BigDecimal getEffectiveBuyingRate() {
+                return null;
+            }
+
+            @Override
+            public BigDecimal getEffectiveSellingRate() {
+                return null;
+            }
+        };
+    }
+
+    private static CurrencyRate historicalRate(String code, String sellingRate, LocalDate date) {
+        CurrencyRate rate = CurrencyRate.builder()
+                .currencyCode(code)
+                .buyingRate(new BigDecimal(sellingRate))
+                .sellingRate(new BigDecimal(sellingRate))
+                .source(RateSource.TCMB)
+                .fetchedAt(date.atTime(15, 30))
+                .rateDate(date.atStartOfDay())
+                .build();
+        rate.setId(UUID.randomUUID());
+        return rate;
+    }
 }
@@ -6,7 +6,8 @@ import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.repository.InstrumentRepository;
 import com.mintstack.finance.repository.PortfolioRepository;
-import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -38,7 +39,7 @@ class MonteCarloServiceTest {
     private InstrumentRepository instrumentRepository;
 
     @Mock
-    private PriceHistoryRepository priceHistoryRepository;
+    private PriceHistoryStore priceHistoryStore;
 
     @Mock
     private PortfolioRepository portfolioRepository;
@@ -52,7 +53,7 @@ class MonteCarloServiceTest {
     void setUp() {
         testExecutor = Executors.newFixedThreadPool(2);
         monteCarloService = new MonteCarloService(
-                instrumentRepository, priceHistoryRepository, portfolioRepository, testExecutor);
+                instrumentRepository, priceHistoryStore, portfolioRepository, testExecutor);
         
         instrumentId = UUID.randomUUID();
         testInstrument = Instrument.builder()
@@ -71,8 +72,8 @@ class MonteCarloServiceTest {
         when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
         
         List<PriceHistory> priceHistory = createPriceHistory(300, 280.0, 0.02);
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                eq(instrumentId), any(), any())).thenReturn(priceHistory);
+        when(priceHistoryStore.between(
+                eq(instrumentId), any(), any())).thenReturn(PriceBars.of(priceHistory));
 
         // When
         MonteCarloResult result = monteCarloService.runSimulation("THYAO", 30, 1000, 0.95);
@@ -93,8 +94,8 @@ class MonteCarloServiceTest {
         when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
         
         List<PriceHistory> priceHistory = createPriceHistory(300, 280.0, 0.02);
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                eq(instrumentId), any(), any())).thenReturn(priceHistory);
+        when(priceHistoryStore.between(
+                eq(instrumentId), any(), any())).thenReturn(PriceBars.of(priceHistory));
 
         // When
         VaRResult result = monteCarloService.calculateVaR("THYAO", 10, 0.95);
@@ -125,8 +126,8 @@ class MonteCarloServiceTest {
     void testRunSimulation_HistogramHas20Bins() {
         // Given
         when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                eq(instrumentId), any(), any())).thenReturn(createPriceHistory(100, 280.0, 0.02));
+        when(priceHistoryStore.between(
+                eq(instrumentId), any(), any())).thenReturn(PriceBars.of(createPriceHistory(100, 280.0, 0.02)));
 
         // When
         MonteCarloResult result = monteCarloService.runSimulation("THYAO", 10, 500, 0.95);
@@ -145,8 +146,8 @@ class MonteCarloServiceTest {
     void testRunSimulation_PercentilesInCorrectOrder() {
         // Given
         when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
-        when(priceHistoryRepository.findByInstrumentIdAndPriceDateBetweenOrderByPriceDateAsc(
-                eq(instrumentId), any(), any())).thenReturn(createPriceHistory(300, 280.0, 0.03));
+        when(priceHistoryStore.between(
+                eq(instrumentId), any(), any())).thenReturn(PriceBars.of(createPriceHistory(300, 280.0, 0.03)));
 
         // When
         MonteCarloResult result = monteCarloService.runSimulation("THYAO", 30, 5000, 0.95);
@@ -5,6 +5,7 @@ import com.mintstack.finance.dto.request.CreatePortfolioRequest;
 import com.mintstack.finance.dto.request.ExecutePortfolioTradeRequest;
 import com.mintstack.finance.dto.response.PortfolioResponse;
 import com.mintstack.finance.dto.response.PortfolioTransactionResponse;
+import com.mintstack.finance.dto.response.PriceUpdateMessage;
 import com.mintstack.finance.entity.Instrument;
 import com.mintstack.finance.entity.Portfolio;
 import com.mintstack.finance.entity.PortfolioItem;
@@ -22,6 +23,7 @@ import com.mintstack.finance.repository.PriceAlertRepository;
 import com.mintstack.finance.service.simulation.SimulationDataService;
 import com.mintstack.finance.service.portfolio.PortfolioFinancialRulesService;
 import com.mintstack.finance.service.portfolio.PortfolioOrderExecutionService;
+import com.mintstack.finance.service.portfolio.PortfolioValuationIndex;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +35,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -48,6 +52,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -83,7 +88,11 @@ class PortfolioServiceTest {
     @Mock
     private PriceAlertRepository priceAlertRepository;
 
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
     private PortfolioService portfolioService;
+    private PortfolioValuationIndex valuationIndex;
 
     private User testUser;
     private Portfolio testPortfolio;
@@ -100,6 +109,8 @@ class PortfolioServiceTest {
             priceHistoryRepository,
             financialRulesService
         );
+        valuationIndex = new PortfolioValuationIndex(redisTemplateProvider);
+        valuationIndex.init();
         portfolioService = new PortfolioService(
             portfolioRepository,
             portfolioItemRepository,
@@ -110,7 +121,8 @@ class PortfolioServiceTest {
             userService,
             simulationDataService,
             financialRulesService,
-            orderExecutionService
+            orderExecutionService,
+            valuationIndex
         );
 
         keycloakId = "test-keycloak-id";
@@ -218,6 +230,39 @@ class PortfolioServiceTest {
             .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    void getPortfolio_ShouldServeRepeatReadsFromValuationIndexAndApplyPriceTicks() {
+        PortfolioItem item = PortfolioItem.builder()
+            .portfolio(testPortfolio)
+            .instrument(testInstrument)
+            .quantity(BigDecimal.TEN)
+            .purchasePrice(BigDecimal.valueOf(100))
+            .purchaseDate(LocalDate.now())
+            .build();
+        item.setId(UUID.randomUUID());
+        testPortfolio.setCashBalance(new BigDecimal("500"));
+        testPortfolio.getItems().add(item);
+        UUID portfolioId = testPortfolio.getId();
+        when(userService.getUserByKeycloakId(keycloakId)).thenReturn(testUser);
+        when(portfolioRepository.findByIdAndUserIdWithItems(portfolioId, testUser.getId()))
+            .thenReturn(Optional.of(testPortfolio));
+        when(portfolioTransactionRepository.sumRealizedProfitLossByPortfolioId(portfolioId))
+            .thenReturn(new BigDecimal("25"));
+
+        assertThat(portfolioService.getPortfolio(keycloakId, portfolioId).getPositionValue())
+            .isEqualByComparingTo("1000");
+        valuationIndex.onPriceUpdate(PriceUpdateMessage.builder()
+            .type("STOCK").symbol("THYAO").price(new BigDecimal("112.5")).build());
+        PortfolioResponse result = portfolioService.getPortfolio(keycloakId, portfolioId);
+
+        assertThat(result.getPositionValue()).isEqualByComparingTo("1125");
+        assertThat(result.getNetAssetValue()).isEqualByComparingTo("1625");
+        assertThat(result.getUnrealizedProfitLoss()).isEqualByComparingTo("125");
+        assertThat(result.getProfitLoss()).isEqualByComparingTo("150");
+        assertThat(result.getItems().get(0).getCurrentPrice()).isEqualByComparingTo("112.5");
+        verify(portfolioRepository, times(1)).findByIdAndUserIdWithItems(portfolioId, testUser.getId());
+    }
+
     @Test
     void createPortfolio_ShouldCreateNewPortfolio() {
         // Given
@@ -1,5 +1,6 @@
 package com.mintstack.finance.service;
 
+import com.mintstack.finance.dto.cache.CurrencyRateData;
 import com.mintstack.finance.dto.cache.SimulationConfigData;
 import com.mintstack.finance.dto.cache.StockPriceData;
 import com.mintstack.finance.entity.SimulationConfig;
@@ -9,19 +10,36 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.Duration;
-
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class PriceCacheServiceTest {
@@ -90,4 +108,108 @@ class PriceCacheServiceTest {
         verify(valueOperations).set(eq("simulation:config"), any(SimulationConfigData.class));
         verify(redisTemplate).expire("simulation:config", Duration.ofSeconds(600));
     }
+
+    @Test
+    void flushTick_ShouldWriteEachAssetClassWithOneHashSetAndOneSetAdd() {
+        // Given
+        runPipelinedCallbacksAgainstTemplate();
+        StockPriceData thyao = StockPriceData.builder().symbol("THYAO").price(new BigDecimal("145.30")).build();
+        StockPriceData garan = StockPriceData.builder().symbol("GARAN").price(new BigDecimal("98.10")).build();
+        CurrencyRateData usd = CurrencyRateData.builder().code("USD").midRate(new BigDecimal("34.20")).build();
+        PriceCacheService.TickBatch tick = new PriceCacheService.TickBatch()
+                .stock("THYAO", thyao)
+                .stock("GARAN", garan)
+                .currency("USD", usd);
+
+        // When
+        priceCacheService.flushTick(tick);
+
+        // Then
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(hashOperations).putAll("simulation:stock-prices", Map.of("THYAO", thyao, "GARAN", garan));
+        verify(setOperations).add("simulation:stock-symbols", "THYAO", "GARAN");
+        verify(hashOperations).putAll("simulation:currency-rates", Map.of("USD", usd));
+        verify(setOperations).add("simulation:currency-codes", "USD");
+        verify(redisTemplate).expire("simulation:stock-prices", Duration.ofSeconds(300));
+        verify(redisTemplate).expire("simulation:currency-codes", Duration.ofSeconds(300));
+        verify(hashOperations, never()).putAll(eq("simulation:index-values"), any());
+        verify(hashOperations, never()).put(anyString(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveStockPrice_ShouldServeFromLocalStoreDuringOutageAndReplayAfterProbe() {
+        // Given
+        runPipelinedCallbacksAgainstTemplate();
+        Instant start = Instant.parse("2026-03-02T07:00:00Z");
+        priceCacheService.setClockForTesting(Clock.fixed(start, ZoneOffset.UTC));
+        StockPriceData first = StockPriceData.builder().symbol("THYAO").price(new BigDecimal("145.30")).build();
+        StockPriceData second = StockPriceData.builder().symbol("THYAO").price(new BigDecimal("146.00")).build();
+        doThrow(new RedisConnectionFailureException("connection refused"))
+                .when(hashOperations).put("simulation:stock-prices", "THYAO", first);
+
+        // When
+        priceCacheService.saveStockPrice("THYAO", first);
+        priceCacheService.saveStockPrice("THYAO", second);
+
+        // Then
+        assertThat(priceCacheService.isRedisAvailable()).isFalse();
+        assertThat(priceCacheService.getStockPrice("THYAO")).contains(second);
+        assertThat(priceCacheService.getAllStockPrices()).containsEntry("THYAO", second);
+        verify(hashOperations, never()).get(anyString(), any());
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+
+        // When the backoff has passed
+        priceCacheService.setClockForTesting(Clock.fixed(start.plusSeconds(2), ZoneOffset.UTC));
+        priceCacheService.probeIfUnavailable();
+
+        // Then
+        assertThat(priceCacheService.isRedisAvailable()).isTrue();
+        verify(redisTemplate).execute(any(RedisCallback.class));
+        verify(hashOperations).putAll("simulation:stock-prices", Map.of("THYAO", second));
+        verify(setOperations).add("simulation:stock-symbols", "THYAO");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void probe_ShouldKeepBufferingDuringReplayAndReplayLateWritesBeforeMarkingUp() {
+        // Given
+        Instant start = Instant.parse("2026-03-02T07:00:00Z");
+        priceCacheService.setClockForTesting(Clock.fixed(start, ZoneOffset.UTC));
+        StockPriceData thyao = StockPriceData.builder().symbol("THYAO").price(new BigDecimal("145.30")).build();
+        StockPriceData garan = StockPriceData.builder().symbol("GARAN").price(new BigDecimal("98.10")).build();
+        doThrow(new RedisConnectionFailureException("connection refused"))
+                .when(hashOperations).put("simulation:stock-prices", "THYAO", thyao);
+        priceCacheService.saveStockPrice("THYAO", thyao);
+        AtomicBoolean lateWriteDone = new AtomicBoolean();
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            if (!lateWriteDone.get()) {
+                // A writer on another thread must not block on the replay
+                CompletableFuture.runAsync(() -> priceCacheService.saveStockPrice("GARAN", garan))
+                        .get(5, TimeUnit.SECONDS);
+                lateWriteDone.set(true);
+            }
+            invocation.getArgument(0, SessionCallback.class).execute(redisTemplate);
+            return List.of();
+        });
+
+        // When
+        priceCacheService.setClockForTesting(Clock.fixed(start.plusSeconds(2), ZoneOffset.UTC));
+        priceCacheService.probeIfUnavailable();
+
+        // Then
+        assertThat(priceCacheService.isRedisAvailable()).isTrue();
+        verify(redisTemplate, times(2)).executePipelined(any(SessionCallback.class));
+        verify(hashOperations).putAll("simulation:stock-prices", Map.of("THYAO", thyao));
+        verify(hashOperations).putAll("simulation:stock-prices", Map.of("GARAN", garan));
+        verify(hashOperations, never()).put("simulation:stock-prices", "GARAN", garan);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runPipelinedCallbacksAgainstTemplate() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(redisTemplate);
+            return List.of();
+        });
+    }
 }
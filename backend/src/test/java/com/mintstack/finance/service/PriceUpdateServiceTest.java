@@ -123,6 +123,18 @@ class PriceUpdateServiceTest {
         verify(alertService).checkAlertsForSymbol(eq(symbol), eq(price));
     }
 
+    @Test
+    void broadcastMarketUpdate_ShouldMarkSimulatedUpdates() {
+        // When
+        priceUpdateService.broadcastMarketUpdate("FUND", "AFA", BigDecimal.valueOf(1.25), Map.of(), true);
+
+        // Then
+        ArgumentCaptor<PriceUpdateMessage> captor = ArgumentCaptor.forClass(PriceUpdateMessage.class);
+        verify(webSocketPublisher).broadcast(eq("/topic/prices"), captor.capture());
+        assertThat(captor.getValue().isSimulated()).isTrue();
+        assertThat(captor.getValue().getType()).isEqualTo("FUND");
+    }
+
     @Test
     void sendToUser_ShouldSendPrivateMessage() {
         // Given
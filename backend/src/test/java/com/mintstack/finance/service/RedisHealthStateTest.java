@@ -0,0 +1,44 @@
+package com.mintstack.finance.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisHealthStateTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T07:00:00Z");
+
+    private final RedisHealthState state = new RedisHealthState(Duration.ofSeconds(1), Duration.ofSeconds(4));
+
+    @Test
+    void tryStartProbe_ShouldWaitForBackoffAndAllowOneProber() {
+        state.markDown(NOW);
+
+        assertThat(state.tryStartProbe(NOW.plusMillis(500))).isFalse();
+        assertThat(state.tryStartProbe(NOW.plusSeconds(1))).isTrue();
+        assertThat(state.status()).isEqualTo(RedisHealthState.Status.PROBING);
+        assertThat(state.tryStartProbe(NOW.plusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void markDown_ShouldDoubleBackoffAfterFailedProbesUpToMaximum() {
+        assertThat(state.markDown(NOW)).isEqualTo(Duration.ofSeconds(1));
+
+        state.tryStartProbe(NOW.plusSeconds(1));
+        assertThat(state.markDown(NOW.plusSeconds(1))).isEqualTo(Duration.ofSeconds(2));
+
+        state.tryStartProbe(NOW.plusSeconds(3));
+        assertThat(state.markDown(NOW.plusSeconds(3))).isEqualTo(Duration.ofSeconds(4));
+
+        state.tryStartProbe(NOW.plusSeconds(7));
+        assertThat(state.markDown(NOW.plusSeconds(7))).isEqualTo(Duration.ofSeconds(4));
+
+        state.tryStartProbe(NOW.plusSeconds(11));
+        state.markUp();
+        assertThat(state.isUp()).isTrue();
+        assertThat(state.markDown(NOW.plusSeconds(12))).isEqualTo(Duration.ofSeconds(1));
+    }
+}
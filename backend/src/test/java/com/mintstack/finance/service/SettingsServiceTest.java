@@ -40,6 +40,9 @@ class SettingsServiceTest {
     @Mock
     private ApiKeyValidationService apiKeyValidationService;
 
+    @Mock
+    private ApiProviderRegistry apiProviderRegistry;
+
     @InjectMocks
     private SettingsService settingsService;
 
@@ -124,6 +127,7 @@ class SettingsServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getProvider()).isEqualTo(ApiProvider.YAHOO_FINANCE);
         verify(userApiConfigRepository).save(any(UserApiConfig.class));
+        verify(apiProviderRegistry).invalidate();
     }
 
     @Test
@@ -224,6 +228,7 @@ class SettingsServiceTest {
 
         // Then
         verify(userApiConfigRepository).delete(config);
+        verify(apiProviderRegistry).invalidate();
     }
 
     @Test
@@ -4,9 +4,13 @@ import com.mintstack.finance.dto.response.BollingerBandsResult;
 import com.mintstack.finance.dto.response.MACDResult;
 import com.mintstack.finance.dto.response.StochasticResult;
 import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.InstrumentCatalogChangedEvent;
 import com.mintstack.finance.entity.PriceHistory;
 import com.mintstack.finance.repository.InstrumentRepository;
-import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.indicator.IndicatorResultCache;
+import com.mintstack.finance.service.indicator.LiveIndicatorIndex;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -17,15 +21,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +41,7 @@ class TechnicalIndicatorServiceTest {
     private InstrumentRepository instrumentRepository;
 
     @Mock
-    private PriceHistoryRepository priceHistoryRepository;
+    private PriceHistoryStore priceHistoryStore;
 
     private TechnicalIndicatorService technicalIndicatorService;
     private Instrument testInstrument;
@@ -44,7 +49,10 @@ class TechnicalIndicatorServiceTest {
 
     @BeforeEach
     void setUp() {
-        technicalIndicatorService = new TechnicalIndicatorService(instrumentRepository, priceHistoryRepository);
+        IndicatorResultCache indicatorResultCache = new IndicatorResultCache(priceHistoryStore);
+        indicatorResultCache.init();
+        technicalIndicatorService = new TechnicalIndicatorService(instrumentRepository, priceHistoryStore,
+                new LiveIndicatorIndex(instrumentRepository, priceHistoryStore), indicatorResultCache);
         
         instrumentId = UUID.randomUUID();
         testInstrument = Instrument.builder()
@@ -228,13 +236,69 @@ class TechnicalIndicatorServiceTest {
         assertThat(result.overallSignal()).isIn("BULLISH", "BEARISH", "NEUTRAL");
     }
 
+    @Test
+    @DisplayName("Tüm göstergeler tek okumayla tekil hesaplamalarla aynı sonucu vermeli")
+    void testCalculateAllIndicators_LoadsHistoryOnceAndMatchesSingleIndicators() {
+        when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
+        mockLatestHistory(createPriceHistory(250, 100.0, 0.02));
+
+        var result = technicalIndicatorService.calculateAllIndicators("THYAO");
+
+        verify(instrumentRepository, times(1)).findBySymbol("THYAO");
+        verify(priceHistoryStore, times(1)).recent(eq(instrumentId), anyInt());
+        assertThat(result.dataQuality()).isEqualTo("COMPLETE");
+        assertThat(result.rsi()).isEqualTo(technicalIndicatorService.calculateRSI("THYAO", 14));
+        assertThat(result.macd()).isEqualTo(technicalIndicatorService.calculateMACD("THYAO"));
+        assertThat(result.bollingerBands()).isEqualTo(technicalIndicatorService.calculateBollingerBands("THYAO"));
+        assertThat(result.sma200()).isEqualTo(technicalIndicatorService.calculateSMA("THYAO", 200));
+        assertThat(result.ema20()).isEqualTo(technicalIndicatorService.calculateEMA("THYAO", 20));
+        assertThat(result.stochastic()).isEqualTo(technicalIndicatorService.calculateStochastic("THYAO"));
+        assertThat(result.obv()).isEqualTo(technicalIndicatorService.calculateOBV("THYAO", 90));
+        assertThat(result.cci20()).isEqualTo(technicalIndicatorService.calculateCCI("THYAO", 20));
+        assertThat(result.williamsR14()).isEqualTo(technicalIndicatorService.calculateWilliamsR("THYAO", 14));
+    }
+
+    @Test
+    @DisplayName("Gösterge sonuçları yeni bar yazılana kadar önbellekten dönmeli")
+    void testIndicatorResults_AreCachedUntilBarVersionChanges() {
+        when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
+        mockLatestHistory(createPriceHistory(60, 100.0, 0.02));
+        when(priceHistoryStore.version(instrumentId)).thenReturn(1L, 1L, 1L, 2L);
+
+        Double first = technicalIndicatorService.calculateSMA("THYAO", 20);
+        Double repeated = technicalIndicatorService.calculateSMA("THYAO", 20);
+        technicalIndicatorService.calculateSMA("THYAO", 10);
+        technicalIndicatorService.calculateSMA("THYAO", 20);
+
+        assertThat(repeated).isEqualTo(first);
+        verify(priceHistoryStore, times(1)).recent(instrumentId, 10);
+        verify(priceHistoryStore, times(2)).recent(instrumentId, 20);
+    }
+
+    @Test
+    @DisplayName("Sembol çözümü veritabanına yalnızca ilk istekte ve katalog değişikliğinden sonra gitmeli")
+    void testCompute_ResolvesSymbolFromLocalMap() {
+        when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(testInstrument));
+        mockLatestHistory(createPriceHistory(30, 100.0, 0.02));
+
+        technicalIndicatorService.calculateSMA("THYAO", 10);
+        technicalIndicatorService.calculateSMA("THYAO", 10);
+        technicalIndicatorService.calculateRSI("THYAO", 14);
+        technicalIndicatorService.onCatalogChanged(new InstrumentCatalogChangedEvent(testInstrument, false));
+        technicalIndicatorService.calculateSMA("THYAO", 10);
+        verify(instrumentRepository, times(1)).findBySymbol("THYAO");
+
+        technicalIndicatorService.onCatalogChanged(new InstrumentCatalogChangedEvent(testInstrument, true));
+        technicalIndicatorService.calculateSMA("THYAO", 10);
+        verify(instrumentRepository, times(2)).findBySymbol("THYAO");
+    }
+
     // =================== HELPER METHODS ===================
 
     private void mockLatestHistory(List<PriceHistory> priceHistory) {
-        List<PriceHistory> latestDesc = new ArrayList<>(priceHistory);
-        Collections.reverse(latestDesc);
-        when(priceHistoryRepository.findByInstrumentIdOrderByPriceDateDesc(eq(instrumentId), any()))
-            .thenReturn(latestDesc);
+        PriceBars bars = PriceBars.of(priceHistory);
+        when(priceHistoryStore.recent(eq(instrumentId), anyInt()))
+            .thenAnswer(invocation -> bars.tail(invocation.getArgument(1)));
     }
 
     private List<PriceHistory> createPriceHistory(int days, double startPrice, double volatility) {
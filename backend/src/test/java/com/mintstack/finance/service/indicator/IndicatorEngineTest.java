@@ -0,0 +1,51 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.service.market.PriceBars;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndicatorEngineTest {
+
+    @Test
+    void kernelsReadOnlyTheirTrailingWindow() {
+        PriceBars bars = closes(50, 1, 2, 3, 4, 5);
+
+        assertThat(IndicatorEngine.sma(bars, 3)).isEqualTo(4.0);
+        assertThat(IndicatorEngine.rsi(bars, 4)).isEqualTo(100.0);
+        assertThat(IndicatorEngine.williamsR(bars, 3)).isEqualTo(0.0);
+        assertThat(IndicatorEngine.obv(bars, 3)).isEqualTo(2_000L);
+        assertThat(IndicatorEngine.sma(bars, 7)).isNull();
+        assertThat(IndicatorEngine.macd(bars, 2, 3, 2)).isNotNull();
+    }
+
+    @Test
+    void shortSeriesYieldNull() {
+        PriceBars bars = closes(1, 2);
+
+        assertThat(IndicatorEngine.rsi(bars, 14)).isNull();
+        assertThat(IndicatorEngine.macd(bars, 12, 26, 9)).isNull();
+        assertThat(IndicatorEngine.bollingerBands(bars, 20, 2.0)).isNull();
+        assertThat(IndicatorEngine.stochastic(bars, 14, 3)).isNull();
+        assertThat(IndicatorEngine.vwap(PriceBars.empty(), 20)).isNull();
+    }
+
+    private static PriceBars closes(double... closes) {
+        List<PriceHistory> rows = new ArrayList<>();
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < closes.length; i++) {
+            rows.add(PriceHistory.builder()
+                    .priceDate(start.plusDays(i))
+                    .closePrice(BigDecimal.valueOf(closes[i]))
+                    .volume(1_000L)
+                    .build());
+        }
+        return PriceBars.of(rows);
+    }
+}
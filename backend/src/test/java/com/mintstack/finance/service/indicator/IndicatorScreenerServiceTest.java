@@ -0,0 +1,171 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.ScreenerResult;
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.Instrument.InstrumentType;
+import com.mintstack.finance.exception.BadRequestException;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.InstrumentBarView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndicatorScreenerServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private InstrumentRepository instrumentRepository;
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    private IndicatorScreenerService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IndicatorScreenerService(instrumentRepository, priceHistoryRepository, 2);
+        service.setClockForTesting(Clock.fixed(TODAY.atStartOfDay(ZoneId.of("Europe/Istanbul")).toInstant(),
+                ZoneId.of("Europe/Istanbul")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void screensEveryInstrumentFromOneBulkLoadAndRanksMatches() {
+        Instrument spike = instrument("AKBNK");
+        Instrument falling = instrument("GARAN");
+        Instrument rising = instrument("THYAO");
+        List<InstrumentBarView> rows = new ArrayList<>();
+        rows.addAll(bars(spike, i -> 200 - i, 5_000L));
+        rows.addAll(bars(falling, i -> 150 - i * 0.5, 1_000L));
+        rows.addAll(bars(rising, i -> 100 + i, 1_000L));
+        when(instrumentRepository.findByTypeAndIsActiveTrue(InstrumentType.STOCK))
+                .thenReturn(List.of(spike, falling, rising));
+        when(priceHistoryRepository.findBarsByInstrumentIdsSince(anyList(), any())).thenReturn(rows);
+
+        ScreenerResult volumeSpikes = service.screen("stock", "RSI14 < 30 AND close < SMA20 AND volume > 2×avg20",
+                null, null, 50);
+        ScreenerResult oversold = service.screen("STOCK", "RSI14 < 30", "close", "asc", 50);
+
+        assertThat(volumeSpikes.evaluated()).isEqualTo(3);
+        assertThat(volumeSpikes.matches()).extracting("symbol").containsExactly("AKBNK");
+        assertThat(volumeSpikes.rankBy()).isEqualTo("RSI14");
+        assertThat(volumeSpikes.matches().get(0).values()).containsKeys("RSI14", "CLOSE", "SMA20", "VOLUME", "AVG20");
+        assertThat(oversold.matches()).extracting("symbol").containsExactly("GARAN", "AKBNK");
+        assertThat(oversold.matches().get(0).rankValue()).isEqualTo(120.5);
+        verify(priceHistoryRepository).findBarsByInstrumentIdsSince(anyList(), eq(TODAY.minusDays(45)));
+        verify(priceHistoryRepository).findBarsByInstrumentIdsSince(anyList(), eq(TODAY.minusDays(37)));
+    }
+
+    @Test
+    void screensEachSymbolOncePreferringTheSimulatedInstrument() {
+        Instrument real = instrument("THYAO");
+        Instrument simulated = instrument("THYAO");
+        simulated.setIsSimulated(true);
+        List<InstrumentBarView> rows = new ArrayList<>();
+        rows.addAll(bars(real, i -> 100 + i, 1_000L));
+        rows.addAll(bars(simulated, i -> 200 - i, 1_000L));
+        when(instrumentRepository.findByTypeAndIsActiveTrue(InstrumentType.STOCK)).thenReturn(List.of(real, simulated));
+        when(priceHistoryRepository.findBarsByInstrumentIdsSince(anyList(), any())).thenReturn(rows);
+
+        ScreenerResult result = service.screen("STOCK", "close > 0", null, null, 50);
+
+        assertThat(result.evaluated()).isEqualTo(1);
+        assertThat(result.matches()).extracting("symbol").containsExactly("THYAO");
+        assertThat(result.matches().get(0).values().get("CLOSE")).isEqualTo(141.0);
+    }
+
+    @Test
+    void rejectsMalformedFiltersAndTypes() {
+        assertThatThrownBy(() -> service.screen("STOCK", "RSI14 <", null, null, 10))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.screen("STOCK", "FOO14 > 1", null, null, 10))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.screen("STOCK", "close > 1 OR", null, null, 10))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.screen("SHARES", "close > 1", null, null, 10))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.screen("STOCK", "close > SMA99999999999", null, null, 10))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static Instrument instrument(String symbol) {
+        Instrument instrument = Instrument.builder().symbol(symbol).name(symbol).type(InstrumentType.STOCK).build();
+        instrument.setId(UUID.randomUUID());
+        return instrument;
+    }
+
+    private static List<InstrumentBarView> bars(Instrument instrument, IntToDoubleFunction close, long lastVolume) {
+        List<InstrumentBarView> rows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            BigDecimal price = BigDecimal.valueOf(close.applyAsDouble(i));
+            rows.add(new Bar(instrument.getId(), TODAY.minusDays(59 - i), price, i == 59 ? lastVolume : 1_000L));
+        }
+        return rows;
+    }
+
+    private record Bar(UUID instrumentId, LocalDate priceDate, BigDecimal closePrice, Long volume)
+            implements InstrumentBarView {
+
+        @Override
+        public UUID getInstrumentId() {
+            return instrumentId;
+        }
+
+        @Override
+        public LocalDate getPriceDate() {
+            return priceDate;
+        }
+
+        @Override
+        public BigDecimal getOpenPrice() {
+            return closePrice;
+        }
+
+        @Override
+        public BigDecimal getHighPrice() {
+            return closePrice;
+        }
+
+        @Override
+        public BigDecimal getLowPrice() {
+            return closePrice;
+        }
+
+        @Override
+        public BigDecimal getClosePrice() {
+            return closePrice;
+        }
+
+        @Override
+        public Long getVolume() {
+            return volume;
+        }
+    }
+}
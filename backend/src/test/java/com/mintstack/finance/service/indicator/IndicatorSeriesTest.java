@@ -0,0 +1,102 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.BollingerBandsSeriesResult;
+import com.mintstack.finance.dto.response.IndicatorSeriesResult;
+import com.mintstack.finance.dto.response.MACDResult;
+import com.mintstack.finance.dto.response.MACDSeriesResult;
+import com.mintstack.finance.dto.response.StochasticResult;
+import com.mintstack.finance.dto.response.StochasticSeriesResult;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.service.market.PriceBars;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class IndicatorSeriesTest {
+
+    private static final int SIZE = 80;
+
+    @Test
+    void everyPointMatchesTheSingleValueKernelOverTheBarsUpToIt() {
+        PriceBars bars = bars(SIZE);
+
+        assertMatches(IndicatorSeries.series("rsi", bars, 14, SIZE), bars, prefix -> IndicatorEngine.rsi(prefix, 14));
+        assertMatches(IndicatorSeries.series("sma", bars, 20, SIZE), bars, prefix -> IndicatorEngine.sma(prefix, 20));
+        assertMatches(IndicatorSeries.series("atr", bars, 14, SIZE), bars, prefix -> IndicatorEngine.atr(prefix, 14));
+        assertMatches(IndicatorSeries.series("adx", bars, 14, SIZE), bars, prefix -> IndicatorEngine.adx(prefix, 14));
+        assertMatches(IndicatorSeries.series("obv", bars, 30, SIZE), bars, prefix -> IndicatorEngine.obv(prefix, 30));
+        assertMatches(IndicatorSeries.series("vwap", bars, 20, SIZE), bars, prefix -> IndicatorEngine.vwap(prefix, 20));
+        assertMatches(IndicatorSeries.series("cci", bars, 20, SIZE), bars, prefix -> IndicatorEngine.cci(prefix, 20));
+        assertMatches(IndicatorSeries.series("mfi", bars, 14, SIZE), bars, prefix -> IndicatorEngine.mfi(prefix, 14));
+        assertMatches(IndicatorSeries.series("williams-r", bars, 14, SIZE), bars,
+                prefix -> IndicatorEngine.williamsR(prefix, 14));
+
+        BollingerBandsSeriesResult bollinger = IndicatorSeries.bollingerBands(bars, 20, 2.0, SIZE);
+        StochasticSeriesResult stochastic = IndicatorSeries.stochastic(bars, 14, 3, SIZE);
+        for (int i = 0; i < bollinger.dates().size(); i++) {
+            PriceBars prefix = bars.slice(0, SIZE - bollinger.dates().size() + i + 1);
+            assertThat(bollinger.upperBand()[i])
+                    .isCloseTo(IndicatorEngine.bollingerBands(prefix, 20, 2.0).upperBand(), within(0.011));
+        }
+        for (int i = 0; i < stochastic.dates().size(); i++) {
+            StochasticResult expected = IndicatorEngine.stochastic(
+                    bars.slice(0, SIZE - stochastic.dates().size() + i + 1), 14, 3);
+            assertThat(stochastic.percentK()[i]).isEqualTo(expected.percentK());
+            assertThat(stochastic.percentD()[i]).isEqualTo(expected.percentD());
+        }
+    }
+
+    @Test
+    void movingAverageSeriesEndWithTheSingleValueKernels() {
+        PriceBars bars = bars(35);
+
+        MACDSeriesResult macdSeries = IndicatorSeries.macd(bars, 12, 26, 9, 250);
+        MACDResult macd = IndicatorEngine.macd(bars, 12, 26, 9);
+        assertThat(macdSeries.dates()).hasSize(2).last().isEqualTo(bars.date(bars.lastIndex()));
+        assertThat(macdSeries.macdLine()[1]).isEqualTo(macd.macdLine());
+        assertThat(macdSeries.signalLine()[1]).isEqualTo(macd.signalLine());
+        assertThat(macdSeries.histogram()[1]).isEqualTo(macd.histogram());
+
+        IndicatorSeriesResult ema = IndicatorSeries.series("ema", bars, 20, 250);
+        assertThat(ema.values()).hasSize(16);
+        assertThat(ema.values()[15]).isEqualTo(IndicatorEngine.ema(bars, 20));
+
+        assertThat(IndicatorSeries.series("ema", bars, 20, 5).values()).hasSize(5);
+        assertThat(IndicatorSeries.macd(bars.tail(33), 12, 26, 9, 250)).isNull();
+        assertThat(IndicatorSeries.series("sma", bars, 50, 250)).isNull();
+    }
+
+    private static void assertMatches(IndicatorSeriesResult series, PriceBars bars,
+                                      ToDoubleFunction<PriceBars> kernel) {
+        int offset = SIZE - series.values().length;
+        for (int i = 0; i < series.values().length; i++) {
+            assertThat(series.values()[i])
+                    .as("%s at %d", series.indicator(), i)
+                    .isCloseTo(kernel.applyAsDouble(bars.slice(0, offset + i + 1)), within(0.011));
+        }
+        assertThat(series.dates().get(series.dates().size() - 1)).isEqualTo(bars.date(bars.lastIndex()));
+    }
+
+    private static PriceBars bars(int size) {
+        List<PriceHistory> rows = new ArrayList<>();
+        LocalDate start = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < size; i++) {
+            double close = 100 + 8 * Math.sin(i / 4.0) + i * 0.3;
+            rows.add(PriceHistory.builder()
+                    .priceDate(start.plusDays(i))
+                    .closePrice(BigDecimal.valueOf(close))
+                    .highPrice(BigDecimal.valueOf(close + 1 + (i % 3)))
+                    .lowPrice(BigDecimal.valueOf(close - 1 - (i % 4) * 0.5))
+                    .volume(1_000L + (i % 5) * 300L)
+                    .build());
+        }
+        return PriceBars.of(rows);
+    }
+}
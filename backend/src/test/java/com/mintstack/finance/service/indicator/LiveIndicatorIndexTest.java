@@ -0,0 +1,156 @@
+package com.mintstack.finance.service.indicator;
+
+import com.mintstack.finance.dto.response.LiveIndicatorsResult;
+import com.mintstack.finance.dto.response.PriceUpdateMessage;
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.service.market.PriceBars;
+import com.mintstack.finance.service.market.PriceHistoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveIndicatorIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private InstrumentRepository instrumentRepository;
+
+    @Mock
+    private PriceHistoryStore priceHistoryStore;
+
+    private LiveIndicatorIndex index;
+    private Instrument instrument;
+
+    @BeforeEach
+    void setUp() {
+        index = new LiveIndicatorIndex(instrumentRepository, priceHistoryStore);
+        index.setClockForTesting(Clock.fixed(
+                TODAY.atTime(12, 0).atZone(ZoneId.of("Europe/Istanbul")).toInstant(), ZoneId.of("Europe/Istanbul")));
+        instrument = Instrument.builder().symbol("THYAO").build();
+        instrument.setId(UUID.randomUUID());
+        when(instrumentRepository.findBySymbol("THYAO")).thenReturn(Optional.of(instrument));
+    }
+
+    @Test
+    void seededStateMatchesWindowKernels() {
+        List<PriceHistory> rows = bars(TODAY.minusDays(59), 60);
+        PriceBars bars = PriceBars.of(rows);
+        when(priceHistoryStore.recent(eq(instrument.getId()), anyInt())).thenReturn(bars);
+
+        LiveIndicatorsResult live = index.get("thyao").orElseThrow();
+
+        assertThat(live.barCount()).isEqualTo(60);
+        assertThat(live.asOf()).isEqualTo(TODAY);
+        assertThat(live.bollingerBands()).isEqualTo(IndicatorEngine.bollingerBands(bars, 20, 2.0));
+        assertThat(live.stochastic()).isEqualTo(IndicatorEngine.stochastic(bars, 14, 3));
+        assertThat(live.williamsR14()).isEqualTo(IndicatorEngine.williamsR(bars, 14));
+        assertThat(live.vwap20()).isEqualTo(IndicatorEngine.vwap(bars, 20));
+        assertThat(live.obv()).isEqualTo(IndicatorEngine.obv(bars, 90));
+        assertThat(live.rsi14()).isBetween(0.0, 100.0);
+        assertThat(live.macd()).isNotNull();
+        assertThat(live.atr14()).isPositive();
+    }
+
+    @Test
+    void ticksMoveTheLatestBarAndOlderBarsForceReseed() {
+        when(priceHistoryStore.recent(eq(instrument.getId()), anyInt()))
+                .thenReturn(PriceBars.of(bars(TODAY.minusDays(30), 30)));
+        index.get("THYAO");
+
+        index.onPriceUpdate(PriceUpdateMessage.builder().type("STOCK").symbol("THYAO").price(new BigDecimal("500")).build());
+        LiveIndicatorsResult ticked = index.get("THYAO").orElseThrow();
+        assertThat(ticked.asOf()).isEqualTo(TODAY);
+        assertThat(ticked.close()).isEqualTo(500.0);
+        assertThat(ticked.barCount()).isEqualTo(31);
+        assertThat(ticked.williamsR14()).isEqualTo(0.0);
+
+        index.record(history(TODAY, 120.0));
+        LiveIndicatorsResult recorded = index.get("THYAO").orElseThrow();
+        assertThat(recorded.close()).isEqualTo(120.0);
+        assertThat(recorded.barCount()).isEqualTo(31);
+
+        index.record(history(TODAY.minusDays(3), 99.0));
+        index.get("THYAO");
+        verify(priceHistoryStore, times(2)).recent(eq(instrument.getId()), anyInt());
+        verify(instrumentRepository, times(1)).findBySymbol("THYAO");
+    }
+
+    @Test
+    void repeatedReadsOverProvisionalBarsLeaveClosedStateIntact() {
+        List<PriceHistory> rows = bars(TODAY.minusDays(59), 60);
+        when(priceHistoryStore.recent(eq(instrument.getId()), anyInt())).thenReturn(PriceBars.of(rows));
+        index.get("THYAO");
+
+        for (int i = 0; i < 5; i++) {
+            index.onPriceUpdate(PriceUpdateMessage.builder()
+                    .type("STOCK").symbol("THYAO").price(BigDecimal.valueOf(90 + i)).build());
+            LiveIndicatorsResult first = index.get("THYAO").orElseThrow();
+            assertThat(index.get("THYAO").orElseThrow()).isSameAs(first);
+        }
+        PriceHistory last = rows.get(rows.size() - 1);
+        index.record(last);
+
+        PriceBars bars = PriceBars.of(rows);
+        LiveIndicatorsResult live = index.get("THYAO").orElseThrow();
+        assertThat(live.close()).isEqualTo(last.getClosePrice().doubleValue());
+        assertThat(live.bollingerBands()).isEqualTo(IndicatorEngine.bollingerBands(bars, 20, 2.0));
+        assertThat(live.williamsR14()).isEqualTo(IndicatorEngine.williamsR(bars, 14));
+        assertThat(live.obv()).isEqualTo(IndicatorEngine.obv(bars, 90));
+    }
+
+    @Test
+    void simulatedTicksDoNotMoveRealInstrumentOfSameSymbol() {
+        when(priceHistoryStore.recent(eq(instrument.getId()), anyInt()))
+                .thenReturn(PriceBars.of(bars(TODAY.minusDays(30), 30)));
+        double seeded = index.get("THYAO").orElseThrow().close();
+
+        index.onPriceUpdate(PriceUpdateMessage.builder()
+                .type("STOCK").symbol("THYAO").simulated(true).price(new BigDecimal("500")).build());
+
+        assertThat(index.get("THYAO").orElseThrow().close()).isEqualTo(seeded);
+    }
+
+    private List<PriceHistory> bars(LocalDate from, int count) {
+        List<PriceHistory> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double close = 100 + 10 * Math.sin(i / 3.0) + i * 0.2;
+            PriceHistory row = history(from.plusDays(i), close);
+            row.setHighPrice(BigDecimal.valueOf(close + 1.5));
+            row.setLowPrice(BigDecimal.valueOf(close - 1.25));
+            row.setVolume(1_000L + (i % 7) * 150L);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private PriceHistory history(LocalDate date, double close) {
+        return PriceHistory.builder()
+                .instrument(instrument)
+                .priceDate(date)
+                .closePrice(BigDecimal.valueOf(close))
+                .volume(1_000L)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.mintstack.finance.service.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MovingAveragesTest {
+
+    private static final int[] PERIODS = {1, 5, 20, 50};
+
+    @Test
+    void everyPeriodMatchesTheDirectWindowAverage() {
+        double[] values = values(300);
+
+        double[][] simple = MovingAverages.simple(values, PERIODS);
+        double[][] weighted = MovingAverages.weighted(values, PERIODS);
+        for (int k = 0; k < PERIODS.length; k++) {
+            int period = PERIODS[k];
+            for (int i = 0; i < values.length; i++) {
+                if (i < period - 1) {
+                    assertThat(simple[k][i]).isNaN();
+                    assertThat(weighted[k][i]).isNaN();
+                    continue;
+                }
+                double sum = 0;
+                double weightedSum = 0;
+                for (int j = 0; j < period; j++) {
+                    sum += values[i - period + 1 + j];
+                    weightedSum += (j + 1) * values[i - period + 1 + j];
+                }
+                assertThat(simple[k][i]).isCloseTo(sum / period, within(1e-9));
+                assertThat(weighted[k][i]).isCloseTo(weightedSum / (period * (period + 1) / 2.0), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    void exponentialAveragesAreSeededWithTheSimpleAverage() {
+        double[] values = values(120);
+
+        double[][] exponential = MovingAverages.compute(MovingAverages.EMA, values, 10, 30);
+        double[][] simple = MovingAverages.simple(values, 10, 30);
+
+        assertThat(exponential[0][8]).isNaN();
+        assertThat(exponential[0][9]).isEqualTo(simple[0][9]);
+        assertThat(exponential[1][29]).isEqualTo(simple[1][29]);
+        double expected = exponential[1][29];
+        for (int i = 30; i < values.length; i++) {
+            expected += (values[i] - expected) * (2.0 / 31.0);
+        }
+        assertThat(exponential[1][values.length - 1]).isCloseTo(expected, within(1e-9));
+        assertThat(MovingAverages.isSupported("WMA")).isTrue();
+        assertThat(MovingAverages.isSupported("HMA")).isFalse();
+    }
+
+    private static double[] values(int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 100 + 8 * Math.sin(i / 4.0) + i * 0.3;
+        }
+        return values;
+    }
+}
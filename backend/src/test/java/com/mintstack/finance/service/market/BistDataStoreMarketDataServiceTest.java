@@ -12,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
@@ -43,6 +44,9 @@ class BistDataStoreMarketDataServiceTest {
     @Mock
     private PriceUpdateService priceUpdateService;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private BistDataStoreMarketDataService service;
 
     @BeforeEach
@@ -51,7 +55,8 @@ class BistDataStoreMarketDataServiceTest {
             bistDataStoreClient,
             instrumentRepository,
             priceHistoryRepository,
-            priceUpdateService
+            priceUpdateService,
+            applicationEventPublisher
         );
         ReflectionTestUtils.setField(service, "enabled", true);
         ReflectionTestUtils.setField(service, "latestLookbackDays", 1);
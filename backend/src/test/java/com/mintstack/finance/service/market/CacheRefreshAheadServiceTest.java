@@ -0,0 +1,142 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.dto.response.CurrencyRateResponse;
+import com.mintstack.finance.service.MarketDataService;
+import com.mintstack.finance.service.simulation.SimulationDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CacheRefreshAheadServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private ObjectProvider<MarketDataService> marketDataServiceProvider;
+
+    @Mock
+    private MarketDataService marketDataService;
+
+    @Mock
+    private SimulationDataService simulationDataService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private final Queue<Runnable> submitted = new ArrayDeque<>();
+    private final ConcurrentMapCache cache = new ConcurrentMapCache("currencyRates");
+    private RangeChangeCache rangeChangeCache;
+    private CacheRefreshAheadService service;
+
+    @BeforeEach
+    void setUp() {
+        rangeChangeCache = new RangeChangeCache(redisTemplateProvider);
+        rangeChangeCache.init();
+        service = new CacheRefreshAheadService(
+            marketDataServiceProvider, simulationDataService, cacheManager, rangeChangeCache, submitted::add);
+        service.setClockForTesting(Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+        when(cacheManager.getCache("currencyRates")).thenReturn(cache);
+    }
+
+    @Test
+    void refreshSwapsInRecomputedDefaultAndPresetEntriesAndKeepsOldOnesUntilReady() {
+        when(marketDataServiceProvider.getIfAvailable()).thenReturn(marketDataService);
+        LocalDate weekAgo = RangeChangeCache.Preset.ONE_WEEK.startDate(TODAY);
+        String defaultKey = MarketDataService.latestCurrencyRatesKey(false, null, null);
+        String weekKey = MarketDataService.latestCurrencyRatesKey(false, weekAgo, TODAY);
+        String yesterdaysWeekKey = MarketDataService.latestCurrencyRatesKey(false, weekAgo.minusDays(1), TODAY.minusDays(1));
+        cache.put(defaultKey, List.of(rate("30.00")));
+        cache.put(yesterdaysWeekKey, List.of(rate("30.00")));
+        String simulatedDefaultKey = MarketDataService.latestCurrencyRatesKey(true, null, null);
+        cache.put(simulatedDefaultKey, List.of(rate("40.00")));
+        rangeChangeCache.currencyRates("custom", () -> List.of(rate("29.00")));
+        when(marketDataService.loadLatestCurrencyRates(any(), any())).thenReturn(List.of(rate("31.50")));
+        when(marketDataService.loadLatestCurrencyRates(null, null)).thenReturn(List.of(rate("31.00")));
+
+        service.refreshCurrencyRates();
+
+        assertThat(firstRate(defaultKey)).isEqualByComparingTo("30.00");
+        runSubmitted();
+
+        assertThat(firstRate(defaultKey)).isEqualByComparingTo("31.00");
+        assertThat(firstRate(weekKey)).isEqualByComparingTo("31.50");
+        assertThat(cache.get(yesterdaysWeekKey)).isNull();
+        assertThat(cache.get(simulatedDefaultKey)).isNull();
+        verify(marketDataService, times(RangeChangeCache.Preset.values().length + 1)).loadLatestCurrencyRates(any(), any());
+        assertThat(rangeChangeCache.<List<CurrencyRateResponse>>currencyRates("custom", List::of)).isEmpty();
+    }
+
+    @Test
+    void requestsWhileQueuedAreFoldedIntoOneRefresh() {
+        when(marketDataServiceProvider.getIfAvailable()).thenReturn(marketDataService);
+        when(marketDataService.loadLatestCurrencyRates(null, null)).thenReturn(List.of(rate("31.00")));
+
+        service.refreshCurrencyRates();
+        service.refreshCurrencyRates();
+        service.refreshCurrencyRates();
+
+        assertThat(submitted).hasSize(1);
+        runSubmitted();
+        verify(marketDataService, times(RangeChangeCache.Preset.values().length + 1)).loadLatestCurrencyRates(any(), any());
+
+        service.refreshCurrencyRates();
+        assertThat(submitted).hasSize(1);
+    }
+
+    @Test
+    void failedRefreshEvictsSoReadersReloadOnDemand() {
+        when(marketDataServiceProvider.getIfAvailable()).thenReturn(marketDataService);
+        String defaultKey = MarketDataService.latestCurrencyRatesKey(false, null, null);
+        cache.put(defaultKey, List.of(rate("30.00")));
+        when(marketDataService.loadLatestCurrencyRates(any(), any())).thenThrow(new IllegalStateException("db down"));
+
+        service.refreshCurrencyRates();
+        runSubmitted();
+
+        assertThat(cache.get(defaultKey)).isNull();
+    }
+
+    private void runSubmitted() {
+        Runnable task;
+        while ((task = submitted.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private BigDecimal firstRate(String key) {
+        List<CurrencyRateResponse> rates = (List<CurrencyRateResponse>) cache.get(key).get();
+        return rates.get(0).getSellingRate();
+    }
+
+    private static CurrencyRateResponse rate(String sellingRate) {
+        return CurrencyRateResponse.builder()
+            .currencyCode("USD")
+            .sellingRate(new BigDecimal(sellingRate))
+            .build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.InstrumentCatalogChangedEvent;
+import com.mintstack.finance.entity.Instrument.InstrumentType;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.repository.InstrumentRepository.CatalogEntryView;
+import com.mintstack.finance.service.market.InstrumentSearchIndex.Scope;
+import com.mintstack.finance.service.market.InstrumentSearchIndex.SearchHit;
+import com.mintstack.finance.service.simulation.SimulatedStock;
+import com.mintstack.finance.service.simulation.SimulationDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentSearchIndexTest {
+
+    @Mock
+    private InstrumentRepository instrumentRepository;
+
+    @Mock
+    private SimulationDataService simulationDataService;
+
+    private InstrumentSearchIndex index;
+    private List<CatalogEntryView> catalog;
+
+    @BeforeEach
+    void setUp() {
+        index = new InstrumentSearchIndex(instrumentRepository, simulationDataService);
+        catalog = new ArrayList<>(List.of(
+            entry("ISCTR", "Türkiye İş Bankası", InstrumentType.STOCK, true, false),
+            entry("THYAO", "Türk Hava Yolları", InstrumentType.STOCK, true, false),
+            entry("ASELS", "Aselsan", InstrumentType.STOCK, true, false),
+            entry("TCELL", "Turkcell", InstrumentType.STOCK, false, false),
+            entry("SIMTHY", "Simulated THY", InstrumentType.STOCK, true, true)
+        ));
+        lenient().when(instrumentRepository.findCatalogEntries()).thenAnswer(invocation -> List.copyOf(catalog));
+    }
+
+    @Test
+    void search_ShouldFoldTurkishCharactersAndRankMatches() {
+        assertThat(symbols(index.search("is", null, Scope.REAL))).containsExactly("ISCTR");
+        assertThat(symbols(index.search("İŞ BANK", null, Scope.REAL))).containsExactly("ISCTR");
+        assertThat(symbols(index.search("hava", null, Scope.REAL))).containsExactly("THYAO");
+        assertThat(symbols(index.search("t", null, Scope.REAL))).containsExactly("THYAO", "ISCTR");
+        assertThat(symbols(index.search("TURK", null, Scope.REAL_CATALOG))).containsExactly("ISCTR", "TCELL", "THYAO");
+
+        verify(instrumentRepository, times(1)).findCatalogEntries();
+    }
+
+    @Test
+    void search_ShouldRespectScopeAndType() {
+        assertThat(symbols(index.search("thy", null, Scope.REAL))).containsExactly("THYAO");
+        assertThat(symbols(index.search("thy", null, Scope.SIMULATED))).containsExactly("SIMTHY");
+        assertThat(index.search("thy", InstrumentType.BOND, Scope.REAL)).isEmpty();
+        assertThat(index.search("zzzz", null, Scope.REAL)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldIndexSimulationCacheEntries() {
+        SimulatedStock fund = new SimulatedStock("Ak Portföy Altın Fonu", "TEFAS", 1.5, 0.01);
+        when(simulationDataService.getFunds()).thenReturn(Map.of("AFA", fund));
+
+        List<SearchHit> hits = index.search("altin", null, Scope.SIMULATION_CACHE);
+
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).instrumentId()).isNull();
+        assertThat(hits.get(0).type()).isEqualTo(InstrumentType.FUND);
+    }
+
+    @Test
+    void onCatalogChange_ShouldRebuildOnlyWhenIndexedFieldsChange() {
+        index.search("thy", null, Scope.REAL);
+        CatalogEntryView thyao = catalog.get(1);
+
+        Instrument priced = instrument(thyao, "Türk Hava Yolları");
+        priced.setCurrentPrice(new BigDecimal("310"));
+        index.onCatalogChange(priced);
+        index.search("thy", null, Scope.REAL);
+        verify(instrumentRepository, times(1)).findCatalogEntries();
+
+        catalog.set(1, entry(thyao.getId(), "THYAO", "Turkish Airlines", InstrumentType.STOCK, true, false));
+        index.onCatalogChange(instrument(thyao, "Turkish Airlines"));
+
+        assertThat(symbols(index.search("airlines", null, Scope.REAL))).containsExactly("THYAO");
+        verify(instrumentRepository, times(2)).findCatalogEntries();
+    }
+
+    @Test
+    void onCatalogChanged_ShouldRebuildAfterRemoval() {
+        index.search("thy", null, Scope.REAL);
+        CatalogEntryView thyao = catalog.remove(1);
+
+        index.onCatalogChanged(new InstrumentCatalogChangedEvent(instrument(thyao, thyao.getName()), true));
+
+        assertThat(index.search("hava", null, Scope.REAL)).isEmpty();
+        verify(instrumentRepository, times(2)).findCatalogEntries();
+    }
+
+    @Test
+    void fold_ShouldMapDottedAndDotlessI() {
+        assertThat(InstrumentSearchIndex.fold("IŞIK İĞNE Çiçek Öğün")).isEqualTo("isik igne cicek ogun");
+    }
+
+    private static List<String> symbols(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::symbol).toList();
+    }
+
+    private static Instrument instrument(CatalogEntryView view, String name) {
+        Instrument instrument = Instrument.builder()
+            .symbol(view.getSymbol())
+            .name(name)
+            .type(view.getType())
+            .isActive(view.getIsActive())
+            .isSimulated(view.getIsSimulated())
+            .build();
+        instrument.setId(view.getId());
+        return instrument;
+    }
+
+    private static CatalogEntryView entry(String symbol, String name, InstrumentType type, boolean active, boolean simulated) {
+        return entry(UUID.randomUUID(), symbol, name, type, active, simulated);
+    }
+
+    private static CatalogEntryView entry(UUID id, String symbol, String name, InstrumentType type,
+                                          boolean active, boolean simulated) {
+        return new TestEntry(id, symbol, name, type, active, simulated);
+    }
+
+    private record TestEntry(UUID id, String symbol, String name, InstrumentType type, Boolean active, Boolean simulated)
+        implements CatalogEntryView {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getSymbol() {
+            return symbol;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public InstrumentType getType() {
+            return type;
+        }
+
+        @Override
+        public Boolean getIsActive() {
+            return active;
+        }
+
+        @Override
+        public Boolean getIsSimulated() {
+            return simulated;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -43,6 +44,9 @@ class MarketDataMaintenanceServiceTest {
     @Mock
     private NewsRepository newsRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private MarketDataMaintenanceService marketDataMaintenanceService;
 
@@ -120,6 +124,7 @@ class MarketDataMaintenanceServiceTest {
         assertThat(existing.getAdjustedClose()).isEqualByComparingTo("108");
         assertThat(existing.getVolume()).isEqualTo(500L);
         verify(priceHistoryRepository).save(existing);
+        verify(applicationEventPublisher).publishEvent(new PriceBarPersistedEvent(existing));
     }
 
     @Test
@@ -204,5 +209,6 @@ class MarketDataMaintenanceServiceTest {
         verify(currencyRateRepository).deleteAll();
         verify(priceHistoryRepository).deleteAll();
         verify(newsRepository).deleteAllInBatch();
+        verify(applicationEventPublisher).publishEvent(new PriceHistoryClearedEvent());
     }
 }
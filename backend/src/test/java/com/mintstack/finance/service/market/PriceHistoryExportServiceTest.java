@@ -0,0 +1,137 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.exception.ResourceNotFoundException;
+import com.mintstack.finance.repository.InstrumentRepository;
+import com.mintstack.finance.service.market.PriceHistoryExportService.ExportFormat;
+import com.mintstack.finance.service.simulation.SimulationDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryExportServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+    private static final LocalDate END = LocalDate.of(2026, 1, 31);
+    private static final UUID INSTRUMENT_ID = UUID.randomUUID();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private InstrumentRepository instrumentRepository;
+
+    @Mock
+    private SimulationDataService simulationDataService;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private PriceHistoryExportService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new PriceHistoryExportService(jdbcTemplate, instrumentRepository, simulationDataService);
+        lenient().when(resultSet.getDate("price_date")).thenReturn(Date.valueOf(LocalDate.of(2026, 1, 2)));
+        lenient().when(resultSet.getBigDecimal("open_price")).thenReturn(new BigDecimal("280.500000"));
+        lenient().when(resultSet.getBigDecimal("high_price")).thenReturn(new BigDecimal("284.000000"));
+        lenient().when(resultSet.getBigDecimal("low_price")).thenReturn(new BigDecimal("279.250000"));
+        lenient().when(resultSet.getBigDecimal("close_price")).thenReturn(new BigDecimal("283.750000"));
+        lenient().when(resultSet.getBigDecimal("adj_close")).thenReturn(null);
+        lenient().when(resultSet.getLong("volume")).thenReturn(1_250_000L);
+        lenient().doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            creator.createPreparedStatement(connection);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        lenient().when(connection.prepareStatement(
+                PriceHistoryExportService.EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY))
+            .thenReturn(statement);
+    }
+
+    @Test
+    void export_ShouldWriteNdjsonLinesThroughForwardOnlyCursor() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = service.export(INSTRUMENT_ID, START, END, ExportFormat.NDJSON, out);
+
+        String line = "{\"date\":\"2026-01-02\",\"open\":280.500000,\"high\":284.000000,\"low\":279.250000,"
+                + "\"close\":283.750000,\"adjustedClose\":null,\"volume\":1250000}\n";
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(line + line);
+        verify(statement).setFetchSize(500);
+        verify(statement).setObject(1, INSTRUMENT_ID);
+        verify(statement).setDate(2, Date.valueOf(START));
+        verify(statement).setDate(3, Date.valueOf(END));
+    }
+
+    @Test
+    void export_ShouldWriteCsvWithHeader() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.export(INSTRUMENT_ID, START, END, ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n"))
+            .containsExactly(
+                "date,open,high,low,close,adjustedClose,volume",
+                "2026-01-02,280.500000,284.000000,279.250000,283.750000,,1250000",
+                "2026-01-02,280.500000,284.000000,279.250000,283.750000,,1250000"
+            );
+    }
+
+    @Test
+    void resolveInstrumentId_ShouldPreferInstrumentMatchingSimulationMode() {
+        Instrument simulated = new Instrument();
+        simulated.setId(INSTRUMENT_ID);
+        when(simulationDataService.isSimulationEnabled()).thenReturn(true);
+        when(instrumentRepository.findBySymbolAndIsSimulated("THYAO", true)).thenReturn(Optional.of(simulated));
+
+        assertThat(service.resolveInstrumentId("thyao")).isEqualTo(INSTRUMENT_ID);
+        verify(instrumentRepository, never()).findBySymbol(any());
+    }
+
+    @Test
+    void resolveInstrumentId_ShouldRejectUnknownSymbol() {
+        when(simulationDataService.isSimulationEnabled()).thenReturn(false);
+        when(instrumentRepository.findBySymbolAndIsSimulated("NOPE", false)).thenReturn(Optional.empty());
+        when(instrumentRepository.findBySymbol("NOPE")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.resolveInstrumentId("NOPE"))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
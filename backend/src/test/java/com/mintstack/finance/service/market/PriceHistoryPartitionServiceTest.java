@@ -0,0 +1,101 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    private PriceHistoryPartitionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PriceHistoryPartitionService(jdbcTemplate, priceHistoryRepository);
+    }
+
+    @Test
+    void dropPartitionsBefore_ShouldDropOnlyMonthsEntirelyBeforeCutoff() {
+        stubPartitioned(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+            "price_history_default",
+            "price_history_p202502",
+            "price_history_p202503",
+            "price_history_p202504"
+        ));
+
+        PriceHistoryPartitionService.Retention retention = service.dropPartitionsBefore(LocalDate.of(2025, 4, 17));
+
+        assertThat(retention.droppedPartitions()).isEqualTo(2);
+        assertThat(retention.removedAny()).isTrue();
+        verify(jdbcTemplate).execute("ALTER TABLE price_history DETACH PARTITION price_history_p202502");
+        verify(jdbcTemplate).execute("DROP TABLE price_history_p202503");
+        verify(jdbcTemplate, never()).execute("DROP TABLE price_history_p202504");
+        verify(jdbcTemplate, never()).execute("DROP TABLE price_history_default");
+        verify(jdbcTemplate).update(anyString(), eq(Date.valueOf(LocalDate.of(2025, 4, 1))));
+        verify(priceHistoryRepository, never()).deleteByPriceDateBefore(any());
+    }
+
+    @Test
+    void dropPartitionsBefore_ShouldFallBackToDeleteWhenTableIsNotPartitioned() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class)))
+            .thenThrow(new BadSqlGrammarException("partition check", "SELECT", new SQLException("no pg catalog")));
+        LocalDate cutoff = LocalDate.of(2025, 4, 17);
+
+        assertThat(service.dropPartitionsBefore(cutoff).removedAny()).isFalse();
+        assertThat(service.ensureUpcomingPartitions(cutoff)).isZero();
+
+        verify(priceHistoryRepository).deleteByPriceDateBefore(cutoff);
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Integer.class));
+    }
+
+    @Test
+    void ensureUpcomingPartitions_ShouldRequestCurrentAndNextMonths() {
+        stubPartitioned(true);
+        when(jdbcTemplate.queryForObject(eq("SELECT ensure_price_history_partition(?)"), eq(Boolean.class), any()))
+            .thenReturn(false, false, true, true);
+
+        int created = service.ensureUpcomingPartitions(LocalDate.of(2026, 11, 20));
+
+        assertThat(created).isEqualTo(2);
+        verify(jdbcTemplate).queryForObject(
+            "SELECT ensure_price_history_partition(?)", Boolean.class, Date.valueOf(LocalDate.of(2027, 2, 1)));
+    }
+
+    @Test
+    void partitionMonth_ShouldParseOnlyMonthlyPartitions() {
+        assertThat(PriceHistoryPartitionService.partitionMonth("price_history_p202601")).isEqualTo(YearMonth.of(2026, 1));
+        assertThat(PriceHistoryPartitionService.partitionMonth("price_history_default")).isNull();
+        assertThat(PriceHistoryPartitionService.partitionMonth("price_history_p2026")).isNull();
+    }
+
+    private void stubPartitioned(boolean partitioned) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(partitioned ? 1 : 0);
+    }
+}
@@ -0,0 +1,250 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.PriceBarView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryStoreTest {
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    private PriceHistoryStore store;
+    private UUID instrumentId;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        store = new PriceHistoryStore(priceHistoryRepository);
+        store.init();
+        instrumentId = UUID.randomUUID();
+        today = LocalDate.of(2025, 3, 14);
+    }
+
+    @Test
+    void recent_ShouldLoadSeriesOnceAndServeFromMemory() {
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(5));
+
+        PriceBars first = store.recent(instrumentId, 3);
+        PriceBars second = store.recent(instrumentId, 10);
+
+        assertThat(first.size()).isEqualTo(3);
+        assertThat(first.date(0)).isEqualTo(today.minusDays(2));
+        assertThat(first.close(2)).isEqualTo(104.0);
+        assertThat(second.size()).isEqualTo(5);
+        verify(priceHistoryRepository, times(1)).findBarsByInstrumentId(eq(instrumentId), any());
+    }
+
+    @Test
+    void recent_ShouldShareOneLoadBetweenConcurrentFirstReads() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return descendingBars(5);
+        });
+
+        CompletableFuture<PriceBars> first = CompletableFuture.supplyAsync(() -> store.recent(instrumentId, 5));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<PriceBars> second = CompletableFuture.supplyAsync(() -> store.recent(instrumentId, 5));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).size()).isEqualTo(5);
+        assertThat(second.get(5, TimeUnit.SECONDS).size()).isEqualTo(5);
+        verify(priceHistoryRepository, times(1)).findBarsByInstrumentId(eq(instrumentId), any());
+    }
+
+    @Test
+    void record_ShouldAppendAndReplaceBarsOfLoadedSeries() {
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(3));
+        store.recent(instrumentId, 3);
+
+        store.record(history(today.plusDays(1), 110));
+        store.record(history(today, 99));
+
+        PriceBars bars = store.recent(instrumentId, 10);
+        assertThat(bars.size()).isEqualTo(4);
+        assertThat(bars.close(2)).isEqualTo(99.0);
+        assertThat(bars.close(3)).isEqualTo(110.0);
+        assertThat(bars.date(3)).isEqualTo(today.plusDays(1));
+    }
+
+    @Test
+    void record_ShouldDropOldestBarsBeyondMaxBars() {
+        ReflectionTestUtils.setField(store, "maxBars", 3);
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(2));
+        store.recent(instrumentId, 3);
+
+        store.record(history(today.plusDays(1), 110));
+        store.record(history(today.plusDays(2), 111));
+
+        PriceBars bars = store.recent(instrumentId, 3);
+        assertThat(bars.size()).isEqualTo(3);
+        assertThat(bars.date(0)).isEqualTo(today);
+        assertThat(bars.close(2)).isEqualTo(111.0);
+        verify(priceHistoryRepository, times(1)).findBarsByInstrumentId(eq(instrumentId), any());
+    }
+
+    @Test
+    void onBarPersisted_ShouldRecordTheBar() {
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(3));
+        store.recent(instrumentId, 3);
+
+        store.onBarPersisted(new PriceBarPersistedEvent(history(today.plusDays(1), 110)));
+
+        assertThat(store.recent(instrumentId, 1).close(0)).isEqualTo(110.0);
+    }
+
+    @Test
+    void recent_ShouldReloadSeriesLeftIdle() throws InterruptedException {
+        ReflectionTestUtils.setField(store, "idleTimeoutMs", 1L);
+        store.init();
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(5));
+
+        store.recent(instrumentId, 3);
+        Thread.sleep(20);
+        store.recent(instrumentId, 3);
+
+        verify(priceHistoryRepository, times(2)).findBarsByInstrumentId(eq(instrumentId), any());
+    }
+
+    @Test
+    void version_ShouldChangeOnlyWhenBarsChange() {
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(3));
+
+        long loaded = store.version(instrumentId);
+        assertThat(store.version(instrumentId)).isEqualTo(loaded);
+
+        store.record(history(today.plusDays(1), 110));
+        long appended = store.version(instrumentId);
+        store.record(history(today.plusDays(1), 110));
+
+        assertThat(appended).isNotEqualTo(loaded);
+        assertThat(store.version(instrumentId)).isEqualTo(appended);
+        store.record(history(today.plusDays(1), 111));
+        assertThat(store.version(instrumentId)).isNotEqualTo(appended);
+        store.evict(instrumentId);
+        assertThat(store.version(instrumentId)).isNotIn(loaded, appended);
+    }
+
+    @Test
+    void between_ShouldSliceInclusiveDateRange() {
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(10));
+
+        PriceBars bars = store.between(instrumentId, today.minusDays(4), today.minusDays(2));
+
+        assertThat(bars.size()).isEqualTo(3);
+        assertThat(bars.date(0)).isEqualTo(today.minusDays(4));
+        assertThat(bars.date(2)).isEqualTo(today.minusDays(2));
+    }
+
+    @Test
+    void between_ShouldQueryDatabaseWhenRangeIsOlderThanTruncatedSeries() {
+        ReflectionTestUtils.setField(store, "maxBars", 3);
+        when(priceHistoryRepository.findBarsByInstrumentId(eq(instrumentId), any()))
+            .thenReturn(descendingBars(3));
+        when(priceHistoryRepository.findBarsByInstrumentIdAndDateRange(instrumentId, today.minusDays(30), today))
+            .thenReturn(List.of(bar(today.minusDays(30), 90), bar(today, 104)));
+
+        PriceBars bars = store.between(instrumentId, today.minusDays(30), today);
+
+        assertThat(bars.size()).isEqualTo(2);
+        assertThat(bars.close(0)).isEqualTo(90.0);
+    }
+
+    private List<PriceBarView> descendingBars(int count) {
+        List<PriceBarView> bars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bars.add(bar(today.minusDays(i), 104 - i));
+        }
+        return bars;
+    }
+
+    private PriceHistory history(LocalDate date, double close) {
+        Instrument instrument = Instrument.builder().symbol("THYAO").build();
+        instrument.setId(instrumentId);
+        return PriceHistory.builder()
+            .instrument(instrument)
+            .priceDate(date)
+            .closePrice(BigDecimal.valueOf(close))
+            .volume(1000L)
+            .build();
+    }
+
+    private static PriceBarView bar(LocalDate date, double close) {
+        BigDecimal price = BigDecimal.valueOf(close);
+        return new TestBar(date, price, price.add(BigDecimal.ONE), price.subtract(BigDecimal.ONE), price, 1000L);
+    }
+
+    private record TestBar(
+        LocalDate priceDate,
+        BigDecimal openPrice,
+        BigDecimal highPrice,
+        BigDecimal lowPrice,
+        BigDecimal closePrice,
+        Long volume
+    ) implements PriceBarView {
+
+        @Override
+        public LocalDate getPriceDate() {
+            return priceDate;
+        }
+
+        @Override
+        public BigDecimal getOpenPrice() {
+            return openPrice;
+        }
+
+        @Override
+        public BigDecimal getHighPrice() {
+            return highPrice;
+        }
+
+        @Override
+        public BigDecimal getLowPrice() {
+            return lowPrice;
+        }
+
+        @Override
+        public BigDecimal getClosePrice() {
+            return closePrice;
+        }
+
+        @Override
+        public Long getVolume() {
+            return volume;
+        }
+    }
+}
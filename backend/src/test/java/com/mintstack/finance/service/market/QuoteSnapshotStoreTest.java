@@ -0,0 +1,92 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.service.market.QuoteSnapshotStore.QuoteSnapshot;
+import com.mintstack.finance.service.market.Week52RangeIndex.Week52Range;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteSnapshotStoreTest {
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Mock
+    private Week52RangeIndex week52RangeIndex;
+
+    private QuoteSnapshotStore store;
+    private Instrument instrument;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        store = new QuoteSnapshotStore(priceHistoryRepository, week52RangeIndex);
+        instrument = Instrument.builder().symbol("THYAO").build();
+        instrument.setId(UUID.randomUUID());
+        today = LocalDate.now();
+    }
+
+    @Test
+    void snapshots_ShouldBuildOnceAndServeWarmReadsFromMemory() {
+        when(priceHistoryRepository.findRecentByInstrumentIds(anyList(), anyInt()))
+            .thenReturn(List.of(history(today, "101"), history(today.minusDays(1), "100")));
+        when(week52RangeIndex.ranges(any()))
+            .thenReturn(Map.of(instrument.getId(), new Week52Range(new BigDecimal("120"), new BigDecimal("80"))));
+
+        store.snapshots(List.of(instrument.getId()));
+        Map<UUID, QuoteSnapshot> snapshots = store.snapshots(List.of(instrument.getId()));
+
+        QuoteSnapshot snapshot = snapshots.get(instrument.getId());
+        assertThat(snapshot.recentBars()).hasSize(2);
+        assertThat(snapshot.recentBars().get(0).closePrice()).isEqualByComparingTo("101");
+        assertThat(snapshot.week52High()).isEqualByComparingTo("120");
+        assertThat(snapshot.week52Low()).isEqualByComparingTo("80");
+        verify(priceHistoryRepository, times(1)).findRecentByInstrumentIds(anyList(), anyInt());
+    }
+
+    @Test
+    void record_ShouldUpdateSnapshotInPlace() {
+        when(priceHistoryRepository.findRecentByInstrumentIds(anyList(), anyInt()))
+            .thenReturn(List.of(history(today.minusDays(1), "100")));
+        store.snapshots(List.of(instrument.getId()));
+
+        PriceHistory todayBar = history(today, "130");
+        todayBar.setHighPrice(new BigDecimal("135"));
+        store.onBarPersisted(new PriceBarPersistedEvent(todayBar));
+        store.onBarPersisted(new PriceBarPersistedEvent(history(today, "131")));
+
+        QuoteSnapshot snapshot = store.snapshots(List.of(instrument.getId())).get(instrument.getId());
+        assertThat(snapshot.recentBars()).hasSize(2);
+        assertThat(snapshot.recentBars().get(0).priceDate()).isEqualTo(today);
+        assertThat(snapshot.recentBars().get(0).closePrice()).isEqualByComparingTo("131");
+        verify(priceHistoryRepository, times(1)).findRecentByInstrumentIds(anyList(), anyInt());
+    }
+
+    private PriceHistory history(LocalDate date, String close) {
+        return PriceHistory.builder()
+            .instrument(instrument)
+            .priceDate(date)
+            .closePrice(new BigDecimal(close))
+            .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.service.market.RangeChangeCache.Preset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RangeChangeCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RangeChangeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RangeChangeCache(redisTemplateProvider);
+        cache.init();
+    }
+
+    @Test
+    void matchesOnlyPresetRangesEndingToday() {
+        assertThat(Preset.match(TODAY.minusDays(7), TODAY, TODAY)).contains(Preset.ONE_WEEK);
+        assertThat(Preset.match(LocalDate.of(2026, 1, 1), TODAY, TODAY)).contains(Preset.YEAR_TO_DATE);
+        assertThat(Preset.match(TODAY.minusDays(365), TODAY, TODAY)).contains(Preset.ONE_YEAR);
+        assertThat(Preset.match(TODAY.minusDays(8), TODAY, TODAY)).isEmpty();
+        assertThat(Preset.match(TODAY.minusDays(8), TODAY.minusDays(1), TODAY)).isEmpty();
+        assertThat(Preset.match(null, null, TODAY)).isEmpty();
+    }
+
+    @Test
+    void loadsOncePerKeyUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.currencyRates("a", loads::incrementAndGet);
+        cache.currencyRates("a", loads::incrementAndGet);
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+        assertThat(loads).hasValue(2);
+
+        cache.invalidateCurrencyRates();
+        cache.currencyRates("a", loads::incrementAndGet);
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void invalidationIsPublishedAndAppliedFromOtherNodes() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        AtomicInteger loads = new AtomicInteger();
+        cache.currencyRates("a", loads::incrementAndGet);
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+
+        cache.invalidateCurrencyRates();
+        verify(redisTemplate).convertAndSend(RangeChangeCache.CHANNEL, RangeChangeCache.CURRENCY_RATES);
+
+        cache.onInvalidation(RangeChangeCache.INSTRUMENT_BASE_POINTS);
+        cache.onInvalidation("unknown");
+        cache.currencyRates("a", loads::incrementAndGet);
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void basePointsFollowPastDatedBarsAndClears() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+
+        cache.onBarPersisted(new PriceBarPersistedEvent(
+            PriceHistory.builder().priceDate(LocalDate.now().plusDays(2)).build()));
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+        assertThat(loads).hasValue(1);
+
+        cache.onBarPersisted(new PriceBarPersistedEvent(
+            PriceHistory.builder().priceDate(LocalDate.now().minusDays(3)).build()));
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+        assertThat(loads).hasValue(2);
+
+        cache.onHistoryCleared(new PriceHistoryClearedEvent());
+        cache.instrumentBasePoints("a", loads::incrementAndGet);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void barsWithinOneTransactionInvalidateOnceOnCommit() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int day = 1; day <= 3; day++) {
+                cache.onBarPersisted(new PriceBarPersistedEvent(
+                    PriceHistory.builder().priceDate(LocalDate.now().minusDays(day)).build()));
+            }
+            verify(redisTemplate, never()).convertAndSend(RangeChangeCache.CHANNEL, RangeChangeCache.INSTRUMENT_BASE_POINTS);
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate, times(1)).convertAndSend(RangeChangeCache.CHANNEL, RangeChangeCache.INSTRUMENT_BASE_POINTS);
+        assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+    }
+}
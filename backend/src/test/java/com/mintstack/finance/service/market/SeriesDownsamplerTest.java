@@ -0,0 +1,90 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.exception.BadRequestException;
+import com.mintstack.finance.service.market.SeriesDownsampler.OhlcBucket;
+import com.mintstack.finance.service.market.SeriesDownsampler.Resolution;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeriesDownsamplerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Test
+    void bucket_ShouldFoldPointsIntoOhlcPerResolution() {
+        List<Point> points = List.of(
+            new Point(BASE.plusSeconds(5), "10"),
+            new Point(BASE.plusSeconds(30), "12"),
+            new Point(BASE.plusSeconds(50), (BigDecimal) null),
+            new Point(BASE.plusSeconds(55), "9"),
+            new Point(BASE.plusMinutes(1).plusSeconds(1), "11"),
+            new Point(BASE.plusMinutes(3), "13")
+        );
+
+        List<OhlcBucket<Point>> buckets = SeriesDownsampler.bucket(
+            points.iterator(), Resolution.MINUTE, Point::at, Point::value);
+
+        assertThat(buckets).extracting(OhlcBucket::start)
+            .containsExactly(BASE, BASE.plusMinutes(1), BASE.plusMinutes(3));
+        OhlcBucket<Point> first = buckets.get(0);
+        assertThat(first.open()).isEqualByComparingTo("10");
+        assertThat(first.high()).isEqualByComparingTo("12");
+        assertThat(first.low()).isEqualByComparingTo("9");
+        assertThat(first.close()).isEqualByComparingTo("9");
+        assertThat(first.samples()).isEqualTo(3);
+        assertThat(first.last()).isSameAs(points.get(3));
+
+        assertThat(SeriesDownsampler.bucket(points.iterator(), Resolution.DAY, Point::at, Point::value))
+            .singleElement()
+            .satisfies(day -> {
+                assertThat(day.close()).isEqualByComparingTo("13");
+                assertThat(day.samples()).isEqualTo(5);
+            });
+    }
+
+    @Test
+    void lttb_ShouldKeepEndpointsAndExtremes() {
+        List<double[]> points = new ArrayList<>();
+        IntStream.range(0, 100).forEach(i -> points.add(new double[] {i, i == 42 ? 500 : i % 5}));
+
+        List<double[]> sampled = SeriesDownsampler.lttb(points, 12, point -> point[0], point -> point[1]);
+
+        assertThat(sampled).hasSize(12);
+        assertThat(sampled.get(0)).isSameAs(points.get(0));
+        assertThat(sampled.get(11)).isSameAs(points.get(99));
+        assertThat(sampled).contains(points.get(42));
+        for (int i = 1; i < sampled.size(); i++) {
+            assertThat(sampled.get(i)[0]).isGreaterThan(sampled.get(i - 1)[0]);
+        }
+    }
+
+    @Test
+    void lttb_ShouldReturnInputWhenItFits() {
+        List<double[]> points = List.of(new double[] {0, 1}, new double[] {1, 2});
+
+        assertThat(SeriesDownsampler.lttb(points, 10, point -> point[0], point -> point[1])).isSameAs(points);
+    }
+
+    @Test
+    void resolution_ShouldParseRequestParameter() {
+        assertThat(Resolution.fromParam(null)).isNull();
+        assertThat(Resolution.fromParam(" 1H ")).isEqualTo(Resolution.HOUR);
+        assertThat(Resolution.fromParam("1d")).isEqualTo(Resolution.DAY);
+        assertThatThrownBy(() -> Resolution.fromParam("5m")).isInstanceOf(BadRequestException.class);
+    }
+
+    private record Point(LocalDateTime at, BigDecimal value) {
+
+        Point(LocalDateTime at, String value) {
+            this(at, value == null ? null : new BigDecimal(value));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.mintstack.finance.service.market;
+
+import com.mintstack.finance.entity.Instrument;
+import com.mintstack.finance.entity.PriceHistory;
+import com.mintstack.finance.repository.PriceHistoryRepository;
+import com.mintstack.finance.repository.PriceHistoryRepository.RangeBarView;
+import com.mintstack.finance.service.market.Week52RangeIndex.Week52Range;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class Week52RangeIndexTest {
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    private Week52RangeIndex index;
+    private Instrument instrument;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        index = new Week52RangeIndex(priceHistoryRepository);
+        instrument = Instrument.builder().symbol("THYAO").build();
+        instrument.setId(UUID.randomUUID());
+        today = LocalDate.now();
+    }
+
+    @Test
+    void range_ShouldSeedOnceAndServeFromMemory() {
+        when(priceHistoryRepository.findRangeBarsByInstrumentIds(anyList(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of(
+                bar(today.minusDays(200), "150", "140"),
+                bar(today.minusDays(10), "120", "80"),
+                bar(today.minusDays(1), "105", "95")
+            ));
+
+        index.range(instrument.getId());
+        Week52Range range = index.range(instrument.getId());
+
+        assertThat(range.high()).isEqualByComparingTo("150");
+        assertThat(range.low()).isEqualByComparingTo("80");
+        verify(priceHistoryRepository, times(1))
+            .findRangeBarsByInstrumentIds(anyList(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    void record_ShouldAdvanceWindowWithNewAndUpdatedBars() {
+        when(priceHistoryRepository.findRangeBarsByInstrumentIds(anyList(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of(bar(today.minusDays(3), "110", "90")));
+        index.range(instrument.getId());
+
+        index.record(history(today, "130", "100"));
+        assertThat(index.range(instrument.getId()).high()).isEqualByComparingTo("130");
+
+        index.record(history(today, "135", "85"));
+        Week52Range widened = index.range(instrument.getId());
+        assertThat(widened.high()).isEqualByComparingTo("135");
+        assertThat(widened.low()).isEqualByComparingTo("85");
+
+        index.record(history(today, "112", "95"));
+        Week52Range corrected = index.range(instrument.getId());
+        assertThat(corrected.high()).isEqualByComparingTo("112");
+        assertThat(corrected.low()).isEqualByComparingTo("90");
+    }
+
+    @Test
+    void range_ShouldDropBarsThatLeaveTheWindow() {
+        when(priceHistoryRepository.findRangeBarsByInstrumentIds(anyList(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of(
+                bar(today.minusDays(Week52RangeIndex.WEEK_52_DAYS + 5), "500", "1"),
+                bar(today.minusDays(5), "120", "80")
+            ));
+
+        Week52Range range = index.range(instrument.getId());
+
+        assertThat(range.high()).isEqualByComparingTo("120");
+        assertThat(range.low()).isEqualByComparingTo("80");
+    }
+
+    private PriceHistory history(LocalDate date, String high, String low) {
+        return PriceHistory.builder()
+            .instrument(instrument)
+            .priceDate(date)
+            .highPrice(new BigDecimal(high))
+            .lowPrice(new BigDecimal(low))
+            .closePrice(new BigDecimal(low))
+            .build();
+    }
+
+    private RangeBarView bar(LocalDate date, String high, String low) {
+        return new TestRangeBar(instrument.getId(), date, new BigDecimal(high), new BigDecimal(low));
+    }
+
+    private record TestRangeBar(UUID instrumentId, LocalDate priceDate, BigDecimal highPrice, BigDecimal lowPrice)
+        implements RangeBarView {
+
+        @Override
+        public UUID getInstrumentId() {
+            return instrumentId;
+        }
+
+        @Override
+        public LocalDate getPriceDate() {
+            return priceDate;
+        }
+
+        @Override
+        public BigDecimal getOpenPrice() {
+            return null;
+        }
+
+        @Override
+        public BigDecimal getHighPrice() {
+            return highPrice;
+        }
+
+        @Override
+        public BigDecimal getLowPrice() {
+            return lowPrice;
+        }
+
+        @Override
+        public BigDecimal getClosePrice() {
+            return lowPrice;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mintstack.finance.service.portfolio;
+
+import com.mintstack.finance.dto.response.PortfolioItemResponse;
+import com.mintstack.finance.dto.response.PortfolioResponse;
+import com.mintstack.finance.dto.response.PriceUpdateMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioValuationIndexTest {
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private PortfolioValuationIndex index;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new PortfolioValuationIndex(redisTemplateProvider);
+        index.init();
+    }
+
+    @Test
+    void tickRepricesOnlyPortfoliosHoldingTheSymbol() {
+        PortfolioResponse stocks = portfolio(position("THYAO", "10", "100"), position("GARAN", "5", "40"));
+        PortfolioResponse dollars = portfolio(position("USDTRY", "100", "32"));
+        index.storeUserPortfolios(userId, List.of(stocks, dollars), index.generation());
+
+        index.onPriceUpdate(PriceUpdateMessage.builder().type("STOCK").symbol("THYAO").price(new BigDecimal("110")).build());
+        index.onPriceUpdate(PriceUpdateMessage.builder()
+            .type("CURRENCY").symbol("USD").price(new BigDecimal("33.90"))
+            .additionalData(Map.of("buyingRate", 33.90, "sellingRate", 34.10))
+            .build());
+
+        List<PortfolioResponse> read = index.readUserPortfolios(userId).orElseThrow();
+        assertThat(read.get(0).getPositionValue()).isEqualByComparingTo("1300");
+        assertThat(read.get(0).getUnrealizedProfitLoss()).isEqualByComparingTo("100");
+        assertThat(read.get(0).getItems().get(1).getCurrentPrice()).isEqualByComparingTo("40");
+        assertThat(read.get(1).getPositionValue()).isEqualByComparingTo("3410");
+        assertThat(read.get(1).getItems().get(0).getProfitLossPercent()).isEqualByComparingTo("6.5625");
+    }
+
+    @Test
+    void simulatedTickDoesNotRepriceRealPositionOfSameSymbol() {
+        PortfolioItemResponse simulated = position("THYAO", "10", "100");
+        simulated.setInstrumentSimulated(true);
+        PortfolioResponse real = portfolio(position("THYAO", "10", "100"));
+        PortfolioResponse simulation = portfolio(simulated);
+        index.storeUserPortfolios(userId, List.of(real, simulation), index.generation());
+
+        index.onPriceUpdate(PriceUpdateMessage.builder()
+            .type("STOCK").symbol("THYAO").simulated(true).price(new BigDecimal("150")).build());
+
+        List<PortfolioResponse> read = index.readUserPortfolios(userId).orElseThrow();
+        assertThat(read.get(0).getPositionValue()).isEqualByComparingTo("1000");
+        assertThat(read.get(1).getPositionValue()).isEqualByComparingTo("1500");
+    }
+
+    @Test
+    void invalidationDropsEntriesAndRejectsLoadsStartedBeforeIt() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        PortfolioResponse loaded = portfolio(position("THYAO", "10", "100"));
+        index.store(userId, loaded, index.generation());
+        long staleGeneration = index.generation();
+
+        index.invalidateUser(userId);
+        index.store(userId, loaded, staleGeneration);
+
+        assertThat(index.read(userId, loaded.getId())).isEmpty();
+        verify(redisTemplate).convertAndSend(PortfolioValuationIndex.CHANNEL, userId.toString());
+
+        index.store(userId, loaded, index.generation());
+        assertThat(index.read(UUID.randomUUID(), loaded.getId())).isEmpty();
+        index.onInvalidation(userId.toString());
+        assertThat(index.read(userId, loaded.getId())).isEmpty();
+    }
+
+    private static PortfolioResponse portfolio(PortfolioItemResponse... items) {
+        return PortfolioResponse.builder()
+            .id(UUID.randomUUID())
+            .name("Main")
+            .cashBalance(new BigDecimal("1000"))
+            .realizedProfitLoss(BigDecimal.ZERO)
+            .itemCount(items.length)
+            .items(List.of(items))
+            .build();
+    }
+
+    private static PortfolioItemResponse position(String symbol, String quantity, String price) {
+        BigDecimal totalCost = new BigDecimal(quantity).multiply(new BigDecimal(price));
+        return PortfolioItemResponse.builder()
+            .id(UUID.randomUUID())
+            .instrumentSymbol(symbol)
+            .quantity(new BigDecimal(quantity))
+            .purchasePrice(new BigDecimal(price))
+            .currentPrice(new BigDecimal(price))
+            .totalCost(totalCost)
+            .currentValue(totalCost)
+            .build();
+    }
+}